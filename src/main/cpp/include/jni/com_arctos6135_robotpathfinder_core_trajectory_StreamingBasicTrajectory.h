@@ -0,0 +1,23 @@
+// clang-format off
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+/* Header for class com_arctos6135_robotpathfinder_core_trajectory_StreamingBasicTrajectory */
+
+#ifndef _Included_com_arctos6135_robotpathfinder_core_trajectory_StreamingBasicTrajectory
+#define _Included_com_arctos6135_robotpathfinder_core_trajectory_StreamingBasicTrajectory
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     com_arctos6135_robotpathfinder_core_trajectory_StreamingBasicTrajectory
+ * Method:    _get
+ * Signature: (D)Lcom/arctos6135/robotpathfinder/core/trajectory/BasicMoment;
+ */
+JNIEXPORT jobject JNICALL Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingBasicTrajectory__1get
+  (JNIEnv *, jobject, jdouble);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
+// clang-format on
@@ -0,0 +1,71 @@
+// clang-format off
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+/* Header for class com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory */
+
+#ifndef _Included_com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory
+#define _Included_com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory
+#ifdef __cplusplus
+extern "C" {
+#endif
+/*
+ * Class:     com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory
+ * Method:    _construct
+ * Signature: (DDDZ[Lcom/arctos6135/robotpathfinder/core/Waypoint;DII)V
+ */
+JNIEXPORT void JNICALL Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory__1construct
+  (JNIEnv *, jobject, jdouble, jdouble, jdouble, jboolean, jobjectArray, jdouble, jint, jint);
+
+/*
+ * Class:     com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory
+ * Method:    _destroy
+ * Signature: ()V
+ */
+JNIEXPORT void JNICALL Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory__1destroy
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory
+ * Method:    _generate
+ * Signature: (I)I
+ */
+JNIEXPORT jint JNICALL Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory__1generate
+  (JNIEnv *, jobject, jint);
+
+/*
+ * Class:     com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory
+ * Method:    isComplete
+ * Signature: ()Z
+ */
+JNIEXPORT jboolean JNICALL Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory_isComplete
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory
+ * Method:    getBufferedCount
+ * Signature: ()I
+ */
+JNIEXPORT jint JNICALL Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory_getBufferedCount
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory
+ * Method:    totalTime
+ * Signature: ()D
+ */
+JNIEXPORT jdouble JNICALL Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory_totalTime
+  (JNIEnv *, jobject);
+
+/*
+ * Class:     com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory
+ * Method:    _getPosition
+ * Signature: (D)Lcom/arctos6135/robotpathfinder/core/Waypoint;
+ */
+JNIEXPORT jobject JNICALL Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory__1getPosition
+  (JNIEnv *, jobject, jdouble);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
+// clang-format on
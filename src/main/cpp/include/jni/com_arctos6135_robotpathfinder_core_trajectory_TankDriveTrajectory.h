@@ -11,10 +11,10 @@ extern "C" {
 /*
  * Class:     com_arctos6135_robotpathfinder_core_trajectory_TankDriveTrajectory
  * Method:    _construct
- * Signature: (DDDZ[Lcom/arctos6135/robotpathfinder/core/Waypoint;DII)V
+ * Signature: (DDDDZ[Lcom/arctos6135/robotpathfinder/core/Waypoint;DIIZLcom/arctos6135/robotpathfinder/core/trajectory/CancellationToken;)V
  */
 JNIEXPORT void JNICALL Java_com_arctos6135_robotpathfinder_core_trajectory_TankDriveTrajectory__1construct
-  (JNIEnv *, jobject, jdouble, jdouble, jdouble, jboolean, jobjectArray, jdouble, jint, jint);
+  (JNIEnv *, jobject, jdouble, jdouble, jdouble, jdouble, jboolean, jobjectArray, jdouble, jint, jint, jboolean, jobject);
 
 /*
  * Class:     com_arctos6135_robotpathfinder_core_trajectory_TankDriveTrajectory
@@ -1,6 +1,8 @@
 #pragma once
 
+#include "waypoint.h"
 #include <algorithm>
+#include <functional>
 #include <jni.h>
 #include <list>
 #include <memory>
@@ -62,9 +64,20 @@ namespace rpf {
         return it != instances.end();
     }
 
+    // Translates a Java Waypoint into a C++ one
+    Waypoint get_waypoint(JNIEnv *env, jobject waypoint);
+    // Translates a C++ Waypoint into a Java one
+    jobject new_waypoint(JNIEnv *env, const Waypoint &waypoint);
+
     constexpr const char * const EX_IllegalStateException = "java/lang/IllegalStateException";
     constexpr const char * const EX_IllegalArgumentException = "java/lang/IllegalArgumentException";
     constexpr const char * const EX_TrajectoryGenerationException = "com/arctos6135/robotpathfinder/core/trajectory/TrajectoryGenerationException";
+    constexpr const char * const EX_CancellationException = "java/util/concurrent/CancellationException";
 
     void throw_exception(JNIEnv *env, const char *ex, const char *msg);
+
+    // Creates a function that reads the cancelled field of a Java CancellationToken
+    // The function must only be called on the thread that env belongs to
+    // If the token is null, an empty function is returned
+    std::function<bool()> make_cancel_check(JNIEnv *env, jobject token);
 } // namespace rpf
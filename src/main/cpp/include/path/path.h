@@ -13,6 +13,7 @@ namespace rpf {
         BEZIER = 1,
         CUBIC_HERMITE = 2,
         QUINTIC_HERMITE = 3,
+        QUINTIC_G2 = 4,
     };
 
     class Path {
@@ -64,6 +65,13 @@ namespace rpf {
         std::shared_ptr<Path> retrace() const;
 
     protected:
+        // The second derivative of a quintic segment that gives the curvature of a waypoint
+        static Vec2D curvature_vec(const Waypoint &, double);
+        // Solves for the second derivatives at waypoints start to end that give the least bending
+        // The second derivatives of fixed ends are kept
+        void solve_second_derivs(size_t start, size_t end, bool fix_start, bool fix_end,
+                const std::vector<Vec2D> &tangents, std::vector<Vec2D> &second_derivs) const;
+
         std::vector<Waypoint> waypoints;
         double alpha;
         std::vector<std::unique_ptr<SplineSegment>> segments;
@@ -6,6 +6,9 @@ namespace rpf {
     struct RobotSpecs {
         RobotSpecs() {
         }
+        RobotSpecs(double max_v, double max_a, double base_width, double max_j)
+                : max_v(max_v), max_a(max_a), base_width(base_width), max_j(max_j) {
+        }
         RobotSpecs(double max_v, double max_a, double base_width)
                 : max_v(max_v), max_a(max_a), base_width(base_width) {
         }
@@ -15,5 +18,7 @@ namespace rpf {
 
         double max_v, max_a;
         double base_width;
+        // The max jerk; NaN if there is no jerk limit
+        double max_j = std::numeric_limits<double>::quiet_NaN();
     };
 } // namespace rpf
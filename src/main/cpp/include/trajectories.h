@@ -2,5 +2,8 @@
 
 #include "trajectory/basicmoment.h"
 #include "trajectory/basictrajectory.h"
+#include "trajectory/momentcolumns.h"
+#include "trajectory/timeindex.h"
+#include "trajectory/trajectorystream.h"
 #include "trajectory/tankdrivemoment.h"
 #include "trajectory/tankdrivetrajectory.h"
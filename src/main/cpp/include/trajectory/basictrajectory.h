@@ -4,7 +4,11 @@
 #include "paths.h"
 #include "robotspecs.h"
 #include "trajectory/basicmoment.h"
+#include "trajectory/cancellation.h"
+#include "trajectory/momentcolumns.h"
+#include "trajectory/timeindex.h"
 #include "trajectoryparams.h"
+#include <algorithm>
 #include <limits>
 #include <list>
 #include <memory>
@@ -16,7 +20,10 @@ namespace rpf {
 
     class BasicTrajectory {
     public:
-        BasicTrajectory(const RobotSpecs &specs, const TrajectoryParams &params);
+        // If cancelled is set, it is checked periodically and GenerationCancelled is thrown if it
+        // returns true
+        BasicTrajectory(const RobotSpecs &specs, const TrajectoryParams &params,
+                const CancelCheck &cancelled = CancelCheck());
 
         inline std::shared_ptr<Path> get_path() {
             return path;
@@ -24,15 +31,18 @@ namespace rpf {
         inline std::shared_ptr<const Path> get_path() const {
             return path;
         }
-        inline std::vector<BasicMoment> &get_moments() {
+        inline BasicMomentColumns &get_moments() {
             return moments;
         }
-        inline const std::vector<BasicMoment> &get_moments() const {
+        inline const BasicMomentColumns &get_moments() const {
             return moments;
         }
         inline double get_init_facing() const {
             return init_facing;
         }
+        inline bool is_backwards() const {
+            return backwards;
+        }
 
         inline RobotSpecs &get_specs() {
             return specs;
@@ -48,7 +58,7 @@ namespace rpf {
         }
 
         inline double total_time() const {
-            return moments[moments.size() - 1].time;
+            return moments.time[moments.size() - 1];
         }
         inline bool is_tank() const {
             return params.is_tank;
@@ -64,20 +74,23 @@ namespace rpf {
         friend class TankDriveTrajectory;
 
     protected:
-        BasicTrajectory(std::shared_ptr<Path> path, std::vector<BasicMoment> &&moments,
-                bool backwards, const RobotSpecs &specs, const TrajectoryParams &params)
-                : path(path), moments(moments), backwards(backwards), specs(specs), params(params),
-                  init_facing(moments[0].init_facing) {
+        BasicTrajectory(std::shared_ptr<Path> path, BasicMomentColumns &&moments, bool backwards,
+                double init_facing, const RobotSpecs &specs, const TrajectoryParams &params)
+                : path(path), moments(std::move(moments)), backwards(backwards), specs(specs),
+                  params(params), init_facing(init_facing) {
+            index.build(this->moments.time);
         }
 
         /**
-         * Performs a binary search on all the moments.
+         * Performs a binary search on all the moments, using the time index if it was built.
          * Returns the indexes of the two moments with a time closest to the argument.
          */
         std::pair<std::size_t, std::size_t> search_moments(double t) const;
 
         std::shared_ptr<Path> path = nullptr;
-        std::vector<BasicMoment> moments;
+        BasicMomentColumns moments;
+        // Built once the time column is final
+        TimeIndex index;
 
         bool backwards = false;
 
@@ -86,7 +99,7 @@ namespace rpf {
 
         double init_facing;
 
-        std::shared_ptr<std::vector<double>> patht = std::make_shared<std::vector<double>>();
+        std::shared_ptr<Column> patht = std::make_shared<Column>();
         std::shared_ptr<std::vector<double>> pathr;
     };
 } // namespace rpf
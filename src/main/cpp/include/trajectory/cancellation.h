@@ -0,0 +1,30 @@
+#pragma once
+
+#include <cstddef>
+#include <functional>
+#include <stdexcept>
+
+namespace rpf {
+
+    // Returns true if the generation should stop
+    // An empty function means generation can never be cancelled
+    using CancelCheck = std::function<bool()>;
+
+    // Thrown by trajectory generation when it is cancelled
+    class GenerationCancelled : public std::runtime_error {
+    public:
+        GenerationCancelled() : std::runtime_error("Trajectory generation was cancelled") {
+        }
+    };
+
+    // The number of samples between calls to the cancel check
+    // Checking can involve a JNI call, so it is not done for every sample
+    constexpr std::size_t CANCEL_CHECK_INTERVAL = 256;
+
+    // Throws GenerationCancelled if i is a multiple of the check interval and cancelled returns true
+    inline void check_cancelled(const CancelCheck &cancelled, std::size_t i) {
+        if (cancelled && i % CANCEL_CHECK_INTERVAL == 0 && cancelled()) {
+            throw GenerationCancelled();
+        }
+    }
+} // namespace rpf
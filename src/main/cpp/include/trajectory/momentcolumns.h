@@ -0,0 +1,123 @@
+#pragma once
+
+#include "trajectory/basicmoment.h"
+#include "trajectory/tankdrivemoment.h"
+#include <cstddef>
+#include <utility>
+#include <vector>
+
+namespace rpf {
+
+    /*
+     * Moments are stored as a structure of arrays (one column per field) instead of an array of
+     * structs. Searching for a time then only touches the time column, and interpolation only
+     * touches the two rows it needs from each column. The initial facing and backwards flag are the
+     * same for every moment in a trajectory, so they are stored once in the trajectory instead.
+     *
+     * The time column is always kept in double precision, since it is accumulated during generation
+     * and is what the binary search is done on. All other columns may be compacted (see Column).
+     */
+
+    /**
+     * A single column of moment data.
+     *
+     * Values are stored in double precision until the column is compacted. After that they are
+     * rounded to single precision floats, which halves the memory used. Every value read from a
+     * compacted column has a relative error of at most 2^-24 (about 6e-8) compared to the value that
+     * was written. Reads and writes always use doubles, so code using a column does not need to
+     * know how it is stored.
+     */
+    class Column {
+    public:
+        inline double operator[](std::size_t i) const {
+            return compacted ? static_cast<double>(fvalues[i]) : values[i];
+        }
+        inline void set(std::size_t i, double v) {
+            if (compacted) {
+                fvalues[i] = static_cast<float>(v);
+            }
+            else {
+                values[i] = v;
+            }
+        }
+        inline std::size_t size() const {
+            return compacted ? fvalues.size() : values.size();
+        }
+        inline bool is_compact() const {
+            return compacted;
+        }
+
+        void reserve(std::size_t n);
+        void push_back(double v);
+        // Rounds all values to single precision and stores all future values as floats
+        void compact();
+
+    protected:
+        bool compacted = false;
+        std::vector<double> values;
+        std::vector<float> fvalues;
+    };
+
+    /**
+     * The columns of all the moments of a BasicTrajectory.
+     */
+    struct BasicMomentColumns {
+        std::vector<double> time;
+        Column pos;
+        Column vel;
+        Column accel;
+        Column heading;
+
+        inline std::size_t size() const {
+            return time.size();
+        }
+
+        void reserve(std::size_t n);
+        void push_back(double d, double v, double a, double h, double t);
+        // Compacts every column except for time
+        void compact();
+        inline bool is_compact() const {
+            return pos.is_compact();
+        }
+
+        // Assembles the moment at index i
+        BasicMoment get(std::size_t i, double init_facing, bool backwards) const;
+        // Interpolates between the moments at index i and i + 1 for time t
+        BasicMoment lerp(std::size_t i, double t, double init_facing, bool backwards) const;
+    };
+
+    /**
+     * The columns of all the moments of a TankDriveTrajectory.
+     */
+    struct TankDriveMomentColumns {
+        std::vector<double> time;
+        Column l_pos, r_pos;
+        Column l_vel, r_vel;
+        Column l_accel, r_accel;
+        Column heading;
+
+        inline std::size_t size() const {
+            return time.size();
+        }
+
+        void reserve(std::size_t n);
+        void push_back(double ld, double rd, double lv, double rv, double la, double ra, double h,
+                double t);
+        // Compacts every column except for time
+        void compact();
+        inline bool is_compact() const {
+            return l_pos.is_compact();
+        }
+
+        // Assembles the moment at index i
+        TankDriveMoment get(std::size_t i, double init_facing, bool backwards) const;
+        // Interpolates between the moments at index i and i + 1 for time t
+        TankDriveMoment lerp(std::size_t i, double t, double init_facing, bool backwards) const;
+    };
+
+    /**
+     * Performs a binary search on a sorted time column.
+     * Returns the indexes of the two moments with a time closest to the argument.
+     */
+    std::pair<std::size_t, std::size_t> search_time(const std::vector<double> &time, double t);
+} // namespace rpf
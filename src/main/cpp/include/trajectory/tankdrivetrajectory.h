@@ -5,6 +5,9 @@
 #include "math/vec2d.h"
 #include "paths.h"
 #include "robotspecs.h"
+#include "trajectory/cancellation.h"
+#include "trajectory/momentcolumns.h"
+#include "trajectory/timeindex.h"
 #include "trajectory/tankdrivemoment.h"
 #include "trajectoryparams.h"
 #include <memory>
@@ -15,7 +18,8 @@
 namespace rpf {
     class TankDriveTrajectory {
     public:
-        TankDriveTrajectory(const BasicTrajectory &traj);
+        TankDriveTrajectory(
+                const BasicTrajectory &traj, const CancelCheck &cancelled = CancelCheck());
 
         inline std::shared_ptr<Path> get_path() {
             return path;
@@ -23,15 +27,18 @@ namespace rpf {
         inline std::shared_ptr<const Path> get_path() const {
             return path;
         }
-        inline std::vector<TankDriveMoment> &get_moments() {
+        inline TankDriveMomentColumns &get_moments() {
             return moments;
         }
-        inline const std::vector<TankDriveMoment> &get_moments() const {
+        inline const TankDriveMomentColumns &get_moments() const {
             return moments;
         }
         inline double get_init_facing() const {
             return init_facing;
         }
+        inline bool is_backwards() const {
+            return backwards;
+        }
 
         inline RobotSpecs &get_specs() {
             return specs;
@@ -47,7 +54,7 @@ namespace rpf {
         }
 
         inline double total_time() const {
-            return moments[moments.size() - 1].time;
+            return moments.time[moments.size() - 1];
         }
 
         TankDriveMoment get(double t) const;
@@ -58,22 +65,26 @@ namespace rpf {
         std::shared_ptr<TankDriveTrajectory> retrace() const;
 
     protected:
-        TankDriveTrajectory(std::shared_ptr<Path> path, std::vector<TankDriveMoment> &&moments,
-                bool backwards, const RobotSpecs &specs, const TrajectoryParams &params)
-                : path(path), moments(moments), backwards(backwards), specs(specs), params(params),
-                  init_facing(moments[0].init_facing) {
+        TankDriveTrajectory(std::shared_ptr<Path> path, TankDriveMomentColumns &&moments,
+                bool backwards, double init_facing, const RobotSpecs &specs,
+                const TrajectoryParams &params)
+                : path(path), moments(std::move(moments)), backwards(backwards), specs(specs),
+                  params(params), init_facing(init_facing) {
+            index.build(this->moments.time);
         }
 
         /**
-         * Performs a binary search on all the moments.
+         * Performs a binary search on all the moments, using the time index if it was built.
          * Returns the indexes of the two moments with a time closest to the argument.
          */
         std::pair<std::size_t, std::size_t> search_moments(double t) const;
 
         std::shared_ptr<Path> path;
-        std::vector<TankDriveMoment> moments;
+        TankDriveMomentColumns moments;
+        // Built once the time column is final
+        TimeIndex index;
 
-        std::shared_ptr<std::vector<double>> patht;
+        std::shared_ptr<Column> patht;
 
         bool backwards = false;
 
@@ -0,0 +1,45 @@
+#pragma once
+
+#include <cstddef>
+#include <utility>
+#include <vector>
+
+namespace rpf {
+
+    /**
+     * A two-level index on the time column of a trajectory.
+     *
+     * The time column is split into fixed-size blocks, and the start time of every block is copied
+     * into a separate small array. A search first finds the block in this array, which is small
+     * enough to stay in the cache, then finds the moments inside that block, which only spans a few
+     * cache lines. This avoids the random accesses a binary search over the entire time column makes
+     * for very long trajectories.
+     *
+     * The index is only built for trajectories with at least MIN_SIZE moments. Searches on smaller
+     * trajectories fall back to a plain binary search.
+     */
+    class TimeIndex {
+    public:
+        // The number of moments in each block
+        static constexpr std::size_t BLOCK_SIZE = 64;
+        // The minimum number of moments for the index to be built
+        static constexpr std::size_t MIN_SIZE = 16384;
+
+        // (Re)builds the index for a time column
+        void build(const std::vector<double> &time);
+
+        /**
+         * Searches the time column this index was built for.
+         * Returns the indexes of the two moments with a time closest to the argument, like
+         * search_time(). If the time matches a moment exactly, both indexes will be the same.
+         */
+        std::pair<std::size_t, std::size_t> search(const std::vector<double> &time, double t) const;
+
+        inline bool is_built() const {
+            return !block_start.empty();
+        }
+
+    protected:
+        std::vector<double> block_start;
+    };
+} // namespace rpf
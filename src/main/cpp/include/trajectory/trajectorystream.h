@@ -0,0 +1,158 @@
+#pragma once
+
+#include "math/vec2d.h"
+#include "paths.h"
+#include "robotspecs.h"
+#include "trajectory/basicmoment.h"
+#include "trajectory/tankdrivemoment.h"
+#include "trajectoryparams.h"
+#include <deque>
+#include <list>
+#include <memory>
+#include <mutex>
+#include <stdexcept>
+#include <string>
+#include <utility>
+
+namespace rpf {
+
+    /**
+     * Generates a trajectory in chunks instead of all at once.
+     *
+     * BasicTrajectory needs every moment before its backward pass can run. However, the backward
+     * pass can only ever lower the velocity of a sample to sqrt(v^2 + 2ad), where v is the velocity
+     * of a sample a distance d ahead. Once d reaches the braking distance max_v^2 / (2 * max_a), this
+     * is at least the max velocity, so nothing further ahead can affect the sample. This class runs
+     * the forward pass sample by sample, and only keeps a window of samples that are still within
+     * the braking distance of the newest one. Samples that fall out of the window are final and are
+     * turned into moments.
+     *
+     * The moments that are ready are kept in a buffer. Moments before the most recently requested
+     * time are discarded, so as long as the stream is queried with non-decreasing times, memory use
+     * is bounded by the window size instead of the length of the trajectory.
+     *
+     * If the params are for a tank drive trajectory, tank drive moments are produced instead of basic
+     * moments. All public methods are thread safe.
+     */
+    class TrajectoryStream {
+    public:
+        TrajectoryStream(const RobotSpecs &specs, const TrajectoryParams &params);
+
+        // Generates at least count more moments, unless the end is reached first
+        // Returns the number of moments generated
+        std::size_t generate(std::size_t count);
+        // Whether every moment has been generated
+        bool is_done() const;
+        // The total time, or infinity if the end has not been generated yet
+        double total_time() const;
+        // The number of moments that are ready and have not been discarded
+        std::size_t buffered_count() const;
+
+        /*
+         * These methods generate moments until the specified time is reached, and then discard all
+         * moments that are no longer needed for times after it. A time before the earliest moment
+         * still in the buffer returns the earliest moment.
+         */
+        BasicMoment get(double t);
+        TankDriveMoment get_tank(double t);
+        Waypoint get_pos(double t);
+
+        inline std::shared_ptr<const Path> get_path() const {
+            return path;
+        }
+        inline const RobotSpecs &get_specs() const {
+            return specs;
+        }
+        inline const TrajectoryParams &get_params() const {
+            return params;
+        }
+
+    protected:
+        // A sample that is still in the lookahead window
+        struct Sample {
+            // Path time
+            double t;
+            double heading;
+            // Path radius (only used for tank drive)
+            double r;
+            // The velocity from the forwards pass
+            double fwd_vel;
+            // The velocity after the backwards pass
+            double vel;
+            // The acceleration and time difference from the last sample to this one as found by
+            // the forwards pass, or NaN if the forwards pass did not find them
+            // Like in BasicTrajectory, these are used if the backwards pass does not change the
+            // last sample
+            double fwd_accel;
+            double fwd_dt;
+            // Whether the velocity was set by a waypoint
+            bool constrained;
+        };
+
+        // Adds the next sample to the window and runs the forwards pass on it
+        void add_sample();
+        // Runs the backwards pass on the window and finalizes the samples that can no longer change
+        void finalize_window();
+        // Turns a sample with a final velocity into a moment, given the sample after it (nullptr
+        // for the last sample)
+        void emit(const Sample &sample, const Sample *next);
+        // Fills the window and finalizes what it can
+        void step();
+        // Generates until the last moment ready is at or after time t
+        void ensure(double t);
+        // Throws if generation has failed before
+        void check_failed() const;
+        // Discards the moments in the buffer before the last moment at or before time t
+        template <typename T>
+        void seek(std::deque<T> &buffer, double t);
+
+        std::shared_ptr<Path> path;
+        RobotSpecs specs;
+        TrajectoryParams params;
+
+        // The number of samples, the distance between samples and the path time between the points
+        // used to measure the path length
+        int sample_count;
+        double total;
+        double dpi;
+        double dt;
+        // The length of the path up to the second last point, past which Path::s2t() returns 1
+        double end_len;
+        // The number of samples ahead of a sample needed to cover the braking distance
+        std::size_t window;
+
+        // Path distances and velocities of the waypoint velocity constraints
+        std::list<std::pair<double, double>> constraints;
+
+        // The state of the marching cursor used to convert distance to path time
+        int cursor = 0;
+        double cursor_len = 0;
+        double next_len;
+        Vec2D next_point;
+
+        // The samples in the lookahead window
+        std::deque<Sample> pending;
+        int next_sample = 0;
+
+        // The last finalized sample, which becomes a moment once the sample after it is final
+        Sample last_final;
+        bool has_last_final = false;
+        double time = 0;
+        std::size_t emitted = 0;
+
+        // The state of the tank drive integration
+        TankDriveMoment last_tank;
+        std::pair<Vec2D, Vec2D> last_wheels;
+
+        // The moments ready to be followed, with the path time of each one
+        std::deque<BasicMoment> moments;
+        std::deque<TankDriveMoment> tank_moments;
+        std::deque<double> patht;
+
+        double init_facing;
+        bool done = false;
+        std::string error;
+
+        mutable std::mutex mutex;
+    };
+} // namespace rpf
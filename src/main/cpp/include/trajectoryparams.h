@@ -12,5 +12,7 @@ namespace rpf {
         int sample_count;
         bool is_tank;
         PathType type;
+        // Whether to store the trajectory in single precision to save memory (see Column)
+        bool compact = false;
     };
 } // namespace rpf
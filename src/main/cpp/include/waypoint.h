@@ -18,6 +18,14 @@ namespace rpf {
         double y;
         double heading;
         double velocity = std::numeric_limits<double>::quiet_NaN();
+        // The magnitude of the tangent at this waypoint; NaN to use the alpha of the path
+        double alpha = std::numeric_limits<double>::quiet_NaN();
+        // The signed curvature of the path at this waypoint (positive turns left)
+        // Only used by quintic hermite segments; the other types cannot set it
+        double curvature = 0;
+        // The PathType of the segment from this waypoint to the next; 0 to use the type of the
+        // path
+        int segment_type = 0;
 
         operator Vec2D() const {
             return Vec2D(x, y);
@@ -7,27 +7,27 @@
 
 JNIEXPORT void JNICALL
 Java_com_arctos6135_robotpathfinder_core_trajectory_BasicTrajectory__1construct(JNIEnv *env,
-        jobject obj, jdouble maxv, jdouble maxa, jdouble base_width, jboolean is_tank,
-        jobjectArray waypoints, jdouble alpha, jint sample_count, jint type) {
+        jobject obj, jdouble maxv, jdouble maxa, jdouble maxj, jdouble base_width, jboolean is_tank,
+        jobjectArray waypoints, jdouble alpha, jint sample_count, jint type, jboolean compact,
+        jobject token) {
     rpf::TrajectoryParams params;
     params.waypoints.reserve(env->GetArrayLength(waypoints));
     // Translate the waypoints into C++ ones
     for (int i = 0; i < env->GetArrayLength(waypoints); i++) {
         auto waypoint = env->GetObjectArrayElement(waypoints, i);
-        params.waypoints.push_back(rpf::Waypoint(rpf::get_field<double>(env, waypoint, "x"),
-                rpf::get_field<double>(env, waypoint, "y"),
-                rpf::get_field<double>(env, waypoint, "heading"),
-                rpf::get_field<double>(env, waypoint, "velocity")));
+        params.waypoints.push_back(rpf::get_waypoint(env, waypoint));
     }
 
-    rpf::RobotSpecs specs(maxv, maxa, base_width);
+    rpf::RobotSpecs specs(maxv, maxa, base_width, maxj);
     params.is_tank = is_tank;
     params.sample_count = sample_count;
     params.type = static_cast<rpf::PathType>(type);
     params.alpha = alpha;
+    params.compact = compact;
 
     try {
-        rpf::BasicTrajectory *t = new rpf::BasicTrajectory(specs, params);
+        rpf::BasicTrajectory *t =
+                new rpf::BasicTrajectory(specs, params, rpf::make_cancel_check(env, token));
         {
             // Acquire lock to btinstances mutex
             std::lock_guard<std::mutex> lock(btinstances_mutex);
@@ -35,6 +35,9 @@ Java_com_arctos6135_robotpathfinder_core_trajectory_BasicTrajectory__1construct(
         }
         rpf::set_obj_ptr(env, obj, t);
     }
+    catch (const rpf::GenerationCancelled &e) {
+        rpf::throw_exception(env, rpf::EX_CancellationException, e.what());
+    }
     catch (const std::exception &e) {
         rpf::throw_exception(env, rpf::EX_TrajectoryGenerationException, e.what());
     }
@@ -59,6 +62,8 @@ Java_com_arctos6135_robotpathfinder_core_trajectory_BasicTrajectory__1getMoments
     }
     else {
         auto &moments = ptr->get_moments();
+        double init_facing = ptr->get_init_facing();
+        jboolean backwards = ptr->is_backwards();
 
         jclass clazz = env->GetObjectClass(obj);
         jfieldID fid = env->GetFieldID(clazz, "momentsCache",
@@ -71,9 +76,9 @@ Java_com_arctos6135_robotpathfinder_core_trajectory_BasicTrajectory__1getMoments
         jmethodID constructor_mid = env->GetMethodID(mclass, "<init>", "(DDDDDDZ)V");
 
         for (size_t i = 0; i < moments.size(); i++) {
-            jobject m = env->NewObject(mclass, constructor_mid, moments[i].pos, moments[i].vel,
-                    moments[i].accel, moments[i].heading, moments[i].time, moments[i].init_facing,
-                    moments[i].backwards);
+            jobject m = env->NewObject(mclass, constructor_mid, moments.pos[i], moments.vel[i],
+                    moments.accel[i], moments.heading[i], moments.time[i], init_facing,
+                    backwards);
             env->SetObjectArrayElement(*arr, i, m);
         }
     }
@@ -12,9 +12,7 @@ JNIEXPORT void JNICALL Java_com_arctos6135_robotpathfinder_core_path_Path__1cons
     // Translate the waypoints into C++ ones
     for (int i = 0; i < env->GetArrayLength(waypoints); i++) {
         auto waypoint = env->GetObjectArrayElement(waypoints, i);
-        wp.push_back(rpf::Waypoint(rpf::get_field<double>(env, waypoint, "x"),
-                rpf::get_field<double>(env, waypoint, "y"),
-                rpf::get_field<double>(env, waypoint, "heading")));
+        wp.push_back(rpf::get_waypoint(env, waypoint));
     }
 
     rpf::Path *path = new rpf::Path(wp, alpha, static_cast<rpf::PathType>(type));
@@ -223,16 +221,13 @@ JNIEXPORT void JNICALL Java_com_arctos6135_robotpathfinder_core_path_Path__1upda
     else {
         auto &wp = p->get_waypoints();
         jclass clazz = env->GetObjectClass(obj);
-        jclass wpclass = env->FindClass("com/arctos6135/robotpathfinder/core/Waypoint");
         jfieldID fid = env->GetFieldID(
                 clazz, "waypoints", "[Lcom/arctos6135/robotpathfinder/core/Waypoint;");
         jobject objf = env->GetObjectField(obj, fid);
         jobjectArray *arr = reinterpret_cast<jobjectArray *>(&objf);
 
-        jmethodID constructor_mid = env->GetMethodID(wpclass, "<init>", "(DDDD)V");
         for (size_t i = 0; i < wp.size(); i++) {
-            jobject w = env->NewObject(
-                    wpclass, constructor_mid, wp[i].x, wp[i].y, wp[i].heading, wp[i].velocity);
+            jobject w = rpf::new_waypoint(env, wp[i]);
             env->SetObjectArrayElement(*arr, i, w);
         }
     }
@@ -0,0 +1,185 @@
+#include "jni/com_arctos6135_robotpathfinder_core_trajectory_StreamingBasicTrajectory.h"
+#include "jni/com_arctos6135_robotpathfinder_core_trajectory_StreamingTankDriveTrajectory.h"
+#include "jni/com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory.h"
+#include "jni/instlists.h"
+#include "jni/jniutil.h"
+#include "trajectory/trajectorystream.h"
+
+JNIEXPORT void JNICALL
+Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory__1construct(JNIEnv *env,
+        jobject obj, jdouble maxv, jdouble maxa, jdouble base_width, jboolean is_tank,
+        jobjectArray waypoints, jdouble alpha, jint sample_count, jint type) {
+    rpf::TrajectoryParams params;
+    params.waypoints.reserve(env->GetArrayLength(waypoints));
+    // Translate the waypoints into C++ ones
+    for (int i = 0; i < env->GetArrayLength(waypoints); i++) {
+        auto waypoint = env->GetObjectArrayElement(waypoints, i);
+        params.waypoints.push_back(rpf::get_waypoint(env, waypoint));
+    }
+
+    rpf::RobotSpecs specs(maxv, maxa, base_width);
+    params.is_tank = is_tank;
+    params.sample_count = sample_count;
+    params.type = static_cast<rpf::PathType>(type);
+    params.alpha = alpha;
+
+    try {
+        rpf::TrajectoryStream *t = new rpf::TrajectoryStream(specs, params);
+        {
+            // Acquire lock to tsinstances mutex
+            std::lock_guard<std::mutex> lock(tsinstances_mutex);
+            tsinstances.push_back(std::shared_ptr<rpf::TrajectoryStream>(t));
+        }
+        rpf::set_obj_ptr(env, obj, t);
+    }
+    catch (const std::exception &e) {
+        rpf::throw_exception(env, rpf::EX_TrajectoryGenerationException, e.what());
+    }
+}
+
+JNIEXPORT void JNICALL
+Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory__1destroy(
+        JNIEnv *env, jobject obj) {
+    auto ptr = rpf::get_obj_ptr<rpf::TrajectoryStream>(env, obj);
+    rpf::set_obj_ptr<rpf::TrajectoryStream>(env, obj, nullptr);
+    // Remove an entry from the instances list
+    rpf::remove_instance(tsinstances, tsinstances_mutex, ptr);
+}
+
+JNIEXPORT jint JNICALL
+Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory__1generate(
+        JNIEnv *env, jobject obj, jint count) {
+    auto ptr = rpf::get_obj_ptr<rpf::TrajectoryStream>(env, obj);
+    if (!rpf::check_instance(tsinstances, tsinstances_mutex, ptr)) {
+        rpf::throw_exception(
+                env, rpf::EX_IllegalStateException, "This object has already been freed");
+        return 0;
+    }
+    else {
+        try {
+            return static_cast<jint>(ptr->generate(count));
+        }
+        catch (const std::exception &e) {
+            rpf::throw_exception(env, rpf::EX_TrajectoryGenerationException, e.what());
+            return 0;
+        }
+    }
+}
+
+JNIEXPORT jboolean JNICALL
+Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory_isComplete(
+        JNIEnv *env, jobject obj) {
+    auto ptr = rpf::get_obj_ptr<rpf::TrajectoryStream>(env, obj);
+    if (!rpf::check_instance(tsinstances, tsinstances_mutex, ptr)) {
+        rpf::throw_exception(
+                env, rpf::EX_IllegalStateException, "This object has already been freed");
+        return false;
+    }
+    else {
+        return ptr->is_done();
+    }
+}
+
+JNIEXPORT jint JNICALL
+Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory_getBufferedCount(
+        JNIEnv *env, jobject obj) {
+    auto ptr = rpf::get_obj_ptr<rpf::TrajectoryStream>(env, obj);
+    if (!rpf::check_instance(tsinstances, tsinstances_mutex, ptr)) {
+        rpf::throw_exception(
+                env, rpf::EX_IllegalStateException, "This object has already been freed");
+        return 0;
+    }
+    else {
+        return static_cast<jint>(ptr->buffered_count());
+    }
+}
+
+JNIEXPORT jdouble JNICALL
+Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory_totalTime(
+        JNIEnv *env, jobject obj) {
+    auto ptr = rpf::get_obj_ptr<rpf::TrajectoryStream>(env, obj);
+    if (!rpf::check_instance(tsinstances, tsinstances_mutex, ptr)) {
+        rpf::throw_exception(
+                env, rpf::EX_IllegalStateException, "This object has already been freed");
+        return 0;
+    }
+    else {
+        return ptr->total_time();
+    }
+}
+
+JNIEXPORT jobject JNICALL
+Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingTrajectory__1getPosition(
+        JNIEnv *env, jobject obj, jdouble t) {
+    auto ptr = rpf::get_obj_ptr<rpf::TrajectoryStream>(env, obj);
+    if (!rpf::check_instance(tsinstances, tsinstances_mutex, ptr)) {
+        rpf::throw_exception(
+                env, rpf::EX_IllegalStateException, "This object has already been freed");
+        return NULL;
+    }
+    else {
+        try {
+            auto w = ptr->get_pos(t);
+            jclass wclass = env->FindClass("com/arctos6135/robotpathfinder/core/Waypoint");
+            jmethodID constructor_mid = env->GetMethodID(wclass, "<init>", "(DDD)V");
+
+            return env->NewObject(wclass, constructor_mid, w.x, w.y, w.heading);
+        }
+        catch (const std::exception &e) {
+            rpf::throw_exception(env, rpf::EX_TrajectoryGenerationException, e.what());
+            return NULL;
+        }
+    }
+}
+
+JNIEXPORT jobject JNICALL
+Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingBasicTrajectory__1get(
+        JNIEnv *env, jobject obj, jdouble t) {
+    auto ptr = rpf::get_obj_ptr<rpf::TrajectoryStream>(env, obj);
+    if (!rpf::check_instance(tsinstances, tsinstances_mutex, ptr)) {
+        rpf::throw_exception(
+                env, rpf::EX_IllegalStateException, "This object has already been freed");
+        return NULL;
+    }
+    else {
+        try {
+            auto m = ptr->get(t);
+            jclass mclass =
+                    env->FindClass("com/arctos6135/robotpathfinder/core/trajectory/BasicMoment");
+            jmethodID constructor_mid = env->GetMethodID(mclass, "<init>", "(DDDDDDZ)V");
+
+            return env->NewObject(mclass, constructor_mid, m.pos, m.vel, m.accel, m.heading,
+                    m.time, m.init_facing, m.backwards);
+        }
+        catch (const std::exception &e) {
+            rpf::throw_exception(env, rpf::EX_TrajectoryGenerationException, e.what());
+            return NULL;
+        }
+    }
+}
+
+JNIEXPORT jobject JNICALL
+Java_com_arctos6135_robotpathfinder_core_trajectory_StreamingTankDriveTrajectory__1get(
+        JNIEnv *env, jobject obj, jdouble t) {
+    auto ptr = rpf::get_obj_ptr<rpf::TrajectoryStream>(env, obj);
+    if (!rpf::check_instance(tsinstances, tsinstances_mutex, ptr)) {
+        rpf::throw_exception(
+                env, rpf::EX_IllegalStateException, "This object has already been freed");
+        return NULL;
+    }
+    else {
+        try {
+            auto m = ptr->get_tank(t);
+            jclass mclass = env->FindClass(
+                    "com/arctos6135/robotpathfinder/core/trajectory/TankDriveMoment");
+            jmethodID constructor_mid = env->GetMethodID(mclass, "<init>", "(DDDDDDDDDZ)V");
+
+            return env->NewObject(mclass, constructor_mid, m.l_pos, m.r_pos, m.l_vel, m.r_vel,
+                    m.l_accel, m.r_accel, m.heading, m.time, m.init_facing, m.backwards);
+        }
+        catch (const std::exception &e) {
+            rpf::throw_exception(env, rpf::EX_TrajectoryGenerationException, e.what());
+            return NULL;
+        }
+    }
+}
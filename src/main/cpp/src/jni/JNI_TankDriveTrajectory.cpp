@@ -8,30 +8,30 @@
 
 JNIEXPORT void JNICALL
 Java_com_arctos6135_robotpathfinder_core_trajectory_TankDriveTrajectory__1construct(JNIEnv *env,
-        jobject obj, jdouble maxv, jdouble maxa, jdouble base_width, jboolean is_tank,
-        jobjectArray waypoints, jdouble alpha, jint sample_count, jint type) {
+        jobject obj, jdouble maxv, jdouble maxa, jdouble maxj, jdouble base_width, jboolean is_tank,
+        jobjectArray waypoints, jdouble alpha, jint sample_count, jint type, jboolean compact,
+        jobject token) {
     std::vector<rpf::Waypoint> wp;
     wp.reserve(env->GetArrayLength(waypoints));
     // Translate the waypoints into C++ ones
     for (int i = 0; i < env->GetArrayLength(waypoints); i++) {
         auto waypoint = env->GetObjectArrayElement(waypoints, i);
-        wp.push_back(rpf::Waypoint(rpf::get_field<double>(env, waypoint, "x"),
-                rpf::get_field<double>(env, waypoint, "y"),
-                rpf::get_field<double>(env, waypoint, "heading"),
-                rpf::get_field<double>(env, waypoint, "velocity")));
+        wp.push_back(rpf::get_waypoint(env, waypoint));
     }
 
-    rpf::RobotSpecs specs(maxv, maxa, base_width);
+    rpf::RobotSpecs specs(maxv, maxa, base_width, maxj);
     rpf::TrajectoryParams params;
     params.waypoints = std::move(wp);
     params.is_tank = is_tank;
     params.sample_count = sample_count;
     params.type = static_cast<rpf::PathType>(type);
     params.alpha = alpha;
+    params.compact = compact;
 
     try {
-        rpf::BasicTrajectory bt(specs, params);
-        auto *t = new rpf::TankDriveTrajectory(bt);
+        auto cancelled = rpf::make_cancel_check(env, token);
+        rpf::BasicTrajectory bt(specs, params, cancelled);
+        auto *t = new rpf::TankDriveTrajectory(bt, cancelled);
         {
             // Acquire lock
             std::lock_guard<std::mutex> lock(ttinstances_mutex);
@@ -39,6 +39,9 @@ Java_com_arctos6135_robotpathfinder_core_trajectory_TankDriveTrajectory__1constr
         }
         rpf::set_obj_ptr(env, obj, t);
     }
+    catch (const rpf::GenerationCancelled &e) {
+        rpf::throw_exception(env, rpf::EX_CancellationException, e.what());
+    }
     catch (const std::exception &e) {
         rpf::throw_exception(env, rpf::EX_TrajectoryGenerationException, e.what());
     }
@@ -63,6 +66,8 @@ Java_com_arctos6135_robotpathfinder_core_trajectory_TankDriveTrajectory__1getMom
     }
     else {
         auto &moments = ptr->get_moments();
+        double init_facing = ptr->get_init_facing();
+        jboolean backwards = ptr->is_backwards();
 
         jclass clazz = env->GetObjectClass(obj);
         jfieldID fid = env->GetFieldID(clazz, "momentsCache",
@@ -75,10 +80,9 @@ Java_com_arctos6135_robotpathfinder_core_trajectory_TankDriveTrajectory__1getMom
         jmethodID constructor_mid = env->GetMethodID(mclass, "<init>", "(DDDDDDDDDZ)V");
 
         for (size_t i = 0; i < moments.size(); i++) {
-            jobject m = env->NewObject(mclass, constructor_mid, moments[i].l_pos, moments[i].r_pos,
-                    moments[i].l_vel, moments[i].r_vel, moments[i].l_accel, moments[i].r_accel,
-                    moments[i].heading, moments[i].time, moments[i].init_facing,
-                    moments[i].backwards);
+            jobject m = env->NewObject(mclass, constructor_mid, moments.l_pos[i], moments.r_pos[i],
+                    moments.l_vel[i], moments.r_vel[i], moments.l_accel[i], moments.r_accel[i],
+                    moments.heading[i], moments.time[i], init_facing, backwards);
             env->SetObjectArrayElement(*arr, i, m);
         }
     }
@@ -31,20 +31,23 @@ Java_com_arctos6135_robotpathfinder_core_trajectory_TrajectoryGenerator__1genera
     }
 
     auto &moments = t->get_moments();
+    double init_facing = t->get_init_facing();
     if (angle > 0) {
-        for (auto &m : moments) {
-            m.l_pos *= -1;
-            m.l_vel *= -1;
-            m.l_accel *= -1;
-            m.heading = rpf::restrict_angle(m.r_pos / base_radius + m.init_facing);
+        for (size_t i = 0; i < moments.size(); i++) {
+            moments.l_pos.set(i, -moments.l_pos[i]);
+            moments.l_vel.set(i, -moments.l_vel[i]);
+            moments.l_accel.set(i, -moments.l_accel[i]);
+            moments.heading.set(
+                    i, rpf::restrict_angle(moments.r_pos[i] / base_radius + init_facing));
         }
     }
     else {
-        for (auto &m : moments) {
-            m.r_pos *= -1;
-            m.r_vel *= -1;
-            m.r_accel *= -1;
-            m.heading = rpf::restrict_angle(-m.l_pos / base_radius + m.init_facing);
+        for (size_t i = 0; i < moments.size(); i++) {
+            moments.r_pos.set(i, -moments.r_pos[i]);
+            moments.r_vel.set(i, -moments.r_vel[i]);
+            moments.r_accel.set(i, -moments.r_accel[i]);
+            moments.heading.set(
+                    i, rpf::restrict_angle(-moments.l_pos[i] / base_radius + init_facing));
         }
     }
 
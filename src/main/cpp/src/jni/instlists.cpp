@@ -8,7 +8,9 @@
 std::list<std::shared_ptr<rpf::Path>> pinstances;
 std::list<std::shared_ptr<rpf::BasicTrajectory>> btinstances;
 std::list<std::shared_ptr<rpf::TankDriveTrajectory>> ttinstances;
+std::list<std::shared_ptr<rpf::TrajectoryStream>> tsinstances;
 
 std::mutex pinstances_mutex;
 std::mutex btinstances_mutex;
 std::mutex ttinstances_mutex;
+std::mutex tsinstances_mutex;
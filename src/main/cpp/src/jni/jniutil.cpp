@@ -42,8 +42,34 @@ namespace rpf {
         return env->GetDoubleField(obj, fid);
     }
 
+    Waypoint get_waypoint(JNIEnv *env, jobject waypoint) {
+        Waypoint w(get_field<jdouble>(env, waypoint, "x"), get_field<jdouble>(env, waypoint, "y"),
+                get_field<jdouble>(env, waypoint, "heading"),
+                get_field<jdouble>(env, waypoint, "velocity"));
+        w.alpha = get_field<jdouble>(env, waypoint, "alpha");
+        w.curvature = get_field<jdouble>(env, waypoint, "curvature");
+        w.segment_type = get_field<jint>(env, waypoint, "segmentType");
+        return w;
+    }
+
+    jobject new_waypoint(JNIEnv *env, const Waypoint &w) {
+        jclass wclass = env->FindClass("com/arctos6135/robotpathfinder/core/Waypoint");
+        jmethodID constructor_mid = env->GetMethodID(wclass, "<init>", "(DDDDDDI)V");
+        return env->NewObject(wclass, constructor_mid, w.x, w.y, w.heading, w.velocity, w.alpha,
+                w.curvature, w.segment_type);
+    }
+
     void throw_exception(JNIEnv *env, const char *ex, const char *msg) {
         jclass clazz = env->FindClass(ex);
         env->ThrowNew(clazz, msg);
     }
+
+    std::function<bool()> make_cancel_check(JNIEnv *env, jobject token) {
+        if (token == NULL) {
+            return std::function<bool()>();
+        }
+        // Look up the field once, since the check is done repeatedly during generation
+        jfieldID fid = env->GetFieldID(env->GetObjectClass(token), "cancelled", "Z");
+        return [env, token, fid]() { return env->GetBooleanField(token, fid) == JNI_TRUE; };
+    }
 } // namespace rpf
@@ -25,7 +25,7 @@ namespace rpf {
     double lerp_angle(double a, double b, double f) {
         // Magic
         // https://stackoverflow.com/questions/2708476/rotation-interpolation
-        double theta = std::fmod(std::fmod(a - b, pi * 2) + pi * 3, pi * 2) - pi;
+        double theta = std::fmod(std::fmod(b - a, pi * 2) + pi * 3, pi * 2) - pi;
         return restrict_angle(a + f * theta);
     }
     double lerp_angle(Vec2D a, Vec2D b, double f) {
@@ -11,39 +11,114 @@ namespace rpf {
         if (waypoints.size() < 2) {
             throw std::invalid_argument("Not enough waypoints");
         }
+        // Each waypoint can override the tangent magnitude and the type of the segment after it
+        auto segment_type = [&](size_t i) {
+            return waypoints[i].segment_type == 0 ? type
+                                                  : static_cast<PathType>(waypoints[i].segment_type);
+        };
+        std::vector<Vec2D> tangents;
+        std::vector<Vec2D> second_derivs;
+        tangents.reserve(waypoints.size());
+        second_derivs.reserve(waypoints.size());
+        for (const auto &w : waypoints) {
+            double a = std::isnan(w.alpha) ? alpha : w.alpha;
+            tangents.emplace_back(std::cos(w.heading) * a, std::sin(w.heading) * a);
+            second_derivs.push_back(curvature_vec(w, a));
+        }
+        // Solve for the second derivatives of each run of G2 segments
+        // Where a run meets a quintic hermite segment, the second derivative of that segment is kept
+        // so that the curvature is still continuous
+        for (size_t start = 0; start < waypoints.size() - 1;) {
+            if (segment_type(start) != PathType::QUINTIC_G2) {
+                start++;
+                continue;
+            }
+            size_t end = start + 1;
+            while (end < waypoints.size() - 1 && segment_type(end) == PathType::QUINTIC_G2) {
+                end++;
+            }
+            bool fix_start = start > 0 && segment_type(start - 1) == PathType::QUINTIC_HERMITE;
+            bool fix_end = end < waypoints.size() - 1 && segment_type(end) == PathType::QUINTIC_HERMITE;
+            solve_second_derivs(start, end, fix_start, fix_end, tangents, second_derivs);
+            start = end;
+        }
+
         segments.reserve(waypoints.size() - 1);
-        switch (type) {
-        case PathType::BEZIER:
-            for (size_t i = 0; i < waypoints.size() - 1; i++) {
-                segments.push_back(std::make_unique<BezierSegment>(BezierSegment::from_hermite(
-                        static_cast<Vec2D>(waypoints[i]), static_cast<Vec2D>(waypoints[i + 1]),
-                        Vec2D(std::cos(waypoints[i].heading) * alpha,
-                                std::sin(waypoints[i].heading) * alpha),
-                        Vec2D(std::cos(waypoints[i + 1].heading) * alpha,
-                                std::sin(waypoints[i + 1].heading) * alpha))));
-            }
-            break;
-        case PathType::CUBIC_HERMITE:
-            for (size_t i = 0; i < waypoints.size() - 1; i++) {
-                segments.push_back(std::make_unique<CubicSegment>(
-                        static_cast<Vec2D>(waypoints[i]), static_cast<Vec2D>(waypoints[i + 1]),
-                        Vec2D(std::cos(waypoints[i].heading) * alpha,
-                                std::sin(waypoints[i].heading) * alpha),
-                        Vec2D(std::cos(waypoints[i + 1].heading) * alpha,
-                                std::sin(waypoints[i + 1].heading) * alpha)));
-            }
-            break;
-        case PathType::QUINTIC_HERMITE:
-            for (size_t i = 0; i < waypoints.size() - 1; i++) {
+        for (size_t i = 0; i < waypoints.size() - 1; i++) {
+            Vec2D p0 = static_cast<Vec2D>(waypoints[i]);
+            Vec2D p1 = static_cast<Vec2D>(waypoints[i + 1]);
+            const Vec2D &v0 = tangents[i];
+            const Vec2D &v1 = tangents[i + 1];
+
+            switch (segment_type(i)) {
+            case PathType::BEZIER:
+                segments.push_back(
+                        std::make_unique<BezierSegment>(BezierSegment::from_hermite(p0, p1, v0, v1)));
+                break;
+            case PathType::CUBIC_HERMITE:
+                segments.push_back(std::make_unique<CubicSegment>(p0, p1, v0, v1));
+                break;
+            case PathType::QUINTIC_HERMITE:
+            case PathType::QUINTIC_G2:
                 segments.push_back(std::make_unique<QuinticSegment>(
-                        static_cast<Vec2D>(waypoints[i]), static_cast<Vec2D>(waypoints[i + 1]),
-                        Vec2D(std::cos(waypoints[i].heading) * alpha,
-                                std::sin(waypoints[i].heading) * alpha),
-                        Vec2D(std::cos(waypoints[i + 1].heading) * alpha,
-                                std::sin(waypoints[i + 1].heading) * alpha),
-                        Vec2D(0, 0), Vec2D(0, 0)));
+                        p0, p1, v0, v1, second_derivs[i], second_derivs[i + 1]));
+                break;
+            default:
+                throw std::invalid_argument("Invalid segment type");
             }
-            break;
+        }
+    }
+
+    Vec2D Path::curvature_vec(const Waypoint &w, double alpha) {
+        // The curvature is (x'y'' - y'x'') / |v|^3
+        // With a second derivative normal to the tangent, this gives |v''| = curvature * |v|^2
+        double mag = w.curvature * alpha * alpha;
+        return Vec2D(-std::sin(w.heading) * mag, std::cos(w.heading) * mag);
+    }
+
+    void Path::solve_second_derivs(size_t start, size_t end, bool fix_start, bool fix_end,
+            const std::vector<Vec2D> &tangents, std::vector<Vec2D> &second_derivs) const {
+        // The second derivatives are chosen to minimize the integral of |p''|^2 over every segment
+        // Since each second derivative only appears in the segments on either side of its waypoint,
+        // setting the gradient to zero gives a tridiagonal system, solved with the Thomas algorithm
+        // The coefficients are the integrals of the products of the quintic hermite basis functions'
+        // second derivatives, multiplied by 70
+        size_t n = end - start + 1;
+        std::vector<double> lower(n, 0), diag(n, 0), upper(n, 0);
+        std::vector<Vec2D> rhs(n);
+        for (size_t k = 0; k < n; k++) {
+            size_t j = start + k;
+            if ((k == 0 && fix_start) || (k == n - 1 && fix_end)) {
+                diag[k] = 1;
+                rhs[k] = second_derivs[j];
+                continue;
+            }
+            // The segment before this waypoint
+            if (k > 0) {
+                const Vec2D p0 = static_cast<Vec2D>(waypoints[j - 1]);
+                const Vec2D p1 = static_cast<Vec2D>(waypoints[j]);
+                lower[k] = 1;
+                diag[k] += 6;
+                rhs[k] += (p0 - p1) * 30 + tangents[j - 1] * 8 + tangents[j] * 22;
+            }
+            // The segment after this waypoint
+            if (k < n - 1) {
+                const Vec2D p0 = static_cast<Vec2D>(waypoints[j]);
+                const Vec2D p1 = static_cast<Vec2D>(waypoints[j + 1]);
+                upper[k] = 1;
+                diag[k] += 6;
+                rhs[k] += (p1 - p0) * 30 - tangents[j] * 22 - tangents[j + 1] * 8;
+            }
+        }
+        // The system is strictly diagonally dominant, so no pivoting is needed
+        for (size_t k = 1; k < n; k++) {
+            double f = lower[k] / diag[k - 1];
+            diag[k] -= f * upper[k - 1];
+            rhs[k] -= rhs[k - 1] * f;
+        }
+        second_derivs[end] = rhs[n - 1] / diag[n - 1];
+        for (size_t k = n - 1; k-- > 0;) {
+            second_derivs[start + k] = (rhs[k] - second_derivs[start + k + 1] * upper[k]) / diag[k];
         }
     }
 
@@ -192,8 +267,13 @@ namespace rpf {
         w.reserve(waypoints.size());
 
         for (auto wp : waypoints) {
-            w.push_back(Waypoint(static_cast<Vec2D>(wp).reflect(ref),
-                    rpf::mirror_angle(wp.heading, waypoints[0].heading)));
+            Vec2D pos = static_cast<Vec2D>(wp).reflect(ref);
+            wp.x = pos.x;
+            wp.y = pos.y;
+            wp.heading = rpf::mirror_angle(wp.heading, waypoints[0].heading);
+            // Reflecting turns left turns into right turns
+            wp.curvature = -wp.curvature;
+            w.push_back(wp);
         }
         auto p = std::make_shared<Path>(w, alpha, type);
         p->set_base(base_radius);
@@ -205,8 +285,12 @@ namespace rpf {
         w.reserve(waypoints.size());
 
         for (auto wp : waypoints) {
-            w.push_back(Waypoint(static_cast<Vec2D>(wp).reflect(ref),
-                    rpf::mirror_angle(wp.heading, waypoints[0].heading + rpf::pi / 2)));
+            Vec2D pos = static_cast<Vec2D>(wp).reflect(ref);
+            wp.x = pos.x;
+            wp.y = pos.y;
+            wp.heading = rpf::mirror_angle(wp.heading, waypoints[0].heading + rpf::pi / 2);
+            wp.curvature = -wp.curvature;
+            w.push_back(wp);
         }
         auto p = std::make_shared<Path>(w, alpha, type);
         p->set_base(base_radius);
@@ -217,9 +301,17 @@ namespace rpf {
         std::vector<Waypoint> w;
         w.reserve(waypoints.size());
 
-        for (auto rit = waypoints.rbegin(); rit != waypoints.rend(); ++rit) {
-            Waypoint wp = *rit;
-            w.push_back(Waypoint(wp.x, wp.y, rpf::restrict_angle(wp.heading + rpf::pi)));
+        for (size_t i = waypoints.size(); i-- > 0;) {
+            Waypoint wp = waypoints[i];
+            wp.heading = rpf::restrict_angle(wp.heading + rpf::pi);
+            // Going the other way turns left turns into right turns
+            wp.curvature = -wp.curvature;
+            // The segment after this waypoint is now the one that was before it
+            // The last waypoint has no segment after it, so it keeps its own type
+            if (i > 0) {
+                wp.segment_type = waypoints[i - 1].segment_type;
+            }
+            w.push_back(wp);
         }
         auto p = std::make_shared<Path>(w, alpha, type);
         p->set_base(base_radius);
@@ -11,7 +11,181 @@ namespace rpf {
      * from Team 254 The Cheesy Poofs. Video here: https://youtu.be/8319J1BEHwM
      */
 
-    BasicTrajectory::BasicTrajectory(const RobotSpecs &specs, const TrajectoryParams &params)
+    /*
+     * Computes one step of changing the acceleration as fast as the jerk limit allows, upwards if
+     * dir is 1 or downwards if dir is -1.
+     * v is the current velocity, a is the acceleration of the previous step, and dt is its
+     * duration. Returns the new velocity, and sets an and dtn to the acceleration and duration of
+     * this step.
+     */
+    static double jerk_step(double v, double a, double dt, double ds, double max_a, double max_j,
+            int dir, double &an, double &dtn) {
+        // The duration of this step depends on the new velocity, which depends on the
+        // acceleration, so iterate a few times, starting from the duration of the last step
+        dtn = dt > 0 ? dt : v > 0 ? ds / v : std::numeric_limits<double>::infinity();
+        double vn = v;
+        for (int k = 0; k < 8; k++) {
+            an = std::max(-max_a, std::min(max_a, a + dir * max_j * (dt + dtn) / 2));
+            double vn2 = v * v + 2 * an * ds;
+            if (vn2 <= 0) {
+                dtn = 2 * ds / v;
+                return 0;
+            }
+            double last = vn;
+            vn = std::sqrt(vn2);
+            dtn = 2 * ds / (v + vn);
+            if (std::abs(vn - last) <= vn * 1e-12) {
+                break;
+            }
+        }
+        return vn;
+    }
+
+    /*
+     * Finds the minimum of the values from index l to index r (inclusive), using a sparse table
+     * where table[k][i] is the minimum of the 2^k values starting at index i.
+     */
+    static double range_min(const std::vector<std::vector<double>> &table, std::size_t l,
+            std::size_t r) {
+        std::size_t k = 0;
+        while ((std::size_t(2) << k) <= r - l + 1) {
+            k++;
+        }
+        return std::min(table[k][l], table[k][r + 1 - (std::size_t(1) << k)]);
+    }
+
+    /*
+     * Checks whether the robot can slow down from sample i without going over the cap, while
+     * staying within the jerk limit.
+     * cap_min is a sparse table of the cap for range_min(). If the robot can't slow down, fail is
+     * set to the sample where it goes over the cap.
+     */
+    static bool jerk_can_brake(const std::vector<double> &cap,
+            const std::vector<std::vector<double>> &cap_min, std::size_t i, double v, double a,
+            double dt, double ds, double max_a, double max_j, std::size_t &fail) {
+        std::size_t last = cap.size() - 1;
+        for (; i < last; i++) {
+            // Once the robot is stopped or slowing down at the max acceleration, it can't go over
+            // the cap, since the cap never slows down faster than that
+            if (v <= 0 || a <= -max_a) {
+                return true;
+            }
+            // Otherwise, find roughly how far it will go and how fast it will get before it is
+            // slowing down at the max acceleration
+            // If the cap is higher than that the whole way, it can't go over the cap either
+            // This avoids simulating every sample in most cases
+            double peak = a > 0 ? v + a * a / (2 * max_j) : v;
+            double dist = peak * ((a + max_a) / max_j + dt);
+            std::size_t end = std::min(last, i + 2 + static_cast<std::size_t>(dist / ds));
+            if (range_min(cap_min, i + 1, end) >= peak * (1 + 1e-6)) {
+                return true;
+            }
+
+            double an, dtn;
+            v = jerk_step(v, a, dt, ds, max_a, max_j, -1, an, dtn);
+            if (v > cap[i + 1] * (1 + 1e-12)) {
+                fail = i + 1;
+                return false;
+            }
+            a = an;
+            dt = dtn;
+        }
+        return true;
+    }
+
+    /*
+     * Goes through the velocities from start to end, making each one as high as possible without
+     * going over the cap or the acceleration limit, and without the acceleration increasing faster
+     * than the jerk limit allows. Each velocity is also chosen so that the robot can still slow
+     * down enough for the rest of the cap afterwards.
+     * Running this forwards and then backwards (on reversed arrays) limits the jerk both ways.
+     */
+    static void limit_jerk(std::vector<double> &v, const std::vector<double> &cap, double ds,
+            double max_a, double max_j, const CancelCheck &cancelled) {
+        std::vector<std::vector<double>> cap_min;
+        cap_min.push_back(cap);
+        for (std::size_t len = 2; len <= cap.size(); len *= 2) {
+            const auto &prev = cap_min.back();
+            std::vector<double> level(cap.size() - len + 1);
+            for (std::size_t i = 0; i < level.size(); i++) {
+                level[i] = std::min(prev[i], prev[i + len / 2]);
+            }
+            cap_min.push_back(std::move(level));
+        }
+
+        double a_prev = 0;
+        double dt_prev = 0;
+        // While slowing down as fast as possible, the robot has to keep doing so until this sample
+        std::size_t brake_until = 0;
+        for (std::size_t i = 0; i + 1 < v.size(); i++) {
+            check_cancelled(cancelled, i);
+            // If the robot comes to a stop (e.g. at a cusp of a tank drive path), it can wait
+            // there while the acceleration changes, so start again from no acceleration
+            if (v[i] <= 0) {
+                a_prev = 0;
+                dt_prev = 0;
+            }
+
+            double an, dtn;
+            // The velocity if the robot slows down as fast as possible
+            double brake = jerk_step(v[i], a_prev, dt_prev, ds, max_a, max_j, -1, an, dtn);
+            double vn;
+            if (i + 1 < brake_until) {
+                // This was already checked to be feasible when the robot started slowing down
+                vn = brake;
+            }
+            else {
+                std::size_t fail = 0;
+                auto feasible = [&](double candidate) {
+                    double a = (candidate * candidate - v[i] * v[i]) / (2 * ds);
+                    double dt = 2 * ds / (v[i] + candidate);
+                    if (a > max_a * (1 + 1e-12) ||
+                            a - a_prev > max_j * (dt_prev + dt) / 2 * (1 + 1e-9)) {
+                        return false;
+                    }
+                    return jerk_can_brake(
+                            cap, cap_min, i + 1, candidate, a, dt, ds, max_a, max_j, fail);
+                };
+
+                // The highest velocity the acceleration and jerk limits allow
+                vn = std::min(cap[i + 1],
+                        jerk_step(v[i], a_prev, dt_prev, ds, max_a, max_j, 1, an, dtn));
+                if (!feasible(vn)) {
+                    // Slowing down as fast as possible is always feasible (checked in the last
+                    // step), so search between that and the highest velocity
+                    double lo = std::min(vn, brake);
+                    double hi = vn;
+                    // While slowing down, the robot usually has to keep slowing down as fast as it
+                    // can, so check that first to avoid the search
+                    if (!feasible(std::min(hi, lo * (1 + 1e-9)))) {
+                        hi = lo;
+                        // Going any faster would make it go over the cap, so there is no need to
+                        // check again until that point
+                        if (lo == brake) {
+                            brake_until = fail;
+                        }
+                    }
+                    while (hi - lo > hi * 1e-9) {
+                        double mid = (lo + hi) / 2;
+                        if (feasible(mid)) {
+                            lo = mid;
+                        }
+                        else {
+                            hi = mid;
+                        }
+                    }
+                    vn = lo;
+                }
+            }
+
+            a_prev = (vn * vn - v[i] * v[i]) / (2 * ds);
+            dt_prev = 2 * ds / (v[i] + vn);
+            v[i + 1] = vn;
+        }
+    }
+
+    BasicTrajectory::BasicTrajectory(const RobotSpecs &specs, const TrajectoryParams &params,
+            const CancelCheck &cancelled)
             : specs(specs), params(params) {
         // Make the path
         path = std::make_shared<Path>(params.waypoints, params.alpha, params.type);
@@ -84,10 +258,14 @@ namespace rpf {
          * to be at.
          */
         moments.reserve(params.sample_count);
+        // The columns that are written to during the forward and backward passes
+        auto &vel = moments.vel;
+        auto &accel = moments.accel;
 
         if (params.is_tank) {
             // Tank drive trajectories require extra processing as described above
             for (int i = 0; i < params.sample_count; i++) {
+                check_cancelled(cancelled, i);
                 // Call s2T to translate between length and time
                 double t = path->s2t(ds * i);
                 // Store a value into patht for use by TankDriveTrajectory later
@@ -128,6 +306,7 @@ namespace rpf {
             // If the trajectory is just a basic trajectory, there's no need to slow down, so every
             // point's max velocity is the specified max velocity.
             for (int i = 0; i < params.sample_count; i++) {
+                check_cancelled(cancelled, i);
                 mv.push_back(specs.max_v);
 
                 double t = path->s2t(ds * i);
@@ -154,16 +333,17 @@ namespace rpf {
         // Initialize the first moment of the array
         // If the velocity is specified then follow the constraints
         if (!std::isnan(waypoints[0].velocity)) {
-            moments.push_back(BasicMoment(0, waypoints[0].velocity, 0, headings[0]));
+            moments.push_back(0, waypoints[0].velocity, 0, headings[0], 0);
             // Mark the first moment as constrained so that it cannot be changed
             constrained.insert(0);
         }
         else {
-            moments.push_back(BasicMoment(0, 0, 0, headings[0]));
+            moments.push_back(0, 0, 0, headings[0], 0);
         }
 
         // Forwards pass
         for (int i = 1; i < params.sample_count; i++) {
+            check_cancelled(cancelled, i);
             double dist = i * dpi;
 
             // Since the additional velocity constraints are sorted from shortest path length to
@@ -174,83 +354,75 @@ namespace rpf {
                 constraints.pop_front();
                 // If the velocity is higher than the current, perform some extra checks and
                 // computations
-                if (constraint.second > moments[i - 1].vel) {
-                    double accel = (constraint.second * constraint.second -
-                                           moments[i - 1].vel * moments[i - 1].vel) /
-                                   (2 * dpi);
-                    if (accel > specs.max_a) {
+                if (constraint.second > vel[i - 1]) {
+                    double a =
+                            (constraint.second * constraint.second - vel[i - 1] * vel[i - 1]) /
+                            (2 * dpi);
+                    if (a > specs.max_a) {
                         throw std::invalid_argument("Waypoint velocity constraint cannot be met");
                     }
                     // Otherwise set accel and compute time diff
-                    moments[i - 1].accel = accel;
-                    time_diff[i - 1] = (constraint.second - moments[i - 1].vel) / accel;
+                    accel.set(i - 1, a);
+                    time_diff[i - 1] = (constraint.second - vel[i - 1]) / a;
                 }
                 // Ignore otherwise, it will be handled by the backwards pass
 
                 // Make the new moment and mark it as constrained
-                moments.push_back(BasicMoment(dist, constraint.second, 0, headings[i]));
+                moments.push_back(dist, constraint.second, 0, headings[i], 0);
                 constrained.insert(i);
                 continue;
             }
 
             // Otherwise do normal processing
             // Check if our velocity is less than the max at that point
-            if (moments[i - 1].vel < mv[i]) {
+            if (vel[i - 1] < mv[i]) {
                 // Maybe improveable?
                 // If we can accelerate then check the maximum velocity we can accelerate to
-                double maxv =
-                        std::sqrt(moments[i - 1].vel * moments[i - 1].vel + 2 * specs.max_a * dpi);
-                double vel;
+                double maxv = std::sqrt(vel[i - 1] * vel[i - 1] + 2 * specs.max_a * dpi);
+                double v;
                 if (maxv > mv[i]) {
                     // If it's more than the max then calculate the acceleration needed to reach the
                     // max
-                    double accel =
-                            (mv[i] * mv[i] - moments[i - 1].vel * moments[i - 1].vel) / (2 * dpi);
-                    vel = mv[i];
-                    moments[i - 1].accel = accel;
+                    v = mv[i];
+                    accel.set(i - 1, (mv[i] * mv[i] - vel[i - 1] * vel[i - 1]) / (2 * dpi));
                 }
                 else {
                     // Otherwise set the velocity to be the max and set the previous moment's
                     // acceleration
-                    vel = maxv;
-                    moments[i - 1].accel = specs.max_a;
+                    v = maxv;
+                    accel.set(i - 1, specs.max_a);
                 }
                 // Add the new moment and compute the time diff
-                moments.push_back(BasicMoment(dist, vel, 0, headings[i]));
+                moments.push_back(dist, v, 0, headings[i], 0);
                 // time diff computation is trivial since we can use the velocity differences
-                time_diff[i - 1] = (vel - moments[i - 1].vel) / moments[i - 1].accel;
+                time_diff[i - 1] = (v - vel[i - 1]) / accel[i - 1];
             }
             else {
                 // If we can't accelerate just insert a normal moment with zero acceleration
                 // The backwards pass will handle the rest
-                moments.push_back(BasicMoment(dist, mv[i], 0, headings[i]));
+                moments.push_back(dist, mv[i], 0, headings[i], 0);
             }
         }
 
         // Prepare for backwards pass by setting the last moment's data to the desired values
-        moments[moments.size() - 1].accel = 0;
-        moments[moments.size() - 1].vel = std::isnan(waypoints[waypoints.size() - 1].velocity)
-                                                  ? 0
-                                                  : waypoints[waypoints.size() - 1].velocity;
+        accel.set(moments.size() - 1, 0);
+        vel.set(moments.size() - 1, std::isnan(waypoints[waypoints.size() - 1].velocity)
+                                            ? 0
+                                            : waypoints[waypoints.size() - 1].velocity);
         // Backwards pass
         for (size_t i = moments.size() - 1; i-- > 0;) {
+            check_cancelled(cancelled, i);
             // Only do processing if the velocity of this moment is greater than the next
             // i.e. deceleration is needed
-            if (moments[i].vel > moments[i + 1].vel) {
+            if (vel[i] > vel[i + 1]) {
                 // Calculate max velocity like in the forwards pass but backwards this time
-                double maxv =
-                        std::sqrt(moments[i + 1].vel * moments[i + 1].vel + 2 * specs.max_a * dpi);
+                double maxv = std::sqrt(vel[i + 1] * vel[i + 1] + 2 * specs.max_a * dpi);
 
-                double vel;
                 // Compare with the velocity set by the forwards pass
                 // If the velocity from the forwards pass is possible, then just set the
                 // acceleration
-                if (maxv > moments[i].vel) {
-                    double accel = (moments[i].vel * moments[i].vel -
-                                           moments[i + 1].vel * moments[i + 1].vel) /
-                                   (2 * dpi);
-                    moments[i].accel = -accel;
-                    vel = moments[i].vel;
+                if (maxv > vel[i]) {
+                    accel.set(i, -(vel[i] * vel[i] - vel[i + 1] * vel[i + 1]) / (2 * dpi));
                 }
                 else {
                     // Otherwise, set deceleration to max
@@ -258,90 +430,105 @@ namespace rpf {
                     if (constrained.count(i)) {
                         throw std::invalid_argument("Waypoint velocity constraint cannot be met");
                     }
-                    vel = maxv;
-                    moments[i].accel = -specs.max_a;
+                    vel.set(i, maxv);
+                    accel.set(i, -specs.max_a);
                 }
 
-                moments[i].vel = vel;
                 // Compute the time diff with the velocities
-                time_diff[i] = (moments[i + 1].vel - vel) / moments[i].accel;
+                time_diff[i] = (vel[i + 1] - vel[i]) / accel[i];
             }
         }
 
-        // Set initial facing direction for all moments
-        init_facing = moments[0].get_afacing();
-        for (auto &moment : moments) {
-            moment.init_facing = init_facing;
+        // Jerk pass
+        // The passes above give the fastest velocities, but the acceleration can jump between
+        // samples. If there is a jerk limit, the velocities are lowered so that the acceleration
+        // only changes gradually.
+        if (!std::isnan(specs.max_j)) {
+            if (specs.max_j <= 0) {
+                throw std::invalid_argument("Max jerk must be positive");
+            }
+            std::size_t n = moments.size();
+            // The velocities from the forward and backward passes are used as the cap
+            std::vector<double> cap(n);
+            for (size_t i = 0; i < n; i++) {
+                cap[i] = vel[i];
+            }
+            std::vector<double> v(n);
+            v[0] = cap[0];
+            limit_jerk(v, cap, dpi, specs.max_a, specs.max_j, cancelled);
+
+            // Run the same process backwards, so that the end is also reached smoothly
+            std::vector<double> rcap(v.rbegin(), v.rend());
+            std::vector<double> rv(n);
+            rv[0] = rcap[0];
+            limit_jerk(rv, rcap, dpi, specs.max_a, specs.max_j, cancelled);
+
+            bool end_constrained = !std::isnan(waypoints[waypoints.size() - 1].velocity);
+            for (size_t i = 0; i < n; i++) {
+                double nv = rv[n - 1 - i];
+                if (constrained.count(i) || (i == n - 1 && end_constrained)) {
+                    // The jerk pass can only make the velocities lower, so constrained velocities
+                    // that were changed can no longer be met
+                    if (nv < vel[i] * (1 - 1e-6)) {
+                        throw std::invalid_argument("Waypoint velocity constraint cannot be met");
+                    }
+                }
+                else {
+                    vel.set(i, nv);
+                }
+            }
+            // Recompute the accelerations and time diffs from the new velocities
+            for (size_t i = 0; i + 1 < n; i++) {
+                accel.set(i, (vel[i + 1] * vel[i + 1] - vel[i] * vel[i]) / (2 * dpi));
+                time_diff[i] = 2 * dpi / (vel[i] + vel[i + 1]);
+            }
         }
+
+        // Set initial facing direction for the trajectory
+        // The trajectory is always generated forwards, so this is just the first heading
+        init_facing = moments.heading[0];
         // Fill in the time for the moments
+        auto &time = moments.time;
+        auto &pos = moments.pos;
         for (size_t i = 1; i < moments.size(); i++) {
             // If we already have a time diff, then use that to calculate the next time
             if (!std::isnan(time_diff[i - 1])) {
-                moments[i].time = moments[i - 1].time + time_diff[i - 1];
+                time[i] = time[i - 1] + time_diff[i - 1];
             }
             else {
                 // If there is no time diff, it must mean that the acceleration is equal to zero
                 // In this case we can simply use the position difference to calculate time
                 // difference
-                double dt = (moments[i].pos - moments[i - 1].pos) / moments[i - 1].vel;
-                moments[i].time = moments[i - 1].time + dt;
+                double dt = (pos[i] - pos[i - 1]) / vel[i - 1];
+                time[i] = time[i - 1] + dt;
             }
         }
-    }
 
-    std::pair<std::size_t, std::size_t> BasicTrajectory::search_moments(double t) const {
-        std::size_t start = 0;
-        std::size_t end = moments.size() - 1;
-        std::size_t mid;
+        // The time column is now final, so the index can be built
+        index.build(time);
 
-        // Time out of range - take the last moment
-        if (t >= total_time()) {
-            return std::make_pair(moments.size() - 1, moments.size() - 1);
+        // Compact everything but time now that the generation is done
+        // Tank trajectories need the full precision values to generate from, so the
+        // TankDriveTrajectory will compact its own moments instead
+        if (params.compact && !params.is_tank) {
+            moments.compact();
+            patht->compact();
         }
+    }
 
-        while (true) {
-            mid = (start + end) / 2;
-            double mid_time = moments[mid].time;
-            // Exact match
-            if (mid_time == t || mid == moments.size() - 1) {
-                return std::make_pair(mid, mid);
-            }
-            // Time is sandwiched between two moments
-            double next_time = moments[mid + 1].time;
-            if (mid_time <= t && next_time >= t) {
-                return std::make_pair(mid, mid + 1);
-            }
-            // Time out of range - take the first moment
-            if (mid == 0) {
-                return std::make_pair(0, 0);
-            }
-            if (mid_time < t) {
-                start = mid;
-            }
-            else {
-                end = mid;
-            }
-        }
+    std::pair<std::size_t, std::size_t> BasicTrajectory::search_moments(double t) const {
+        return index.search(moments.time, t);
     }
 
     BasicMoment BasicTrajectory::get(double t) const {
         auto m = search_moments(t);
         // Exact match - return it
         if (m.first == m.second) {
-            return moments[m.first];
+            return moments.get(m.first, init_facing, backwards);
         }
         else {
             // Otherwise linearly interpolate
-            double f =
-                    (t - moments[m.first].time) / (moments[m.second].time - moments[m.first].time);
-            auto &current = moments[m.first];
-            auto &next = moments[m.second];
-
-            BasicMoment moment(rpf::lerp(current.pos, next.pos, f),
-                    rpf::lerp(current.vel, next.vel, f), rpf::lerp(current.accel, next.accel, f),
-                    rpf::lerp_angle(current.heading, next.heading, f), t, init_facing);
-            moment.backwards = backwards;
-            return moment;
+            return moments.lerp(m.first, t, init_facing, backwards);
         }
     }
 
@@ -357,8 +544,8 @@ namespace rpf {
             // Otherwise linearly interpolate
             double t1 = (*patht)[m.first];
             double t2 = (*patht)[m.second];
-            double f =
-                    (t - moments[m.first].time) / (moments[m.second].time - moments[m.first].time);
+            double f = (t - moments.time[m.first]) /
+                       (moments.time[m.second] - moments.time[m.first]);
             pt = lerp(t1, t2, f);
         }
 
@@ -372,52 +559,48 @@ namespace rpf {
         auto p = path->mirror_lr();
         double ref = params.waypoints[0].heading;
 
-        std::vector<BasicMoment> m;
-        m.reserve(moments.size());
-
-        for (size_t i = 0; i < moments.size(); i++) {
-            BasicMoment moment(moments[i]);
-            moment.heading = rpf::mirror_angle(moment.heading, ref);
-            moment.init_facing = params.waypoints[0].heading;
-            m.push_back(moment);
+        // Only the headings change
+        BasicMomentColumns m(moments);
+        for (size_t i = 0; i < m.size(); i++) {
+            m.heading.set(i, rpf::mirror_angle(m.heading[i], ref));
         }
-        return std::shared_ptr<BasicTrajectory>(
-                new BasicTrajectory(p, std::move(m), backwards, specs, params));
+        return std::shared_ptr<BasicTrajectory>(new BasicTrajectory(
+                p, std::move(m), backwards, params.waypoints[0].heading, specs, params));
     }
     std::shared_ptr<BasicTrajectory> BasicTrajectory::mirror_fb() const {
         auto p = path->mirror_fb();
         double ref = params.waypoints[0].heading + rpf::pi / 2;
 
-        std::vector<BasicMoment> m;
+        BasicMomentColumns m;
+        if (moments.is_compact()) {
+            m.compact();
+        }
         m.reserve(moments.size());
         for (size_t i = 0; i < moments.size(); i++) {
-            BasicMoment moment(-moments[i].pos, -moments[i].vel, moments[i].accel,
-                    rpf::mirror_angle(moments[i].heading, ref), moments[i].time);
-            moment.init_facing = params.waypoints[0].heading;
-            moment.backwards = true;
-            m.push_back(moment);
+            m.push_back(-moments.pos[i], -moments.vel[i], moments.accel[i],
+                    rpf::mirror_angle(moments.heading[i], ref), moments.time[i]);
         }
 
-        return std::shared_ptr<BasicTrajectory>(
-                new BasicTrajectory(p, std::move(m), !backwards, specs, params));
+        return std::shared_ptr<BasicTrajectory>(new BasicTrajectory(
+                p, std::move(m), !backwards, params.waypoints[0].heading, specs, params));
     }
     std::shared_ptr<BasicTrajectory> BasicTrajectory::retrace() const {
         auto p = path->retrace();
 
-        std::vector<BasicMoment> m;
+        BasicMomentColumns m;
+        if (moments.is_compact()) {
+            m.compact();
+        }
         m.reserve(moments.size());
-        auto &last = moments[moments.size() - 1];
+        std::size_t last = moments.size() - 1;
         for (size_t i = 0; i < moments.size(); i++) {
-            auto &current = moments[moments.size() - 1 - i];
+            std::size_t j = last - i;
 
-            BasicMoment moment(-(last.pos - current.pos), -current.vel, current.accel,
-                    -current.heading, last.time - current.time);
-            moment.init_facing = params.waypoints[params.waypoints.size() - 1].heading;
-            moment.backwards = true;
-            m.push_back(moment);
+            m.push_back(-(moments.pos[last] - moments.pos[j]), -moments.vel[j], moments.accel[j],
+                    -moments.heading[j], moments.time[last] - moments.time[j]);
         }
 
-        return std::shared_ptr<BasicTrajectory>(
-                new BasicTrajectory(p, std::move(m), !backwards, specs, params));
+        return std::shared_ptr<BasicTrajectory>(new BasicTrajectory(p, std::move(m), !backwards,
+                params.waypoints[params.waypoints.size() - 1].heading, specs, params));
     }
 } // namespace rpf
@@ -0,0 +1,164 @@
+#include "trajectory/momentcolumns.h"
+
+namespace rpf {
+
+    void Column::reserve(std::size_t n) {
+        if (compacted) {
+            fvalues.reserve(n);
+        }
+        else {
+            values.reserve(n);
+        }
+    }
+
+    void Column::push_back(double v) {
+        if (compacted) {
+            fvalues.push_back(static_cast<float>(v));
+        }
+        else {
+            values.push_back(v);
+        }
+    }
+
+    void Column::compact() {
+        if (compacted) {
+            return;
+        }
+        fvalues.reserve(values.size());
+        for (double v : values) {
+            fvalues.push_back(static_cast<float>(v));
+        }
+        // Release the memory held by the double precision values
+        std::vector<double>().swap(values);
+        compacted = true;
+    }
+
+    void BasicMomentColumns::reserve(std::size_t n) {
+        time.reserve(n);
+        pos.reserve(n);
+        vel.reserve(n);
+        accel.reserve(n);
+        heading.reserve(n);
+    }
+
+    void BasicMomentColumns::push_back(double d, double v, double a, double h, double t) {
+        time.push_back(t);
+        pos.push_back(d);
+        vel.push_back(v);
+        accel.push_back(a);
+        heading.push_back(h);
+    }
+
+    void BasicMomentColumns::compact() {
+        pos.compact();
+        vel.compact();
+        accel.compact();
+        heading.compact();
+    }
+
+    BasicMoment BasicMomentColumns::get(std::size_t i, double init_facing, bool backwards) const {
+        BasicMoment moment(pos[i], vel[i], accel[i], heading[i], time[i], init_facing);
+        moment.backwards = backwards;
+        return moment;
+    }
+
+    BasicMoment BasicMomentColumns::lerp(
+            std::size_t i, double t, double init_facing, bool backwards) const {
+        double f = (t - time[i]) / (time[i + 1] - time[i]);
+
+        BasicMoment moment(rpf::lerp(pos[i], pos[i + 1], f), rpf::lerp(vel[i], vel[i + 1], f),
+                rpf::lerp(accel[i], accel[i + 1], f),
+                rpf::lerp_angle(heading[i], heading[i + 1], f), t, init_facing);
+        moment.backwards = backwards;
+        return moment;
+    }
+
+    void TankDriveMomentColumns::reserve(std::size_t n) {
+        time.reserve(n);
+        l_pos.reserve(n);
+        r_pos.reserve(n);
+        l_vel.reserve(n);
+        r_vel.reserve(n);
+        l_accel.reserve(n);
+        r_accel.reserve(n);
+        heading.reserve(n);
+    }
+
+    void TankDriveMomentColumns::push_back(double ld, double rd, double lv, double rv, double la,
+            double ra, double h, double t) {
+        time.push_back(t);
+        l_pos.push_back(ld);
+        r_pos.push_back(rd);
+        l_vel.push_back(lv);
+        r_vel.push_back(rv);
+        l_accel.push_back(la);
+        r_accel.push_back(ra);
+        heading.push_back(h);
+    }
+
+    void TankDriveMomentColumns::compact() {
+        l_pos.compact();
+        r_pos.compact();
+        l_vel.compact();
+        r_vel.compact();
+        l_accel.compact();
+        r_accel.compact();
+        heading.compact();
+    }
+
+    TankDriveMoment TankDriveMomentColumns::get(
+            std::size_t i, double init_facing, bool backwards) const {
+        TankDriveMoment moment(l_pos[i], r_pos[i], l_vel[i], r_vel[i], l_accel[i], r_accel[i],
+                heading[i], time[i], init_facing);
+        moment.backwards = backwards;
+        return moment;
+    }
+
+    TankDriveMoment TankDriveMomentColumns::lerp(
+            std::size_t i, double t, double init_facing, bool backwards) const {
+        double f = (t - time[i]) / (time[i + 1] - time[i]);
+
+        TankDriveMoment moment(rpf::lerp(l_pos[i], l_pos[i + 1], f),
+                rpf::lerp(r_pos[i], r_pos[i + 1], f), rpf::lerp(l_vel[i], l_vel[i + 1], f),
+                rpf::lerp(r_vel[i], r_vel[i + 1], f), rpf::lerp(l_accel[i], l_accel[i + 1], f),
+                rpf::lerp(r_accel[i], r_accel[i + 1], f),
+                rpf::lerp_angle(heading[i], heading[i + 1], f), t, init_facing);
+        moment.backwards = backwards;
+        return moment;
+    }
+
+    std::pair<std::size_t, std::size_t> search_time(const std::vector<double> &time, double t) {
+        std::size_t start = 0;
+        std::size_t end = time.size() - 1;
+        std::size_t mid;
+
+        // Time out of range - take the last moment
+        if (t >= time[time.size() - 1]) {
+            return std::make_pair(time.size() - 1, time.size() - 1);
+        }
+
+        while (true) {
+            mid = (start + end) / 2;
+            double mid_time = time[mid];
+            // Exact match
+            if (mid_time == t || mid == time.size() - 1) {
+                return std::make_pair(mid, mid);
+            }
+            // Time is sandwiched between two moments
+            double next_time = time[mid + 1];
+            if (mid_time <= t && next_time >= t) {
+                return std::make_pair(mid, mid + 1);
+            }
+            // Time out of range - take the first moment
+            if (mid == 0) {
+                return std::make_pair(0, 0);
+            }
+            if (mid_time < t) {
+                start = mid;
+            }
+            else {
+                end = mid;
+            }
+        }
+    }
+} // namespace rpf
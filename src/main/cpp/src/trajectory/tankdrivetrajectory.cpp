@@ -2,7 +2,8 @@
 
 namespace rpf {
 
-    TankDriveTrajectory::TankDriveTrajectory(const BasicTrajectory &traj)
+    TankDriveTrajectory::TankDriveTrajectory(
+            const BasicTrajectory &traj, const CancelCheck &cancelled)
             : path(traj.path), patht(traj.patht), specs(traj.specs), params(traj.params),
               init_facing(traj.init_facing) {
         if (!params.is_tank) {
@@ -10,30 +11,30 @@ namespace rpf {
         }
 
         path->set_base(specs.base_width / 2);
-        moments.reserve(traj.moments.size());
+        const auto &base = traj.moments;
+        moments.reserve(base.size());
         // Initialize first moment
         if (!std::isnan(params.waypoints[0].velocity)) {
-            double v = traj.moments[0].vel;
+            double v = base.vel[0];
             double d = v / (*traj.pathr)[0] * specs.base_width / 2;
             // Apply the velocity formula (derived below) to find the wheel velocities for the two
             // wheels
-            moments.push_back(
-                    TankDriveMoment(0, 0, v - d, v + d, 0, 0, traj.moments[0].heading, 0));
+            moments.push_back(0, 0, v - d, v + d, 0, 0, base.heading[0], 0);
         }
         else {
-            moments.push_back(TankDriveMoment(0, 0, 0, 0, 0, 0, traj.moments[0].heading, 0));
+            moments.push_back(0, 0, 0, 0, 0, 0, base.heading[0], 0);
         }
 
         // Use numerical integration for each moment to figure out the values
         // This variable keeps track of where the wheels were in the last iteration.
         auto init = path->wheels_at(0);
-        moments[0].init_facing = traj.init_facing;
-        for (size_t i = 1; i < traj.moments.size(); i++) {
+        for (size_t i = 1; i < base.size(); i++) {
+            check_cancelled(cancelled, i);
             // First find where the wheels are at this moment and integrate the length
             auto wheels = path->wheels_at((*traj.patht)[i]);
             double dl = init.first.dist(wheels.first);
             double dr = init.second.dist(wheels.second);
-            double dt = traj.moments[i].time - traj.moments[i - 1].time;
+            double dt = base.time[i] - base.time[i - 1];
 
             // Find out the velocity of the two wheels
             /*
@@ -55,9 +56,9 @@ namespace rpf {
              * unlike the distance difference which is always positive.
              */
             init = wheels;
-            double d = traj.moments[i].vel / (*traj.pathr)[i] * (specs.base_width / 2);
-            double lv = traj.moments[i].vel - d;
-            double rv = traj.moments[i].vel + d;
+            double d = base.vel[i] / (*traj.pathr)[i] * (specs.base_width / 2);
+            double lv = base.vel[i] - d;
+            double rv = base.vel[i] + d;
 
             // If the corresponding wheel velocity is negative, then the distance difference must
             // also be negative
@@ -69,70 +70,33 @@ namespace rpf {
             }
 
             // Create a new moment and set the acceleration of the last moment
-            moments.push_back(TankDriveMoment(moments[i - 1].l_pos + dl, moments[i - 1].r_pos + dr,
-                    lv, rv, 0, 0, traj.moments[i].heading, traj.moments[i].time, traj.init_facing));
-            moments[i - 1].l_accel = (lv - moments[i - 1].l_vel) / dt;
-            moments[i - 1].r_accel = (rv - moments[i - 1].r_vel) / dt;
+            moments.push_back(moments.l_pos[i - 1] + dl, moments.r_pos[i - 1] + dr, lv, rv, 0, 0,
+                    base.heading[i], base.time[i]);
+            moments.l_accel.set(i - 1, (lv - moments.l_vel[i - 1]) / dt);
+            moments.r_accel.set(i - 1, (rv - moments.r_vel[i - 1]) / dt);
         }
-    }
-
-    std::pair<std::size_t, std::size_t> TankDriveTrajectory::search_moments(double t) const {
-        std::size_t start = 0;
-        std::size_t end = moments.size() - 1;
-        std::size_t mid;
 
-        // Time out of range - take the last moment
-        if (t >= total_time()) {
-            return std::make_pair(moments.size() - 1, moments.size() - 1);
+        index.build(moments.time);
+        if (params.compact) {
+            moments.compact();
+            // patht is shared with the base trajectory, which has already been fully used by now
+            patht->compact();
         }
+    }
 
-        while (true) {
-            mid = (start + end) / 2;
-            double mid_time = moments[mid].time;
-            // Exact match
-            if (mid_time == t || mid == moments.size() - 1) {
-                return std::make_pair(mid, mid);
-            }
-            // Time is sandwiched between two moments
-            double next_time = moments[mid + 1].time;
-            if (mid_time <= t && next_time >= t) {
-                return std::make_pair(mid, mid + 1);
-            }
-            // Time out of range - take the first moment
-            if (mid == 0) {
-                return std::make_pair(0, 0);
-            }
-            if (mid_time < t) {
-                start = mid;
-            }
-            else {
-                end = mid;
-            }
-        }
+    std::pair<std::size_t, std::size_t> TankDriveTrajectory::search_moments(double t) const {
+        return index.search(moments.time, t);
     }
 
     TankDriveMoment TankDriveTrajectory::get(double t) const {
         auto m = search_moments(t);
         // Exact match - return it
         if (m.first == m.second) {
-            return moments[m.first];
+            return moments.get(m.first, init_facing, backwards);
         }
         else {
             // Otherwise linearly interpolate
-            double f =
-                    (t - moments[m.first].time) / (moments[m.second].time - moments[m.first].time);
-            auto &current = moments[m.first];
-            auto &next = moments[m.second];
-
-            TankDriveMoment moment(rpf::lerp(current.l_pos, next.l_pos, f),
-                    rpf::lerp(current.r_pos, next.r_pos, f),
-                    rpf::lerp(current.l_vel, next.l_vel, f),
-                    rpf::lerp(current.r_vel, next.r_vel, f),
-                    rpf::lerp(current.l_accel, next.l_accel, f),
-                    rpf::lerp(current.r_accel, next.r_accel, f),
-                    rpf::lerp_angle(current.heading, next.heading, f), t, init_facing);
-            moment.backwards = backwards;
-            return moment;
+            return moments.lerp(m.first, t, init_facing, backwards);
         }
     }
 
@@ -148,8 +112,8 @@ namespace rpf {
             // Otherwise linearly interpolate
             double t1 = (*patht)[m.first];
             double t2 = (*patht)[m.second];
-            double f =
-                    (t - moments[m.first].time) / (moments[m.second].time - moments[m.first].time);
+            double f = (t - moments.time[m.first]) /
+                       (moments.time[m.second] - moments.time[m.first]);
             pt = lerp(t1, t2, f);
         }
 
@@ -163,43 +127,51 @@ namespace rpf {
         auto p = path->mirror_lr();
         double ref = params.waypoints[0].heading;
 
-        std::vector<TankDriveMoment> m;
-        m.reserve(moments.size());
-        for (const auto &moment : moments) {
-            TankDriveMoment nm(moment.r_pos, moment.l_pos, moment.r_vel, moment.l_vel,
-                    moment.r_accel, moment.l_accel, rpf::mirror_angle(moment.heading, ref), moment.time,
-                    moment.init_facing);
-            nm.backwards = backwards;
-            m.push_back(nm);
+        // Swap the left and right columns and mirror the headings
+        TankDriveMomentColumns m;
+        m.time = moments.time;
+        m.l_pos = moments.r_pos;
+        m.r_pos = moments.l_pos;
+        m.l_vel = moments.r_vel;
+        m.r_vel = moments.l_vel;
+        m.l_accel = moments.r_accel;
+        m.r_accel = moments.l_accel;
+        m.heading = moments.heading;
+        for (size_t i = 0; i < m.size(); i++) {
+            m.heading.set(i, rpf::mirror_angle(m.heading[i], ref));
         }
 
         return std::shared_ptr<TankDriveTrajectory>(
-                new TankDriveTrajectory(p, std::move(m), backwards, specs, params));
+                new TankDriveTrajectory(p, std::move(m), backwards, init_facing, specs, params));
     }
     std::shared_ptr<TankDriveTrajectory> TankDriveTrajectory::mirror_fb() const {
         auto p = path->mirror_fb();
         double ref = rpf::restrict_angle(params.waypoints[0].heading + rpf::pi / 2);
 
-        std::vector<TankDriveMoment> m;
+        TankDriveMomentColumns m;
+        if (moments.is_compact()) {
+            m.compact();
+        }
         m.reserve(moments.size());
-        for (const auto &moment : moments) {
-            TankDriveMoment nm(-moment.l_pos, -moment.r_pos, -moment.l_vel, -moment.r_vel,
-                    -moment.l_accel, -moment.r_accel, rpf::mirror_angle(moment.heading, ref), moment.time,
-                    moment.init_facing);
-            nm.backwards = !backwards;
-            m.push_back(nm);
+        for (size_t i = 0; i < moments.size(); i++) {
+            m.push_back(-moments.l_pos[i], -moments.r_pos[i], -moments.l_vel[i], -moments.r_vel[i],
+                    -moments.l_accel[i], -moments.r_accel[i],
+                    rpf::mirror_angle(moments.heading[i], ref), moments.time[i]);
         }
         return std::shared_ptr<TankDriveTrajectory>(
-                new TankDriveTrajectory(p, std::move(m), !backwards, specs, params));
+                new TankDriveTrajectory(p, std::move(m), !backwards, init_facing, specs, params));
     }
     std::shared_ptr<TankDriveTrajectory> TankDriveTrajectory::retrace() const {
         auto p = path->retrace();
 
-        std::vector<TankDriveMoment> m;
+        TankDriveMomentColumns m;
+        if (moments.is_compact()) {
+            m.compact();
+        }
         m.reserve(moments.size());
-        auto &last = moments[moments.size() - 1];
-        for (auto rit = moments.rbegin(); rit != moments.rend(); ++rit) {
-            const auto &moment = *rit;
+        std::size_t last = moments.size() - 1;
+        for (size_t i = 0; i < moments.size(); i++) {
+            std::size_t j = last - i;
             /*
              * To generate the new moments, first the order of the moments has to be reversed, since
              * we are now starting from the end. The first moments should have less distance than
@@ -211,13 +183,12 @@ namespace rpf {
              * they cancel out, resulting in no change. The heading is flipped 180 degrees, and the
              * time is subtracted from the total.
              */
-            TankDriveMoment nm(-(last.l_pos - moment.l_pos), -(last.r_pos - moment.r_pos),
-                    -moment.l_vel, -moment.r_vel, moment.l_accel, moment.r_accel, -moment.heading,
-                    last.time - moment.time, params.waypoints[params.waypoints.size() - 1].heading);
-            nm.backwards = !backwards;
-            m.push_back(nm);
+            m.push_back(-(moments.l_pos[last] - moments.l_pos[j]),
+                    -(moments.r_pos[last] - moments.r_pos[j]), -moments.l_vel[j], -moments.r_vel[j],
+                    moments.l_accel[j], moments.r_accel[j], -moments.heading[j],
+                    moments.time[last] - moments.time[j]);
         }
-        return std::shared_ptr<TankDriveTrajectory>(
-                new TankDriveTrajectory(p, std::move(m), !backwards, specs, params));
+        return std::shared_ptr<TankDriveTrajectory>(new TankDriveTrajectory(p, std::move(m),
+                !backwards, params.waypoints[params.waypoints.size() - 1].heading, specs, params));
     }
 } // namespace rpf
@@ -0,0 +1,52 @@
+#include "trajectory/timeindex.h"
+#include "trajectory/momentcolumns.h"
+#include <algorithm>
+
+namespace rpf {
+
+    void TimeIndex::build(const std::vector<double> &time) {
+        block_start.clear();
+        if (time.size() < MIN_SIZE) {
+            block_start.shrink_to_fit();
+            return;
+        }
+
+        block_start.reserve((time.size() + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        for (std::size_t i = 0; i < time.size(); i += BLOCK_SIZE) {
+            block_start.push_back(time[i]);
+        }
+    }
+
+    std::pair<std::size_t, std::size_t> TimeIndex::search(
+            const std::vector<double> &time, double t) const {
+        if (block_start.empty()) {
+            return search_time(time, t);
+        }
+
+        std::size_t last = time.size() - 1;
+        // Time out of range - take the last moment
+        if (t >= time[last]) {
+            return std::make_pair(last, last);
+        }
+        // Time out of range - take the first moment
+        if (t <= time[0]) {
+            return std::make_pair(0, 0);
+        }
+
+        // Find the last block that starts at or before t
+        auto it = std::upper_bound(block_start.begin(), block_start.end(), t);
+        std::size_t block = (it - block_start.begin()) - 1;
+        // Then find the last moment in that block with a time at or before t
+        // Since t is less than the last time, the moment after it always exists
+        auto begin = time.begin() + block * BLOCK_SIZE;
+        auto end = time.begin() + std::min(block * BLOCK_SIZE + BLOCK_SIZE, last);
+        std::size_t i = std::upper_bound(begin, end, t) - time.begin() - 1;
+
+        // Exact match
+        if (time[i] == t) {
+            return std::make_pair(i, i);
+        }
+        // Time is sandwiched between two moments
+        return std::make_pair(i, i + 1);
+    }
+} // namespace rpf
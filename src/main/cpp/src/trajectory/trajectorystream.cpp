@@ -0,0 +1,433 @@
+#include "trajectory/trajectorystream.h"
+#include "math/rpfmath.h"
+#include <algorithm>
+#include <cmath>
+#include <limits>
+
+namespace rpf {
+
+    /*
+     * The generation here follows BasicTrajectory and TankDriveTrajectory exactly, except that the
+     * lookup table in Path is replaced with a cursor that marches along the path, and the backwards
+     * pass is only done on the lookahead window.
+     */
+
+    TrajectoryStream::TrajectoryStream(const RobotSpecs &specs, const TrajectoryParams &params)
+            : specs(specs), params(params), sample_count(params.sample_count) {
+        if (sample_count < 2) {
+            throw std::invalid_argument("Sample count must be at least 2");
+        }
+        path = std::make_shared<Path>(params.waypoints, params.alpha, params.type);
+        auto &waypoints = params.waypoints;
+
+        if (params.is_tank) {
+            path->set_base(specs.base_width / 2);
+        }
+
+        // Measure the length of the path the same way Path::compute_len() does, but without keeping
+        // the lookup table
+        // The distances of the waypoints with velocity constraints are found along the way
+        dt = 1.0 / (sample_count - 1);
+        double wpdt = 1.0 / (waypoints.size() - 1);
+        std::size_t wp = 1;
+        Vec2D last = path->at(0);
+        total = 0;
+        end_len = 0;
+        for (int i = 1; i < sample_count; i++) {
+            Vec2D current = path->at(i * dt);
+            double len = total + last.dist(current);
+            if (i == sample_count - 1) {
+                end_len = total;
+            }
+
+            // Interpolate to find the distance of all the waypoints between the last point and this
+            while (wp < waypoints.size() - 1 && wp * wpdt <= i * dt) {
+                if (!std::isnan(waypoints[wp].velocity)) {
+                    if (std::abs(waypoints[wp].velocity) > specs.max_v) {
+                        throw std::invalid_argument(
+                                "Waypoint velocity constraint is greater than the max velocity");
+                    }
+                    double f = (wp * wpdt - (i - 1) * dt) / dt;
+                    constraints.push_back(
+                            std::make_pair(rpf::lerp(total, len, f), waypoints[wp].velocity));
+                }
+                wp++;
+            }
+
+            total = len;
+            last = current;
+        }
+        dpi = total / (sample_count - 1);
+
+        // The braking distance from the max velocity
+        // Any sample this far behind the newest sample is no longer affected by the backwards pass
+        double braking = specs.max_v * specs.max_v / (2 * specs.max_a);
+        double samples = dpi > 0 ? std::ceil(braking / dpi) + 1 : sample_count;
+        window = static_cast<std::size_t>(std::min(samples, static_cast<double>(sample_count)));
+
+        // Set up the cursor at the start of the path
+        next_point = path->at(dt);
+        next_len = path->at(0).dist(next_point);
+    }
+
+    void TrajectoryStream::add_sample() {
+        int i = next_sample++;
+        double dist = i * dpi;
+
+        // Find the path time of this sample by marching the cursor forward until it reaches the
+        // distance, then interpolating like Path::s2t()
+        double s2t_dist = (1.0 / (sample_count - 1)) * i * total;
+        double t;
+        if (s2t_dist > end_len) {
+            t = 1;
+        }
+        else {
+            while (cursor + 1 < sample_count - 1 && next_len < s2t_dist) {
+                cursor++;
+                Vec2D point = path->at((cursor + 1) * dt);
+                cursor_len = next_len;
+                next_len += next_point.dist(point);
+                next_point = point;
+            }
+            double f = next_len > cursor_len ? (s2t_dist - cursor_len) / (next_len - cursor_len)
+                                             : 0;
+            t = rpf::lerp(cursor * dt, (cursor + 1) * dt, std::max(0.0, std::min(f, 1.0)));
+        }
+
+        Sample sample;
+        sample.t = t;
+        sample.constrained = false;
+        sample.fwd_accel = 0;
+        sample.fwd_dt = std::numeric_limits<double>::quiet_NaN();
+        auto d = path->deriv_at(t);
+        sample.heading = std::atan2(d.y, d.x);
+        // The max velocity at this sample (see BasicTrajectory)
+        double mv = specs.max_v;
+        if (params.is_tank) {
+            auto dd = path->second_deriv_at(t);
+            sample.r = 1 / rpf::curvature(d.x, dd.x, d.y, dd.y);
+            mv = specs.max_v / (1 + specs.base_width / (2 * std::abs(sample.r)));
+        }
+
+        auto &waypoints = params.waypoints;
+        if (i == 0) {
+            init_facing = sample.heading;
+            if (!std::isnan(waypoints[0].velocity)) {
+                sample.fwd_vel = waypoints[0].velocity;
+                sample.constrained = true;
+            }
+            else {
+                sample.fwd_vel = 0;
+            }
+        }
+        else if (!constraints.empty() && dist >= constraints.front().first) {
+            // Forwards pass for a constrained sample
+            auto constraint = constraints.front();
+            constraints.pop_front();
+            double prev = pending.back().fwd_vel;
+            if (constraint.second > prev) {
+                double a = (constraint.second * constraint.second - prev * prev) / (2 * dpi);
+                if (a > specs.max_a) {
+                    throw std::invalid_argument("Waypoint velocity constraint cannot be met");
+                }
+                sample.fwd_accel = a;
+                sample.fwd_dt = (constraint.second - prev) / a;
+            }
+            sample.fwd_vel = constraint.second;
+            sample.constrained = true;
+        }
+        else {
+            // Forwards pass: accelerate as much as possible without going over the max
+            double prev = pending.back().fwd_vel;
+            if (prev < mv) {
+                double maxv = std::sqrt(prev * prev + 2 * specs.max_a * dpi);
+                if (maxv > mv) {
+                    sample.fwd_vel = mv;
+                    sample.fwd_accel = (mv * mv - prev * prev) / (2 * dpi);
+                }
+                else {
+                    sample.fwd_vel = maxv;
+                    sample.fwd_accel = specs.max_a;
+                }
+                sample.fwd_dt = (sample.fwd_vel - prev) / sample.fwd_accel;
+            }
+            else {
+                sample.fwd_vel = mv;
+            }
+        }
+
+        if (i != 0 && i == sample_count - 1) {
+            // The last sample always has the velocity of the last waypoint
+            sample.fwd_vel = std::isnan(waypoints[waypoints.size() - 1].velocity)
+                                     ? 0
+                                     : waypoints[waypoints.size() - 1].velocity;
+            sample.constrained = false;
+        }
+        sample.vel = sample.fwd_vel;
+
+        pending.push_back(sample);
+    }
+
+    void TrajectoryStream::finalize_window() {
+        bool end = next_sample == sample_count;
+
+        // Backwards pass
+        // If the end has not been reached yet the velocity of the next sample is unknown, so assume
+        // the worst case and make the newest sample stop. This only affects the samples within the
+        // braking distance of it, which are not finalized.
+        pending.back().vel = end ? pending.back().fwd_vel : 0;
+        for (std::size_t i = pending.size() - 1; i-- > 0;) {
+            double next = pending[i + 1].vel;
+            pending[i].vel =
+                    std::min(pending[i].fwd_vel, std::sqrt(next * next + 2 * specs.max_a * dpi));
+        }
+
+        std::size_t count = end ? pending.size()
+                                : (pending.size() > window ? pending.size() - window : 0);
+        for (std::size_t i = 0; i < count; i++) {
+            const Sample &sample = pending.front();
+            // A constrained sample cannot be slowed down
+            if (sample.constrained && sample.vel < sample.fwd_vel) {
+                throw std::invalid_argument("Waypoint velocity constraint cannot be met");
+            }
+            // The last finalized sample can be turned into a moment now that the velocity after it
+            // is known
+            if (has_last_final) {
+                emit(last_final, &sample);
+            }
+            last_final = sample;
+            has_last_final = true;
+            pending.pop_front();
+        }
+
+        if (end) {
+            emit(last_final, nullptr);
+            done = true;
+        }
+    }
+
+    void TrajectoryStream::emit(const Sample &sample, const Sample *next) {
+        bool last = next == nullptr;
+        double v = sample.vel;
+        // Find the acceleration and time difference the same way BasicTrajectory does
+        double accel = 0;
+        double time_diff = 0;
+        if (!last) {
+            if (v > next->vel) {
+                // Slowed down by the backwards pass
+                accel = v < sample.fwd_vel ? -specs.max_a
+                                           : -(v * v - next->vel * next->vel) / (2 * dpi);
+                time_diff = (next->vel - v) / accel;
+            }
+            else if (!std::isnan(next->fwd_dt)) {
+                // Found by the forwards pass
+                accel = next->fwd_accel;
+                time_diff = next->fwd_dt;
+            }
+            else {
+                // Constant velocity
+                time_diff = ((emitted + 1) * dpi - emitted * dpi) / v;
+            }
+        }
+
+        if (params.is_tank) {
+            // Numerically integrate for the wheels like TankDriveTrajectory
+            auto wheels = path->wheels_at(sample.t);
+            double d = v / sample.r * (specs.base_width / 2);
+            double lv = v - d;
+            double rv = v + d;
+
+            if (emitted == 0) {
+                if (std::isnan(params.waypoints[0].velocity)) {
+                    lv = rv = 0;
+                }
+                last_tank = TankDriveMoment(0, 0, lv, rv, 0, 0, sample.heading, time, init_facing);
+            }
+            else {
+                double dl = last_wheels.first.dist(wheels.first);
+                double dr = last_wheels.second.dist(wheels.second);
+                if (lv < 0) {
+                    dl = -dl;
+                }
+                if (rv < 0) {
+                    dr = -dr;
+                }
+
+                // The acceleration of the last moment can be computed now
+                double mdt = time - last_tank.time;
+                last_tank.l_accel = (lv - last_tank.l_vel) / mdt;
+                last_tank.r_accel = (rv - last_tank.r_vel) / mdt;
+                tank_moments.push_back(last_tank);
+
+                // Since each tank moment is only added once the one after it is known, the path
+                // times are always one ahead of the tank moments
+                last_tank = TankDriveMoment(last_tank.l_pos + dl, last_tank.r_pos + dr, lv, rv, 0, 0,
+                        sample.heading, time, init_facing);
+            }
+            last_wheels = wheels;
+            patht.push_back(sample.t);
+
+            if (last) {
+                tank_moments.push_back(last_tank);
+            }
+        }
+        else {
+            moments.push_back(
+                    BasicMoment(emitted * dpi, v, accel, sample.heading, time, init_facing));
+            patht.push_back(sample.t);
+        }
+
+        time += time_diff;
+        emitted++;
+    }
+
+    void TrajectoryStream::step() {
+        try {
+            // Fill up the window, then finalize everything that is at least a window behind
+            while (next_sample < sample_count && pending.size() < 2 * window) {
+                add_sample();
+            }
+            finalize_window();
+        }
+        catch (const std::exception &e) {
+            // Generation cannot continue after a failure
+            error = e.what();
+            throw;
+        }
+    }
+
+    void TrajectoryStream::ensure(double t) {
+        check_failed();
+        while (!done) {
+            if (params.is_tank ? !tank_moments.empty() && tank_moments.back().time >= t
+                               : !moments.empty() && moments.back().time >= t) {
+                break;
+            }
+            step();
+        }
+    }
+
+    void TrajectoryStream::check_failed() const {
+        if (!error.empty()) {
+            throw std::runtime_error(error);
+        }
+    }
+
+    template <typename T>
+    void TrajectoryStream::seek(std::deque<T> &buffer, double t) {
+        // Find the last moment at or before the time
+        auto it = std::upper_bound(buffer.begin(), buffer.end(), t,
+                [](double time, const T &moment) { return time < moment.time; });
+        std::size_t i = it == buffer.begin() ? 0 : it - buffer.begin() - 1;
+
+        // Discard everything before it
+        buffer.erase(buffer.begin(), buffer.begin() + i);
+        patht.erase(patht.begin(), patht.begin() + i);
+    }
+
+    std::size_t TrajectoryStream::generate(std::size_t count) {
+        std::lock_guard<std::mutex> lock(mutex);
+        check_failed();
+
+        std::size_t start = emitted;
+        while (!done && emitted - start < count) {
+            step();
+        }
+        return emitted - start;
+    }
+
+    bool TrajectoryStream::is_done() const {
+        std::lock_guard<std::mutex> lock(mutex);
+        return done;
+    }
+
+    double TrajectoryStream::total_time() const {
+        std::lock_guard<std::mutex> lock(mutex);
+        if (!done) {
+            return std::numeric_limits<double>::infinity();
+        }
+        return params.is_tank ? tank_moments.back().time : moments.back().time;
+    }
+
+    std::size_t TrajectoryStream::buffered_count() const {
+        std::lock_guard<std::mutex> lock(mutex);
+        return params.is_tank ? tank_moments.size() : moments.size();
+    }
+
+    BasicMoment TrajectoryStream::get(double t) {
+        std::lock_guard<std::mutex> lock(mutex);
+        if (params.is_tank) {
+            throw std::logic_error("Stream is for a tank drive trajectory");
+        }
+        ensure(t);
+        seek(moments, t);
+
+        auto &current = moments[0];
+        // Exact match or out of range - return it
+        if (moments.size() == 1 || t <= current.time) {
+            return current;
+        }
+        // Otherwise linearly interpolate
+        auto &next = moments[1];
+        double f = (t - current.time) / (next.time - current.time);
+        return BasicMoment(rpf::lerp(current.pos, next.pos, f), rpf::lerp(current.vel, next.vel, f),
+                rpf::lerp(current.accel, next.accel, f),
+                rpf::lerp_angle(current.heading, next.heading, f), t, init_facing);
+    }
+
+    TankDriveMoment TrajectoryStream::get_tank(double t) {
+        std::lock_guard<std::mutex> lock(mutex);
+        if (!params.is_tank) {
+            throw std::logic_error("Stream is not for a tank drive trajectory");
+        }
+        ensure(t);
+        seek(tank_moments, t);
+
+        auto &current = tank_moments[0];
+        // Exact match or out of range - return it
+        if (tank_moments.size() == 1 || t <= current.time) {
+            return current;
+        }
+        // Otherwise linearly interpolate
+        auto &next = tank_moments[1];
+        double f = (t - current.time) / (next.time - current.time);
+        return TankDriveMoment(rpf::lerp(current.l_pos, next.l_pos, f),
+                rpf::lerp(current.r_pos, next.r_pos, f), rpf::lerp(current.l_vel, next.l_vel, f),
+                rpf::lerp(current.r_vel, next.r_vel, f),
+                rpf::lerp(current.l_accel, next.l_accel, f),
+                rpf::lerp(current.r_accel, next.r_accel, f),
+                rpf::lerp_angle(current.heading, next.heading, f), t, init_facing);
+    }
+
+    Waypoint TrajectoryStream::get_pos(double t) {
+        std::lock_guard<std::mutex> lock(mutex);
+        ensure(t);
+
+        // Find the times of the two moments around t
+        double t1, t2;
+        if (params.is_tank) {
+            seek(tank_moments, t);
+            t1 = tank_moments[0].time;
+            t2 = tank_moments.size() > 1 ? tank_moments[1].time : t1;
+        }
+        else {
+            seek(moments, t);
+            t1 = moments[0].time;
+            t2 = moments.size() > 1 ? moments[1].time : t1;
+        }
+
+        // Calculate path time by interpolating
+        double pt;
+        if (t <= t1 || t2 == t1) {
+            pt = patht[0];
+        }
+        else {
+            pt = rpf::lerp(patht[0], patht[1], (t - t1) / (t2 - t1));
+        }
+
+        auto pos = path->at(pt);
+        auto deriv = path->deriv_at(pt);
+        // From the derivative calculate the heading
+        return Waypoint(pos, std::atan2(deriv.y, deriv.x));
+    }
+} // namespace rpf
@@ -8,9 +8,16 @@ import java.util.Objects;
  * robots, the width of the base plate. Used in the construction of any
  * trajectory.
  * <p>
+ * Optionally, a max jerk (rate of change of acceleration) can also be set. If
+ * it is, trajectories limit how fast their acceleration changes, which avoids
+ * the sudden jumps in acceleration that can cause wheel slip. It is not set by
+ * default.
+ * </p>
+ * <p>
  * Note that it does not matter exactly what unit is used; however, they must
  * match. For example, if the unit for velocity is in m/s, the unit for
- * acceleration must be in m/s^2 and the unit for base plate width must be in m.
+ * acceleration must be in m/s^2, the unit for jerk must be in m/s^3 and the unit
+ * for base plate width must be in m.
  * The units used here also dictate which units are used by trajectories when
  * they return data for a specific time.
  * </p>
@@ -22,6 +29,7 @@ public class RobotSpecs {
 
 	protected double baseWidth = Double.NaN;
 	protected double maxVelocity, maxAcceleration;
+	protected double maxJerk = Double.NaN;
 
 	@Override
 	public boolean equals(Object o) {
@@ -32,18 +40,19 @@ public class RobotSpecs {
 		}
 		RobotSpecs robotSpecs = (RobotSpecs) o;
 		return baseWidth == robotSpecs.baseWidth && maxVelocity == robotSpecs.maxVelocity
-				&& maxAcceleration == robotSpecs.maxAcceleration;
+				&& maxAcceleration == robotSpecs.maxAcceleration
+				&& Double.compare(maxJerk, robotSpecs.maxJerk) == 0;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(baseWidth, maxVelocity, maxAcceleration);
+		return Objects.hash(baseWidth, maxVelocity, maxAcceleration, maxJerk);
 	}
 
 	@Override
 	public String toString() {
 		return "{" + " baseWidth='" + getBaseWidth() + "'" + ", maxVelocity='" + getMaxVelocity() + "'"
-				+ ", maxAcceleration='" + getMaxAcceleration() + "'" + "}";
+				+ ", maxAcceleration='" + getMaxAcceleration() + "'" + ", maxJerk='" + getMaxJerk() + "'" + "}";
 	}
 
 	/**
@@ -73,6 +82,23 @@ public class RobotSpecs {
 		this.baseWidth = baseWidth;
 	}
 
+	/**
+	 * Constructs a new robot specification object with the specified values,
+	 * including a max jerk.
+	 * 
+	 * @param maxVelocity     The absolute value of the max velocity of the robot
+	 * @param maxAcceleration The absolute value of the max acceleration of the
+	 *                        robot
+	 * @param baseWidth       The width of the base plate of the robot (distance
+	 *                        from wheels on one side to wheels on the other side);
+	 *                        can be {@code NaN} if not needed
+	 * @param maxJerk         The absolute value of the max jerk of the robot
+	 */
+	public RobotSpecs(double maxVelocity, double maxAcceleration, double baseWidth, double maxJerk) {
+		this(maxVelocity, maxAcceleration, baseWidth);
+		this.maxJerk = maxJerk;
+	}
+
 	/**
 	 * Retrieves the base width (distance between the left and right side wheels) of
 	 * this robot specifications object.
@@ -129,4 +155,22 @@ public class RobotSpecs {
 	public void setMaxAcceleration(double maxAcceleration) {
 		this.maxAcceleration = maxAcceleration;
 	}
+
+	/**
+	 * Retrieves the max jerk of this robot specifications object.
+	 * 
+	 * @return The max jerk of the robot, or {@code NaN} if there is no jerk limit
+	 */
+	public double getMaxJerk() {
+		return maxJerk;
+	}
+
+	/**
+	 * Sets the max jerk of this robot specifications object.
+	 * 
+	 * @param maxJerk The new max jerk; {@code NaN} to remove the jerk limit
+	 */
+	public void setMaxJerk(double maxJerk) {
+		this.maxJerk = maxJerk;
+	}
 }
@@ -34,6 +34,10 @@ public class TrajectoryParams implements Cloneable {
 	 * hermite splines. The sine and cosine values of the heading of the waypoint
 	 * are multiplied by this value to get the derivative.
 	 * </p>
+	 * <p>
+	 * Waypoints with their own {@link Waypoint#getAlpha() alpha} override this
+	 * value at that waypoint.
+	 * </p>
 	 */
 	public double alpha = Double.NaN;
 	/**
@@ -49,8 +53,33 @@ public class TrajectoryParams implements Cloneable {
 	/**
 	 * The type of path to be used by the trajectory. For more information, see
 	 * {@link PathType}. Default value is {@link PathType#QUINTIC_HERMITE}.
+	 * <p>
+	 * Waypoints with their own {@link Waypoint#getSegmentType() segment type}
+	 * override this value for the segment that starts at that waypoint.
+	 * </p>
 	 */
 	public PathType pathType = PathType.QUINTIC_HERMITE;
+	/**
+	 * Whether the trajectory should be stored in compact (single precision) form.
+	 * Default value is {@code false}.
+	 * <p>
+	 * Trajectories are always generated in double precision. When this is
+	 * {@code true}, the position, velocity, acceleration and heading of every
+	 * moment are then rounded to 32-bit floats, which roughly halves the native
+	 * memory used by the trajectory. Time is still kept in double precision, so
+	 * the timing of the trajectory is unaffected.
+	 * </p>
+	 * <p>
+	 * Each stored value has a relative error of at most 2<sup>-24</sup> (about
+	 * 6&times;10<sup>-8</sup>). For example, the heading (within
+	 * &plusmn;&pi;) will be off by no more than 2&times;10<sup>-7</sup> radians,
+	 * and a position of 10 meters will be off by no more than 0.6 micrometers.
+	 * Interpolation is done in double precision, so an interpolated value is
+	 * never off by more than the larger error of the two moments it was
+	 * interpolated from.
+	 * </p>
+	 */
+	public boolean compact = false;
 
 	/**
 	 * Creates an identical copy of this {@link TrajectoryParams}.
@@ -62,6 +91,7 @@ public class TrajectoryParams implements Cloneable {
 		tp.alpha = this.alpha;
 		tp.sampleCount = this.sampleCount;
 		tp.pathType = this.pathType;
+		tp.compact = this.compact;
 		return tp;
 	}
 
@@ -74,18 +104,18 @@ public class TrajectoryParams implements Cloneable {
 		}
 		TrajectoryParams t = (TrajectoryParams) o;
 		return Arrays.equals(waypoints, t.waypoints) && alpha == t.alpha && sampleCount == t.sampleCount
-				&& pathType == t.pathType;
+				&& pathType == t.pathType && compact == t.compact;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(waypoints, alpha, sampleCount, pathType);
+		return Objects.hash(waypoints, alpha, sampleCount, pathType, compact);
 	}
 
 	@Override
 	public String toString() {
 		return "{" + " waypoints='" + waypoints + "'" + ", alpha='" + alpha + "'" + ", sampleCount='" + sampleCount
-				+ "'" + ", pathType='" + pathType + "'" + "}";
+				+ "'" + ", pathType='" + pathType + "'" + ", compact='" + compact + "'" + "}";
 	}
 
 	/**
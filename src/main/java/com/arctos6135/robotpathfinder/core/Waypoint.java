@@ -2,6 +2,8 @@ package com.arctos6135.robotpathfinder.core;
 
 import java.util.Objects;
 
+import com.arctos6135.robotpathfinder.core.path.PathType;
+
 /**
  * Represents a point that the robot must pass through in a path or trajectory.
  * <p>
@@ -14,6 +16,14 @@ import java.util.Objects;
  * Thus, 0 represents right, &pi;/2 represents up, and so on.
  * </p>
  * <p>
+ * Each waypoint can also override how the path is fitted around it: the
+ * magnitude of the tangent (which otherwise comes from
+ * {@link TrajectoryParams#alpha}), the curvature of the path at the waypoint,
+ * and the type of the segment from this waypoint to the next one (which
+ * otherwise comes from {@link TrajectoryParams#pathType}). This allows
+ * different parts of a path to be shaped differently.
+ * </p>
+ * <p>
  * Note that it does not matter what specific unit is used for distance;
  * however, the unit must match with the units in the {@link RobotSpecs} object
  * used to construct the trajectory. For example, if the unit for max velocity
@@ -30,6 +40,10 @@ public class Waypoint {
     protected double y;
     protected double heading;
     protected double velocity = Double.NaN;
+    protected double alpha = Double.NaN;
+    protected double curvature = 0;
+    // The JNI ID of the segment type, or 0 for none
+    protected int segmentType = 0;
 
     @Override
     public boolean equals(Object o) {
@@ -39,18 +53,21 @@ public class Waypoint {
             return false;
         }
         Waypoint waypoint = (Waypoint) o;
-        return x == waypoint.x && y == waypoint.y && heading == waypoint.heading && velocity == waypoint.velocity;
+        return x == waypoint.x && y == waypoint.y && heading == waypoint.heading && velocity == waypoint.velocity
+                && alpha == waypoint.alpha && curvature == waypoint.curvature
+                && segmentType == waypoint.segmentType;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(x, y, heading, velocity);
+        return Objects.hash(x, y, heading, velocity, alpha, curvature, segmentType);
     }
 
     @Override
     public String toString() {
         return "{" + " x='" + getX() + "'" + ", y='" + getY() + "'" + ", heading='" + getHeading() + "'"
-                + ", velocity='" + getVelocity() + "'" + "}";
+                + ", velocity='" + getVelocity() + "'" + ", alpha='" + getAlpha() + "'" + ", curvature='"
+                + getCurvature() + "'" + ", segmentType='" + getSegmentType() + "'" + "}";
     }
 
     /**
@@ -89,6 +106,37 @@ public class Waypoint {
         this.velocity = velocity;
     }
 
+    /**
+     * Creates a new {@link Waypoint} with the specified parameters, which also
+     * controls how the path is fitted around it.
+     * 
+     * @param x           The x coordinate of the waypoint
+     * @param y           The y coordinate of the waypoint
+     * @param heading     The heading of the robot at the waypoint, in radians
+     * @param velocity    The velocity of the robot at the waypoint, or
+     *                    {@code NaN} if unconstrained
+     * @param alpha       The magnitude of the tangent at the waypoint, or
+     *                    {@code NaN} to use {@link TrajectoryParams#alpha}
+     * @param curvature   The curvature of the path at the waypoint; positive
+     *                    values turn left. Only used by
+     *                    {@link PathType#QUINTIC_HERMITE} segments.
+     * @param segmentType The type of the segment from this waypoint to the next,
+     *                    or {@code null} to use {@link TrajectoryParams#pathType}
+     */
+    public Waypoint(double x, double y, double heading, double velocity, double alpha, double curvature,
+            PathType segmentType) {
+        this(x, y, heading, velocity, alpha, curvature, segmentType == null ? 0 : segmentType.getJNIID());
+    }
+
+    // Used by native code
+    private Waypoint(double x, double y, double heading, double velocity, double alpha, double curvature,
+            int segmentType) {
+        this(x, y, heading, velocity);
+        this.alpha = alpha;
+        this.curvature = curvature;
+        this.segmentType = segmentType;
+    }
+
     /**
      * Retrieves the x coordinate of this waypoint.
      * 
@@ -128,4 +176,48 @@ public class Waypoint {
     public double getVelocity() {
         return velocity;
     }
+
+    /**
+     * Retrieves the magnitude of the tangent of the path at this waypoint.
+     * <p>
+     * By default, this value is set to {@code NaN} to signify that
+     * {@link TrajectoryParams#alpha} is used.
+     * </p>
+     * 
+     * @return The tangent magnitude
+     */
+    public double getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * Retrieves the curvature of the path at this waypoint.
+     * <p>
+     * Positive values turn left. Only {@link PathType#QUINTIC_HERMITE} segments
+     * use this value. By default, this value is 0.
+     * </p>
+     * 
+     * @return The curvature
+     */
+    public double getCurvature() {
+        return curvature;
+    }
+
+    /**
+     * Retrieves the type of the segment from this waypoint to the next one.
+     * <p>
+     * By default, this value is {@code null} to signify that
+     * {@link TrajectoryParams#pathType} is used.
+     * </p>
+     * 
+     * @return The segment type
+     */
+    public PathType getSegmentType() {
+        for (PathType type : PathType.values()) {
+            if (type.getJNIID() == segmentType) {
+                return type;
+            }
+        }
+        return null;
+    }
 }
@@ -71,6 +71,12 @@ public class Path extends JNIObject {
      * the waypoints, increasing this value too much can result in unwanted sharp
      * turns between waypoints.
      * </p>
+     * <p>
+     * The alpha and type given here are only defaults. Each waypoint may override
+     * the alpha at that waypoint and the type of the segment that starts at it,
+     * and may give the curvature of the path at that waypoint (see
+     * {@link Waypoint}).
+     * </p>
      * 
      * @param waypoints The waypoints this path must pass through
      * @param alpha     The turn smoothness constant
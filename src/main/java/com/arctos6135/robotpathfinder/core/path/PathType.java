@@ -34,11 +34,32 @@ public enum PathType {
 	 * second derivatives constrained, these paths may have small jumps in
 	 * acceleration where two segments meet.
 	 */
-	CUBIC_HERMITE;
+	CUBIC_HERMITE,
+	/**
+	 * The path spline consists of segments of quintic hermite polynomials, like
+	 * {@link #QUINTIC_HERMITE}, but with curvature that is continuous and usually
+	 * not zero at the waypoints. {@link #QUINTIC_HERMITE} paths have a second
+	 * derivative of zero at every waypoint, so the curvature drops to zero where
+	 * two segments meet, and the robot has to slow down and speed up around every
+	 * waypoint in a turn. Instead, these paths solve for the second derivatives at
+	 * all the waypoints together, so that the path bends as little as possible
+	 * overall. This makes the turns rounder, and trajectories using these paths
+	 * are often shorter and faster.
+	 * <p>
+	 * Since the second derivatives depend on all the waypoints, moving one
+	 * waypoint changes the whole path slightly, though the effect drops off quickly
+	 * with distance. The curvature of the waypoints (see
+	 * {@link com.arctos6135.robotpathfinder.core.Waypoint#getCurvature()
+	 * Waypoint.getCurvature()}) is ignored, except where a segment of this type
+	 * meets a {@link #QUINTIC_HERMITE} segment.
+	 * </p>
+	 */
+	QUINTIC_G2;
 
 	private static final int PT_BEZIER = 1;
 	private static final int PT_CUBIC_HERMITE = 2;
 	private static final int PT_QUINTIC_HERMITE = 3;
+	private static final int PT_QUINTIC_G2 = 4;
 
 	/**
 	 * Retrieves the JNI enum value of this {@link PathType}.
@@ -57,6 +78,8 @@ public enum PathType {
 			return PT_CUBIC_HERMITE;
 		case QUINTIC_HERMITE:
 			return PT_QUINTIC_HERMITE;
+		case QUINTIC_G2:
+			return PT_QUINTIC_G2;
 		default:
 			return 0;
 		}
@@ -0,0 +1,478 @@
+package com.arctos6135.robotpathfinder.core.trajectory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.TrajectoryParams;
+import com.arctos6135.robotpathfinder.core.Waypoint;
+
+/**
+ * Searches for the {@link TrajectoryParams#alpha alpha}, or the alpha of each
+ * waypoint, and optionally the headings of the waypoints, that give the fastest
+ * trajectory.
+ * <p>
+ * Alpha controls how sharp the turns of the path are, which limits how fast the
+ * robot can go through them. It is usually tuned by hand, but the best value
+ * depends on the waypoints and the robot. This class instead generates
+ * trajectories for many candidate values and keeps the one with the lowest
+ * {@link Trajectory#totalTime() total time}. Candidates that cannot be
+ * generated, e.g. because a waypoint velocity cannot be met, are never chosen.
+ * </p>
+ * <p>
+ * If the {@link RobotSpecs} have a base width, {@link TankDriveTrajectory}s are
+ * generated, which also accounts for the outer wheel having to go faster in
+ * turns. Otherwise, {@link BasicTrajectory}s are generated.
+ * </p>
+ * <p>
+ * The search first tries evenly spaced values of alpha (on a logarithmic scale)
+ * between the bounds, then refines the best one with an evolution strategy:
+ * each generation draws candidates from a normal distribution around the best
+ * one so far, and the spread grows when a better candidate is found and shrinks
+ * otherwise. If enabled, the headings of the waypoints in between the first and
+ * the last are also searched, within a limit of how far they may turn from the
+ * original headings. The first and last headings are never changed.
+ * </p>
+ * <p>
+ * By default, only the alpha of the parameters is searched, and waypoints that
+ * have their own {@link Waypoint#getAlpha() alpha} keep it. Alternatively, the
+ * alpha of every waypoint can be searched separately, which allows sharp and
+ * smooth turns in the same path. The initial sweep then gives every waypoint
+ * the same alpha, and the evolution strategy adjusts them individually.
+ * </p>
+ * <p>
+ * Each generation is generated in parallel on an
+ * {@link AsyncTrajectoryGenerator}. All the other parameters, such as the path
+ * type and sample count, are kept, so the search is only as accurate as the
+ * sample count allows.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see AsyncTrajectoryGenerator
+ * @since 3.0.0
+ */
+public class AlphaOptimizer {
+
+    private final RobotSpecs specs;
+    private final TrajectoryParams params;
+
+    private double minAlpha, maxAlpha;
+    private boolean optimizeWaypointAlphas = false;
+    private boolean optimizeHeadings = false;
+    private double maxHeadingChange = Math.PI / 4;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The result of an optimization.
+     *
+     * @author Tyler Tian
+     * @since 3.0.0
+     */
+    public static class Result {
+
+        private final TrajectoryParams params;
+        private final double initialTime;
+        private final double time;
+        private final int evaluations;
+
+        Result(TrajectoryParams params, double initialTime, double time, int evaluations) {
+            this.params = params;
+            this.initialTime = initialTime;
+            this.time = time;
+            this.evaluations = evaluations;
+        }
+
+        /**
+         * Retrieves the best parameters found.
+         *
+         * @return A copy of the best parameters
+         */
+        public TrajectoryParams getParams() {
+            TrajectoryParams copy = params.clone();
+            copy.waypoints = params.waypoints.clone();
+            return copy;
+        }
+
+        /**
+         * Retrieves the best alpha found.
+         * <p>
+         * If the alpha of each waypoint was searched, this is the alpha of the
+         * original parameters, which is no longer used; see the waypoints of
+         * {@link #getParams()} instead.
+         * </p>
+         *
+         * @return The best alpha
+         */
+        public double getAlpha() {
+            return params.alpha;
+        }
+
+        /**
+         * Retrieves the total time of the trajectory generated with the original
+         * parameters.
+         *
+         * @return The original total time, or {@link Double#POSITIVE_INFINITY} if
+         *         the original parameters could not be generated
+         */
+        public double getInitialTime() {
+            return initialTime;
+        }
+
+        /**
+         * Retrieves the total time of the trajectory generated with the best
+         * parameters found.
+         *
+         * @return The best total time, or {@link Double#POSITIVE_INFINITY} if no
+         *         candidate could be generated
+         */
+        public double getTime() {
+            return time;
+        }
+
+        /**
+         * Retrieves how much faster the best trajectory is than the original.
+         *
+         * @return The time saved; never negative, since the original parameters
+         *         are also a candidate
+         */
+        public double getTimeSaved() {
+            return initialTime == time ? 0 : initialTime - time;
+        }
+
+        /**
+         * Retrieves the number of trajectories that were generated.
+         *
+         * @return The number of candidates evaluated
+         */
+        public int getEvaluations() {
+            return evaluations;
+        }
+
+        @Override
+        public String toString() {
+            return "Result [alpha=" + params.alpha + ", initialTime=" + initialTime + ", time=" + time
+                    + ", timeSaved=" + getTimeSaved() + ", evaluations=" + evaluations + "]";
+        }
+    }
+
+    /**
+     * Creates a new optimizer.
+     * <p>
+     * By default, alpha is searched between a quarter of and 4 times the alpha of
+     * the parameters.
+     * </p>
+     *
+     * @param specs  A {@link RobotSpecs} object providing robot information such as
+     *               the maximum velocity.
+     * @param params The parameters to start from; not modified
+     */
+    public AlphaOptimizer(RobotSpecs specs, TrajectoryParams params) {
+        if (params.waypoints == null || params.waypoints.length < 2) {
+            throw new IllegalArgumentException("Not enough waypoints");
+        }
+        if (!(params.alpha > 0)) {
+            throw new IllegalArgumentException("Alpha must be positive");
+        }
+        this.specs = specs;
+        this.params = params.clone();
+        this.params.waypoints = params.waypoints.clone();
+        minAlpha = params.alpha / 4;
+        maxAlpha = params.alpha * 4;
+    }
+
+    /**
+     * Sets the range of alpha that is searched.
+     *
+     * @param minAlpha The smallest alpha
+     * @param maxAlpha The largest alpha
+     */
+    public void setAlphaBounds(double minAlpha, double maxAlpha) {
+        if (!(minAlpha > 0 && minAlpha <= maxAlpha) || Double.isInfinite(maxAlpha)) {
+            throw new IllegalArgumentException("Alpha bounds must be positive and finite, with min <= max");
+        }
+        this.minAlpha = minAlpha;
+        this.maxAlpha = maxAlpha;
+    }
+
+    /**
+     * Retrieves the smallest alpha that is searched.
+     *
+     * @return The smallest alpha
+     */
+    public double getMinAlpha() {
+        return minAlpha;
+    }
+
+    /**
+     * Retrieves the largest alpha that is searched.
+     *
+     * @return The largest alpha
+     */
+    public double getMaxAlpha() {
+        return maxAlpha;
+    }
+
+    /**
+     * Sets whether the alpha of each waypoint is searched separately, instead of
+     * the alpha of the parameters.
+     * <p>
+     * The default is {@code false}.
+     * </p>
+     *
+     * @param optimizeWaypointAlphas Whether to search the alpha of each waypoint
+     */
+    public void setOptimizeWaypointAlphas(boolean optimizeWaypointAlphas) {
+        this.optimizeWaypointAlphas = optimizeWaypointAlphas;
+    }
+
+    /**
+     * Retrieves whether the alpha of each waypoint is searched separately, instead
+     * of the alpha of the parameters.
+     *
+     * @return Whether the alpha of each waypoint is searched
+     */
+    public boolean getOptimizeWaypointAlphas() {
+        return optimizeWaypointAlphas;
+    }
+
+    /**
+     * Sets whether the headings of the waypoints in between the first and the last
+     * are searched as well.
+     * <p>
+     * The default is {@code false}.
+     * </p>
+     *
+     * @param optimizeHeadings Whether to search the headings
+     */
+    public void setOptimizeHeadings(boolean optimizeHeadings) {
+        this.optimizeHeadings = optimizeHeadings;
+    }
+
+    /**
+     * Retrieves whether the headings of the waypoints in between the first and the
+     * last are searched as well.
+     *
+     * @return Whether the headings are searched
+     */
+    public boolean getOptimizeHeadings() {
+        return optimizeHeadings;
+    }
+
+    /**
+     * Sets how far the headings may turn from the original headings when they are
+     * searched.
+     * <p>
+     * The default is &pi;/4.
+     * </p>
+     *
+     * @param maxHeadingChange The largest change in each heading, in radians
+     */
+    public void setMaxHeadingChange(double maxHeadingChange) {
+        if (!(maxHeadingChange >= 0)) {
+            throw new IllegalArgumentException("Max heading change must be non-negative");
+        }
+        this.maxHeadingChange = maxHeadingChange;
+    }
+
+    /**
+     * Retrieves how far the headings may turn from the original headings when they
+     * are searched.
+     *
+     * @return The largest change in each heading, in radians
+     */
+    public double getMaxHeadingChange() {
+        return maxHeadingChange;
+    }
+
+    /**
+     * Sets the number of threads trajectories are generated on.
+     * <p>
+     * The default is the number of available processors.
+     * </p>
+     *
+     * @param threads The number of threads
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Retrieves the number of threads trajectories are generated on.
+     *
+     * @return The number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Retrieves the number of values of alpha in the search space.
+     */
+    private int alphaCount() {
+        return optimizeWaypointAlphas ? params.waypoints.length : 1;
+    }
+
+    /**
+     * Creates the parameters for a point in the search space.
+     *
+     * @param point The natural log of alpha, or of the alpha of each waypoint,
+     *              followed by the change in heading of each waypoint in between
+     *              the first and the last if headings are searched
+     */
+    private TrajectoryParams toParams(double[] point) {
+        TrajectoryParams p = params.clone();
+        if (!optimizeWaypointAlphas) {
+            p.alpha = Math.exp(point[0]);
+        }
+        int alphaCount = alphaCount();
+        p.waypoints = new Waypoint[params.waypoints.length];
+        for (int i = 0; i < p.waypoints.length; i++) {
+            Waypoint w = params.waypoints[i];
+            double alpha = optimizeWaypointAlphas ? Math.exp(point[i]) : w.getAlpha();
+            double heading = w.getHeading();
+            if (optimizeHeadings && i > 0 && i < p.waypoints.length - 1) {
+                heading += point[alphaCount + i - 1];
+            }
+            p.waypoints[i] = new Waypoint(w.getX(), w.getY(), heading, w.getVelocity(), alpha, w.getCurvature(),
+                    w.getSegmentType());
+        }
+        return p;
+    }
+
+    /**
+     * Generates trajectories for many parameters in parallel.
+     *
+     * @param candidates The parameters
+     * @return The total time of each trajectory, or
+     *         {@link Double#POSITIVE_INFINITY} if it could not be generated
+     */
+    public double[] evaluateAll(List<TrajectoryParams> candidates) {
+        boolean tank = !Double.isNaN(specs.getBaseWidth());
+        double[] times = new double[candidates.size()];
+        try (AsyncTrajectoryGenerator generator = new AsyncTrajectoryGenerator(
+                Math.min(threads, Math.max(candidates.size(), 1)), Math.max(candidates.size(), 1))) {
+            List<CompletableFuture<? extends Trajectory<?>>> futures = new ArrayList<>(candidates.size());
+            for (TrajectoryParams candidate : candidates) {
+                futures.add(tank ? generator.generateTankDrive(specs, candidate)
+                        : generator.generateBasic(specs, candidate));
+            }
+            for (int i = 0; i < times.length; i++) {
+                try {
+                    Trajectory<?> trajectory = futures.get(i).get();
+                    times[i] = trajectory.totalTime();
+                    trajectory.close();
+                } catch (ExecutionException e) {
+                    times[i] = Double.POSITIVE_INFINITY;
+                }
+                // A NaN time should never be considered good
+                if (Double.isNaN(times[i])) {
+                    times[i] = Double.POSITIVE_INFINITY;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Optimization was interrupted!", e);
+        }
+        return times;
+    }
+
+    /**
+     * Searches for the parameters that give the fastest trajectory.
+     *
+     * @param generations    The number of generations of the evolution strategy,
+     *                       not counting the initial sweep of alpha
+     * @param populationSize The number of candidates in each generation; at least
+     *                       2
+     * @param seed           The random seed, for reproducible results
+     * @return The result of the search
+     */
+    public Result optimize(int generations, int populationSize, long seed) {
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("Population size must be at least 2");
+        }
+        int alphaCount = alphaCount();
+        int dims = alphaCount + (optimizeHeadings ? params.waypoints.length - 2 : 0);
+        double logMin = Math.log(minAlpha);
+        double logMax = Math.log(maxAlpha);
+
+        // Start with the original parameters and an even sweep of alpha
+        List<double[]> points = new ArrayList<>(populationSize + 1);
+        double[] original = new double[dims];
+        if (optimizeWaypointAlphas) {
+            for (int i = 0; i < alphaCount; i++) {
+                double alpha = params.waypoints[i].getAlpha();
+                original[i] = Math.log(Double.isNaN(alpha) ? params.alpha : alpha);
+            }
+        } else {
+            original[0] = Math.log(params.alpha);
+        }
+        points.add(original);
+        for (int n = 0; n < populationSize; n++) {
+            double[] point = new double[dims];
+            for (int i = 0; i < alphaCount; i++) {
+                point[i] = logMin + (logMax - logMin) * n / (populationSize - 1);
+            }
+            points.add(point);
+        }
+        double[] times = evaluate(points);
+        int evaluations = points.size();
+        double initialTime = times[0];
+        double[] best = original;
+        double bestTime = initialTime;
+        for (int n = 1; n < times.length; n++) {
+            if (times[n] < bestTime) {
+                best = points.get(n);
+                bestTime = times[n];
+            }
+        }
+
+        double[] sigma = new double[dims];
+        for (int i = 0; i < dims; i++) {
+            sigma[i] = i < alphaCount ? Math.max((logMax - logMin) / populationSize, 1e-3) : maxHeadingChange / 4;
+        }
+        Random random = new Random(seed);
+        for (int g = 0; g < generations; g++) {
+            points.clear();
+            for (int n = 0; n < populationSize; n++) {
+                double[] point = new double[dims];
+                for (int i = 0; i < dims; i++) {
+                    double min = i < alphaCount ? logMin : -maxHeadingChange;
+                    double max = i < alphaCount ? logMax : maxHeadingChange;
+                    point[i] = Math.max(min, Math.min(max, best[i] + sigma[i] * random.nextGaussian()));
+                }
+                points.add(point);
+            }
+            times = evaluate(points);
+            evaluations += points.size();
+
+            boolean improved = false;
+            for (int n = 0; n < times.length; n++) {
+                if (times[n] < bestTime) {
+                    best = points.get(n);
+                    bestTime = times[n];
+                    improved = true;
+                }
+            }
+            // Search further away after a success, and closer after a failure
+            double factor = improved ? 1.5 : 0.6;
+            for (int i = 0; i < dims; i++) {
+                sigma[i] *= factor;
+            }
+        }
+        return new Result(toParams(best), initialTime, bestTime, evaluations);
+    }
+
+    private double[] evaluate(List<double[]> points) {
+        List<TrajectoryParams> candidates = new ArrayList<>(points.size());
+        for (double[] point : points) {
+            candidates.add(toParams(point));
+        }
+        return evaluateAll(candidates);
+    }
+}
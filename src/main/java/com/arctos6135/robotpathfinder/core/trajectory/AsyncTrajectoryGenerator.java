@@ -0,0 +1,219 @@
+package com.arctos6135.robotpathfinder.core.trajectory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.TrajectoryParams;
+import com.arctos6135.robotpathfinder.core.lifecycle.JNIObject;
+
+/**
+ * Generates trajectories in the background, so that the thread requesting them
+ * (usually the robot's main loop) does not have to block.
+ * <p>
+ * Generation is done on a fixed number of daemon threads owned by this object.
+ * Requests that come in while all threads are busy wait in a queue of limited
+ * size; if the queue is full, the returned future fails immediately with a
+ * {@link RejectedExecutionException} instead of blocking the caller.
+ * </p>
+ * <p>
+ * Calling {@link CompletableFuture#cancel(boolean) cancel()} on a future
+ * returned by this class stops the generation. If it has not started yet, it
+ * is removed from the queue; otherwise the native code notices the
+ * cancellation within a few hundred samples and gives up. Note that only the
+ * futures returned directly by this class can do this. Cancelling a future
+ * derived from them (e.g. with {@code thenApply()}) does not stop the
+ * generation. A trajectory that finishes generating after its future is
+ * cancelled is freed automatically.
+ * </p>
+ * <p>
+ * Like the trajectories they generate, these objects must be closed with
+ * {@link #close()} when they are no longer needed, to stop the threads.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @since 3.0.0
+ */
+public class AsyncTrajectoryGenerator implements AutoCloseable {
+
+    /**
+     * The default number of requests that can be waiting at once.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    private static final AtomicInteger generatorCount = new AtomicInteger();
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Creates a new {@link AsyncTrajectoryGenerator} with a single generation
+     * thread and the default queue capacity.
+     */
+    public AsyncTrajectoryGenerator() {
+        this(1, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Creates a new {@link AsyncTrajectoryGenerator}.
+     * <p>
+     * Since trajectory generation is CPU bound, there is no benefit to having
+     * more threads than the number of cores that can be spared from the main
+     * loop.
+     * </p>
+     *
+     * @param threads       The number of threads to generate trajectories on
+     * @param queueCapacity The max number of requests that can be waiting for a
+     *                      thread
+     */
+    public AsyncTrajectoryGenerator(int threads, int queueCapacity) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+
+        ThreadFactory factory = new ThreadFactory() {
+            private final int id = generatorCount.getAndIncrement();
+            private final AtomicInteger threadCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r,
+                        "AsyncTrajectoryGenerator-" + id + "-" + threadCount.getAndIncrement());
+                // Do not keep the JVM alive just for generation
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), factory);
+    }
+
+    /**
+     * A future that cancels its generation when cancelled.
+     */
+    private static class GenerationFuture<T extends JNIObject> extends CompletableFuture<T> {
+
+        final CancellationToken token = new CancellationToken();
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            // The flag is checked by the native generation, so the thread does not need
+            // to be interrupted
+            token.cancel();
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    /**
+     * The functional interface for a trajectory constructor.
+     */
+    @FunctionalInterface
+    private interface Generator<T> {
+        T generate(CancellationToken token);
+    }
+
+    private <T extends JNIObject> CompletableFuture<T> submit(Generator<T> generator) {
+        GenerationFuture<T> future = new GenerationFuture<>();
+        Runnable task = () -> {
+            // Skip the work entirely if cancelled while waiting in the queue
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                T result = generator.generate(future.token);
+                // If the future was cancelled after the generation finished, the result
+                // will never be seen, so free it here
+                if (!future.complete(result)) {
+                    result.free();
+                }
+            } catch (CancellationException e) {
+                future.cancel(false);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        };
+
+        // Remove the task from the queue if cancelled before it starts, so it does not
+        // take up space
+        future.whenComplete((result, e) -> {
+            if (future.isCancelled()) {
+                executor.remove(task);
+            }
+        });
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Generates a {@link BasicTrajectory} in the background.
+     * <p>
+     * The future completes exceptionally with a
+     * {@link TrajectoryGenerationException} or {@link IllegalArgumentException}
+     * in the same cases the {@link BasicTrajectory} constructor would throw
+     * them, or with a {@link RejectedExecutionException} if the queue is full or
+     * this generator has been closed.
+     * </p>
+     *
+     * @param specs  A {@link RobotSpecs} object providing robot information such as
+     *               the maximum velocity.
+     * @param params A {@link TrajectoryParams} object providing path/trajectory
+     *               information such as the waypoints.
+     * @return A future that completes with the generated trajectory
+     */
+    public CompletableFuture<BasicTrajectory> generateBasic(RobotSpecs specs, TrajectoryParams params) {
+        return submit(token -> new BasicTrajectory(specs, params, token));
+    }
+
+    /**
+     * Generates a {@link TankDriveTrajectory} in the background.
+     * <p>
+     * The future completes exceptionally with a
+     * {@link TrajectoryGenerationException} or {@link IllegalArgumentException}
+     * in the same cases the {@link TankDriveTrajectory} constructor would throw
+     * them, or with a {@link RejectedExecutionException} if the queue is full or
+     * this generator has been closed.
+     * </p>
+     *
+     * @param specs  A {@link RobotSpecs} object providing robot information such as
+     *               the maximum velocity.
+     * @param params A {@link TrajectoryParams} object providing path/trajectory
+     *               information such as the waypoints.
+     * @return A future that completes with the generated trajectory
+     */
+    public CompletableFuture<TankDriveTrajectory> generateTankDrive(RobotSpecs specs, TrajectoryParams params) {
+        return submit(token -> new TankDriveTrajectory(specs, params, token));
+    }
+
+    /**
+     * Retrieves the number of requests waiting for a thread.
+     *
+     * @return The number of requests in the queue
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stops this generator.
+     * <p>
+     * Requests that are already running or queued are still completed, but new
+     * requests are rejected. This method does not wait for them to finish.
+     * </p>
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -1,5 +1,7 @@
 package com.arctos6135.robotpathfinder.core.trajectory;
 
+import java.util.concurrent.CancellationException;
+
 import com.arctos6135.robotpathfinder.core.GlobalLibraryLoader;
 import com.arctos6135.robotpathfinder.core.RobotSpecs;
 import com.arctos6135.robotpathfinder.core.TrajectoryParams;
@@ -75,8 +77,8 @@ public class BasicTrajectory extends Trajectory<BasicMoment> {
         GlobalLifeCycleManager.initialize();
     }
 
-    private native void _construct(double maxV, double maxA, double baseWidth, boolean isTank, Waypoint[] waypoints,
-            double alpha, int sampleCount, int type);
+    private native void _construct(double maxV, double maxA, double maxJ, double baseWidth, boolean isTank,
+            Waypoint[] waypoints, double alpha, int sampleCount, int type, boolean compact, CancellationToken token);
 
     /**
      * Creates a new {@link BasicTrajectory} with the specified robot specifications
@@ -88,14 +90,37 @@ public class BasicTrajectory extends Trajectory<BasicMoment> {
      *               information such as the waypoints.
      * @throws TrajectoryGenerationException If the constraints set in the
      *                                       parameters cannot be met
+     * @see AsyncTrajectoryGenerator
      */
     public BasicTrajectory(RobotSpecs specs, TrajectoryParams params) {
+        this(specs, params, null);
+    }
+
+    /**
+     * Creates a new {@link BasicTrajectory} with the specified robot specifications
+     * and parameters, which can be cancelled during generation.
+     * 
+     * @param specs  A {@link RobotSpecs} object providing robot information such as
+     *               the maximum velocity.
+     * @param params A {@link TrajectoryParams} object providing path/trajectory
+     *               information such as the waypoints.
+     * @param token  A {@link CancellationToken} that is checked periodically
+     *               during generation, or {@code null}
+     * @throws TrajectoryGenerationException If the constraints set in the
+     *                                       parameters cannot be met
+     * @throws CancellationException         If the token was cancelled before
+     *                                       generation finished
+     */
+    BasicTrajectory(RobotSpecs specs, TrajectoryParams params, CancellationToken token) {
         if (Double.isNaN(specs.getMaxVelocity())) {
             throw new IllegalArgumentException("Max velocity cannot be NaN");
         }
         if (Double.isNaN(specs.getMaxAcceleration())) {
             throw new IllegalArgumentException("Max acceleration cannot be NaN");
         }
+        if (specs.getMaxJerk() <= 0) {
+            throw new IllegalArgumentException("Max jerk must be positive or NaN");
+        }
         if (params.waypoints == null) {
             throw new IllegalArgumentException("Waypoints not set");
         }
@@ -109,8 +134,8 @@ public class BasicTrajectory extends Trajectory<BasicMoment> {
         this.specs = specs;
         this.params = params;
 
-        _construct(specs.getMaxVelocity(), specs.getMaxAcceleration(), specs.getBaseWidth(), false, params.waypoints,
-                params.alpha, params.sampleCount, params.pathType.getJNIID());
+        _construct(specs.getMaxVelocity(), specs.getMaxAcceleration(), specs.getMaxJerk(), specs.getBaseWidth(), false,
+                params.waypoints, params.alpha, params.sampleCount, params.pathType.getJNIID(), params.compact, token);
         GlobalLifeCycleManager.register(this);
     }
 
@@ -0,0 +1,36 @@
+package com.arctos6135.robotpathfinder.core.trajectory;
+
+/**
+ * A flag used to cancel the generation of a trajectory from another thread.
+ * <p>
+ * The native generation code reads the {@code cancelled} field periodically
+ * (every few hundred samples) and stops with a
+ * {@link java.util.concurrent.CancellationException} if it is set. The field
+ * is read directly through JNI, so it must not be renamed.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see AsyncTrajectoryGenerator
+ * @since 3.0.0
+ */
+final class CancellationToken {
+
+    // Read by native code
+    private volatile boolean cancelled = false;
+
+    /**
+     * Requests the generation using this token to stop.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Retrieves whether this token has been cancelled.
+     *
+     * @return Whether this token has been cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,499 @@
+package com.arctos6135.robotpathfinder.core.trajectory;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.TrajectoryParams;
+import com.arctos6135.robotpathfinder.core.Waypoint;
+import com.arctos6135.robotpathfinder.core.path.Path;
+import com.arctos6135.robotpathfinder.follower.DynamicFollowable;
+import com.arctos6135.robotpathfinder.follower.DynamicTankDriveFollower;
+import com.arctos6135.robotpathfinder.follower.Follower.PoseSource;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+
+/**
+ * A tank drive trajectory that can be re-generated while it is being followed.
+ * <p>
+ * A regular {@link TankDriveTrajectory} is fixed once it has been generated,
+ * so if the robot falls behind or gets pushed off course, the follower can only
+ * try to catch up. This class implements {@link DynamicFollowable}, so a
+ * {@link DynamicTankDriveFollower} can periodically call
+ * {@link #update(TankDriveMoment)} with the actual state of the robot. Each
+ * update generates a new trajectory from the robot's current pose and velocity
+ * through the waypoints it has not reached yet, and the rest of this
+ * trajectory follows that one instead.
+ * </p>
+ * <p>
+ * Generation is done on an {@link AsyncTrajectoryGenerator}. Each update waits
+ * at most the {@link #setTimeBudget(double) time budget} for it to finish. If it
+ * does not finish in time, the robot keeps following the old trajectory and the
+ * new one is used at the next update instead, during which no new generation is
+ * started. If a new trajectory cannot be generated, e.g. because the robot is
+ * going too fast for the new path, the old one is kept as well. This means the
+ * trajectory being followed only ever changes inside
+ * {@link #update(TankDriveMoment)}, never inside {@link #get(double)}. The
+ * number of samples of each new trajectory is scaled down by how much of the
+ * path is left, which keeps the generation time bounded as well.
+ * </p>
+ * <p>
+ * The moments returned keep the same time and position frame as the original
+ * trajectory: the new trajectory starts at the time of the update and at the
+ * wheel positions passed to it, and the initial facing is always that of the
+ * original trajectory. Therefore, the follower does not need to be reset when
+ * the trajectory changes. Only forwards trajectories are supported.
+ * </p>
+ * <p>
+ * The current pose of the robot is taken from a {@link PoseSource} if one is
+ * set. Otherwise, the robot is assumed to be on the path, at the point where
+ * it would be after driving the distance its wheels have actually driven. In
+ * that case, the new trajectory only changes the timing along the same path.
+ * Replanning is skipped near the end of the path, where there is not enough
+ * distance left to generate a path.
+ * </p>
+ * <p>
+ * This class is not thread-safe. Trajectories that are no longer used are left
+ * to be freed by the {@link com.arctos6135.robotpathfinder.core.lifecycle.GlobalLifeCycleManager
+ * GlobalLifeCycleManager}, since they may still be used by copies of this
+ * object.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see DynamicTankDriveFollower
+ * @see AsyncTrajectoryGenerator
+ * @since 3.0.0
+ */
+public class DynamicTankDriveTrajectory implements DynamicFollowable<TankDriveMoment> {
+
+    /**
+     * The fraction of the path at the end during which updates do nothing.
+     */
+    private static final double MIN_REMAINING = 0.02;
+    /**
+     * The least number of samples a new trajectory will be generated with.
+     */
+    private static final int MIN_SAMPLES = 50;
+
+    /**
+     * A trajectory and where it starts in the frame of the original trajectory.
+     */
+    private static class Plan {
+        final TankDriveTrajectory trajectory;
+        final double startTime, leftOffset, rightOffset;
+
+        // Calculated the first time they are needed
+        TankDriveMoment[] moments;
+        double[] waypointDistances;
+
+        Plan(TankDriveTrajectory trajectory, double startTime, double leftOffset, double rightOffset) {
+            this.trajectory = trajectory;
+            this.startTime = startTime;
+            this.leftOffset = leftOffset;
+            this.rightOffset = rightOffset;
+        }
+
+        /**
+         * Finds the distance along the path at which each waypoint is reached.
+         */
+        double[] getWaypointDistances() {
+            if (waypointDistances == null) {
+                TrajectoryParams params = trajectory.getGenerationParams();
+                // Use a separate path so the trajectory's own path is not touched
+                Path path = new Path(params.waypoints, params.alpha, params.pathType);
+                try {
+                    double length = path.computeLen(params.sampleCount);
+                    waypointDistances = new double[params.waypoints.length];
+                    // Each segment between two waypoints takes the same amount of path time
+                    double dt = 1.0 / (params.waypoints.length - 1);
+                    for (int i = 1; i < waypointDistances.length; i++) {
+                        waypointDistances[i] = path.t2S(i * dt) * length;
+                    }
+                } finally {
+                    path.free();
+                }
+            }
+            return waypointDistances;
+        }
+
+        /**
+         * Finds the index of the last moment at which the center of the robot has
+         * driven no more than a distance, or 0 if there is none.
+         */
+        int indexAtDistance(double distance) {
+            if (moments == null) {
+                moments = trajectory.getMoments();
+            }
+            int lo = 0;
+            int hi = moments.length - 1;
+            while (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                if (centerDistance(moments[mid]) <= distance) {
+                    lo = mid;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * Finds the time at which the center of the robot has driven a distance.
+         */
+        double timeAtDistance(double distance) {
+            int lo = indexAtDistance(distance);
+            int hi = Math.min(lo + 1, moments.length - 1);
+            double d0 = centerDistance(moments[lo]);
+            double d1 = centerDistance(moments[hi]);
+            double f = d1 > d0 ? Math.max(0, Math.min(1, (distance - d0) / (d1 - d0))) : 0;
+            return moments[lo].getTime() + f * (moments[hi].getTime() - moments[lo].getTime());
+        }
+
+        /**
+         * Estimates the curvature of the path at a distance, from the change in
+         * heading of the moments around it.
+         */
+        double curvatureAtDistance(double distance) {
+            int lo = indexAtDistance(distance);
+            int start = Math.max(0, lo - 1);
+            int end = Math.min(moments.length - 1, lo + 2);
+            double ds = centerDistance(moments[end]) - centerDistance(moments[start]);
+            if (!(ds > 0)) {
+                return 0;
+            }
+            return MathUtils.angleDiff(moments[start].getHeading(), moments[end].getHeading()) / ds;
+        }
+
+        static double centerDistance(TankDriveMoment m) {
+            return (m.getLeftPosition() + m.getRightPosition()) / 2;
+        }
+    }
+
+    protected final RobotSpecs specs;
+    protected final TrajectoryParams params;
+    protected final AsyncTrajectoryGenerator generator;
+    protected final double initialFacing;
+
+    protected PoseSource poseSource;
+    protected double timeBudget = 0.005;
+
+    private Plan current;
+    private CompletableFuture<TankDriveTrajectory> pending;
+    private double pendingTime, pendingLeft, pendingRight;
+
+    protected int replanCount, failedReplanCount;
+
+    /**
+     * Constructs a new {@link DynamicTankDriveTrajectory} from an already
+     * generated trajectory.
+     *
+     * @param trajectory The trajectory to start with
+     * @param generator  The generator used to generate new trajectories
+     */
+    public DynamicTankDriveTrajectory(TankDriveTrajectory trajectory, AsyncTrajectoryGenerator generator) {
+        this.specs = trajectory.getRobotSpecs();
+        this.params = trajectory.getGenerationParams();
+        this.generator = generator;
+        initialFacing = params.waypoints[0].getHeading();
+        current = new Plan(trajectory, 0, 0, 0);
+        // Do this now instead of during the first update
+        current.getWaypointDistances();
+    }
+
+    /**
+     * Constructs a new {@link DynamicTankDriveTrajectory}, generating the first
+     * trajectory on the calling thread.
+     *
+     * @param specs     A {@link RobotSpecs} object providing robot information
+     *                  such as the maximum velocity.
+     * @param params    A {@link TrajectoryParams} object providing
+     *                  path/trajectory information such as the waypoints.
+     * @param generator The generator used to generate new trajectories
+     * @throws TrajectoryGenerationException If the constraints set in the
+     *                                       parameters cannot be met
+     */
+    public DynamicTankDriveTrajectory(RobotSpecs specs, TrajectoryParams params, AsyncTrajectoryGenerator generator) {
+        this(new TankDriveTrajectory(specs, params), generator);
+    }
+
+    /**
+     * Copy constructor; does not copy any generation in progress.
+     */
+    private DynamicTankDriveTrajectory(DynamicTankDriveTrajectory other) {
+        specs = other.specs;
+        params = other.params;
+        generator = other.generator;
+        initialFacing = other.initialFacing;
+        poseSource = other.poseSource;
+        timeBudget = other.timeBudget;
+        current = other.current;
+        replanCount = other.replanCount;
+        failedReplanCount = other.failedReplanCount;
+    }
+
+    /**
+     * Sets the source of the robot's pose used when replanning.
+     * <p>
+     * If {@code null} (the default), the robot is assumed to be on the path.
+     * </p>
+     *
+     * @param poseSource The pose source, usually a
+     *                   {@link com.arctos6135.robotpathfinder.follower.DifferentialDriveOdometry
+     *                   DifferentialDriveOdometry}, or {@code null}
+     */
+    public void setPoseSource(PoseSource poseSource) {
+        this.poseSource = poseSource;
+    }
+
+    /**
+     * Retrieves the source of the robot's pose used when replanning.
+     *
+     * @return The pose source, or {@code null} if there is none
+     */
+    public PoseSource getPoseSource() {
+        return poseSource;
+    }
+
+    /**
+     * Sets the longest time each update waits for a new trajectory to finish
+     * generating.
+     * <p>
+     * The default is 5 ms. If set to 0, updates never wait, and each new
+     * trajectory is used at the next update after it finishes.
+     * </p>
+     *
+     * @param timeBudget The time budget, in seconds
+     */
+    public void setTimeBudget(double timeBudget) {
+        if (!(timeBudget >= 0)) {
+            throw new IllegalArgumentException("Time budget must be non-negative");
+        }
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * Retrieves the longest time each update waits for a new trajectory to finish
+     * generating.
+     *
+     * @return The time budget, in seconds
+     */
+    public double getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * Retrieves the number of times the trajectory being followed was replaced.
+     *
+     * @return The number of new trajectories used
+     */
+    public int getReplanCount() {
+        return replanCount;
+    }
+
+    /**
+     * Retrieves the number of new trajectories that could not be generated, e.g.
+     * because the robot was going too fast to meet the constraints from where it
+     * was.
+     *
+     * @return The number of failed generations
+     */
+    public int getFailedReplanCount() {
+        return failedReplanCount;
+    }
+
+    /**
+     * Retrieves the trajectory currently being followed.
+     * <p>
+     * Note that this trajectory starts at time 0 and at wheel positions of 0, not
+     * at the time and positions it is used from.
+     * </p>
+     *
+     * @return The current trajectory
+     */
+    public TankDriveTrajectory getCurrentTrajectory() {
+        return current.trajectory;
+    }
+
+    /**
+     * Retrieves whether a new trajectory is being generated.
+     *
+     * @return Whether there is a generation in progress
+     */
+    public boolean isReplanning() {
+        return pending != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TankDriveMoment get(double t) {
+        Plan plan = current;
+        TankDriveMoment m = plan.trajectory.get(planTime(plan, t));
+        m.setLeftPosition(m.getLeftPosition() + plan.leftOffset);
+        m.setRightPosition(m.getRightPosition() + plan.rightOffset);
+        m.setTime(t);
+        m.setInitialFacing(initialFacing);
+        return m;
+    }
+
+    /**
+     * Retrieves the robot's position and heading at the specified time.
+     *
+     * @param t The time
+     * @return The position and heading of the robot at the specified time
+     * @see Trajectory#getPosition(double)
+     */
+    public Waypoint getPosition(double t) {
+        return current.trajectory.getPosition(planTime(current, t));
+    }
+
+    private static double planTime(Plan plan, double t) {
+        return Math.max(0, Math.min(plan.trajectory.totalTime(), t - plan.startTime));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double totalTime() {
+        return current.startTime + current.trajectory.totalTime();
+    }
+
+    /**
+     * Waits for the pending generation for at most the time budget, and starts
+     * following the new trajectory if it finishes.
+     */
+    private void awaitPending() {
+        TankDriveTrajectory trajectory;
+        try {
+            trajectory = pending.get((long) (timeBudget * 1e9), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException | CancellationException e) {
+            failedReplanCount++;
+            pending = null;
+            return;
+        }
+        current = new Plan(trajectory, pendingTime, pendingLeft, pendingRight);
+        replanCount++;
+        pending = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This starts generating a new trajectory from the state of the robot, and
+     * waits for at most the time budget for it to finish. If a previous
+     * generation is still in progress, no new generation is started; the update
+     * waits for that one instead.
+     * </p>
+     */
+    @Override
+    public void update(TankDriveMoment m) {
+        if (pending != null) {
+            boolean done = pending.isDone();
+            awaitPending();
+            // Do not queue up more work behind a generation that was still running
+            if (!done) {
+                return;
+            }
+        }
+
+        TrajectoryParams newParams = replanParams(m);
+        if (newParams == null) {
+            return;
+        }
+        // If the generator is busy or closed, the future fails and this counts as a failed replan
+        pending = generator.generateTankDrive(specs, newParams);
+        pendingTime = m.getTime();
+        pendingLeft = m.getLeftPosition();
+        pendingRight = m.getRightPosition();
+        awaitPending();
+    }
+
+    /**
+     * Creates the parameters for a new trajectory from the current state.
+     *
+     * @return The parameters, or {@code null} if there is no need to replan
+     */
+    private TrajectoryParams replanParams(TankDriveMoment m) {
+        Plan plan = current;
+        double[] distances = plan.getWaypointDistances();
+        double length = distances[distances.length - 1];
+        // How far the robot has actually driven along the current trajectory
+        double driven = ((m.getLeftPosition() - plan.leftOffset) + (m.getRightPosition() - plan.rightOffset)) / 2;
+        driven = Math.max(0, driven);
+        if (length - driven <= MIN_REMAINING * length) {
+            return null;
+        }
+
+        double time = plan.timeAtDistance(driven);
+        double x, y, heading;
+        if (poseSource != null) {
+            double[] pose = new double[3];
+            poseSource.getPose(pose);
+            x = pose[0];
+            y = pose[1];
+            heading = pose[2];
+        } else {
+            Waypoint w = plan.trajectory.getPosition(time);
+            // Mixing a measured heading with an estimated position would bend the new path
+            // for no reason, so use the heading of the path as well
+            x = w.getX();
+            y = w.getY();
+            heading = w.getHeading();
+        }
+        // The robot may be going faster than the path allows where it actually is
+        // The current trajectory's velocity at that point is known to be possible
+        TankDriveMoment planned = plan.trajectory.get(time);
+        double velocity = Math.max(0, Math.min((planned.getLeftVelocity() + planned.getRightVelocity()) / 2,
+                (m.getLeftVelocity() + m.getRightVelocity()) / 2));
+
+        TrajectoryParams planParams = plan.trajectory.getGenerationParams();
+        Waypoint[] waypoints = planParams.waypoints;
+        int next = 1;
+        while (distances[next] <= driven) {
+            next++;
+        }
+        // Scale the alpha of the start down with the part of the segment that is left,
+        // so the first segment keeps its shape instead of looping
+        // Only the start is changed, so the segments after it keep their shape
+        // If the robot is on the first segment of a replanned trajectory, that segment
+        // was already shortened, and its start already has a smaller alpha
+        Waypoint segmentStart = waypoints[next - 1];
+        double alpha = Double.isNaN(segmentStart.getAlpha()) ? planParams.alpha : segmentStart.getAlpha();
+        double fraction = (distances[next] - driven) / (distances[next] - distances[next - 1]);
+        alpha *= Math.max(0.1, Math.min(1, fraction));
+
+        Waypoint[] remaining = new Waypoint[waypoints.length - next + 1];
+        // The first segment is part of the segment the robot is on, so it has the same type
+        // and starts with the curvature the path has where the robot is
+        remaining[0] = new Waypoint(x, y, heading, velocity, alpha, plan.curvatureAtDistance(driven),
+                segmentStart.getSegmentType());
+        System.arraycopy(waypoints, next, remaining, 1, remaining.length - 1);
+
+        TrajectoryParams newParams = params.clone();
+        newParams.waypoints = remaining;
+        // Generate fewer samples for a shorter path to keep the generation time down
+        newParams.sampleCount = Math.max(MIN_SAMPLES,
+                (int) Math.ceil(planParams.sampleCount * (length - driven) / length));
+        return newParams;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Any generation in progress is not copied.
+     * </p>
+     */
+    @Override
+    public DynamicTankDriveTrajectory copy() {
+        return new DynamicTankDriveTrajectory(this);
+    }
+}
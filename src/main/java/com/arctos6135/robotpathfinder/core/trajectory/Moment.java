@@ -38,6 +38,13 @@ public abstract class Moment implements Cloneable {
 	protected double initialFacing;
 	protected boolean backwards = false;
 
+	/**
+	 * Retrieves the time of the moment.
+	 *
+	 * @return The time of the moment
+	 */
+	public abstract double getTime();
+
 	/**
 	 * Retrieves the direction the robot is moving in. For more information, see the
 	 * class Javadoc.
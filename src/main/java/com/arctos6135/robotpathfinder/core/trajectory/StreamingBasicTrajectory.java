@@ -0,0 +1,38 @@
+package com.arctos6135.robotpathfinder.core.trajectory;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.TrajectoryParams;
+
+/**
+ * A {@link BasicTrajectory} that is generated in chunks while it is being
+ * followed.
+ * <p>
+ * For more information, see {@link StreamingTrajectory}.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see BasicTrajectory
+ * @since 3.0.0
+ */
+public class StreamingBasicTrajectory extends StreamingTrajectory<BasicMoment> {
+
+    /**
+     * Creates a new {@link StreamingBasicTrajectory} with the specified robot
+     * specifications and parameters.
+     *
+     * @param specs  A {@link RobotSpecs} object providing robot information such as
+     *               the maximum velocity.
+     * @param params A {@link TrajectoryParams} object providing path/trajectory
+     *               information such as the waypoints.
+     * @throws TrajectoryGenerationException If a waypoint velocity constraint is
+     *                                       greater than the max velocity
+     * @throws IllegalArgumentException      If the robot specifications have a
+     *                                       max jerk set
+     */
+    public StreamingBasicTrajectory(RobotSpecs specs, TrajectoryParams params) {
+        super(specs, params, false);
+    }
+
+    @Override
+    protected native BasicMoment _get(double t);
+}
@@ -0,0 +1,38 @@
+package com.arctos6135.robotpathfinder.core.trajectory;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.TrajectoryParams;
+
+/**
+ * A {@link TankDriveTrajectory} that is generated in chunks while it is being
+ * followed.
+ * <p>
+ * For more information, see {@link StreamingTrajectory}.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see TankDriveTrajectory
+ * @since 3.0.0
+ */
+public class StreamingTankDriveTrajectory extends StreamingTrajectory<TankDriveMoment> {
+
+    /**
+     * Creates a new {@link StreamingTankDriveTrajectory} with the specified robot
+     * specifications and parameters.
+     *
+     * @param specs  A {@link RobotSpecs} object providing robot information such as
+     *               the maximum velocity and base width.
+     * @param params A {@link TrajectoryParams} object providing path/trajectory
+     *               information such as the waypoints.
+     * @throws TrajectoryGenerationException If a waypoint velocity constraint is
+     *                                       greater than the max velocity
+     * @throws IllegalArgumentException      If the robot specifications have a
+     *                                       max jerk set
+     */
+    public StreamingTankDriveTrajectory(RobotSpecs specs, TrajectoryParams params) {
+        super(specs, params, true);
+    }
+
+    @Override
+    protected native TankDriveMoment _get(double t);
+}
@@ -0,0 +1,248 @@
+package com.arctos6135.robotpathfinder.core.trajectory;
+
+import com.arctos6135.robotpathfinder.core.GlobalLibraryLoader;
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.TrajectoryParams;
+import com.arctos6135.robotpathfinder.core.Waypoint;
+import com.arctos6135.robotpathfinder.core.lifecycle.GlobalLifeCycleManager;
+import com.arctos6135.robotpathfinder.core.lifecycle.JNIObject;
+import com.arctos6135.robotpathfinder.follower.Followable;
+
+/**
+ * The abstract superclass of trajectories that are generated in chunks while
+ * they are being followed.
+ * <p>
+ * A regular {@link Trajectory} has to generate every moment before any of them
+ * can be used, because the slowing down at the end of the trajectory can affect
+ * the entire trajectory. However, the robot only ever has to start slowing down
+ * for something within its braking distance (the distance it takes to stop
+ * from the max velocity). Streaming trajectories take advantage of this and
+ * only generate as far ahead as they need to. Moments that are already in the
+ * past are also discarded, so memory use is limited by the braking distance
+ * instead of the total length of the trajectory. This makes them suitable for
+ * very long routes with many waypoints.
+ * </p>
+ * <p>
+ * Moments are generated in chunks whenever {@link #get(double)} or
+ * {@link #getPosition(double)} asks for a time that has not been reached yet.
+ * To avoid doing this work in the control loop, {@link #generate(int)} can be
+ * called from another thread to generate ahead of time; all methods in this
+ * class are thread-safe. Because old moments are discarded, <em>streaming
+ * trajectories must be queried with non-decreasing times</em>. Querying a time
+ * before the earliest moment that is still kept returns that moment.
+ * </p>
+ * <p>
+ * The moments generated are the same as those of a {@link BasicTrajectory} or
+ * {@link TankDriveTrajectory} with the same parameters, other than small
+ * differences due to floating point error.
+ * </p>
+ * <p>
+ * Streaming trajectories do not support a jerk limit, since limiting the jerk
+ * can require looking further ahead than the braking distance. Robot
+ * specifications with a max jerk set are rejected.
+ * </p>
+ * <p>
+ * Like other trajectories, streaming trajectories hold native resources, and
+ * {@link #free()} or {@link #close()} must be called when they are no longer
+ * needed.
+ * </p>
+ *
+ * @param <T> The type of moment generated
+ * @author Tyler Tian
+ * @see StreamingBasicTrajectory
+ * @see StreamingTankDriveTrajectory
+ * @since 3.0.0
+ */
+public abstract class StreamingTrajectory<T extends Moment> extends JNIObject implements Followable<T> {
+
+    static {
+        GlobalLibraryLoader.load();
+        GlobalLifeCycleManager.initialize();
+    }
+
+    RobotSpecs specs;
+    TrajectoryParams params;
+
+    private native void _construct(double maxV, double maxA, double baseWidth, boolean isTank, Waypoint[] waypoints,
+            double alpha, int sampleCount, int type);
+
+    /**
+     * Creates a new {@link StreamingTrajectory} with the specified robot
+     * specifications and parameters.
+     * <p>
+     * The constructor only measures the length of the path. No moments are
+     * generated until they are needed.
+     * </p>
+     *
+     * @param specs  A {@link RobotSpecs} object providing robot information such as
+     *               the maximum velocity.
+     * @param params A {@link TrajectoryParams} object providing path/trajectory
+     *               information such as the waypoints.
+     * @param isTank Whether the trajectory is for a tank drive robot
+     * @throws TrajectoryGenerationException If a waypoint velocity constraint is
+     *                                       greater than the max velocity
+     * @throws IllegalArgumentException      If the robot specifications have a
+     *                                       max jerk set
+     */
+    protected StreamingTrajectory(RobotSpecs specs, TrajectoryParams params, boolean isTank) {
+        if (Double.isNaN(specs.getMaxVelocity())) {
+            throw new IllegalArgumentException("Max velocity cannot be NaN");
+        }
+        if (Double.isNaN(specs.getMaxAcceleration())) {
+            throw new IllegalArgumentException("Max acceleration cannot be NaN");
+        }
+        if (!Double.isNaN(specs.getMaxJerk())) {
+            throw new IllegalArgumentException("Streaming trajectories do not support a jerk limit");
+        }
+        if (isTank && Double.isNaN(specs.getBaseWidth())) {
+            throw new IllegalArgumentException("Base width cannot be NaN");
+        }
+        if (params.waypoints == null) {
+            throw new IllegalArgumentException("Waypoints not set");
+        }
+        if (Double.isNaN(params.alpha)) {
+            throw new IllegalArgumentException("Alpha cannot be NaN");
+        }
+        if (params.sampleCount < 2) {
+            throw new IllegalArgumentException("Segment count must be at least 2");
+        }
+
+        this.specs = specs;
+        this.params = params;
+
+        _construct(specs.getMaxVelocity(), specs.getMaxAcceleration(), specs.getBaseWidth(), isTank,
+                params.waypoints, params.alpha, params.sampleCount, params.pathType.getJNIID());
+        GlobalLifeCycleManager.register(this);
+    }
+
+    @Override
+    protected native void _destroy();
+
+    private native int _generate(int count);
+
+    /**
+     * Generates at least the specified number of moments ahead of time, unless the
+     * end of the trajectory is reached first.
+     * <p>
+     * Moments generated this way are kept until they are passed, so generating too
+     * far ahead takes away the memory savings of a streaming trajectory.
+     * </p>
+     *
+     * @param count The number of moments to generate
+     * @return The number of moments actually generated
+     * @throws TrajectoryGenerationException If a waypoint velocity constraint
+     *                                       cannot be met
+     * @throws IllegalStateException         If the native resource has already
+     *                                       been freed
+     */
+    public int generate(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative");
+        }
+        return _generate(count);
+    }
+
+    /**
+     * Retrieves whether the entire trajectory has been generated.
+     *
+     * @return Whether the entire trajectory has been generated
+     * @throws IllegalStateException If the native resource has already been freed
+     */
+    public native boolean isComplete();
+
+    /**
+     * Retrieves the number of moments that have been generated and not yet
+     * discarded.
+     *
+     * @return The number of moments currently kept
+     * @throws IllegalStateException If the native resource has already been freed
+     */
+    public native int getBufferedCount();
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Since the total time is not known until the end of the trajectory has been
+     * generated, this method returns {@link Double#POSITIVE_INFINITY} until
+     * {@link #isComplete()} is {@code true}.
+     * </p>
+     *
+     * @throws IllegalStateException If the native resource has already been freed
+     */
+    @Override
+    public native double totalTime();
+
+    // Native
+    protected abstract T _get(double t);
+
+    /**
+     * Retrieves the {@link Moment} associated with the specified time, generating
+     * more of the trajectory if needed.
+     * <p>
+     * Like with regular trajectories, the result is linearly interpolated from the
+     * two moments closest to the specified time. All moments before the specified
+     * time (except for the one right before it) are discarded.
+     * </p>
+     *
+     * @param t The time
+     * @return The {@link Moment} associated with the given time
+     * @throws IllegalArgumentException      If the specified time is infinite or
+     *                                       NaN
+     * @throws TrajectoryGenerationException If a waypoint velocity constraint
+     *                                       cannot be met
+     * @throws IllegalStateException         If the native resource has already
+     *                                       been freed
+     */
+    @Override
+    public T get(double t) {
+        if (Double.isNaN(t) || !Double.isFinite(t)) {
+            throw new IllegalArgumentException("Time must be finite and not NaN");
+        }
+        return _get(t);
+    }
+
+    private native Waypoint _getPosition(double t);
+
+    /**
+     * Retrieves the robot's position and heading at the specified time,
+     * generating more of the trajectory if needed.
+     * <p>
+     * Like {@link #get(double)}, this discards all moments before the specified
+     * time.
+     * </p>
+     *
+     * @param t The time
+     * @return The position and heading of the robot at the specified time
+     * @throws IllegalArgumentException      If the specified time is infinite or
+     *                                       NaN
+     * @throws TrajectoryGenerationException If a waypoint velocity constraint
+     *                                       cannot be met
+     * @throws IllegalStateException         If the native resource has already
+     *                                       been freed
+     */
+    public Waypoint getPosition(double t) {
+        if (Double.isNaN(t) || !Double.isFinite(t)) {
+            throw new IllegalArgumentException("Time must be finite and not NaN");
+        }
+        return _getPosition(t);
+    }
+
+    /**
+     * Retrieves the {@link RobotSpecs} object used to generate this trajectory.
+     *
+     * @return The {@link RobotSpecs} object used to generate this trajectory
+     */
+    public RobotSpecs getRobotSpecs() {
+        return specs;
+    }
+
+    /**
+     * Retrieves the {@link TrajectoryParams} object used to generate this
+     * trajectory.
+     *
+     * @return The {@link TrajectoryParams} object used to generate this trajectory
+     */
+    public TrajectoryParams getGenerationParams() {
+        return params;
+    }
+}
@@ -0,0 +1,180 @@
+package com.arctos6135.robotpathfinder.core.trajectory;
+
+import com.arctos6135.robotpathfinder.core.Waypoint;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+
+/**
+ * A cursor that samples a {@link Trajectory} at increasing times.
+ *
+ * <p>
+ * {@link Trajectory#get(double)} and {@link Trajectory#getPosition(double)}
+ * search the whole trajectory and cross into native code every time they are
+ * called. A follower, however, almost always samples a trajectory at times
+ * that only increase by a little each time. This class takes advantage of
+ * that: it keeps the index of the moment it is at, and on each
+ * {@link #seek(double)} only steps forward through the moments it passed.
+ * </p>
+ * <p>
+ * The moments are taken from {@link Trajectory#getMoments()}, and the position
+ * of every moment is retrieved from the trajectory when the cursor is created.
+ * After that, sampling only reads arrays and interpolates, with no native calls
+ * or allocations, so the cost of each sample stays constant no matter how long
+ * the trajectory is. Positions between moments are linearly interpolated.
+ * </p>
+ * <p>
+ * Seeking backwards is allowed, but needs a binary search. This class is not
+ * thread-safe.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @param <T> The type of moment used by the trajectory
+ * @see Trajectory
+ * @since 3.0.0
+ */
+public class TrajectoryCursor<T extends Moment> {
+
+    private final Trajectory<T> trajectory;
+    private final T[] moments;
+    // Positions of each moment
+    private final double[] xs, ys, headings;
+
+    private int index = 0;
+    private double fraction = 0;
+
+    /**
+     * Creates a new cursor at the start of a trajectory.
+     *
+     * @param trajectory The trajectory
+     * @throws IllegalArgumentException If the trajectory has less than 2 moments
+     * @throws IllegalStateException    If the native resource of the trajectory
+     *                                  has already been freed
+     */
+    public TrajectoryCursor(Trajectory<T> trajectory) {
+        this.trajectory = trajectory;
+        moments = trajectory.getMoments();
+        if (moments.length < 2) {
+            throw new IllegalArgumentException("Trajectory must have at least 2 moments");
+        }
+        xs = new double[moments.length];
+        ys = new double[moments.length];
+        headings = new double[moments.length];
+        for (int i = 0; i < moments.length; i++) {
+            Waypoint w = trajectory.getPosition(moments[i].getTime());
+            xs[i] = w.getX();
+            ys[i] = w.getY();
+            headings[i] = w.getHeading();
+        }
+    }
+
+    /**
+     * Moves the cursor to a time.
+     *
+     * <p>
+     * Times outside the trajectory are clamped to its start or end.
+     * </p>
+     *
+     * @param t The time
+     */
+    public void seek(double t) {
+        int last = moments.length - 1;
+        if (t < moments[index].getTime()) {
+            // Going backwards; find the moment with a binary search
+            int lo = 0, hi = index;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (moments[mid].getTime() <= t) {
+                    lo = mid;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            index = lo;
+        }
+        while (index < last - 1 && moments[index + 1].getTime() <= t) {
+            index++;
+        }
+
+        double t0 = moments[index].getTime();
+        double t1 = moments[index + 1].getTime();
+        fraction = t1 > t0 ? Math.max(0, Math.min(1, (t - t0) / (t1 - t0))) : 0;
+    }
+
+    /**
+     * Retrieves the moment at or right before the cursor.
+     *
+     * @return The moment before the cursor
+     */
+    public T getLower() {
+        return moments[index];
+    }
+
+    /**
+     * Retrieves the moment right after the cursor.
+     *
+     * @return The moment after the cursor
+     */
+    public T getUpper() {
+        return moments[index + 1];
+    }
+
+    /**
+     * Retrieves how far the cursor is between {@link #getLower()} and
+     * {@link #getUpper()}.
+     *
+     * <p>
+     * Values in the moments can be found at the cursor's time with
+     * {@link MathUtils#lerp(double, double, double)} using this fraction.
+     * </p>
+     *
+     * @return The fraction, between 0 and 1
+     */
+    public double getFraction() {
+        return fraction;
+    }
+
+    /**
+     * Retrieves the index of {@link #getLower()} in the trajectory's moments.
+     *
+     * @return The index of the moment before the cursor
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Retrieves the x coordinate of the robot's position at the cursor.
+     *
+     * @return The x coordinate
+     */
+    public double getX() {
+        return MathUtils.lerp(xs[index], xs[index + 1], fraction);
+    }
+
+    /**
+     * Retrieves the y coordinate of the robot's position at the cursor.
+     *
+     * @return The y coordinate
+     */
+    public double getY() {
+        return MathUtils.lerp(ys[index], ys[index + 1], fraction);
+    }
+
+    /**
+     * Retrieves the direction of the path at the cursor, as returned by
+     * {@link Trajectory#getPosition(double)}.
+     *
+     * @return The direction of the path
+     */
+    public double getPathHeading() {
+        return MathUtils.lerpAngle(headings[index], headings[index + 1], fraction);
+    }
+
+    /**
+     * Retrieves the trajectory this cursor samples.
+     *
+     * @return The trajectory
+     */
+    public Trajectory<T> getTrajectory() {
+        return trajectory;
+    }
+}
@@ -0,0 +1,241 @@
+package com.arctos6135.robotpathfinder.follower;
+
+import java.lang.invoke.VarHandle;
+
+import com.arctos6135.robotpathfinder.follower.Follower.DirectionSource;
+import com.arctos6135.robotpathfinder.follower.Follower.PoseSource;
+import com.arctos6135.robotpathfinder.follower.Follower.PositionSource;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+
+/**
+ * Estimates the pose of a differential drive (tank drive) robot from its
+ * encoders and gyro.
+ *
+ * <p>
+ * Every time {@link #update()} is called, the distances travelled by each side
+ * since the last update are read from the encoders, and the heading is read
+ * from the gyro (or worked out from the difference between the two sides if
+ * there is no gyro). The robot is assumed to have moved along a circular arc
+ * between the two updates, which is exact for a differential drive with
+ * constant wheel velocities, so the estimate does not depend on how often it is
+ * updated. Updating does not allocate memory, so it can be done on every
+ * iteration of a control loop.
+ * </p>
+ * <p>
+ * This class is a {@link PoseSource}, so it can be given to a pose-based
+ * follower such as {@link RamseteFollower}. {@link #update()} should only be
+ * called by one thread, usually the control loop; the simplest way is to
+ * update it right before the pose is read:
+ * </p>
+ *
+ * <pre>
+ * DifferentialDriveOdometry odometry = new DifferentialDriveOdometry(leftEncoder, rightEncoder, gyro);
+ * odometry.reset(startX, startY, startHeading);
+ * RamseteFollower follower = new RamseteFollower(trajectory, robot, pose -&gt; {
+ *     odometry.update();
+ *     odometry.getPose(pose);
+ * }, gains);
+ * </pre>
+ * <p>
+ * The pose can be read from any number of other threads at the same time. Reads
+ * use a sequence lock: the updating thread marks the pose as being written
+ * while it changes it, and readers retry if the pose changed while they were
+ * reading it. As a result, readers always get all three values from the same
+ * update, and the updating thread never waits.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see PoseSource
+ * @since 3.0.0
+ */
+public class DifferentialDriveOdometry implements PoseSource {
+
+    private final PositionSource leftSrc, rightSrc;
+    private final DirectionSource directionSrc;
+    private final double baseWidth;
+
+    // The last encoder readings, and the difference between the gyro and the
+    // actual heading; only used by the updating thread
+    private double lastLeft, lastRight, directionOffset;
+
+    // Odd while the pose is being written
+    private volatile long sequence = 0;
+    private double x, y, heading;
+
+    /**
+     * Creates a new odometry estimator that uses a gyro for the heading.
+     *
+     * <p>
+     * The pose starts at (0, 0), facing 0. Use
+     * {@link #reset(double, double, double)} to set the starting pose.
+     * </p>
+     *
+     * @param leftSrc      The left encoder
+     * @param rightSrc     The right encoder
+     * @param directionSrc The gyro
+     */
+    public DifferentialDriveOdometry(PositionSource leftSrc, PositionSource rightSrc, DirectionSource directionSrc) {
+        if (leftSrc == null || rightSrc == null || directionSrc == null) {
+            throw new IllegalArgumentException("Sources cannot be null!");
+        }
+        this.leftSrc = leftSrc;
+        this.rightSrc = rightSrc;
+        this.directionSrc = directionSrc;
+        baseWidth = Double.NaN;
+        reset(0, 0, 0);
+    }
+
+    /**
+     * Creates a new odometry estimator that works out the heading from the
+     * encoders.
+     *
+     * <p>
+     * This is less accurate than using a gyro, since any wheel slip shows up as an
+     * error in the heading. The pose starts at (0, 0), facing 0. Use
+     * {@link #reset(double, double, double)} to set the starting pose.
+     * </p>
+     *
+     * @param leftSrc   The left encoder
+     * @param rightSrc  The right encoder
+     * @param baseWidth The distance between the left and right wheels
+     */
+    public DifferentialDriveOdometry(PositionSource leftSrc, PositionSource rightSrc, double baseWidth) {
+        if (leftSrc == null || rightSrc == null) {
+            throw new IllegalArgumentException("Sources cannot be null!");
+        }
+        if (!(baseWidth > 0)) {
+            throw new IllegalArgumentException("Base width must be positive");
+        }
+        this.leftSrc = leftSrc;
+        this.rightSrc = rightSrc;
+        directionSrc = null;
+        this.baseWidth = baseWidth;
+        reset(0, 0, 0);
+    }
+
+    /**
+     * Sets the pose of the robot.
+     *
+     * <p>
+     * This should only be called by the thread that calls {@link #update()}.
+     * </p>
+     *
+     * @param x       The x coordinate of the robot
+     * @param y       The y coordinate of the robot
+     * @param heading The angle the robot is facing
+     */
+    public void reset(double x, double y, double heading) {
+        lastLeft = leftSrc.getPosition();
+        lastRight = rightSrc.getPosition();
+        if (directionSrc != null) {
+            directionOffset = heading - directionSrc.getDirection();
+        }
+        write(x, y, MathUtils.restrictAngle(heading));
+    }
+
+    /**
+     * Reads the encoders and gyro, and updates the pose.
+     *
+     * <p>
+     * This should only be called by one thread.
+     * </p>
+     */
+    public void update() {
+        double left = leftSrc.getPosition();
+        double right = rightSrc.getPosition();
+        double dl = left - lastLeft;
+        double dr = right - lastRight;
+        lastLeft = left;
+        lastRight = right;
+
+        double newHeading;
+        if (directionSrc != null) {
+            newHeading = MathUtils.restrictAngle(directionSrc.getDirection() + directionOffset);
+        } else {
+            newHeading = MathUtils.restrictAngle(heading + (dr - dl) / baseWidth);
+        }
+        double dTheta = MathUtils.angleDiff(heading, newHeading);
+        double distance = (dl + dr) / 2;
+
+        // Move along the chord of the arc, which points halfway between the old and new
+        // headings and has length distance * sin(dTheta / 2) / (dTheta / 2)
+        double half = dTheta / 2;
+        double chord = Math.abs(half) < 1e-9 ? distance : distance * Math.sin(half) / half;
+        double direction = heading + half;
+        write(x + chord * Math.cos(direction), y + chord * Math.sin(direction), newHeading);
+    }
+
+    private void write(double x, double y, double heading) {
+        long seq = sequence;
+        sequence = seq + 1;
+        // Make sure readers see the odd sequence before any of the new values
+        VarHandle.storeStoreFence();
+        this.x = x;
+        this.y = y;
+        this.heading = heading;
+        // The volatile write makes the values visible before the even sequence
+        sequence = seq + 2;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * This method can be called from any thread, and the values written are always
+     * from the same update.
+     * </p>
+     */
+    @Override
+    public void getPose(double[] pose) {
+        while (true) {
+            long seq = sequence;
+            if ((seq & 1) == 0) {
+                double x = this.x;
+                double y = this.y;
+                double heading = this.heading;
+                // Make sure the values are read before the sequence is checked again
+                VarHandle.loadLoadFence();
+                if (sequence == seq) {
+                    pose[0] = x;
+                    pose[1] = y;
+                    pose[2] = heading;
+                    return;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Retrieves the x coordinate of the robot.
+     *
+     * @return The x coordinate
+     */
+    public double getX() {
+        double[] pose = new double[3];
+        getPose(pose);
+        return pose[0];
+    }
+
+    /**
+     * Retrieves the y coordinate of the robot.
+     *
+     * @return The y coordinate
+     */
+    public double getY() {
+        double[] pose = new double[3];
+        getPose(pose);
+        return pose[1];
+    }
+
+    /**
+     * Retrieves the angle the robot is facing.
+     *
+     * @return The heading, in radians
+     */
+    public double getHeading() {
+        double[] pose = new double[3];
+        getPose(pose);
+        return pose[2];
+    }
+}
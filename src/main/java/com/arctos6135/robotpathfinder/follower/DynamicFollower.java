@@ -14,6 +14,17 @@ import com.arctos6135.robotpathfinder.core.trajectory.Moment;
  * with an interval between calls specified in the constructor.
  * </p>
  * <p>
+ * Re-generating is usually expensive, and is not needed while the robot is
+ * following closely. Dynamic followers can therefore also update adaptively:
+ * if error thresholds are set with {@link #setUpdateThresholds(double, double)},
+ * an update is done as soon as the robot's position or velocity error exceeds
+ * them, limited to at most one every {@link #getMinUpdateDelay() minimum update
+ * delay}. The update delay then acts as the longest time between updates, and
+ * can be disabled so that updates only happen when they are needed. The number
+ * of updates and the time spent in them can be retrieved to tune the
+ * thresholds.
+ * </p>
+ * <p>
  * See the documentation for {@link Follower} for usage instructions.
  * </p>
  * 
@@ -29,6 +40,12 @@ abstract public class DynamicFollower<T extends Moment> extends Follower<T> {
     protected double updateDelay = Double.NaN;
     protected double lastUpdateTime;
 
+    // Adaptive updating; disabled if the thresholds are NaN
+    protected double positionThreshold = Double.NaN, velocityThreshold = Double.NaN;
+    protected double minUpdateDelay = 0;
+
+    protected long updateCount, thresholdUpdateCount, updateNanos;
+
     /**
      * This method must be overridden by a subclass with an implementation. It
      * should call the target's {@link DynamicFollowable#update(Moment)} method with
@@ -42,6 +59,38 @@ abstract public class DynamicFollower<T extends Moment> extends Follower<T> {
      */
     abstract protected void _update();
 
+    /**
+     * Retrieves the current position error of the robot, used to decide whether
+     * to update adaptively.
+     * <p>
+     * The default implementation returns {@code NaN}, which never triggers an
+     * update. Subclasses should override this method to return the absolute value
+     * of the error from the last run of the control loop.
+     * </p>
+     * 
+     * @return The absolute position error
+     * @see #setUpdateThresholds(double, double)
+     */
+    protected double getPositionError() {
+        return Double.NaN;
+    }
+
+    /**
+     * Retrieves the current velocity error of the robot, used to decide whether
+     * to update adaptively.
+     * <p>
+     * The default implementation returns {@code NaN}, which never triggers an
+     * update. Subclasses should override this method to return the absolute value
+     * of the error from the last run of the control loop.
+     * </p>
+     * 
+     * @return The absolute velocity error
+     * @see #setUpdateThresholds(double, double)
+     */
+    protected double getVelocityError() {
+        return Double.NaN;
+    }
+
     /**
      * Forces the {@link DynamicFollower} to call the
      * {@link DynamicFollowable#update(Moment) update()} method of its target.
@@ -53,7 +102,10 @@ abstract public class DynamicFollower<T extends Moment> extends Follower<T> {
      * </p>
      */
     public void update() {
+        long start = System.nanoTime();
         _update();
+        updateNanos += System.nanoTime() - start;
+        updateCount++;
         lastUpdateTime = timer.getTimestamp();
     }
 
@@ -72,9 +124,20 @@ abstract public class DynamicFollower<T extends Moment> extends Follower<T> {
     @Override
     public void run() {
         super.run();
+        // Don't update a target that has already been followed to the end
+        if (!running) {
+            return;
+        }
 
         double currentTime = timer.getTimestamp();
-        if (currentTime - lastUpdateTime >= updateDelay) {
+        double elapsed = currentTime - lastUpdateTime;
+        if (elapsed >= updateDelay) {
+            update();
+            lastUpdateTime = currentTime;
+        } else if (elapsed >= minUpdateDelay
+                && (getPositionError() > positionThreshold || getVelocityError() > velocityThreshold)) {
+            // Comparisons with NaN are always false, so unset thresholds never trigger
+            thresholdUpdateCount++;
             update();
             lastUpdateTime = currentTime;
         }
@@ -102,8 +165,9 @@ abstract public class DynamicFollower<T extends Moment> extends Follower<T> {
      * of time that must elapse between two calls.
      * </p>
      * 
-     * @param updateDelay The update delay; if set to {@code NaN}, updating will be
-     *                    disabled
+     * @param updateDelay The update delay; if set to {@code NaN}, periodic updating
+     *                    will be disabled, and the target will only be updated
+     *                    when the error thresholds are exceeded
      */
     public void setUpdateDelay(double updateDelay) {
         this.updateDelay = updateDelay;
@@ -113,10 +177,116 @@ abstract public class DynamicFollower<T extends Moment> extends Follower<T> {
      * Disables updating.
      * <p>
      * Calling this method will completely disable updating. It is equivalent to
-     * calling {@link #setUpdateDelay(double)} with {@code NaN}.
+     * calling {@link #setUpdateDelay(double)} and
+     * {@link #setUpdateThresholds(double, double)} with {@code NaN}.
      * </p>
      */
     public void disableUpdates() {
-        updateDelay = Double.NaN;
+        updateDelay = positionThreshold = velocityThreshold = Double.NaN;
+    }
+
+    /**
+     * Sets the error thresholds for adaptive updating.
+     * <p>
+     * After each run of the control loop, if the absolute position error is
+     * greater than the position threshold, or the absolute velocity error is
+     * greater than the velocity threshold, the target is updated right away
+     * instead of waiting for the update delay. This is still limited by the
+     * {@link #setMinUpdateDelay(double) minimum update delay}.
+     * </p>
+     * 
+     * @param positionThreshold The position error threshold; if set to
+     *                          {@code NaN}, the position error will not trigger
+     *                          updates
+     * @param velocityThreshold The velocity error threshold; if set to
+     *                          {@code NaN}, the velocity error will not trigger
+     *                          updates
+     */
+    public void setUpdateThresholds(double positionThreshold, double velocityThreshold) {
+        this.positionThreshold = positionThreshold;
+        this.velocityThreshold = velocityThreshold;
+    }
+
+    /**
+     * Retrieves the position error threshold for adaptive updating.
+     * 
+     * @return The position error threshold, or {@code NaN} if not set
+     * @see #setUpdateThresholds(double, double)
+     */
+    public double getPositionThreshold() {
+        return positionThreshold;
+    }
+
+    /**
+     * Retrieves the velocity error threshold for adaptive updating.
+     * 
+     * @return The velocity error threshold, or {@code NaN} if not set
+     * @see #setUpdateThresholds(double, double)
+     */
+    public double getVelocityThreshold() {
+        return velocityThreshold;
+    }
+
+    /**
+     * Sets the minimum time between two updates triggered by the error
+     * thresholds.
+     * <p>
+     * This limits how often the target can be updated when the error stays above
+     * the thresholds, since it usually takes some time for the robot to catch up
+     * after an update. Updates from the update delay are not affected.
+     * </p>
+     * 
+     * @param minUpdateDelay The minimum update delay
+     * @see #setUpdateThresholds(double, double)
+     */
+    public void setMinUpdateDelay(double minUpdateDelay) {
+        this.minUpdateDelay = minUpdateDelay;
+    }
+
+    /**
+     * Retrieves the minimum time between two updates triggered by the error
+     * thresholds.
+     * 
+     * @return The minimum update delay
+     * @see #setMinUpdateDelay(double)
+     */
+    public double getMinUpdateDelay() {
+        return minUpdateDelay;
+    }
+
+    /**
+     * Retrieves the number of times the target has been updated, for any reason.
+     * 
+     * @return The number of updates
+     */
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    /**
+     * Retrieves the number of times the target has been updated because the error
+     * exceeded the thresholds.
+     * 
+     * @return The number of updates triggered by the error thresholds
+     */
+    public long getThresholdUpdateCount() {
+        return thresholdUpdateCount;
+    }
+
+    /**
+     * Retrieves the total time spent updating the target.
+     * 
+     * @return The total time spent in updates, in nanoseconds
+     */
+    public long getUpdateNanos() {
+        return updateNanos;
+    }
+
+    /**
+     * Resets the update count, threshold update count and the total time spent
+     * updating to 0.
+     */
+    public void resetUpdateStats() {
+        updateCount = thresholdUpdateCount = updateNanos = 0;
     }
 }
@@ -3,6 +3,7 @@ package com.arctos6135.robotpathfinder.follower;
 import com.arctos6135.robotpathfinder.core.trajectory.TankDriveMoment;
 import com.arctos6135.robotpathfinder.follower.TankDriveFollower.TankDriveGains;
 import com.arctos6135.robotpathfinder.follower.TankDriveFollower.TankDriveRobot;
+import com.arctos6135.robotpathfinder.follower.telemetry.TelemetryBuffer;
 import com.arctos6135.robotpathfinder.math.MathUtils;
 
 /**
@@ -64,12 +65,19 @@ public class DynamicTankDriveFollower extends DynamicFollower<TankDriveMoment> {
 	// DistanceSource is used
 	protected double lLastPos, rLastPos, lLastVel, rLastVel, lLastAccel, rLastAccel;
 
+	// Set when the target is updated, so that the derivative is not calculated
+	// across the jump in the error the next time the follower is run
+	protected boolean targetUpdated = false;
+
 	protected double leftErr, rightErr, dirErr;
 	// Store these as member variables so they can be accessed from outside the
 	// class for testing purposes
 	protected double leftOutput, rightOutput, leftDeriv, rightDeriv;
 	protected TankDriveMoment lastMoment;
 
+	// Optional buffer to record the state of every run in
+	protected TelemetryBuffer telemetry;
+
 	/*
 	 * Note that one of the differences between this class and TankDriveFollower is
 	 * the lack of the two constructors that have no distance source. Since updating
@@ -459,6 +467,7 @@ public class DynamicTankDriveFollower extends DynamicFollower<TankDriveMoment> {
 
 		// Reset integrals and last errors
 		lErrorInt = rErrorInt = lLastErr = rLastErr = 0;
+		targetUpdated = false;
 
 		// If using manual calculations of the velocity and acceleration, reset the
 		// variables used
@@ -489,9 +498,19 @@ public class DynamicTankDriveFollower extends DynamicFollower<TankDriveMoment> {
 		double rPos = (rDistSrc.getPosition() - rInitDist);
 		leftErr = m.getLeftPosition() - lPos;
 		rightErr = m.getRightPosition() - rPos;
+		// If the target has just been updated, the errors may have jumped
+		// Restart the derivative from the new errors so the jump does not cause a kick
+		if (targetUpdated) {
+			lLastErr = leftErr;
+			rLastErr = rightErr;
+			targetUpdated = false;
+		}
 		// Get the derivative of the errors
-		leftDeriv = (leftErr - lLastErr) / dt;
-		rightDeriv = (rightErr - rLastErr) / dt;
+		// Skip the derivative if no time has passed (e.g. on the first run) to avoid dividing by 0
+		if (dt > 0) {
+			leftDeriv = (leftErr - lLastErr) / dt;
+			rightDeriv = (rightErr - rLastErr) / dt;
+		}
 		// Calculate the integral of the error
 		lErrorInt += leftErr * dt;
 		rErrorInt += rightErr * dt;
@@ -504,7 +523,7 @@ public class DynamicTankDriveFollower extends DynamicFollower<TankDriveMoment> {
 		// Calculate outputs
 		leftOutput = kA * m.getLeftAcceleration() + kV * m.getLeftVelocity() + kP * leftErr + kI * lErrorInt
 				+ kD * leftDeriv - dirErr * kDP;
-		rightOutput = kA * m.getRightAcceleration() + kV * m.getRightVelocity() + kP * rightErr + kI * lErrorInt
+		rightOutput = kA * m.getRightAcceleration() + kV * m.getRightVelocity() + kP * rightErr + kI * rErrorInt
 				+ kD * rightDeriv + dirErr * kDP;
 		// Constrain
 		leftOutput = Math.max(-1, Math.min(1, leftOutput));
@@ -513,13 +532,18 @@ public class DynamicTankDriveFollower extends DynamicFollower<TankDriveMoment> {
 		lMotor.set(leftOutput);
 		rMotor.set(rightOutput);
 
-		lastTime = t;
+		lastTime = timestamp;
 		lLastErr = leftErr;
 		rLastErr = rightErr;
 
 		lastMoment = m;
 
-		if (!advancedDistSrc) {
+		if (telemetry != null) {
+			telemetry.write(t, m, leftErr, rightErr, lErrorInt, rErrorInt, leftDeriv, rightDeriv, dirErr, leftOutput,
+					rightOutput);
+		}
+
+		if (!advancedDistSrc && dt > 0) {
 			double lVel = (lPos - lLastPos) / dt;
 			double rVel = (rPos - rLastPos) / dt;
 			lLastPos = lPos;
@@ -540,6 +564,43 @@ public class DynamicTankDriveFollower extends DynamicFollower<TankDriveMoment> {
 		rMotor.set(0);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * This is the larger of the absolute left and right positional errors.
+	 * </p>
+	 */
+	@Override
+	protected double getPositionError() {
+		return Math.max(Math.abs(leftErr), Math.abs(rightErr));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * This is the larger of the absolute differences between the desired and
+	 * measured velocities of the left and right wheels. If the position sources
+	 * are not {@link AdvancedPositionSource}s, the measured velocities are
+	 * calculated from the change in position.
+	 * </p>
+	 */
+	@Override
+	protected double getVelocityError() {
+		if (lastMoment == null) {
+			return Double.NaN;
+		}
+		double lv;
+		double rv;
+		if (advancedDistSrc) {
+			lv = ((AdvancedPositionSource) lDistSrc).getVelocity();
+			rv = ((AdvancedPositionSource) rDistSrc).getVelocity();
+		} else {
+			lv = lLastVel;
+			rv = rLastVel;
+		}
+		return Math.max(Math.abs(lastMoment.getLeftVelocity() - lv), Math.abs(lastMoment.getRightVelocity() - rv));
+	}
+
 	@Override
 	protected void _update() {
 		// To construct the moment used to update the trajectory, we need to get the
@@ -598,6 +659,7 @@ public class DynamicTankDriveFollower extends DynamicFollower<TankDriveMoment> {
 		// ClassCastException
 		((DynamicFollowable<TankDriveMoment>) target).update(new TankDriveMoment(ld, rd, lv, rv, la, ra, heading,
 				timer.getTimestamp() - initTime, lastMoment.getInitialFacing(), lastMoment.getBackwards()));
+		targetUpdated = true;
 	}
 
 	/**
@@ -762,6 +824,34 @@ public class DynamicTankDriveFollower extends DynamicFollower<TankDriveMoment> {
 		return lastMoment.getRightAcceleration();
 	}
 
+	/**
+	 * Sets a buffer to record the state of every run of the control loop in.
+	 * <p>
+	 * Unlike the {@code last*()} methods, which only return the state of the most
+	 * recent run and are not safe to call from other threads while the follower is
+	 * running, a {@link TelemetryBuffer} keeps every run and can be safely read from
+	 * one other thread. Writing to the buffer does not allocate memory or block.
+	 * </p>
+	 * <p>
+	 * The buffer should be set before the follower starts running.
+	 * </p>
+	 * 
+	 * @param telemetry The buffer to record into, or {@code null} to stop recording
+	 */
+	public void setTelemetryBuffer(TelemetryBuffer telemetry) {
+		this.telemetry = telemetry;
+	}
+
+	/**
+	 * Retrieves the buffer the state of every run of the control loop is recorded
+	 * in.
+	 * 
+	 * @return The telemetry buffer, or {@code null} if there is none
+	 */
+	public TelemetryBuffer getTelemetryBuffer() {
+		return telemetry;
+	}
+
 	/**
 	 * Retrieves the last moment retrieved from the target followable that this
 	 * follower tried to follow.
@@ -552,6 +552,35 @@ abstract public class Follower<T extends Moment> {
 		public double getDirection();
 	}
 
+	/**
+	 * This functional interface represents a source of 2-dimensional pose data,
+	 * such as an odometry estimator.
+	 * <p>
+	 * The pose is written into an array instead of being returned, so that it can
+	 * be read every iteration of a control loop without allocating memory, and so
+	 * that all three values come from the same instant.
+	 * </p>
+	 *
+	 * @author Tyler Tian
+	 * @since 3.0.0
+	 */
+	@FunctionalInterface
+	public interface PoseSource {
+		/**
+		 * Gets the pose of the robot.
+		 * <p>
+		 * The x and y coordinates and the direction the robot is facing are written to
+		 * indices 0, 1 and 2 of the array respectively. They should be in the same
+		 * coordinate system as the waypoints used to generate the trajectory the
+		 * follower is to follow, with the direction in radians and 0 representing
+		 * right.
+		 * </p>
+		 *
+		 * @param pose An array of at least 3 elements to write the pose into
+		 */
+		public void getPose(double[] pose);
+	}
+
 	/**
 	 * This functional interface represents a motor or any kind of device that will
 	 * accept the output of the follower.
@@ -0,0 +1,316 @@
+package com.arctos6135.robotpathfinder.follower;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A follower runner for high frequency control loops that need precise timing.
+ *
+ * <p>
+ * Each run of the control loop is scheduled at an absolute deadline
+ * ({@code start + n * period}), so the loop does not drift no matter how long
+ * each run takes, and the period is not rounded to the millisecond. To wait for
+ * a deadline, the control loop thread first parks with
+ * {@link LockSupport#parkNanos(long)} until shortly before it, and then spins
+ * for the rest of the time, since parking alone can wake up too late. The
+ * length of the spin phase adapts to how late parking usually wakes up, but is
+ * never more than twice the jitter bound or a quarter of the period.
+ * </p>
+ * <p>
+ * This runner records how late each run started (the jitter), and how long
+ * each run that took longer than the period went over (the overrun), in two
+ * {@link TimingHistogram}s. If a run overruns and deadlines are missed, the
+ * missed runs are skipped instead of being run back to back.
+ * </p>
+ * <p>
+ * Because of the spin phase, this runner keeps one core busy for a small part
+ * of each period. For lower frequencies where precise timing is not required,
+ * a {@link TimedFollowerRunner} or {@link SimpleFollowerRunner} may be more
+ * suitable.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see FollowerRunner
+ * @see TimedFollowerRunner
+ * @since 3.0.0
+ */
+public class PrecisionFollowerRunner implements FollowerRunner {
+
+    /**
+     * The default jitter bound, in nanoseconds.
+     */
+    public static final long DEFAULT_JITTER_BOUND = 100000;
+
+    /**
+     * The number of buckets in the histograms, including the unbounded last one.
+     */
+    private static final int BUCKET_COUNT = 21;
+
+    private final long jitterBound;
+
+    private volatile Follower<?> follower;
+    private Runner runner;
+
+    private volatile TimingHistogram jitter;
+    private volatile TimingHistogram overrun;
+    private volatile long tickCount;
+    private volatile long missedCount;
+
+    /**
+     * Creates a new follower runner with the default jitter bound.
+     */
+    public PrecisionFollowerRunner() {
+        this(DEFAULT_JITTER_BOUND);
+    }
+
+    /**
+     * Creates a new follower runner.
+     *
+     * <p>
+     * The jitter bound is the maximum acceptable delay between the deadline of a
+     * run and the time it actually starts. The minimum length of the spin phase is
+     * based on it, and runs that start later than this are counted by
+     * {@link #getJitterBoundViolationCount()}.
+     * </p>
+     *
+     * @param jitterBound The jitter bound, in nanoseconds
+     */
+    public PrecisionFollowerRunner(long jitterBound) {
+        if (jitterBound < 1) {
+            throw new IllegalArgumentException("Jitter bound must be positive");
+        }
+        this.jitterBound = jitterBound;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Starting the runner also resets all the timing statistics.
+     * </p>
+     */
+    @Override
+    public void start(Follower<?> follower, int frequency) {
+        if (runner != null) {
+            return;
+        }
+        if (frequency < 1) {
+            throw new IllegalArgumentException("Frequency must be positive");
+        }
+        this.follower = follower;
+
+        double period = 1e9 / frequency;
+        jitter = new TimingHistogram(Math.max(jitterBound / 10, 1), BUCKET_COUNT);
+        overrun = new TimingHistogram(Math.max((long) (period / 10), 1), BUCKET_COUNT);
+        tickCount = 0;
+        missedCount = 0;
+
+        runner = new Runner(follower, period);
+        runner.start();
+    }
+
+    @Override
+    public boolean isFinished() {
+        if (follower == null) {
+            return true;
+        }
+        return follower.isFinished();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Note that this method will block until the control loop thread has been
+     * stopped. The timing statistics are kept until the runner is started again.
+     * </p>
+     *
+     * @throws IllegalStateException If interrupted while waiting for the control
+     *                               loop thread to finish
+     */
+    @Override
+    public void stop() {
+        if (runner == null) {
+            return;
+        }
+        runner.interrupt();
+        try {
+            // Make sure that the thread actually ended
+            runner.join();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException("Thread.join() was interrupted!", e);
+        } finally {
+            runner = null;
+            follower = null;
+        }
+    }
+
+    /**
+     * Retrieves the jitter bound of this runner.
+     *
+     * @return The jitter bound, in nanoseconds
+     */
+    public long getJitterBound() {
+        return jitterBound;
+    }
+
+    /**
+     * Retrieves a histogram of how late each run of the control loop started
+     * relative to its deadline.
+     *
+     * <p>
+     * The buckets are a tenth of the jitter bound wide, so the first 10 buckets
+     * contain the runs within the bound. If the runner was never started, this
+     * method returns {@code null}.
+     * </p>
+     *
+     * @return A snapshot of the jitter histogram
+     */
+    public TimingHistogram getJitterHistogram() {
+        TimingHistogram h = jitter;
+        return h == null ? null : h.snapshot();
+    }
+
+    /**
+     * Retrieves a histogram of how much each run of the control loop that took
+     * longer than the period went over.
+     *
+     * <p>
+     * Only runs that overran are recorded. The buckets are a tenth of the period
+     * wide. If the runner was never started, this method returns {@code null}.
+     * </p>
+     *
+     * @return A snapshot of the overrun histogram
+     */
+    public TimingHistogram getOverrunHistogram() {
+        TimingHistogram h = overrun;
+        return h == null ? null : h.snapshot();
+    }
+
+    /**
+     * Retrieves the number of times the control loop was run since the runner was
+     * last started.
+     *
+     * @return The number of runs
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Retrieves the number of runs skipped because of overruns since the runner
+     * was last started.
+     *
+     * @return The number of skipped runs
+     */
+    public long getMissedCount() {
+        return missedCount;
+    }
+
+    /**
+     * Retrieves the number of runs that started later than the jitter bound after
+     * their deadline since the runner was last started.
+     *
+     * @return The number of runs outside the jitter bound
+     */
+    public long getJitterBoundViolationCount() {
+        TimingHistogram h = jitter;
+        return h == null ? 0 : h.getCountAbove(jitterBound - 1);
+    }
+
+    /**
+     * The thread that runs the control loop. This is a daemon thread.
+     */
+    private class Runner extends Thread {
+
+        private final Follower<?> follower;
+        private final double period;
+        private final TimingHistogram jitter;
+        private final TimingHistogram overrun;
+
+        // How long before a deadline parking stops and spinning begins
+        private long spin;
+        // A running average of how late parking wakes up
+        private long parkLateness = 0;
+
+        public Runner(Follower<?> follower, double period) {
+            this.follower = follower;
+            this.period = period;
+            jitter = PrecisionFollowerRunner.this.jitter;
+            overrun = PrecisionFollowerRunner.this.overrun;
+            spin = Math.min(jitterBound, (long) (period / 4));
+
+            setDaemon(true);
+            setPriority(MAX_PRIORITY);
+        }
+
+        /**
+         * Waits until the deadline, and returns the time actually woken up, or -1 if
+         * interrupted.
+         */
+        private long waitUntil(long deadline) {
+            long now = System.nanoTime();
+            long parkEnd = deadline - spin;
+            if (now < parkEnd) {
+                while (now < parkEnd) {
+                    LockSupport.parkNanos(parkEnd - now);
+                    if (Thread.interrupted()) {
+                        return -1;
+                    }
+                    now = System.nanoTime();
+                }
+                // Spin for long enough to cover the usual lateness of parking
+                // Very late wakeups are usually caused by preemption, which spinning can't
+                // fix, so they are capped to keep them from throwing off the average
+                long late = Math.min(now - parkEnd, jitterBound);
+                parkLateness += (late - parkLateness) / 8;
+                spin = Math.min(jitterBound + parkLateness, (long) (period / 4));
+            }
+            while (now < deadline) {
+                Thread.onSpinWait();
+                now = System.nanoTime();
+            }
+            return now;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            // Deadlines are always computed from the start so rounding errors don't add up
+            long tick = 0;
+            long deadline = start;
+            long ticks = 0;
+            long missed = 0;
+
+            while (!Thread.interrupted()) {
+                long now = waitUntil(deadline);
+                if (now < 0) {
+                    break;
+                }
+                jitter.record(now - deadline);
+
+                // Run and check if finished
+                follower.run();
+                tickCount = ++ticks;
+                if (follower.isFinished()) {
+                    break;
+                }
+
+                long end = System.nanoTime();
+                tick++;
+                long next = start + (long) (tick * period);
+                if (end > next) {
+                    overrun.record(end - next);
+                    // Skip over all the deadlines that have already been missed
+                    long skip = (long) ((end - next) / period) + 1;
+                    tick += skip;
+                    missed += skip;
+                    missedCount = missed;
+                    next = start + (long) (tick * period);
+                }
+                deadline = next;
+            }
+            // Stop the follower if interrupted
+            follower.stop();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.arctos6135.robotpathfinder.follower;
+
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveMoment;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+
+/**
+ * A {@link TankDriveFollower} that compensates for latency in the robot.
+ *
+ * <p>
+ * On a real robot, a motor output does not take effect immediately; it usually
+ * takes one or more control loop periods before it changes the robot's motion
+ * (the <em>actuation delay</em>). Sensor readings are also delayed, so the
+ * positions read describe where the robot was some time ago (the <em>sensing
+ * delay</em>). A normal {@link TankDriveFollower} ignores both, so its
+ * feedforward is always late, and its feedback compares old positions against
+ * current setpoints, which shows up as a tracking error that grows with speed.
+ * </p>
+ * <p>
+ * This follower fixes both problems:
+ * </p>
+ * <ul>
+ * <li>The feedforward terms use the moment that is the actuation delay ahead on
+ * the trajectory, so that the output takes effect at the time it is meant
+ * for.</li>
+ * <li>The feedback terms compare sensor readings against the setpoints from
+ * the sensing delay ago. These are taken from a small history of the moments
+ * followed, so no extra calls to the target are needed.</li>
+ * </ul>
+ * <p>
+ * With both delays set to 0, this follower behaves exactly like a
+ * {@link TankDriveFollower}.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @since 3.0.0
+ */
+public class PredictiveTankDriveFollower extends TankDriveFollower {
+
+    /**
+     * The default number of moments kept in the history.
+     */
+    public static final int DEFAULT_HISTORY_SIZE = 64;
+
+    protected double actuationDelay, sensingDelay;
+
+    // A ring of the moments followed, keyed by their time on the trajectory
+    // The times are always increasing, since the follower only moves forward
+    private final double[] historyTime, historyLeft, historyRight, historyFacing;
+    private int historyCount;
+
+    /**
+     * Creates a new predictive tank drive follower.
+     *
+     * @param target         The trajectory or path to follow
+     * @param robot          The robot
+     * @param gains          The gains of the control loop
+     * @param actuationDelay The time, in seconds, it takes for a motor output to
+     *                       take effect
+     * @param sensingDelay   The time, in seconds, between the robot being at a
+     *                       position and the position sources reporting it
+     */
+    public PredictiveTankDriveFollower(Followable<TankDriveMoment> target, TankDriveRobot robot, Gains gains,
+            double actuationDelay, double sensingDelay) {
+        this(target, robot, gains, actuationDelay, sensingDelay, DEFAULT_HISTORY_SIZE);
+    }
+
+    /**
+     * Creates a new predictive tank drive follower.
+     *
+     * <p>
+     * The history must be large enough to hold all the moments followed over the
+     * actuation delay plus the sensing delay; if it is not, the follower falls
+     * back to retrieving the delayed setpoints from the target.
+     * </p>
+     *
+     * @param target         The trajectory or path to follow
+     * @param robot          The robot
+     * @param gains          The gains of the control loop
+     * @param actuationDelay The time, in seconds, it takes for a motor output to
+     *                       take effect
+     * @param sensingDelay   The time, in seconds, between the robot being at a
+     *                       position and the position sources reporting it
+     * @param historySize    The max number of moments kept in the history
+     */
+    public PredictiveTankDriveFollower(Followable<TankDriveMoment> target, TankDriveRobot robot, Gains gains,
+            double actuationDelay, double sensingDelay, int historySize) {
+        super(target, robot, gains);
+        if (actuationDelay < 0 || sensingDelay < 0) {
+            throw new IllegalArgumentException("Delays cannot be negative");
+        }
+        if (historySize < 2) {
+            throw new IllegalArgumentException("History size must be at least 2");
+        }
+        this.actuationDelay = actuationDelay;
+        this.sensingDelay = sensingDelay;
+        historyTime = new double[historySize];
+        historyLeft = new double[historySize];
+        historyRight = new double[historySize];
+        historyFacing = new double[historySize];
+    }
+
+    /**
+     * Retrieves the actuation delay.
+     *
+     * @return The time, in seconds, it takes for a motor output to take effect
+     */
+    public double getActuationDelay() {
+        return actuationDelay;
+    }
+
+    /**
+     * Retrieves the sensing delay.
+     *
+     * @return The time, in seconds, between the robot being at a position and the
+     *         position sources reporting it
+     */
+    public double getSensingDelay() {
+        return sensingDelay;
+    }
+
+    private void record(double time, TankDriveMoment m) {
+        int i = historyCount % historyTime.length;
+        historyTime[i] = time;
+        historyLeft[i] = m.getLeftPosition();
+        historyRight[i] = m.getRightPosition();
+        historyFacing[i] = m.getFacingRelative();
+        historyCount++;
+    }
+
+    /**
+     * Finds the setpoints at a time on the trajectory, interpolating between the
+     * moments in the history. Returns whether the history covers the time.
+     */
+    private boolean lookup(double time, double[] out) {
+        int oldest = Math.max(0, historyCount - historyTime.length);
+        // Search backwards from the newest entry, since the time looked up is always
+        // close to the end
+        for (int n = historyCount - 1; n >= oldest; n--) {
+            int i = n % historyTime.length;
+            if (historyTime[i] > time) {
+                continue;
+            }
+            if (n == historyCount - 1) {
+                out[0] = historyLeft[i];
+                out[1] = historyRight[i];
+                out[2] = historyFacing[i];
+                return true;
+            }
+            int j = (n + 1) % historyTime.length;
+            double f = (time - historyTime[i]) / (historyTime[j] - historyTime[i]);
+            out[0] = MathUtils.lerp(historyLeft[i], historyLeft[j], f);
+            out[1] = MathUtils.lerp(historyRight[i], historyRight[j], f);
+            out[2] = MathUtils.lerpAngle(historyFacing[i], historyFacing[j], f);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void _initialize() {
+        super._initialize();
+        historyCount = 0;
+        // The robot starts at the beginning, so this is the setpoint until the first
+        // output takes effect
+        record(0, target.get(0));
+    }
+
+    @Override
+    protected TankDriveMoment getFeedforwardMoment(double t) {
+        // The output takes effect after the actuation delay, so aim for where the robot
+        // should be then
+        TankDriveMoment m = target.get(Math.min(t + actuationDelay, target.totalTime()));
+        record(t + actuationDelay, m);
+        return m;
+    }
+
+    @Override
+    protected void getFeedbackSetpoint(double t, TankDriveMoment m, double[] out) {
+        // The sensors report where the robot was after the sensing delay, so compare
+        // with where it should have been then
+        double sensedTime = Math.max(0, t - sensingDelay);
+        if (!lookup(sensedTime, out)) {
+            TankDriveMoment sensed = target.get(sensedTime);
+            out[0] = sensed.getLeftPosition();
+            out[1] = sensed.getRightPosition();
+            out[2] = sensed.getFacingRelative();
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package com.arctos6135.robotpathfinder.follower;
+
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveMoment;
+import com.arctos6135.robotpathfinder.core.trajectory.Trajectory;
+import com.arctos6135.robotpathfinder.core.trajectory.TrajectoryCursor;
+import com.arctos6135.robotpathfinder.follower.TankDriveFollower.TankDriveRobot;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+
+/**
+ * A follower for tank drive trajectories that corrects the robot's pose, using
+ * the Ramsete controller.
+ *
+ * <p>
+ * {@link TankDriveFollower} corrects the distance travelled by each side of the
+ * robot and the direction it is facing, but nothing pulls the robot back if it
+ * ends up beside the path (e.g. after wheel slip), so that error can build up
+ * over a long trajectory. This follower instead compares the robot's full pose
+ * from a {@link Follower.PoseSource PoseSource} (usually a
+ * {@link DifferentialDriveOdometry}) against the pose it should have from
+ * {@link Trajectory#getPosition(double)}. The error
+ * is split into along-track, cross-track and heading parts, and the Ramsete
+ * control law turns it into a corrected linear and angular velocity. These are
+ * then converted into wheel velocities and sent to the motors using the
+ * {@code kV} and {@code kA} feedforward gains.
+ * </p>
+ * <p>
+ * Ramsete assumes that the wheels reach the velocities they are set to almost
+ * immediately. If the robot's position sources are
+ * {@link Follower.AdvancedPositionSource AdvancedPositionSource}s, the
+ * {@code kP} gain is used to correct the difference between the wheel
+ * velocities that were set and the ones measured, which helps the wheels keep
+ * up.
+ * </p>
+ * <p>
+ * The trajectory is sampled with a {@link TrajectoryCursor}, so each iteration
+ * of the control loop takes the same small amount of time no matter how long
+ * the trajectory is.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see RamseteGains
+ * @since 3.0.0
+ */
+public class RamseteFollower extends Follower<TankDriveMoment> {
+
+    protected Motor lMotor, rMotor;
+    protected PoseSource poseSrc;
+    // Only used for wheel velocity feedback; null if not available
+    protected AdvancedPositionSource lVelSrc, rVelSrc;
+
+    // Ramsete gains
+    protected double b, zeta;
+
+    protected final double baseWidth;
+    protected TrajectoryCursor<TankDriveMoment> cursor;
+
+    protected double initTime;
+    protected final double[] pose = new double[3];
+
+    protected double alongErr, crossErr, headingErr;
+    protected double linearVelocity, angularVelocity;
+    protected double leftOutput, rightOutput;
+
+    /**
+     * The gains for a {@link RamseteFollower}.
+     *
+     * <p>
+     * The {@code kV} and {@code kA} gains are the feedforward gains for the
+     * wheel velocities, and {@code kP} is the proportional gain on the error of
+     * the wheel velocities. The {@code kI} and {@code kD} gains are not used. The
+     * correction of the robot's pose is controlled by {@link #b} and
+     * {@link #zeta}.
+     * </p>
+     *
+     * @author Tyler Tian
+     * @since 3.0.0
+     */
+    public static class RamseteGains extends Gains {
+
+        /**
+         * How strongly the robot is corrected. Must be greater than 0. Larger values
+         * make the correction more aggressive. The default is 2.
+         */
+        public double b = 2;
+        /**
+         * The damping of the correction. Must be between 0 and 1. Larger values make
+         * the correction less likely to overshoot. The default is 0.7.
+         */
+        public double zeta = 0.7;
+
+        @Override
+        public RamseteGains clone() {
+            return new RamseteGains(kV, kA, kP, b, zeta);
+        }
+
+        @Override
+        public String toString() {
+            return "{" + " kA='" + kA + "'" + ", kV='" + kV + "'" + ", kP='" + kP + "'" + ", b='" + b + "'" + ", zeta='"
+                    + zeta + "'" + "}";
+        }
+
+        /**
+         * Creates a new set of gains with the default {@code b} and {@code zeta}, and
+         * all other gains set to 0.
+         */
+        public RamseteGains() {
+        }
+
+        /**
+         * Creates a new set of gains.
+         *
+         * @param kV   The velocity feedforward
+         * @param kA   The acceleration feedforward
+         * @param b    How strongly the robot is corrected
+         * @param zeta The damping of the correction
+         */
+        public RamseteGains(double kV, double kA, double b, double zeta) {
+            this(kV, kA, 0, b, zeta);
+        }
+
+        /**
+         * Creates a new set of gains.
+         *
+         * @param kV   The velocity feedforward
+         * @param kA   The acceleration feedforward
+         * @param kP   The proportional gain on wheel velocity error
+         * @param b    How strongly the robot is corrected
+         * @param zeta The damping of the correction
+         */
+        public RamseteGains(double kV, double kA, double kP, double b, double zeta) {
+            this.kV = kV;
+            this.kA = kA;
+            this.kP = kP;
+            this.b = b;
+            this.zeta = zeta;
+        }
+    }
+
+    /**
+     * Creates a new Ramsete follower.
+     *
+     * <p>
+     * The pose source replaces the position and direction sources of the robot.
+     * The position sources are only used for wheel velocity feedback, if they are
+     * {@link Follower.AdvancedPositionSource AdvancedPositionSource}s.
+     * </p>
+     *
+     * @param target  The trajectory to follow
+     * @param robot   The robot
+     * @param poseSrc The source of the robot's pose
+     * @param gains   The gains
+     */
+    public RamseteFollower(Trajectory<TankDriveMoment> target, TankDriveRobot robot, PoseSource poseSrc,
+            RamseteGains gains) {
+        if (robot.leftMotor == null || robot.rightMotor == null) {
+            throw new IllegalArgumentException("Motors cannot be null!");
+        }
+        if (robot.timestampSource == null) {
+            throw new IllegalArgumentException("Timestamp source cannot be null!");
+        }
+        if (poseSrc == null) {
+            throw new IllegalArgumentException("Pose source cannot be null!");
+        }
+        this.target = target;
+        lMotor = robot.leftMotor;
+        rMotor = robot.rightMotor;
+        timer = robot.timestampSource;
+        this.poseSrc = poseSrc;
+        if (robot.leftPositionSource instanceof AdvancedPositionSource
+                && robot.rightPositionSource instanceof AdvancedPositionSource) {
+            lVelSrc = (AdvancedPositionSource) robot.leftPositionSource;
+            rVelSrc = (AdvancedPositionSource) robot.rightPositionSource;
+        }
+        baseWidth = target.getRobotSpecs().getBaseWidth();
+        setGains(gains);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Note that if the object passed in is an instance of {@link RamseteGains},
+     * this method will call {@link #setGains(RamseteGains)}.
+     * </p>
+     */
+    @Override
+    public void setGains(Gains gains) {
+        if (gains instanceof RamseteGains) {
+            setGains((RamseteGains) gains);
+        } else {
+            super.setGains(gains);
+        }
+    }
+
+    /**
+     * Sets the gains.
+     *
+     * @param gains The gains to set
+     */
+    public void setGains(RamseteGains gains) {
+        if (gains.b <= 0 || gains.zeta < 0 || gains.zeta > 1) {
+            throw new IllegalArgumentException("b must be positive and zeta must be between 0 and 1");
+        }
+        super.setGains((Gains) gains);
+        b = gains.b;
+        zeta = gains.zeta;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RamseteGains getGains() {
+        return new RamseteGains(kV, kA, kP, b, zeta);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException If the target is not a {@link Trajectory}
+     */
+    @Override
+    public void setTarget(Followable<TankDriveMoment> target) {
+        if (!(target instanceof Trajectory)) {
+            throw new IllegalArgumentException("Target must be a trajectory");
+        }
+        super.setTarget(target);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void _initialize() {
+        Trajectory<TankDriveMoment> trajectory = (Trajectory<TankDriveMoment>) target;
+        if (cursor == null || cursor.getTrajectory() != trajectory) {
+            cursor = new TrajectoryCursor<>(trajectory);
+        }
+        cursor.seek(0);
+        initTime = timer.getTimestamp();
+    }
+
+    @Override
+    protected boolean _run() {
+        double t = timer.getTimestamp() - initTime;
+        if (t > target.totalTime()) {
+            return true;
+        }
+
+        cursor.seek(t);
+        TankDriveMoment lower = cursor.getLower();
+        TankDriveMoment upper = cursor.getUpper();
+        double f = cursor.getFraction();
+        // Reference pose and velocities
+        double refX = cursor.getX();
+        double refY = cursor.getY();
+        double refFacing = MathUtils.lerpAngle(lower.getFacingAbsolute(), upper.getFacingAbsolute(), f);
+        double leftVel = MathUtils.lerp(lower.getLeftVelocity(), upper.getLeftVelocity(), f);
+        double rightVel = MathUtils.lerp(lower.getRightVelocity(), upper.getRightVelocity(), f);
+        double leftAccel = MathUtils.lerp(lower.getLeftAcceleration(), upper.getLeftAcceleration(), f);
+        double rightAccel = MathUtils.lerp(lower.getRightAcceleration(), upper.getRightAcceleration(), f);
+        double refV = (leftVel + rightVel) / 2;
+        double refOmega = (rightVel - leftVel) / baseWidth;
+
+        // Find the error in the robot's frame
+        poseSrc.getPose(pose);
+        double dx = refX - pose[0];
+        double dy = refY - pose[1];
+        double cos = Math.cos(pose[2]);
+        double sin = Math.sin(pose[2]);
+        alongErr = cos * dx + sin * dy;
+        crossErr = -sin * dx + cos * dy;
+        headingErr = MathUtils.angleDiff(MathUtils.restrictAngle(pose[2]), refFacing);
+
+        // Ramsete control law
+        double k = 2 * zeta * Math.sqrt(refOmega * refOmega + b * refV * refV);
+        // sin(x)/x, which approaches 1 as x approaches 0
+        double sinc = Math.abs(headingErr) < 1e-9 ? 1 : Math.sin(headingErr) / headingErr;
+        linearVelocity = refV * Math.cos(headingErr) + k * alongErr;
+        angularVelocity = refOmega + k * headingErr + b * refV * sinc * crossErr;
+
+        // Convert to wheel velocities
+        double leftTarget = linearVelocity - angularVelocity * baseWidth / 2;
+        double rightTarget = linearVelocity + angularVelocity * baseWidth / 2;
+        leftOutput = kV * leftTarget + kA * leftAccel;
+        rightOutput = kV * rightTarget + kA * rightAccel;
+        if (lVelSrc != null) {
+            leftOutput += kP * (leftTarget - lVelSrc.getVelocity());
+            rightOutput += kP * (rightTarget - rVelSrc.getVelocity());
+        }
+        leftOutput = Math.max(-1, Math.min(1, leftOutput));
+        rightOutput = Math.max(-1, Math.min(1, rightOutput));
+
+        lMotor.set(leftOutput);
+        rMotor.set(rightOutput);
+
+        return false;
+    }
+
+    @Override
+    protected void _stop() {
+        lMotor.set(0);
+        rMotor.set(0);
+    }
+
+    /**
+     * Retrieves the last along-track error, i.e. how far the robot is behind
+     * where it should be, in the direction it is facing.
+     *
+     * @return The last along-track error
+     */
+    public double lastAlongTrackError() {
+        return alongErr;
+    }
+
+    /**
+     * Retrieves the last cross-track error, i.e. how far the robot is to the
+     * right of where it should be.
+     *
+     * @return The last cross-track error
+     */
+    public double lastCrossTrackError() {
+        return crossErr;
+    }
+
+    /**
+     * Retrieves the last heading error, i.e. how much the robot needs to turn
+     * left to face the right direction.
+     *
+     * @return The last heading error
+     */
+    public double lastHeadingError() {
+        return headingErr;
+    }
+
+    /**
+     * Retrieves the last linear velocity the robot was commanded to move at.
+     *
+     * @return The last linear velocity
+     */
+    public double lastLinearVelocity() {
+        return linearVelocity;
+    }
+
+    /**
+     * Retrieves the last angular velocity the robot was commanded to turn at.
+     *
+     * @return The last angular velocity
+     */
+    public double lastAngularVelocity() {
+        return angularVelocity;
+    }
+
+    /**
+     * Retrieves the last output written to the left motor.
+     *
+     * @return The last left output
+     */
+    public double lastLeftOutput() {
+        return leftOutput;
+    }
+
+    /**
+     * Retrieves the last output written to the right motor.
+     *
+     * @return The last right output
+     */
+    public double lastRightOutput() {
+        return rightOutput;
+    }
+}
@@ -0,0 +1,86 @@
+package com.arctos6135.robotpathfinder.follower;
+
+/**
+ * A follower runner that runs the control loop on a
+ * {@link SharedFollowerScheduler} instead of a thread of its own.
+ *
+ * <p>
+ * Any number of these runners can share the same scheduler, which is useful
+ * when many followers are running at once (e.g. in simulations). See
+ * {@link SharedFollowerScheduler} for details on how the control loops are
+ * timed.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see FollowerRunner
+ * @see SharedFollowerScheduler
+ * @since 3.0.0
+ */
+public class SharedFollowerRunner implements FollowerRunner {
+
+    private final SharedFollowerScheduler scheduler;
+
+    private volatile Follower<?> follower;
+    private SharedFollowerScheduler.Task task;
+
+    /**
+     * Creates a new follower runner.
+     *
+     * @param scheduler The scheduler to run the control loop on
+     */
+    public SharedFollowerRunner(SharedFollowerScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException If the scheduler has been closed
+     */
+    @Override
+    public void start(Follower<?> follower, int frequency) {
+        if (task != null) {
+            return;
+        }
+        task = scheduler.schedule(follower, frequency);
+        this.follower = follower;
+    }
+
+    @Override
+    public boolean isFinished() {
+        if (follower == null) {
+            return true;
+        }
+        return follower.isFinished();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * Note that this method will block until the control loop has finished
+     * running, if it is in the middle of a run.
+     * </p>
+     */
+    @Override
+    public void stop() {
+        if (task == null) {
+            return;
+        }
+        try {
+            task.cancel();
+        } finally {
+            task = null;
+            follower = null;
+        }
+    }
+
+    /**
+     * Retrieves the scheduler used by this runner.
+     *
+     * @return The scheduler
+     */
+    public SharedFollowerScheduler getScheduler() {
+        return scheduler;
+    }
+}
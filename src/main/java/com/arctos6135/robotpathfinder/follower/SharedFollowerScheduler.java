@@ -0,0 +1,343 @@
+package com.arctos6135.robotpathfinder.follower;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A scheduler that runs the control loops of many followers on a small, fixed
+ * number of threads.
+ *
+ * <p>
+ * Each {@link TimedFollowerRunner} or {@link SimpleFollowerRunner} uses a
+ * thread of its own, which becomes a problem when hundreds of followers are
+ * running at once. Instead, followers can be run with
+ * {@link SharedFollowerRunner}s that all share one of these schedulers.
+ * </p>
+ * <p>
+ * Followers are run in order of their next deadline (earliest deadline first),
+ * with ties broken by the order in which they were scheduled, so no follower
+ * can starve the others. Each follower can have its own frequency, and its
+ * deadlines are absolute, so they do not drift. To reduce overhead, when a
+ * thread wakes up, it also runs all other followers whose deadlines are within
+ * a small window (the batch window) instead of sleeping again for each one. A
+ * follower is never run by two threads at the same time. If a follower misses
+ * deadlines, the missed runs are skipped instead of being run back to back.
+ * </p>
+ * <p>
+ * These objects must be closed with {@link #close()} when they are no longer
+ * needed, to stop the threads. Closing a scheduler also stops all the followers
+ * running on it.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see SharedFollowerRunner
+ * @since 3.0.0
+ */
+public class SharedFollowerScheduler implements AutoCloseable {
+
+    /**
+     * The default batch window, in nanoseconds.
+     */
+    public static final long DEFAULT_BATCH_WINDOW = 500000;
+
+    /**
+     * The maximum number of followers a thread runs in one batch, so other threads
+     * can pick up the rest.
+     */
+    private static final int MAX_BATCH_SIZE = 64;
+
+    private final long batchWindow;
+    private final Thread[] carriers;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final PriorityQueue<Task> queue = new PriorityQueue<>();
+    private final Set<Task> tasks = new HashSet<>();
+    private long sequence = 0;
+    private boolean closed = false;
+
+    private volatile long missedCount = 0;
+
+    /**
+     * A follower scheduled on this scheduler.
+     */
+    class Task implements Comparable<Task> {
+
+        final Follower<?> follower;
+        final double period;
+        final long start;
+
+        long tick = 0;
+        long deadline;
+        // Breaks ties between equal deadlines
+        long seq;
+
+        volatile boolean cancelled = false;
+        volatile boolean finished = false;
+
+        Task(Follower<?> follower, double period, long start) {
+            this.follower = follower;
+            this.period = period;
+            this.start = start;
+            deadline = start;
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int c = Long.compare(deadline - other.deadline, 0);
+            return c != 0 ? c : Long.compare(seq, other.seq);
+        }
+
+        /**
+         * Runs the follower once, unless it has been cancelled.
+         */
+        synchronized void runOnce() {
+            if (cancelled) {
+                return;
+            }
+            follower.run();
+            if (follower.isFinished()) {
+                follower.stop();
+                finished = true;
+            }
+        }
+
+        /**
+         * Moves on to the next deadline, skipping any that were missed. Must be
+         * called with the scheduler lock held.
+         */
+        void advance(long now) {
+            tick++;
+            long next = start + (long) (tick * period);
+            if (now > next) {
+                long skip = (long) ((now - next) / period) + 1;
+                tick += skip;
+                missedCount += skip;
+                next = start + (long) (tick * period);
+            }
+            deadline = next;
+            seq = sequence++;
+        }
+
+        /**
+         * Stops the follower and removes it from the scheduler. Blocks until any run
+         * in progress has finished.
+         */
+        void cancel() {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                if (!finished) {
+                    follower.stop();
+                }
+            }
+            lock.lock();
+            try {
+                queue.remove(this);
+                tasks.remove(this);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Creates a new scheduler with the default batch window.
+     *
+     * @param threads The number of threads to run followers on
+     */
+    public SharedFollowerScheduler(int threads) {
+        this(threads, DEFAULT_BATCH_WINDOW);
+    }
+
+    /**
+     * Creates a new scheduler.
+     *
+     * <p>
+     * A larger batch window means fewer wake-ups, but followers may be run up to
+     * that much earlier than their deadlines.
+     * </p>
+     *
+     * @param threads     The number of threads to run followers on
+     * @param batchWindow The batch window, in nanoseconds
+     */
+    public SharedFollowerScheduler(int threads, long batchWindow) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        if (batchWindow < 0) {
+            throw new IllegalArgumentException("Batch window cannot be negative");
+        }
+        this.batchWindow = batchWindow;
+
+        carriers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            carriers[i] = new Thread(this::carrierLoop, "SharedFollowerScheduler-" + i);
+            carriers[i].setDaemon(true);
+            carriers[i].start();
+        }
+    }
+
+    /**
+     * Schedules a follower to be run.
+     *
+     * @param follower  The follower to run
+     * @param frequency The frequency, in Hz, to run the follower at
+     * @return The scheduled task
+     * @throws IllegalStateException If this scheduler has been closed
+     */
+    Task schedule(Follower<?> follower, int frequency) {
+        if (frequency < 1) {
+            throw new IllegalArgumentException("Frequency must be positive");
+        }
+        Task task = new Task(follower, 1e9 / frequency, System.nanoTime());
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Scheduler has been closed");
+            }
+            task.seq = sequence++;
+            tasks.add(task);
+            queue.add(task);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        return task;
+    }
+
+    private void carrierLoop() {
+        List<Task> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        lock.lock();
+        try {
+            while (!closed) {
+                Task head = queue.peek();
+                if (head == null) {
+                    available.awaitUninterruptibly();
+                    continue;
+                }
+                long now = System.nanoTime();
+                long wait = head.deadline - now;
+                if (wait > 0) {
+                    available.await(wait, TimeUnit.NANOSECONDS);
+                    continue;
+                }
+
+                // Take every follower that is due soon
+                while (head != null && head.deadline - (now + batchWindow) <= 0 && batch.size() < MAX_BATCH_SIZE) {
+                    batch.add(queue.poll());
+                    head = queue.peek();
+                }
+                // Let another thread handle the rest
+                if (head != null) {
+                    available.signal();
+                }
+
+                lock.unlock();
+                try {
+                    for (Task task : batch) {
+                        task.runOnce();
+                    }
+                } finally {
+                    lock.lock();
+                }
+
+                now = System.nanoTime();
+                for (Task task : batch) {
+                    if (task.cancelled || task.finished) {
+                        tasks.remove(task);
+                    } else {
+                        task.advance(now);
+                        queue.add(task);
+                    }
+                }
+                batch.clear();
+                available.signal();
+            }
+        } catch (InterruptedException e) {
+            // Only happens when closed
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of followers currently scheduled.
+     *
+     * @return The number of followers
+     */
+    public int getFollowerCount() {
+        lock.lock();
+        try {
+            return tasks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of threads used to run followers.
+     *
+     * @return The number of threads
+     */
+    public int getThreadCount() {
+        return carriers.length;
+    }
+
+    /**
+     * Retrieves the total number of runs skipped because a follower missed its
+     * deadlines.
+     *
+     * @return The number of skipped runs
+     */
+    public long getMissedCount() {
+        return missedCount;
+    }
+
+    /**
+     * Stops this scheduler and all the followers running on it.
+     *
+     * <p>
+     * Note that this method will block until all threads have stopped.
+     * </p>
+     *
+     * @throws IllegalStateException If interrupted while waiting for the threads
+     *                               to finish
+     */
+    @Override
+    public void close() {
+        List<Task> remaining;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            remaining = new ArrayList<>(tasks);
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            for (Thread carrier : carriers) {
+                carrier.interrupt();
+                carrier.join();
+            }
+        } catch (InterruptedException e) {
+            throw new IllegalStateException("Thread.join() was interrupted!", e);
+        } finally {
+            for (Task task : remaining) {
+                task.cancel();
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.arctos6135.robotpathfinder.follower;
 
 import com.arctos6135.robotpathfinder.core.trajectory.TankDriveMoment;
+import com.arctos6135.robotpathfinder.follower.telemetry.TelemetryBuffer;
 import com.arctos6135.robotpathfinder.math.MathUtils;
 
 /**
@@ -48,6 +49,11 @@ public class TankDriveFollower extends Follower<TankDriveMoment> {
 	// class for testing purposes
 	protected double leftOutput, rightOutput, leftDeriv, rightDeriv;
 	protected TankDriveMoment lastMoment;
+	// The left position, right position and facing setpoints of the current run
+	private final double[] setpoint = new double[3];
+
+	// Optional buffer to record the state of every run in
+	protected TelemetryBuffer telemetry;
 
 	/**
 	 * A class that represents a set of gains for PIDVA control, specialized for
@@ -559,6 +565,43 @@ public class TankDriveFollower extends Follower<TankDriveMoment> {
 		lErrorInt = rErrorInt = lLastErr = rLastErr = 0;
 	}
 
+	/**
+	 * Retrieves the moment used for the feedforward terms of a run.
+	 * <p>
+	 * This is called exactly once per run, and the moment returned is also the
+	 * one reported by {@link #lastMoment()}. Its velocities and accelerations are
+	 * written to the telemetry, but the position and heading setpoints written are
+	 * the ones the errors are calculated against. By default, it is the moment of
+	 * the target at the current time.
+	 * </p>
+	 * 
+	 * @param t The time since the follower started
+	 * @return The moment whose velocities and accelerations are followed
+	 */
+	protected TankDriveMoment getFeedforwardMoment(double t) {
+		return target.get(t);
+	}
+
+	/**
+	 * Retrieves the setpoints that the sensor readings are compared against for
+	 * the feedback terms of a run.
+	 * <p>
+	 * This is called exactly once per run, right after
+	 * {@link #getFeedforwardMoment(double)}. By default, the setpoints are taken
+	 * from the feedforward moment.
+	 * </p>
+	 * 
+	 * @param t   The time since the follower started
+	 * @param m   The moment returned by {@link #getFeedforwardMoment(double)}
+	 * @param out An array to store the left position, right position and relative
+	 *            facing setpoints in, in that order
+	 */
+	protected void getFeedbackSetpoint(double t, TankDriveMoment m, double[] out) {
+		out[0] = m.getLeftPosition();
+		out[1] = m.getRightPosition();
+		out[2] = m.getFacingRelative();
+	}
+
 	@Override
 	protected boolean _run() {
 		// Calculate current t and time difference from last iteration
@@ -569,17 +612,21 @@ public class TankDriveFollower extends Follower<TankDriveMoment> {
 			return true;
 		}
 
-		TankDriveMoment m = target.get(t);
+		TankDriveMoment m = getFeedforwardMoment(t);
+		getFeedbackSetpoint(t, m, setpoint);
 
 		leftErr = rightErr = leftDeriv = rightDeriv = dirErr = 0;
 		// Calculate errors and derivatives only if the distance sources are not null
 		if (lDistSrc != null && rDistSrc != null) {
 			// Calculate left and right errors
-			leftErr = m.getLeftPosition() - (lDistSrc.getPosition() - lInitDist);
-			rightErr = m.getRightPosition() - (rDistSrc.getPosition() - rInitDist);
+			leftErr = setpoint[0] - (lDistSrc.getPosition() - lInitDist);
+			rightErr = setpoint[1] - (rDistSrc.getPosition() - rInitDist);
 			// Get the derivative of the errors
-			leftDeriv = (leftErr - lLastErr) / dt;
-			rightDeriv = (rightErr - rLastErr) / dt;
+			// Skip the derivative if no time has passed (e.g. on the first run) to avoid dividing by 0
+			if (dt > 0) {
+				leftDeriv = (leftErr - lLastErr) / dt;
+				rightDeriv = (rightErr - rLastErr) / dt;
+			}
 			// Calculate the integral of the error
 			lErrorInt += leftErr * dt;
 			rErrorInt += rightErr * dt;
@@ -587,12 +634,12 @@ public class TankDriveFollower extends Follower<TankDriveMoment> {
 		// Calculate directional error only if the direction source is not null
 		if (directionSrc != null) {
 			// This angle diff will be positive if the robot needs to turn left
-			dirErr = MathUtils.angleDiff(directionSrc.getDirection() - initDirection, m.getFacingRelative());
+			dirErr = MathUtils.angleDiff(directionSrc.getDirection() - initDirection, setpoint[2]);
 		}
 		// Calculate outputs
 		leftOutput = kA * m.getLeftAcceleration() + kV * m.getLeftVelocity() + kP * leftErr + kI * lErrorInt
 				+ kD * leftDeriv - dirErr * kDP;
-		rightOutput = kA * m.getRightAcceleration() + kV * m.getRightVelocity() + kP * rightErr + kI * lErrorInt
+		rightOutput = kA * m.getRightAcceleration() + kV * m.getRightVelocity() + kP * rightErr + kI * rErrorInt
 				+ kD * rightDeriv + dirErr * kDP;
 		// Constrain
 		leftOutput = Math.max(-1, Math.min(1, leftOutput));
@@ -601,12 +648,18 @@ public class TankDriveFollower extends Follower<TankDriveMoment> {
 		lMotor.set(leftOutput);
 		rMotor.set(rightOutput);
 
-		lastTime = t;
+		lastTime = timestamp;
 		lLastErr = leftErr;
 		rLastErr = rightErr;
 
 		lastMoment = m;
 
+		if (telemetry != null) {
+			// Record the setpoints the errors were calculated against
+			telemetry.write(t, m, setpoint[0], setpoint[1], setpoint[2], leftErr, rightErr, lErrorInt, rErrorInt,
+					leftDeriv, rightDeriv, dirErr, leftOutput, rightOutput);
+		}
+
 		return false;
 	}
 
@@ -778,6 +831,34 @@ public class TankDriveFollower extends Follower<TankDriveMoment> {
 		return lastMoment.getRightAcceleration();
 	}
 
+	/**
+	 * Sets a buffer to record the state of every run of the control loop in.
+	 * <p>
+	 * Unlike the {@code last*()} methods, which only return the state of the most
+	 * recent run and are not safe to call from other threads while the follower is
+	 * running, a {@link TelemetryBuffer} keeps every run and can be safely read from
+	 * one other thread. Writing to the buffer does not allocate memory or block.
+	 * </p>
+	 * <p>
+	 * The buffer should be set before the follower starts running.
+	 * </p>
+	 * 
+	 * @param telemetry The buffer to record into, or {@code null} to stop recording
+	 */
+	public void setTelemetryBuffer(TelemetryBuffer telemetry) {
+		this.telemetry = telemetry;
+	}
+
+	/**
+	 * Retrieves the buffer the state of every run of the control loop is recorded
+	 * in.
+	 * 
+	 * @return The telemetry buffer, or {@code null} if there is none
+	 */
+	public TelemetryBuffer getTelemetryBuffer() {
+		return telemetry;
+	}
+
 	/**
 	 * Retrieves the last moment retrieved from the target followable that this
 	 * follower tried to follow.
@@ -0,0 +1,175 @@
+package com.arctos6135.robotpathfinder.follower;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of durations, used by follower runners to record timing
+ * statistics such as jitter.
+ *
+ * <p>
+ * Durations are sorted into a number of buckets of equal width, starting at 0.
+ * The last bucket is unbounded, and collects every duration that does not fit
+ * into the other buckets. Negative durations are put into the first bucket.
+ * </p>
+ * <p>
+ * This class is thread-safe. To get a consistent view of all the values at
+ * once, use {@link #snapshot()}.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see PrecisionFollowerRunner
+ * @since 3.0.0
+ */
+public class TimingHistogram {
+
+    private final long bucketWidth;
+    private final long[] counts;
+    private long total;
+    private long sum;
+    private long max;
+
+    /**
+     * Creates a new, empty histogram.
+     *
+     * @param bucketWidth The width of each bucket, in nanoseconds
+     * @param bucketCount The number of buckets, including the unbounded last one
+     */
+    public TimingHistogram(long bucketWidth, int bucketCount) {
+        if (bucketWidth < 1) {
+            throw new IllegalArgumentException("Bucket width must be positive");
+        }
+        if (bucketCount < 1) {
+            throw new IllegalArgumentException("Bucket count must be positive");
+        }
+        this.bucketWidth = bucketWidth;
+        counts = new long[bucketCount];
+    }
+
+    private TimingHistogram(TimingHistogram other) {
+        bucketWidth = other.bucketWidth;
+        counts = Arrays.copyOf(other.counts, other.counts.length);
+        total = other.total;
+        sum = other.sum;
+        max = other.max;
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration, in nanoseconds
+     */
+    public synchronized void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts[(int) Math.min(value / bucketWidth, counts.length - 1)]++;
+        total++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Removes all recorded durations.
+     */
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    /**
+     * Creates a copy of this histogram that will not change as more durations are
+     * recorded.
+     *
+     * @return A copy of this histogram
+     */
+    public synchronized TimingHistogram snapshot() {
+        return new TimingHistogram(this);
+    }
+
+    /**
+     * Retrieves the width of each bucket.
+     *
+     * @return The bucket width, in nanoseconds
+     */
+    public long getBucketWidth() {
+        return bucketWidth;
+    }
+
+    /**
+     * Retrieves the number of buckets, including the unbounded last one.
+     *
+     * @return The number of buckets
+     */
+    public int getBucketCount() {
+        return counts.length;
+    }
+
+    /**
+     * Retrieves the number of durations in a bucket.
+     *
+     * <p>
+     * Bucket {@code i} contains durations that are at least
+     * {@code i * getBucketWidth()} and less than
+     * {@code (i + 1) * getBucketWidth()}, except for the last bucket, which has no
+     * upper bound.
+     * </p>
+     *
+     * @param bucket The index of the bucket
+     * @return The number of durations in the bucket
+     */
+    public synchronized long getCount(int bucket) {
+        return counts[bucket];
+    }
+
+    /**
+     * Retrieves the total number of durations recorded.
+     *
+     * @return The number of durations recorded
+     */
+    public synchronized long getTotalCount() {
+        return total;
+    }
+
+    /**
+     * Retrieves the number of recorded durations that are greater than a value.
+     *
+     * <p>
+     * Since only the buckets are stored, this is rounded to the bucket width: the
+     * result counts all the buckets that start after the value.
+     * </p>
+     *
+     * @param nanos The value, in nanoseconds
+     * @return The number of durations greater than the value
+     */
+    public synchronized long getCountAbove(long nanos) {
+        long count = 0;
+        for (int i = counts.length - 1; i >= 0 && i * bucketWidth > nanos; i--) {
+            count += counts[i];
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the longest duration recorded.
+     *
+     * @return The maximum, in nanoseconds, or 0 if nothing was recorded
+     */
+    public synchronized long getMax() {
+        return max;
+    }
+
+    /**
+     * Retrieves the mean of all durations recorded.
+     *
+     * @return The mean, in nanoseconds, or 0 if nothing was recorded
+     */
+    public synchronized double getMean() {
+        return total == 0 ? 0 : (double) sum / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TimingHistogram [bucketWidth=" + bucketWidth + ", counts=" + Arrays.toString(counts) + ", total="
+                + total + ", mean=" + getMean() + ", max=" + max + "]";
+    }
+}
@@ -0,0 +1,337 @@
+package com.arctos6135.robotpathfinder.follower.simulation;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.follower.Follower.AdvancedPositionSource;
+import com.arctos6135.robotpathfinder.follower.Follower.DirectionSource;
+import com.arctos6135.robotpathfinder.follower.Follower.Motor;
+import com.arctos6135.robotpathfinder.follower.Follower.PoseSource;
+import com.arctos6135.robotpathfinder.follower.Follower.TimestampSource;
+import com.arctos6135.robotpathfinder.follower.TankDriveFollower.TankDriveRobot;
+
+/**
+ * A simple simulated differential-drive (tank drive) robot.
+ *
+ * <p>
+ * Each side of the robot is modelled as a first-order system: with a constant
+ * motor output {@code u}, the side's velocity approaches
+ * {@code u * maxVelocity}, and when starting from rest, it initially
+ * accelerates at {@code u * maxAcceleration}. This is roughly how a DC motor
+ * behaves, and means that a velocity feedforward of {@code 1 / maxVelocity} is
+ * exactly right at steady state. The velocity and distance of each side are
+ * integrated exactly, so they do not depend on the step size as long as the
+ * outputs stay the same.
+ * </p>
+ * <p>
+ * The robot's position on the field is tracked from the distance travelled by
+ * each side, assuming the wheels do not slip. Each step is assumed to move the
+ * robot along a circular arc, i.e. with constant curvature. The heading only
+ * depends on the distances, so it is still exact, but the arc is only an
+ * approximation while the sides are accelerating differently, so the position
+ * does depend slightly on the step size. Angles are in radians, with 0
+ * representing right, like the angles used to generate trajectories.
+ * </p>
+ * <p>
+ * The motors and sensors of the robot can be retrieved with
+ * {@link #getLeftMotor()}, {@link #getLeftEncoder()}, {@link #getGyro()},
+ * etc., or all at once with {@link #createRobot(TimestampSource)}.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see SimulationRunner
+ * @since 3.0.0
+ */
+public class DifferentialDrivePlant implements Plant {
+
+    private final double maxVelocity;
+    private final double maxAcceleration;
+    private final double baseWidth;
+    // The time constant of the first-order model
+    private final double tau;
+
+    private double leftOutput, rightOutput;
+    private double leftPosition, rightPosition;
+    private double leftVelocity, rightVelocity;
+    private double leftAcceleration, rightAcceleration;
+    private double x, y, heading;
+
+    private final Motor leftMotor = output -> leftOutput = Math.max(-1, Math.min(1, output));
+    private final Motor rightMotor = output -> rightOutput = Math.max(-1, Math.min(1, output));
+    private final AdvancedPositionSource leftEncoder = new Encoder(true);
+    private final AdvancedPositionSource rightEncoder = new Encoder(false);
+    private final DirectionSource gyro = () -> heading;
+    private final PoseSource poseSource = pose -> {
+        pose[0] = x;
+        pose[1] = y;
+        pose[2] = heading;
+    };
+
+    /**
+     * Creates a new simulated robot at the origin, facing right.
+     *
+     * @param maxVelocity     The top speed of each side of the robot
+     * @param maxAcceleration The acceleration of each side of the robot from rest
+     *                        at full output
+     * @param baseWidth       The distance between the left and right wheels
+     */
+    public DifferentialDrivePlant(double maxVelocity, double maxAcceleration, double baseWidth) {
+        if (!(maxVelocity > 0) || !(maxAcceleration > 0) || !(baseWidth > 0)) {
+            throw new IllegalArgumentException("Max velocity, max acceleration and base width must be positive");
+        }
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+        this.baseWidth = baseWidth;
+        tau = maxVelocity / maxAcceleration;
+    }
+
+    /**
+     * Creates a new simulated robot at the origin, facing right, with the
+     * characteristics in a {@link RobotSpecs} object.
+     *
+     * <p>
+     * Note that trajectories are often generated with a lower max velocity and
+     * acceleration than what the robot is capable of, so that the control loop
+     * has room to correct errors. In that case, the other constructor should be
+     * used with the robot's actual characteristics.
+     * </p>
+     *
+     * @param specs The characteristics of the robot; the base width must be set
+     */
+    public DifferentialDrivePlant(RobotSpecs specs) {
+        this(specs.getMaxVelocity(), specs.getMaxAcceleration(), specs.getBaseWidth());
+    }
+
+    /**
+     * An encoder for one side of the robot.
+     */
+    private class Encoder implements AdvancedPositionSource {
+
+        private final boolean left;
+
+        public Encoder(boolean left) {
+            this.left = left;
+        }
+
+        @Override
+        public double getPosition() {
+            return left ? leftPosition : rightPosition;
+        }
+
+        @Override
+        public double getVelocity() {
+            return left ? leftVelocity : rightVelocity;
+        }
+
+        @Override
+        public double getAcceleration() {
+            return left ? leftAcceleration : rightAcceleration;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void step(double dt) {
+        if (dt <= 0) {
+            return;
+        }
+        double decay = Math.exp(-dt / tau);
+
+        // Exact solution of v' = (u * maxV - v) / tau over the step
+        double lTarget = leftOutput * maxVelocity;
+        double rTarget = rightOutput * maxVelocity;
+        double dl = lTarget * dt + (leftVelocity - lTarget) * tau * (1 - decay);
+        double dr = rTarget * dt + (rightVelocity - rTarget) * tau * (1 - decay);
+        leftVelocity = lTarget + (leftVelocity - lTarget) * decay;
+        rightVelocity = rTarget + (rightVelocity - rTarget) * decay;
+        leftAcceleration = (lTarget - leftVelocity) / tau;
+        rightAcceleration = (rTarget - rightVelocity) / tau;
+        leftPosition += dl;
+        rightPosition += dr;
+
+        // Move along the arc travelled by the center of the robot
+        double ds = (dl + dr) / 2;
+        double dTheta = (dr - dl) / baseWidth;
+        double chord = Math.abs(dTheta) < 1e-9 ? ds : 2 * ds / dTheta * Math.sin(dTheta / 2);
+        x += chord * Math.cos(heading + dTheta / 2);
+        y += chord * Math.sin(heading + dTheta / 2);
+        heading += dTheta;
+    }
+
+    /**
+     * Stops the robot and moves it to the specified position, resetting all the
+     * encoders and motor outputs.
+     *
+     * @param x       The x coordinate of the robot
+     * @param y       The y coordinate of the robot
+     * @param heading The angle the robot is facing
+     */
+    public void reset(double x, double y, double heading) {
+        this.x = x;
+        this.y = y;
+        this.heading = heading;
+        leftOutput = rightOutput = 0;
+        leftPosition = rightPosition = 0;
+        leftVelocity = rightVelocity = 0;
+        leftAcceleration = rightAcceleration = 0;
+    }
+
+    /**
+     * Creates a {@link TankDriveRobot} using the motors, encoders and gyro of this
+     * simulated robot.
+     *
+     * @param timer The timestamp source, usually a {@link VirtualClock}
+     * @return A {@link TankDriveRobot} for this simulated robot
+     */
+    public TankDriveRobot createRobot(TimestampSource timer) {
+        return new TankDriveRobot(leftMotor, rightMotor, leftEncoder, rightEncoder, timer, gyro);
+    }
+
+    /**
+     * Retrieves the motor for the left side of the robot.
+     *
+     * <p>
+     * Outputs are clamped to between -1 and 1.
+     * </p>
+     *
+     * @return The left motor
+     */
+    public Motor getLeftMotor() {
+        return leftMotor;
+    }
+
+    /**
+     * Retrieves the motor for the right side of the robot.
+     *
+     * <p>
+     * Outputs are clamped to between -1 and 1.
+     * </p>
+     *
+     * @return The right motor
+     */
+    public Motor getRightMotor() {
+        return rightMotor;
+    }
+
+    /**
+     * Retrieves the encoder for the left side of the robot.
+     *
+     * @return The left encoder
+     */
+    public AdvancedPositionSource getLeftEncoder() {
+        return leftEncoder;
+    }
+
+    /**
+     * Retrieves the encoder for the right side of the robot.
+     *
+     * @return The right encoder
+     */
+    public AdvancedPositionSource getRightEncoder() {
+        return rightEncoder;
+    }
+
+    /**
+     * Retrieves the gyro of the robot, which returns the heading of the robot.
+     *
+     * @return The gyro
+     */
+    public DirectionSource getGyro() {
+        return gyro;
+    }
+
+    /**
+     * Retrieves a pose source that returns the exact pose of the robot.
+     *
+     * <p>
+     * A real robot can only estimate its pose, so this is best used for testing
+     * pose-based followers separately from the pose estimation.
+     * </p>
+     *
+     * @return The pose source
+     */
+    public PoseSource getPoseSource() {
+        return poseSource;
+    }
+
+    /**
+     * Retrieves the last output set to the left motor.
+     *
+     * @return The left motor output
+     */
+    public double getLeftOutput() {
+        return leftOutput;
+    }
+
+    /**
+     * Retrieves the last output set to the right motor.
+     *
+     * @return The right motor output
+     */
+    public double getRightOutput() {
+        return rightOutput;
+    }
+
+    /**
+     * Retrieves the distance travelled by the left side of the robot.
+     *
+     * @return The left position
+     */
+    public double getLeftPosition() {
+        return leftPosition;
+    }
+
+    /**
+     * Retrieves the distance travelled by the right side of the robot.
+     *
+     * @return The right position
+     */
+    public double getRightPosition() {
+        return rightPosition;
+    }
+
+    /**
+     * Retrieves the velocity of the left side of the robot.
+     *
+     * @return The left velocity
+     */
+    public double getLeftVelocity() {
+        return leftVelocity;
+    }
+
+    /**
+     * Retrieves the velocity of the right side of the robot.
+     *
+     * @return The right velocity
+     */
+    public double getRightVelocity() {
+        return rightVelocity;
+    }
+
+    /**
+     * Retrieves the x coordinate of the center of the robot.
+     *
+     * @return The x coordinate
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Retrieves the y coordinate of the center of the robot.
+     *
+     * @return The y coordinate
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Retrieves the angle the robot is facing.
+     *
+     * @return The heading, in radians
+     */
+    public double getHeading() {
+        return heading;
+    }
+}
@@ -0,0 +1,505 @@
+package com.arctos6135.robotpathfinder.follower.simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.Waypoint;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveTrajectory;
+import com.arctos6135.robotpathfinder.follower.TankDriveFollower;
+import com.arctos6135.robotpathfinder.follower.TankDriveFollower.TankDriveGains;
+
+/**
+ * Searches for good {@link TankDriveGains} by following trajectories in
+ * simulation.
+ *
+ * <p>
+ * Each candidate set of gains is used to follow every trajectory with a
+ * {@link TankDriveFollower} driving a {@link DifferentialDrivePlant}, and is
+ * scored on two things:
+ * </p>
+ * <ul>
+ * <li>The tracking error, which is the root mean square distance between the
+ * simulated robot and where it should be according to the trajectory, over
+ * every step of every trajectory.</li>
+ * <li>The saturation, which is the fraction of steps where either motor output
+ * was at its limit of -1 or 1. A saturated control loop has no room left to
+ * correct errors, so gains that saturate often are likely to do poorly on a
+ * real robot.</li>
+ * </ul>
+ * <p>
+ * Since lower is better for both, there is usually no single best set of
+ * gains. Instead, the searches return the Pareto front: every candidate that is
+ * not beaten on both scores by some other candidate.
+ * </p>
+ * <p>
+ * The search space is the box between two sets of gains. Gains that have the
+ * same minimum and maximum are kept fixed. Three searches are available: an
+ * evenly spaced grid, uniformly random sampling, and an evolution strategy that
+ * adapts a normal distribution towards better candidates (similar to a
+ * simplified CMA-ES with a diagonal covariance). Candidates are simulated in
+ * parallel on all available cores by default.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see SimulationRunner
+ * @since 3.0.0
+ */
+public class GainTuner {
+
+    /**
+     * The number of gains in a {@link TankDriveGains} object.
+     */
+    private static final int GAIN_COUNT = 6;
+
+    private final RobotSpecs plantSpecs;
+    private final TankDriveTrajectory[] trajectories;
+
+    private double timeStep = 0.005;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The result of simulating a set of gains.
+     *
+     * @author Tyler Tian
+     * @since 3.0.0
+     */
+    public static class Result {
+
+        private final TankDriveGains gains;
+        private final double trackingError;
+        private final double finalError;
+        private final double saturation;
+
+        Result(TankDriveGains gains, double trackingError, double finalError, double saturation) {
+            this.gains = gains;
+            this.trackingError = trackingError;
+            this.finalError = finalError;
+            this.saturation = saturation;
+        }
+
+        /**
+         * Retrieves the gains that were simulated.
+         *
+         * @return The gains
+         */
+        public TankDriveGains getGains() {
+            return gains.clone();
+        }
+
+        /**
+         * Retrieves the root mean square distance between the simulated robot and
+         * the trajectory, over all steps of all trajectories.
+         *
+         * @return The tracking error
+         */
+        public double getTrackingError() {
+            return trackingError;
+        }
+
+        /**
+         * Retrieves the mean distance between the simulated robot and the end of
+         * each trajectory once the follower has finished.
+         *
+         * @return The final error
+         */
+        public double getFinalError() {
+            return finalError;
+        }
+
+        /**
+         * Retrieves the fraction of steps where either motor output was saturated.
+         *
+         * @return The saturation, from 0 to 1
+         */
+        public double getSaturation() {
+            return saturation;
+        }
+
+        /**
+         * Returns whether this result is at least as good as another in both
+         * tracking error and saturation, and strictly better in at least one.
+         *
+         * @param other The other result
+         * @return Whether this result dominates the other
+         */
+        public boolean dominates(Result other) {
+            return trackingError <= other.trackingError && saturation <= other.saturation
+                    && (trackingError < other.trackingError || saturation < other.saturation);
+        }
+
+        @Override
+        public String toString() {
+            return "Result [gains=" + gains + ", trackingError=" + trackingError + ", finalError=" + finalError
+                    + ", saturation=" + saturation + "]";
+        }
+    }
+
+    /**
+     * Creates a new gain tuner.
+     *
+     * <p>
+     * The trajectories are only read, and are not freed by this object.
+     * </p>
+     *
+     * @param plantSpecs   The actual characteristics of the robot, used for the
+     *                     {@link DifferentialDrivePlant}; the base width must be
+     *                     set
+     * @param trajectories The trajectories to follow for each candidate
+     */
+    public GainTuner(RobotSpecs plantSpecs, TankDriveTrajectory... trajectories) {
+        if (trajectories.length == 0) {
+            throw new IllegalArgumentException("At least one trajectory is required");
+        }
+        this.plantSpecs = plantSpecs;
+        this.trajectories = trajectories.clone();
+    }
+
+    /**
+     * Sets the time step of the simulations, i.e. the period of the control loop.
+     *
+     * <p>
+     * The default is 5 milliseconds (200 Hz), assuming the trajectories use
+     * seconds.
+     * </p>
+     *
+     * @param timeStep The time step
+     */
+    public void setTimeStep(double timeStep) {
+        if (!(timeStep > 0)) {
+            throw new IllegalArgumentException("Time step must be positive");
+        }
+        this.timeStep = timeStep;
+    }
+
+    /**
+     * Retrieves the time step of the simulations.
+     *
+     * @return The time step
+     */
+    public double getTimeStep() {
+        return timeStep;
+    }
+
+    /**
+     * Sets the number of threads simulations are run on.
+     *
+     * <p>
+     * The default is the number of available processors.
+     * </p>
+     *
+     * @param threads The number of threads
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Retrieves the number of threads simulations are run on.
+     *
+     * @return The number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Simulates a single set of gains on all the trajectories.
+     *
+     * @param gains The gains to simulate
+     * @return The result of the simulation
+     */
+    public Result evaluate(TankDriveGains gains) {
+        double sqErrorSum = 0;
+        double finalErrorSum = 0;
+        long saturatedSteps = 0;
+        long totalSteps = 0;
+
+        for (TankDriveTrajectory trajectory : trajectories) {
+            DifferentialDrivePlant plant = new DifferentialDrivePlant(plantSpecs);
+            Waypoint start = trajectory.getPosition(0);
+            plant.reset(start.getX(), start.getY(), trajectory.get(0).getInitialFacing());
+            VirtualClock clock = new VirtualClock();
+            SimulationRunner runner = new SimulationRunner(clock, timeStep, plant);
+            TankDriveFollower follower = new TankDriveFollower(trajectory, plant.createRobot(clock), gains);
+
+            double totalTime = trajectory.totalTime();
+            // Give the follower some extra time in case it never finishes
+            double maxTime = totalTime * 2 + 1;
+            while (!follower.isFinished() && clock.getTimestamp() < maxTime) {
+                runner.step(follower);
+                double t = Math.min(clock.getTimestamp(), totalTime);
+                Waypoint expected = trajectory.getPosition(t);
+                double dx = plant.getX() - expected.getX();
+                double dy = plant.getY() - expected.getY();
+                sqErrorSum += dx * dx + dy * dy;
+                if (Math.abs(plant.getLeftOutput()) >= 1 || Math.abs(plant.getRightOutput()) >= 1) {
+                    saturatedSteps++;
+                }
+                totalSteps++;
+            }
+            follower.stop();
+
+            Waypoint end = trajectory.getPosition(totalTime);
+            finalErrorSum += Math.hypot(plant.getX() - end.getX(), plant.getY() - end.getY());
+        }
+
+        double trackingError = Math.sqrt(sqErrorSum / Math.max(totalSteps, 1));
+        double saturation = (double) saturatedSteps / Math.max(totalSteps, 1);
+        // Unstable gains can produce NaNs, which should never be considered good
+        if (Double.isNaN(trackingError)) {
+            trackingError = Double.POSITIVE_INFINITY;
+        }
+        return new Result(gains.clone(), trackingError, finalErrorSum / trajectories.length, saturation);
+    }
+
+    /**
+     * Simulates many sets of gains in parallel.
+     *
+     * @param candidates The gains to simulate
+     * @return The results, in the same order as the candidates
+     */
+    public List<Result> evaluateAll(List<TankDriveGains> candidates) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(candidates.size(), 1)));
+        try {
+            List<Callable<Result>> tasks = new ArrayList<>(candidates.size());
+            for (TankDriveGains gains : candidates) {
+                tasks.add(() -> evaluate(gains));
+            }
+            List<Result> results = new ArrayList<>(candidates.size());
+            for (Future<Result> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Gain tuning was interrupted!", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Finds the Pareto front of a list of results.
+     *
+     * @param results The results
+     * @return Every result that is not dominated by another, sorted by tracking
+     *         error
+     */
+    public static List<Result> paretoFront(List<Result> results) {
+        List<Result> sorted = new ArrayList<>(results);
+        // Sort by tracking error, then saturation
+        // Then a result is on the front iff its saturation is lower than everything before it
+        sorted.sort(Comparator.comparingDouble(Result::getTrackingError).thenComparingDouble(Result::getSaturation));
+        List<Result> front = new ArrayList<>();
+        double bestSaturation = Double.POSITIVE_INFINITY;
+        for (Result result : sorted) {
+            if (result.getSaturation() < bestSaturation) {
+                front.add(result);
+                bestSaturation = result.getSaturation();
+            }
+        }
+        return front;
+    }
+
+    /**
+     * Searches an evenly spaced grid of gains.
+     *
+     * <p>
+     * Each gain that is not fixed takes {@code steps} evenly spaced values from
+     * its minimum to its maximum, and every combination is simulated. Note that
+     * the number of candidates grows very quickly with the number of gains being
+     * tuned.
+     * </p>
+     *
+     * @param min   The minimum value of each gain
+     * @param max   The maximum value of each gain
+     * @param steps The number of values for each gain; at least 2
+     * @return The Pareto front of all candidates
+     */
+    public List<Result> gridSearch(TankDriveGains min, TankDriveGains max, int steps) {
+        if (steps < 2) {
+            throw new IllegalArgumentException("Steps must be at least 2");
+        }
+        double[] lo = toArray(min);
+        double[] hi = toArray(max);
+        checkBounds(lo, hi);
+
+        List<TankDriveGains> candidates = new ArrayList<>();
+        int[] index = new int[GAIN_COUNT];
+        double[] point = new double[GAIN_COUNT];
+        while (true) {
+            for (int i = 0; i < GAIN_COUNT; i++) {
+                point[i] = lo[i] + (hi[i] - lo[i]) * index[i] / (steps - 1);
+            }
+            candidates.add(fromArray(point));
+
+            // Increment the index like an odometer, skipping fixed gains
+            int i = 0;
+            while (i < GAIN_COUNT && (lo[i] == hi[i] || ++index[i] == steps)) {
+                index[i++] = 0;
+            }
+            if (i == GAIN_COUNT) {
+                break;
+            }
+        }
+        return paretoFront(evaluateAll(candidates));
+    }
+
+    /**
+     * Searches uniformly random gains.
+     *
+     * @param min   The minimum value of each gain
+     * @param max   The maximum value of each gain
+     * @param count The number of candidates to simulate
+     * @param seed  The random seed, for reproducible results
+     * @return The Pareto front of all candidates
+     */
+    public List<Result> randomSearch(TankDriveGains min, TankDriveGains max, int count, long seed) {
+        double[] lo = toArray(min);
+        double[] hi = toArray(max);
+        checkBounds(lo, hi);
+
+        Random random = new Random(seed);
+        List<TankDriveGains> candidates = new ArrayList<>(count);
+        double[] point = new double[GAIN_COUNT];
+        for (int n = 0; n < count; n++) {
+            for (int i = 0; i < GAIN_COUNT; i++) {
+                point[i] = lo[i] + (hi[i] - lo[i]) * random.nextDouble();
+            }
+            candidates.add(fromArray(point));
+        }
+        return paretoFront(evaluateAll(candidates));
+    }
+
+    /**
+     * Searches gains with an evolution strategy.
+     *
+     * <p>
+     * The search keeps a normal distribution over the search space, starting in
+     * the middle with a large spread. In each generation, {@code populationSize}
+     * candidates are drawn from it and simulated. The distribution's mean then
+     * moves towards a weighted average of the best half, and its spread in each
+     * gain adapts to how spread out the best half was. Candidates are ranked by
+     * how many others dominate them, then by tracking error.
+     * </p>
+     * <p>
+     * The returned Pareto front includes the candidates from every generation.
+     * </p>
+     *
+     * @param min            The minimum value of each gain
+     * @param max            The maximum value of each gain
+     * @param generations    The number of generations
+     * @param populationSize The number of candidates in each generation; at least
+     *                       2
+     * @param seed           The random seed, for reproducible results
+     * @return The Pareto front of all candidates
+     */
+    public List<Result> evolutionSearch(TankDriveGains min, TankDriveGains max, int generations, int populationSize,
+            long seed) {
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("Population size must be at least 2");
+        }
+        double[] lo = toArray(min);
+        double[] hi = toArray(max);
+        checkBounds(lo, hi);
+
+        // Work in coordinates normalized to [0, 1] so all gains are treated equally
+        int parents = populationSize / 2;
+        double[] weights = new double[parents];
+        double weightSum = 0;
+        for (int k = 0; k < parents; k++) {
+            weights[k] = Math.log(parents + 0.5) - Math.log(k + 1);
+            weightSum += weights[k];
+        }
+        for (int k = 0; k < parents; k++) {
+            weights[k] /= weightSum;
+        }
+        // The learning rate of the spread
+        final double c = 0.3;
+
+        double[] mean = new double[GAIN_COUNT];
+        double[] sigma = new double[GAIN_COUNT];
+        Arrays.fill(mean, 0.5);
+        Arrays.fill(sigma, 0.3);
+
+        Random random = new Random(seed);
+        List<Result> all = new ArrayList<>(generations * populationSize);
+        double[][] points = new double[populationSize][GAIN_COUNT];
+        double[] point = new double[GAIN_COUNT];
+        for (int g = 0; g < generations; g++) {
+            List<TankDriveGains> candidates = new ArrayList<>(populationSize);
+            for (int n = 0; n < populationSize; n++) {
+                for (int i = 0; i < GAIN_COUNT; i++) {
+                    points[n][i] = Math.max(0, Math.min(1, mean[i] + sigma[i] * random.nextGaussian()));
+                    point[i] = lo[i] + (hi[i] - lo[i]) * points[n][i];
+                }
+                candidates.add(fromArray(point));
+            }
+            List<Result> results = evaluateAll(candidates);
+            all.addAll(results);
+
+            // Rank by the number of candidates that dominate each one, then tracking error
+            Integer[] order = new Integer[populationSize];
+            int[] dominatedBy = new int[populationSize];
+            for (int a = 0; a < populationSize; a++) {
+                order[a] = a;
+                for (int b = 0; b < populationSize; b++) {
+                    if (results.get(b).dominates(results.get(a))) {
+                        dominatedBy[a]++;
+                    }
+                }
+            }
+            Arrays.sort(order, Comparator.<Integer>comparingInt(a -> dominatedBy[a])
+                    .thenComparingDouble(a -> results.get(a).getTrackingError()));
+
+            double[] newMean = new double[GAIN_COUNT];
+            for (int k = 0; k < parents; k++) {
+                for (int i = 0; i < GAIN_COUNT; i++) {
+                    newMean[i] += weights[k] * points[order[k]][i];
+                }
+            }
+            for (int i = 0; i < GAIN_COUNT; i++) {
+                // Spread of the selected candidates around the old mean
+                double variance = 0;
+                for (int k = 0; k < parents; k++) {
+                    double d = points[order[k]][i] - mean[i];
+                    variance += weights[k] * d * d;
+                }
+                double s = Math.sqrt((1 - c) * sigma[i] * sigma[i] + c * variance);
+                sigma[i] = Math.max(1e-3, Math.min(0.5, s));
+            }
+            mean = newMean;
+        }
+        return paretoFront(all);
+    }
+
+    private static void checkBounds(double[] lo, double[] hi) {
+        for (int i = 0; i < GAIN_COUNT; i++) {
+            if (!(lo[i] <= hi[i])) {
+                throw new IllegalArgumentException("Minimum gains must not be greater than the maximum gains");
+            }
+        }
+    }
+
+    private static double[] toArray(TankDriveGains gains) {
+        return new double[] { gains.kV, gains.kA, gains.kP, gains.kI, gains.kD, gains.kDP };
+    }
+
+    private static TankDriveGains fromArray(double[] a) {
+        return new TankDriveGains(a[0], a[1], a[2], a[3], a[4], a[5]);
+    }
+}
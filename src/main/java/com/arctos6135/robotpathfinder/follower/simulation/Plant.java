@@ -0,0 +1,22 @@
+package com.arctos6135.robotpathfinder.follower.simulation;
+
+/**
+ * A simulated physical system, such as a robot, that can be stepped forward in
+ * time by a {@link SimulationRunner}.
+ *
+ * @author Tyler Tian
+ * @see DifferentialDrivePlant
+ * @see SimulationRunner
+ * @since 3.0.0
+ */
+@FunctionalInterface
+public interface Plant {
+
+    /**
+     * Moves the simulation forward in time, using the inputs (e.g. motor outputs)
+     * set since the last step.
+     *
+     * @param dt The amount of time to move forward by
+     */
+    public void step(double dt);
+}
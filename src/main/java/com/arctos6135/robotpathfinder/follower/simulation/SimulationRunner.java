@@ -0,0 +1,112 @@
+package com.arctos6135.robotpathfinder.follower.simulation;
+
+import com.arctos6135.robotpathfinder.follower.Follower;
+import com.arctos6135.robotpathfinder.follower.FollowerRunner;
+
+/**
+ * Runs a follower against simulated plants, as fast as possible.
+ *
+ * <p>
+ * Unlike a {@link FollowerRunner}, this runner does not use a separate thread
+ * or wait in between runs of the control loop. Instead, each step runs the
+ * follower once, moves all the plants forward by a fixed time step, and then
+ * advances a {@link VirtualClock} by the same amount. As long as the follower
+ * uses the same {@link VirtualClock} as its {@link Follower.TimestampSource},
+ * the results are the same as running it at a frequency of {@code 1 / dt} in
+ * real time with perfect timing, and are completely deterministic.
+ * </p>
+ * <p>
+ * Since all the state is in the runner, the clock and the plants, separate
+ * simulations can be run on separate threads without any synchronization.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see VirtualClock
+ * @see DifferentialDrivePlant
+ * @since 3.0.0
+ */
+public class SimulationRunner {
+
+    private final VirtualClock clock;
+    private final double dt;
+    private final Plant[] plants;
+
+    /**
+     * Creates a new simulation runner.
+     *
+     * @param clock  The clock used by the follower
+     * @param dt     The time step, i.e. the time between runs of the control loop
+     * @param plants The plants to step along with the follower
+     */
+    public SimulationRunner(VirtualClock clock, double dt, Plant... plants) {
+        if (!(dt > 0)) {
+            throw new IllegalArgumentException("Time step must be positive");
+        }
+        this.clock = clock;
+        this.dt = dt;
+        this.plants = plants.clone();
+    }
+
+    /**
+     * Runs one step of the simulation.
+     *
+     * <p>
+     * This runs the follower once, steps every plant forward, and advances the
+     * clock, in that order.
+     * </p>
+     *
+     * @param follower The follower to run
+     */
+    public void step(Follower<?> follower) {
+        follower.run();
+        for (Plant plant : plants) {
+            plant.step(dt);
+        }
+        clock.advance(dt);
+    }
+
+    /**
+     * Runs the simulation until the follower finishes, or until a time limit is
+     * reached.
+     *
+     * <p>
+     * If the time limit is reached before the follower finishes, the follower is
+     * stopped.
+     * </p>
+     *
+     * @param follower The follower to run
+     * @param maxTime  The maximum amount of simulated time to run for
+     * @return The number of steps run
+     */
+    public int run(Follower<?> follower, double maxTime) {
+        double end = clock.getTimestamp() + maxTime;
+        int steps = 0;
+        while (!follower.isFinished()) {
+            if (clock.getTimestamp() >= end) {
+                follower.stop();
+                break;
+            }
+            step(follower);
+            steps++;
+        }
+        return steps;
+    }
+
+    /**
+     * Retrieves the clock used by this runner.
+     *
+     * @return The clock
+     */
+    public VirtualClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Retrieves the time step of this runner.
+     *
+     * @return The time step
+     */
+    public double getTimeStep() {
+        return dt;
+    }
+}
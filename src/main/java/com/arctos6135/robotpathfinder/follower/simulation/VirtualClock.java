@@ -0,0 +1,67 @@
+package com.arctos6135.robotpathfinder.follower.simulation;
+
+import com.arctos6135.robotpathfinder.follower.Follower.TimestampSource;
+
+/**
+ * A clock for simulations that only moves forward when told to.
+ *
+ * <p>
+ * This can be used as the {@link TimestampSource} of a follower, so that the
+ * follower can be stepped as fast as possible with a {@link SimulationRunner},
+ * while still seeing evenly spaced timestamps.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see SimulationRunner
+ * @since 3.0.0
+ */
+public class VirtualClock implements TimestampSource {
+
+    private double time;
+
+    /**
+     * Creates a new clock starting at time 0.
+     */
+    public VirtualClock() {
+        this(0);
+    }
+
+    /**
+     * Creates a new clock starting at the specified time.
+     *
+     * @param time The starting time
+     */
+    public VirtualClock(double time) {
+        this.time = time;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getTimestamp() {
+        return time;
+    }
+
+    /**
+     * Moves the clock forward.
+     *
+     * @param dt The amount of time to move forward by
+     * @throws IllegalArgumentException If {@code dt} is negative
+     */
+    public void advance(double dt) {
+        if (dt < 0) {
+            throw new IllegalArgumentException("Time cannot go backwards");
+        }
+        time += dt;
+    }
+
+    /**
+     * Sets the time of the clock.
+     *
+     * @param time The new time
+     */
+    public void setTime(double time) {
+        this.time = time;
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * This package contains classes for running followers in simulation.
+ * <p>
+ * Simulated followers read time from a {@link VirtualClock} instead of the wall
+ * clock, and drive simulated robots instead of real hardware, so they can be
+ * run deterministically and much faster than real time.
+ * </p>
+ */
+package com.arctos6135.robotpathfinder.follower.simulation;
@@ -0,0 +1,330 @@
+package com.arctos6135.robotpathfinder.follower.telemetry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveMoment;
+
+/**
+ * A lock-free buffer of telemetry records from a tank drive follower's control
+ * loop.
+ *
+ * <p>
+ * Each record holds the state of one run of the control loop: the time, the
+ * setpoints from the target moment, and the errors, integrals, derivatives and
+ * outputs of the left and right sides. A record is a row of {@code double}s;
+ * the constants in this class (e.g. {@link #LEFT_ERROR}) are the indices of
+ * each value in the row.
+ * </p>
+ * <p>
+ * This buffer is designed for exactly one thread writing (the control loop)
+ * and one thread reading at the same time. Writing never blocks or allocates
+ * memory: records are copied into a preallocated ring, and if the ring is
+ * full, the new record is dropped and counted in {@link #getDroppedCount()}.
+ * To avoid dropping records, the reading thread should call
+ * {@link #drain(RecordHandler)} often enough, or the capacity should be
+ * increased.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see com.arctos6135.robotpathfinder.follower.TankDriveFollower#setTelemetryBuffer(TelemetryBuffer)
+ * @since 3.0.0
+ */
+public class TelemetryBuffer {
+
+    /**
+     * The time into the trajectory.
+     */
+    public static final int TIME = 0;
+    /**
+     * The left position setpoint.
+     */
+    public static final int LEFT_POSITION_SETPOINT = 1;
+    /**
+     * The right position setpoint.
+     */
+    public static final int RIGHT_POSITION_SETPOINT = 2;
+    /**
+     * The left velocity setpoint.
+     */
+    public static final int LEFT_VELOCITY_SETPOINT = 3;
+    /**
+     * The right velocity setpoint.
+     */
+    public static final int RIGHT_VELOCITY_SETPOINT = 4;
+    /**
+     * The left acceleration setpoint.
+     */
+    public static final int LEFT_ACCELERATION_SETPOINT = 5;
+    /**
+     * The right acceleration setpoint.
+     */
+    public static final int RIGHT_ACCELERATION_SETPOINT = 6;
+    /**
+     * The heading setpoint, relative to the direction the robot was facing at the
+     * start, as compared against the direction source for the directional error.
+     */
+    public static final int HEADING_SETPOINT = 7;
+    /**
+     * The left positional error.
+     */
+    public static final int LEFT_ERROR = 8;
+    /**
+     * The right positional error.
+     */
+    public static final int RIGHT_ERROR = 9;
+    /**
+     * The integral of the left positional error.
+     */
+    public static final int LEFT_INTEGRAL = 10;
+    /**
+     * The integral of the right positional error.
+     */
+    public static final int RIGHT_INTEGRAL = 11;
+    /**
+     * The derivative of the left positional error.
+     */
+    public static final int LEFT_DERIVATIVE = 12;
+    /**
+     * The derivative of the right positional error.
+     */
+    public static final int RIGHT_DERIVATIVE = 13;
+    /**
+     * The directional error.
+     */
+    public static final int DIRECTIONAL_ERROR = 14;
+    /**
+     * The left output.
+     */
+    public static final int LEFT_OUTPUT = 15;
+    /**
+     * The right output.
+     */
+    public static final int RIGHT_OUTPUT = 16;
+
+    /**
+     * The number of values in each record.
+     */
+    public static final int FIELD_COUNT = 17;
+
+    /**
+     * Handles records read from a {@link TelemetryBuffer}.
+     *
+     * @author Tyler Tian
+     * @since 3.0.0
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        /**
+         * Handles a single record.
+         *
+         * <p>
+         * The record's values are in {@code data}, from index {@code offset} to
+         * {@code offset + FIELD_COUNT - 1}; for example, the left error is at
+         * {@code data[offset + LEFT_ERROR]}. The array belongs to the buffer, and
+         * will be overwritten once this method returns, so it must not be kept.
+         * </p>
+         *
+         * @param data   The array containing the record
+         * @param offset The index of the start of the record
+         */
+        public void handle(double[] data, int offset);
+    }
+
+    private final double[] data;
+    private final int capacity;
+    private final int mask;
+
+    // The index of the next record to write; only written by the writing thread
+    private final AtomicLong head = new AtomicLong();
+    // The index of the next record to read; only written by the reading thread
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    // The writing thread's last known value of tail, to avoid reading it every time
+    private long cachedTail = 0;
+
+    /**
+     * Creates a new telemetry buffer.
+     *
+     * @param capacity The max number of records that can be held at once; rounded
+     *                 up to the next power of 2
+     */
+    public TelemetryBuffer(int capacity) {
+        if (capacity < 1 || capacity > (1 << 24)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^24");
+        }
+        // Use a power of 2 so the index can be wrapped with a mask
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        mask = size - 1;
+        data = new double[size * FIELD_COUNT];
+    }
+
+    /**
+     * Writes a record, taking all the setpoints from the target moment. This
+     * should only be called by the control loop.
+     *
+     * @param time       The time into the trajectory
+     * @param m          The target moment
+     * @param leftErr    The left positional error
+     * @param rightErr   The right positional error
+     * @param leftInt    The integral of the left positional error
+     * @param rightInt   The integral of the right positional error
+     * @param leftDeriv  The derivative of the left positional error
+     * @param rightDeriv The derivative of the right positional error
+     * @param dirErr     The directional error
+     * @param leftOut    The left output
+     * @param rightOut   The right output
+     * @return Whether the record was written, or {@code false} if it was dropped
+     *         because the buffer was full
+     */
+    public boolean write(double time, TankDriveMoment m, double leftErr, double rightErr, double leftInt,
+            double rightInt, double leftDeriv, double rightDeriv, double dirErr, double leftOut, double rightOut) {
+        return write(time, m, m.getLeftPosition(), m.getRightPosition(), m.getFacingRelative(), leftErr, rightErr,
+                leftInt, rightInt, leftDeriv, rightDeriv, dirErr, leftOut, rightOut);
+    }
+
+    /**
+     * Writes a record. This should only be called by the control loop.
+     *
+     * <p>
+     * The position and heading setpoints are passed separately from the target
+     * moment, for followers that calculate their errors against setpoints from a
+     * different time than the moment they follow. They should be the setpoints
+     * the errors were calculated against.
+     * </p>
+     *
+     * @param time          The time into the trajectory
+     * @param m             The target moment, whose velocities and accelerations
+     *                      are recorded
+     * @param leftSetpoint  The left position setpoint
+     * @param rightSetpoint The right position setpoint
+     * @param facing        The heading setpoint, relative to the initial facing
+     * @param leftErr       The left positional error
+     * @param rightErr      The right positional error
+     * @param leftInt       The integral of the left positional error
+     * @param rightInt      The integral of the right positional error
+     * @param leftDeriv     The derivative of the left positional error
+     * @param rightDeriv    The derivative of the right positional error
+     * @param dirErr        The directional error
+     * @param leftOut       The left output
+     * @param rightOut      The right output
+     * @return Whether the record was written, or {@code false} if it was dropped
+     *         because the buffer was full
+     */
+    public boolean write(double time, TankDriveMoment m, double leftSetpoint, double rightSetpoint, double facing,
+            double leftErr, double rightErr, double leftInt, double rightInt, double leftDeriv, double rightDeriv,
+            double dirErr, double leftOut, double rightOut) {
+        long h = head.get();
+        if (h - cachedTail >= capacity) {
+            cachedTail = tail.get();
+            if (h - cachedTail >= capacity) {
+                dropped.lazySet(dropped.get() + 1);
+                return false;
+            }
+        }
+
+        int i = (int) (h & mask) * FIELD_COUNT;
+        data[i + TIME] = time;
+        data[i + LEFT_POSITION_SETPOINT] = leftSetpoint;
+        data[i + RIGHT_POSITION_SETPOINT] = rightSetpoint;
+        data[i + LEFT_VELOCITY_SETPOINT] = m.getLeftVelocity();
+        data[i + RIGHT_VELOCITY_SETPOINT] = m.getRightVelocity();
+        data[i + LEFT_ACCELERATION_SETPOINT] = m.getLeftAcceleration();
+        data[i + RIGHT_ACCELERATION_SETPOINT] = m.getRightAcceleration();
+        data[i + HEADING_SETPOINT] = facing;
+        data[i + LEFT_ERROR] = leftErr;
+        data[i + RIGHT_ERROR] = rightErr;
+        data[i + LEFT_INTEGRAL] = leftInt;
+        data[i + RIGHT_INTEGRAL] = rightInt;
+        data[i + LEFT_DERIVATIVE] = leftDeriv;
+        data[i + RIGHT_DERIVATIVE] = rightDeriv;
+        data[i + DIRECTIONAL_ERROR] = dirErr;
+        data[i + LEFT_OUTPUT] = leftOut;
+        data[i + RIGHT_OUTPUT] = rightOut;
+        // Publish the record; the ordered write makes the data visible before the index
+        head.lazySet(h + 1);
+        return true;
+    }
+
+    /**
+     * Reads and removes all the records currently in the buffer, oldest first.
+     * This should only be called by one thread at a time.
+     *
+     * @param handler The handler to pass each record to
+     * @return The number of records read
+     */
+    public int drain(RecordHandler handler) {
+        long t = tail.get();
+        long h = head.get();
+        for (long i = t; i < h; i++) {
+            handler.handle(data, (int) (i & mask) * FIELD_COUNT);
+        }
+        // Let the writing thread reuse the space
+        tail.lazySet(h);
+        return (int) (h - t);
+    }
+
+    /**
+     * Reads and removes records from the buffer, oldest first, copying them into
+     * an array. This should only be called by one thread at a time.
+     *
+     * <p>
+     * Records are copied one after another, each taking up
+     * {@link #FIELD_COUNT} elements.
+     * </p>
+     *
+     * @param dest The array to copy into
+     * @return The number of records read, which is limited by the size of the
+     *         array
+     */
+    public int drain(double[] dest) {
+        long t = tail.get();
+        long h = Math.min(head.get(), t + dest.length / FIELD_COUNT);
+        int pos = 0;
+        for (long i = t; i < h; i++) {
+            System.arraycopy(data, (int) (i & mask) * FIELD_COUNT, dest, pos, FIELD_COUNT);
+            pos += FIELD_COUNT;
+        }
+        tail.lazySet(h);
+        return (int) (h - t);
+    }
+
+    /**
+     * Retrieves the number of records waiting to be read.
+     *
+     * @return The number of records in the buffer
+     */
+    public int size() {
+        return (int) (head.get() - tail.get());
+    }
+
+    /**
+     * Retrieves the max number of records that can be held at once.
+     *
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Retrieves the number of records dropped because the buffer was full.
+     *
+     * @return The number of dropped records
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Retrieves the total number of records written, not counting dropped ones.
+     *
+     * @return The number of records written
+     */
+    public long getWrittenCount() {
+        return head.get();
+    }
+}
@@ -0,0 +1,148 @@
+package com.arctos6135.robotpathfinder.follower.telemetry;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Reads a log written by a {@link TelemetryLogWriter}.
+ *
+ * <p>
+ * All the segments of the log are loaded when the reader is created, and the
+ * records are split into one array per field (column), so that a single value
+ * can be looked at over the whole log easily. For example,
+ * {@code getColumn(TelemetryBuffer.LEFT_ERROR)[i]} is the left error in the
+ * {@code i}th record.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see TelemetryLogWriter
+ * @since 3.0.0
+ */
+public class TelemetryLogReader {
+
+    private final double[][] columns;
+    private final int segmentCount;
+
+    /**
+     * Reads a log.
+     *
+     * <p>
+     * All the segments in the directory are read in order of their index. If the
+     * writer had a max segment count, the oldest segments may have been deleted,
+     * in which case the log starts from the oldest one that is left. The indices
+     * of the segments must have no gaps.
+     * </p>
+     *
+     * @param directory The directory containing the log files
+     * @param name      The name of the log
+     * @throws IOException If the log does not exist, a segment is missing, could
+     *                     not be read or is not a valid segment
+     */
+    public TelemetryLogReader(Path directory, String name) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            throw new IOException("Log " + name + " does not exist in " + directory);
+        }
+        List<Path> paths = TelemetryLogWriter.listSegments(directory, name);
+        if (paths.isEmpty()) {
+            throw new IOException("Log " + name + " does not exist in " + directory);
+        }
+        paths.sort(Comparator.comparingInt(TelemetryLogWriter::segmentIndex));
+
+        List<DoubleBuffer> segments = new ArrayList<>();
+        long total = 0;
+        int first = TelemetryLogWriter.segmentIndex(paths.get(0));
+        for (int i = 0; i < paths.size(); i++) {
+            Path path = paths.get(i);
+            if (TelemetryLogWriter.segmentIndex(path) != first + i) {
+                throw new IOException("Log segment is missing: "
+                        + TelemetryLogWriter.segmentPath(directory, name, first + i));
+            }
+            DoubleBuffer segment = readSegment(path);
+            segments.add(segment);
+            total += segment.remaining() / TelemetryBuffer.FIELD_COUNT;
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("Log is too large");
+        }
+
+        segmentCount = segments.size();
+        columns = new double[TelemetryBuffer.FIELD_COUNT][(int) total];
+        int row = 0;
+        for (DoubleBuffer segment : segments) {
+            while (segment.hasRemaining()) {
+                for (int j = 0; j < TelemetryBuffer.FIELD_COUNT; j++) {
+                    columns[j][row] = segment.get();
+                }
+                row++;
+            }
+        }
+    }
+
+    private static DoubleBuffer readSegment(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path)) {
+            long size = channel.size();
+            if (size < TelemetryLogWriter.HEADER_SIZE) {
+                throw new IOException("Invalid log segment: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != TelemetryLogWriter.MAGIC) {
+                throw new IOException("Invalid log segment: " + path);
+            }
+            if (buffer.getInt(4) != TelemetryLogWriter.VERSION
+                    || buffer.getInt(8) != TelemetryBuffer.FIELD_COUNT) {
+                throw new IOException("Unsupported log segment version: " + path);
+            }
+            long count = buffer.getLong(TelemetryLogWriter.COUNT_OFFSET);
+            if (count < 0 || TelemetryLogWriter.HEADER_SIZE + count * TelemetryLogWriter.RECORD_SIZE > size) {
+                throw new IOException("Log segment is truncated: " + path);
+            }
+            buffer.position(TelemetryLogWriter.HEADER_SIZE);
+            buffer.limit(TelemetryLogWriter.HEADER_SIZE + (int) count * TelemetryLogWriter.RECORD_SIZE);
+            // The mapping stays valid after the channel is closed
+            return buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+    }
+
+    /**
+     * Retrieves all the values of a field in the log.
+     *
+     * <p>
+     * The returned array is not a copy; modifying it will affect future calls to
+     * this method.
+     * </p>
+     *
+     * @param field The index of the field, e.g. {@link TelemetryBuffer#LEFT_ERROR}
+     * @return The values of the field, in the order they were written
+     */
+    public double[] getColumn(int field) {
+        return columns[field];
+    }
+
+    /**
+     * Retrieves the number of records in the log.
+     *
+     * @return The number of records
+     */
+    public int getRecordCount() {
+        return columns[0].length;
+    }
+
+    /**
+     * Retrieves the number of segments that were read.
+     *
+     * @return The number of segments
+     */
+    public int getSegmentCount() {
+        return segmentCount;
+    }
+}
@@ -0,0 +1,352 @@
+package com.arctos6135.robotpathfinder.follower.telemetry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Writes telemetry records to binary log files.
+ *
+ * <p>
+ * Records are stored in the same format as a {@link TelemetryBuffer}: each one
+ * is {@link TelemetryBuffer#FIELD_COUNT} little-endian {@code double}s. Since
+ * every record has a fixed size, the files are compact and can be read back
+ * quickly with a {@link TelemetryLogReader}.
+ * </p>
+ * <p>
+ * The log is split into segments, each holding up to a fixed number of
+ * records. Each segment is a file in the log directory named
+ * {@code <name>-<index>.rpflog}, where the index starts at 0 and is padded to 5
+ * digits. The files are written through a {@link MappedByteBuffer}, so writing
+ * a record is only a memory copy; when a segment is full, the writer moves on
+ * to the next one. Each segment starts with a small header containing the
+ * number of records in it, which is updated after every record, so a log is
+ * still readable if the program stops without closing the writer.
+ * </p>
+ * <p>
+ * Optionally, the number of segments kept can be limited. When a new segment
+ * would go over the limit, the oldest one is deleted, so only the most recent
+ * records are kept and the log takes up a bounded amount of space.
+ * </p>
+ * <p>
+ * This class implements {@link TelemetryBuffer.RecordHandler}, so the easiest
+ * way to use it is to periodically call {@link #write(TelemetryBuffer)} from a
+ * logging thread. This class is not thread-safe.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @see TelemetryLogReader
+ * @since 3.0.0
+ */
+public class TelemetryLogWriter implements TelemetryBuffer.RecordHandler, AutoCloseable {
+
+    /**
+     * The magic number at the start of every segment ("RPFL").
+     */
+    static final int MAGIC = 0x5250464C;
+    /**
+     * The version of the file format.
+     */
+    static final int VERSION = 1;
+    /**
+     * The size of the segment header, in bytes.
+     */
+    static final int HEADER_SIZE = 32;
+    /**
+     * The position of the record count in the header.
+     */
+    static final int COUNT_OFFSET = 16;
+    /**
+     * The size of a record, in bytes.
+     */
+    static final int RECORD_SIZE = TelemetryBuffer.FIELD_COUNT * Double.BYTES;
+
+    /**
+     * The default number of records in each segment.
+     */
+    public static final int DEFAULT_SEGMENT_RECORDS = 65536;
+
+    private final Path directory;
+    private final String name;
+    private final int segmentRecords;
+    private final int maxSegments;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int segmentIndex = -1;
+    private int segmentCount = 0;
+    private long recordCount = 0;
+    private int truncateFailures = 0;
+    private boolean closed = false;
+
+    /**
+     * Creates a new log writer with the default segment size.
+     *
+     * @param directory The directory to write the log files to; created if it
+     *                  does not exist
+     * @param name      The name of the log, used as the prefix of the file names
+     * @throws IOException If the first segment could not be created
+     */
+    public TelemetryLogWriter(Path directory, String name) throws IOException {
+        this(directory, name, DEFAULT_SEGMENT_RECORDS);
+    }
+
+    /**
+     * Creates a new log writer that keeps every segment.
+     *
+     * @param directory      The directory to write the log files to; created if it
+     *                       does not exist
+     * @param name           The name of the log, used as the prefix of the file
+     *                       names
+     * @param segmentRecords The max number of records in each segment
+     * @throws IOException If the old segments could not be deleted or the first
+     *                     segment could not be created
+     */
+    public TelemetryLogWriter(Path directory, String name, int segmentRecords) throws IOException {
+        this(directory, name, segmentRecords, 0);
+    }
+
+    /**
+     * Creates a new log writer.
+     *
+     * <p>
+     * Any existing segments with the same name in the directory are deleted, so
+     * that they cannot be mistaken for part of the new log.
+     * </p>
+     *
+     * @param directory      The directory to write the log files to; created if it
+     *                       does not exist
+     * @param name           The name of the log, used as the prefix of the file
+     *                       names
+     * @param segmentRecords The max number of records in each segment
+     * @param maxSegments    The max number of segments kept, or 0 to keep all of
+     *                       them
+     * @throws IOException If the old segments could not be deleted or the first
+     *                     segment could not be created
+     */
+    public TelemetryLogWriter(Path directory, String name, int segmentRecords, int maxSegments)
+            throws IOException {
+        if (segmentRecords < 1 || (long) segmentRecords * RECORD_SIZE > Integer.MAX_VALUE - HEADER_SIZE) {
+            throw new IllegalArgumentException("Invalid segment size");
+        }
+        if (maxSegments < 0) {
+            throw new IllegalArgumentException("Max segment count cannot be negative");
+        }
+        this.directory = directory;
+        this.name = name;
+        this.segmentRecords = segmentRecords;
+        this.maxSegments = maxSegments;
+
+        Files.createDirectories(directory);
+        for (Path path : listSegments(directory, name)) {
+            Files.delete(path);
+        }
+        nextSegment();
+    }
+
+    /**
+     * Gets the path of a segment of a log.
+     *
+     * @param directory The directory of the log
+     * @param name      The name of the log
+     * @param index     The index of the segment
+     * @return The path of the segment file
+     */
+    static Path segmentPath(Path directory, String name, int index) {
+        return directory.resolve(String.format("%s-%05d.rpflog", name, index));
+    }
+
+    /**
+     * Finds all the segment files of a log.
+     *
+     * @param directory The directory of the log
+     * @param name      The name of the log
+     * @return The paths of the segment files, in no particular order
+     * @throws IOException If the directory could not be read
+     */
+    static List<Path> listSegments(Path directory, String name) throws IOException {
+        Pattern pattern = Pattern.compile(Pattern.quote(name) + "-\\d{5,}\\.rpflog");
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                if (pattern.matcher(path.getFileName().toString()).matches()) {
+                    segments.add(path);
+                }
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * Gets the index of a segment from its path.
+     *
+     * @param path The path of the segment file
+     * @return The index of the segment
+     */
+    static int segmentIndex(Path path) {
+        String fileName = path.getFileName().toString();
+        return Integer.parseInt(fileName.substring(fileName.lastIndexOf('-') + 1, fileName.length() - 7));
+    }
+
+    private void nextSegment() throws IOException {
+        finishSegment();
+
+        segmentIndex++;
+        // Drop the oldest segment to stay within the limit
+        if (maxSegments > 0 && segmentIndex >= maxSegments) {
+            Files.deleteIfExists(segmentPath(directory, name, segmentIndex - maxSegments));
+        }
+        channel = FileChannel.open(segmentPath(directory, name, segmentIndex), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE + (long) segmentRecords * RECORD_SIZE);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(TelemetryBuffer.FIELD_COUNT);
+        buffer.putInt(segmentRecords);
+        buffer.putLong(COUNT_OFFSET, 0);
+        buffer.position(HEADER_SIZE);
+        segmentCount = 0;
+    }
+
+    private void finishSegment() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        buffer.force();
+        // Cut off the unused space at the end
+        // This may fail on some platforms while the file is still mapped, in which case
+        // the record count in the header still says where the data ends
+        try {
+            channel.truncate(HEADER_SIZE + (long) segmentCount * RECORD_SIZE);
+        } catch (IOException e) {
+            truncateFailures++;
+        }
+        channel.close();
+        channel = null;
+        buffer = null;
+    }
+
+    /**
+     * Writes a single record.
+     *
+     * @param data   The array containing the record
+     * @param offset The index of the start of the record
+     * @throws UncheckedIOException  If a new segment could not be created
+     * @throws IllegalStateException If this writer has been closed
+     */
+    @Override
+    public void handle(double[] data, int offset) {
+        if (closed) {
+            throw new IllegalStateException("Log writer has been closed");
+        }
+        if (segmentCount == segmentRecords) {
+            try {
+                nextSegment();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        for (int i = 0; i < TelemetryBuffer.FIELD_COUNT; i++) {
+            buffer.putDouble(data[offset + i]);
+        }
+        segmentCount++;
+        recordCount++;
+        buffer.putLong(COUNT_OFFSET, segmentCount);
+    }
+
+    /**
+     * Writes all the records currently in a {@link TelemetryBuffer}, removing them
+     * from the buffer.
+     *
+     * @param telemetry The buffer to write
+     * @return The number of records written
+     * @throws UncheckedIOException  If a new segment could not be created
+     * @throws IllegalStateException If this writer has been closed
+     */
+    public int write(TelemetryBuffer telemetry) {
+        return telemetry.drain(this);
+    }
+
+    /**
+     * Forces the records written so far to be saved to disk.
+     */
+    public void flush() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Retrieves the total number of records written.
+     *
+     * @return The number of records
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Retrieves the number of segments created so far.
+     *
+     * <p>
+     * This includes segments that were deleted because of the max segment
+     * count.
+     * </p>
+     *
+     * @return The number of segments
+     */
+    public int getSegmentCount() {
+        return segmentIndex + 1;
+    }
+
+    /**
+     * Retrieves the max number of segments kept.
+     *
+     * @return The max number of segments, or 0 if all of them are kept
+     */
+    public int getMaxSegments() {
+        return maxSegments;
+    }
+
+    /**
+     * Retrieves the number of finished segments that could not be cut down to the
+     * size of their records.
+     *
+     * <p>
+     * This can happen on platforms that do not allow resizing a file while it is
+     * mapped. These segments are still valid, since the record count in the header
+     * says where the data ends, but they take up the full size of a segment on
+     * disk.
+     * </p>
+     *
+     * @return The number of segments that could not be truncated
+     */
+    public int getTruncateFailureCount() {
+        return truncateFailures;
+    }
+
+    /**
+     * Finishes the current segment and closes the log.
+     *
+     * @throws IOException If the last segment could not be finished
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        finishSegment();
+    }
+}
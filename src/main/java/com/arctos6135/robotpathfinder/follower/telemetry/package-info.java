@@ -0,0 +1,9 @@
+/**
+ * This package contains classes for recording the internal state of followers.
+ * <p>
+ * Followers can write a record of every run of their control loop into a
+ * {@link TelemetryBuffer}, which can then be read from another thread for
+ * logging or plotting without slowing down the control loop.
+ * </p>
+ */
+package com.arctos6135.robotpathfinder.follower.telemetry;
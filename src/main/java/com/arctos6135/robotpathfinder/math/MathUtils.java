@@ -234,7 +234,7 @@ public final class MathUtils {
 	public static double lerpAngle(double a, double b, double f) {
 		// Magic
         // https://stackoverflow.com/questions/2708476/rotation-interpolation
-        double theta = ((a - b) % (Math.PI * 2) + Math.PI * 3) % (Math.PI * 2) - Math.PI;
+        double theta = ((b - a) % (Math.PI * 2) + Math.PI * 3) % (Math.PI * 2) - Math.PI;
         return restrictAngle(a + f * theta);
 	}
 
@@ -117,4 +117,23 @@ public class DualMotionProfile<T extends MotionProfile> {
     public double rightAcceleration(double t) {
         return rightProfile.acceleration(t);
     }
+
+    /**
+     * Retrieves the position, velocity and acceleration at the specified time of
+     * both motion profiles all at once.
+     * <p>
+     * This calls {@link MotionProfile#evaluate(double, double[])} on the two
+     * profiles, which is faster than calling the six methods above separately.
+     * </p>
+     * 
+     * @param t     The time
+     * @param left  An array of at least 3 elements to write the position,
+     *              velocity and acceleration of the left profile into
+     * @param right An array of at least 3 elements to write the position,
+     *              velocity and acceleration of the right profile into
+     */
+    public void evaluate(double t, double[] left, double[] right) {
+        leftProfile.evaluate(t, left);
+        rightProfile.evaluate(t, right);
+    }
 }
@@ -0,0 +1,155 @@
+package com.arctos6135.robotpathfinder.motionprofile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is an extension of {@link SynchronizedMotionProfile} for
+ * {@link DynamicMotionProfile}s.
+ * <p>
+ * In addition to the methods provided by {@link SynchronizedMotionProfile},
+ * this class can also update the motion profile of each axis through
+ * {@link DynamicMotionProfile#update(double, double, double, double)
+ * update()}. After every update, the axes are synchronized again, so that they
+ * still all finish at the same time even if some of them fell behind.
+ * </p>
+ * <p>
+ * Since each axis is slowed down by its time scale, the velocity and
+ * acceleration passed to the update methods are divided by the time scale (and
+ * its square) before being passed to the motion profile of that axis. This
+ * keeps the motion continuous when the time scales do not change by much.
+ * </p>
+ * <p>
+ * As always, calling the update methods will modify the object itself. To use
+ * the object multiple times, consider using {@link #copy()} to create an
+ * identical copy, while maintaining the original object.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @param <T> The type of {@link MotionProfile} used; must be a subclass of
+ *            {@link DynamicMotionProfile}
+ * @see SynchronizedMotionProfile
+ * @see DynamicMotionProfile
+ * @since 3.0.0
+ */
+public class DynamicSynchronizedMotionProfile<T extends DynamicMotionProfile> extends SynchronizedMotionProfile<T> {
+
+    /**
+     * Constructs a new {@link DynamicSynchronizedMotionProfile} from any number of
+     * motion profiles.
+     *
+     * @param profiles The motion profiles of each axis
+     */
+    @SafeVarargs
+    public DynamicSynchronizedMotionProfile(T... profiles) {
+        // Only the elements are read, so the varargs array never escapes
+        for (T profile : profiles) {
+            this.profiles.add(profile);
+        }
+        initAxes();
+    }
+
+    /**
+     * Constructs a new {@link DynamicSynchronizedMotionProfile} from a list of
+     * motion profiles.
+     * <p>
+     * The list is copied, so later changes to it do not affect this object.
+     * </p>
+     *
+     * @param profiles The motion profiles of each axis
+     */
+    public DynamicSynchronizedMotionProfile(List<? extends T> profiles) {
+        super(profiles);
+    }
+
+    /**
+     * Finds the time in each axis's own profile at the specified time.
+     */
+    private double[] axisTimes(double time) {
+        double[] times = new double[profiles.size()];
+        for (int i = 0; i < profiles.size(); i++) {
+            times[i] = axisTime(i, time);
+        }
+        return times;
+    }
+
+    /**
+     * Updates the motion profile of a single axis without synchronizing.
+     */
+    private boolean updateAxis(int axis, double currentTime, double currentPos, double currentVel,
+            double currentAccel) {
+        double scale = scales[axis];
+        // Convert the velocity and acceleration back into the axis's own time
+        if (scale > 0) {
+            currentVel /= scale;
+            currentAccel /= scale * scale;
+        }
+        return profiles.get(axis).update(currentTime, currentPos, currentVel, currentAccel);
+    }
+
+    /**
+     * Calls the {@link DynamicMotionProfile#update(double, double, double, double)
+     * update()} method of the motion profile of a single axis, and synchronizes
+     * all the axes again.
+     * <p>
+     * When updating more than one axis at the same time, use
+     * {@link #update(double, double[], double[], double[])} instead.
+     * </p>
+     *
+     * @param axis         The axis
+     * @param currentTime  The current time
+     * @param currentPos   The current position
+     * @param currentVel   The current velocity
+     * @param currentAccel The current acceleration
+     * @return Whether the updated motion profile has to overshoot
+     */
+    public boolean update(int axis, double currentTime, double currentPos, double currentVel, double currentAccel) {
+        double[] times = axisTimes(currentTime);
+        boolean overshoot = updateAxis(axis, currentTime, currentPos, currentVel, currentAccel);
+        times[axis] = currentTime;
+        synchronize(currentTime, times);
+        return overshoot;
+    }
+
+    /**
+     * Calls the {@link DynamicMotionProfile#update(double, double, double, double)
+     * update()} method of the motion profile of every axis, and synchronizes them
+     * again.
+     *
+     * @param currentTime  The current time
+     * @param currentPos   The current position of each axis
+     * @param currentVel   The current velocity of each axis
+     * @param currentAccel The current acceleration of each axis
+     * @return Whether any of the updated motion profiles has to overshoot
+     */
+    public boolean update(double currentTime, double[] currentPos, double[] currentVel, double[] currentAccel) {
+        boolean overshoot = false;
+        double[] times = new double[profiles.size()];
+        for (int i = 0; i < profiles.size(); i++) {
+            overshoot |= updateAxis(i, currentTime, currentPos[i], currentVel[i], currentAccel[i]);
+            times[i] = currentTime;
+        }
+        synchronize(currentTime, times);
+        return overshoot;
+    }
+
+    /**
+     * Creates an identical deep copy of this
+     * {@link DynamicSynchronizedMotionProfile} object.
+     *
+     * @return An identical copy of this object
+     */
+    @SuppressWarnings("unchecked")
+    public DynamicSynchronizedMotionProfile<T> copy() {
+        List<T> copies = new ArrayList<>(profiles.size());
+        for (T axis : profiles) {
+            // This unchecked cast should always work, unless the copy() methods weren't
+            // implemented correctly, in which case a ClassCastException would be
+            // appropriate anyways
+            copies.add((T) axis.copy());
+        }
+        DynamicSynchronizedMotionProfile<T> profile = new DynamicSynchronizedMotionProfile<T>(copies);
+        profile.synchronize(syncTime, anchors);
+        return profile;
+    }
+}
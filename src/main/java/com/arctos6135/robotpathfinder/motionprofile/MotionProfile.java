@@ -54,6 +54,27 @@ public interface MotionProfile {
      */
     public double acceleration(double t);
 
+    /**
+     * Retrieves the position, velocity and acceleration at the specified time in
+     * this {@link MotionProfile} all at once.
+     * <p>
+     * The results are written into the first three elements of the array, in the
+     * order position, velocity, acceleration. By default, this simply calls
+     * {@link #position(double)}, {@link #velocity(double)} and
+     * {@link #acceleration(double)}; implementations can override it to find the
+     * part of the profile the time is in only once, which is faster when all
+     * three values are needed (e.g. in every iteration of a follower).
+     * </p>
+     * 
+     * @param t   The time
+     * @param out An array of at least 3 elements to write the results into
+     */
+    public default void evaluate(double t, double[] out) {
+        out[0] = position(t);
+        out[1] = velocity(t);
+        out[2] = acceleration(t);
+    }
+
     /**
      * Retrieves whether this {@link MotionProfile} is reversed (driving backwards).
      * 
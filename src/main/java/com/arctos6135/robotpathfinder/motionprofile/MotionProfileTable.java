@@ -0,0 +1,469 @@
+package com.arctos6135.robotpathfinder.motionprofile;
+
+import com.arctos6135.robotpathfinder.core.trajectory.BasicMoment;
+import com.arctos6135.robotpathfinder.core.trajectory.Moment;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveMoment;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+import com.arctos6135.robotpathfinder.motionprofile.followable.FollowableMotionProfile;
+
+/**
+ * This class is a motion profile that has been sampled into a lookup table.
+ * <p>
+ * Different motion profiles take different amounts of time to evaluate, and
+ * all of them check that the time is in range, which means they can throw.
+ * This class samples a {@link MotionProfile} or a
+ * {@link FollowableMotionProfile} once at a fixed time step, and stores the
+ * interpolating polynomial of each step in a flat array of {@code double}s.
+ * Looking up a time is then one index calculation and one polynomial
+ * evaluation, which takes the same amount of time for any type of profile,
+ * never allocates and never throws. Times outside the profile are clamped to
+ * the start or end.
+ * </p>
+ * <p>
+ * The position and velocity can either be interpolated linearly or with cubic
+ * Hermite splines (see {@link Interpolation}). Acceleration is always
+ * interpolated linearly.
+ * </p>
+ * <p>
+ * A table can have more than one axis. A table of a {@link MotionProfile} or a
+ * followable profile using {@link BasicMoment}s has one axis, and a table of a
+ * followable profile using {@link TankDriveMoment}s has two: the left side
+ * (axis 0) and the right side (axis 1). The methods of {@link MotionProfile}
+ * return the values of the first axis. Tables of followable profiles also
+ * store the heading.
+ * </p>
+ * <p>
+ * The profile is sampled from time 0. The time step is adjusted down so that
+ * the table ends exactly at the end of the profile.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @since 3.0.0
+ */
+public class MotionProfileTable implements MotionProfile {
+
+    /**
+     * The method used to interpolate between the steps of a
+     * {@link MotionProfileTable}.
+     *
+     * @author Tyler Tian
+     * @since 3.0.0
+     */
+    public enum Interpolation {
+        /**
+         * Linear interpolation between samples.
+         * <p>
+         * This is exact for the velocity of trapezoidal motion profiles, but the
+         * position is only exact at the samples.
+         * </p>
+         */
+        LINEAR,
+        /**
+         * Cubic Hermite interpolation between samples.
+         * <p>
+         * The position is interpolated using the velocity as its derivative, and the
+         * velocity is interpolated using the acceleration as its derivative. This is
+         * exact for any part of a profile with constant acceleration, and much more
+         * accurate than linear interpolation in general.
+         * </p>
+         */
+        CUBIC_HERMITE;
+    }
+
+    /**
+     * The number of coefficients stored for each step of each axis: 4 for the
+     * position, 4 for the velocity and 2 for the acceleration.
+     */
+    private static final int STRIDE = 10;
+
+    protected final int axes;
+    protected final int steps;
+    protected final double step;
+    protected final double invStep;
+    protected final double totalTime;
+    protected final boolean reversed;
+    protected final Interpolation interpolation;
+
+    /**
+     * The coefficients of each step, ordered by step, then axis.
+     */
+    protected final double[] coefficients;
+    /**
+     * The coefficients of the heading for each step, or all {@code NaN} if there
+     * is no heading.
+     */
+    protected final double[] headingCoefficients;
+
+    /**
+     * Allocates a table and finds the number of steps and the actual step.
+     */
+    private MotionProfileTable(int axes, double totalTime, double dt, boolean reversed,
+            Interpolation interpolation) {
+        if (!(dt > 0)) {
+            throw new IllegalArgumentException("Time step must be positive");
+        }
+        this.axes = axes;
+        this.totalTime = totalTime;
+        this.reversed = reversed;
+        this.interpolation = interpolation;
+
+        steps = Math.max(1, (int) Math.ceil(totalTime / dt - MathUtils.getFloatCompareThreshold()));
+        step = totalTime / steps;
+        // A profile that takes no time has a single step that is always used
+        invStep = step > 0 ? 1 / step : 0;
+
+        coefficients = new double[steps * axes * STRIDE];
+        headingCoefficients = new double[steps * 2];
+    }
+
+    /**
+     * Creates a new table from a {@link MotionProfile}.
+     *
+     * @param profile       The motion profile to sample
+     * @param dt            The largest time step to sample at
+     * @param interpolation The interpolation method
+     * @throws IllegalArgumentException If the time step is not positive
+     */
+    public MotionProfileTable(MotionProfile profile, double dt, Interpolation interpolation) {
+        this(1, profile.totalTime(), dt, profile.isReversed(), interpolation);
+
+        double[][] last = new double[1][3];
+        double[][] next = new double[1][3];
+        profile.evaluate(0, last[0]);
+        for (int i = 0; i < steps; i++) {
+            // Evaluate the last sample at exactly the total time to avoid rounding errors
+            profile.evaluate(i + 1 == steps ? totalTime : (i + 1) * step, next[0]);
+            fit(i, last, next, Double.NaN, Double.NaN);
+
+            double[][] temp = last;
+            last = next;
+            next = temp;
+        }
+    }
+
+    /**
+     * Creates a new table from a {@link FollowableMotionProfile}.
+     * <p>
+     * The profile must use either {@link BasicMoment}s or {@link TankDriveMoment}s.
+     * Whether the table is reversed is taken from the moment at time 0.
+     * </p>
+     *
+     * @param profile       The followable motion profile to sample
+     * @param dt            The largest time step to sample at
+     * @param interpolation The interpolation method
+     * @throws IllegalArgumentException If the time step is not positive, or if the
+     *                                  profile does not use one of the supported
+     *                                  types of moments
+     */
+    public MotionProfileTable(FollowableMotionProfile<?> profile, double dt, Interpolation interpolation) {
+        this(axisCount(profile.get(0)), profile.totalTime(), dt, profile.get(0).getBackwards(), interpolation);
+
+        double[][] last = new double[axes][3];
+        double[][] next = new double[axes][3];
+        Moment m = profile.get(0);
+        sample(m, last);
+        double lastHeading = m.getHeading();
+        for (int i = 0; i < steps; i++) {
+            m = profile.get(i + 1 == steps ? totalTime : (i + 1) * step);
+            sample(m, next);
+            // Unwrap the heading so it can be interpolated without jumping around
+            double nextHeading = lastHeading + MathUtils.angleDiff(MathUtils.restrictAngle(lastHeading),
+                    MathUtils.restrictAngle(m.getHeading()));
+            fit(i, last, next, lastHeading, nextHeading);
+
+            double[][] temp = last;
+            last = next;
+            next = temp;
+            lastHeading = nextHeading;
+        }
+    }
+
+    /**
+     * Finds the number of axes needed for a type of moment.
+     */
+    private static int axisCount(Moment m) {
+        if (m instanceof BasicMoment) {
+            return 1;
+        }
+        if (m instanceof TankDriveMoment) {
+            return 2;
+        }
+        throw new IllegalArgumentException("Unsupported moment type: " + m.getClass().getName());
+    }
+
+    /**
+     * Copies the position, velocity and acceleration of every axis of a moment.
+     */
+    private static void sample(Moment m, double[][] out) {
+        if (m instanceof BasicMoment) {
+            BasicMoment bm = (BasicMoment) m;
+            out[0][0] = bm.getPosition();
+            out[0][1] = bm.getVelocity();
+            out[0][2] = bm.getAcceleration();
+        } else {
+            TankDriveMoment tm = (TankDriveMoment) m;
+            out[0][0] = tm.getLeftPosition();
+            out[0][1] = tm.getLeftVelocity();
+            out[0][2] = tm.getLeftAcceleration();
+            out[1][0] = tm.getRightPosition();
+            out[1][1] = tm.getRightVelocity();
+            out[1][2] = tm.getRightAcceleration();
+        }
+    }
+
+    /**
+     * Finds and stores the coefficients of a step from its two ends.
+     * <p>
+     * The coefficients are in terms of the fraction of the step, from 0 to 1, so
+     * derivatives are multiplied by the length of the step.
+     * </p>
+     */
+    private void fit(int i, double[][] start, double[][] end, double startHeading, double endHeading) {
+        for (int axis = 0; axis < axes; axis++) {
+            int base = (i * axes + axis) * STRIDE;
+            double[] a = start[axis];
+            double[] b = end[axis];
+            if (interpolation == Interpolation.CUBIC_HERMITE) {
+                hermite(base, a[0], b[0], a[1] * step, b[1] * step);
+                hermite(base + 4, a[1], b[1], a[2] * step, b[2] * step);
+            } else {
+                linear(base, a[0], b[0]);
+                linear(base + 4, a[1], b[1]);
+            }
+            coefficients[base + 8] = a[2];
+            coefficients[base + 9] = b[2] - a[2];
+        }
+        headingCoefficients[i * 2] = startHeading;
+        headingCoefficients[i * 2 + 1] = endHeading - startHeading;
+    }
+
+    /**
+     * Stores the coefficients of a cubic Hermite spline.
+     */
+    private void hermite(int base, double p0, double p1, double m0, double m1) {
+        coefficients[base] = p0;
+        coefficients[base + 1] = m0;
+        coefficients[base + 2] = 3 * (p1 - p0) - 2 * m0 - m1;
+        coefficients[base + 3] = 2 * (p0 - p1) + m0 + m1;
+    }
+
+    /**
+     * Stores the coefficients of a line as a cubic.
+     */
+    private void linear(int base, double p0, double p1) {
+        coefficients[base] = p0;
+        coefficients[base + 1] = p1 - p0;
+        coefficients[base + 2] = 0;
+        coefficients[base + 3] = 0;
+    }
+
+    /**
+     * Finds the step a time is in.
+     */
+    private int stepAt(double t) {
+        // Times out of range are in the first or last step
+        return Math.max(0, Math.min(steps - 1, (int) (t * invStep)));
+    }
+
+    /**
+     * Finds how far into a step a time is, clamped to the step.
+     */
+    private double fraction(double t, int i) {
+        double f = t * invStep - i;
+        return f < 0 ? 0 : (f > 1 ? 1 : f);
+    }
+
+    /**
+     * Finds the index of the start of the coefficients of an axis in a step.
+     */
+    private int index(int i, int axis) {
+        return (i * axes + axis) * STRIDE;
+    }
+
+    /**
+     * Evaluates a cubic at the specified coefficients.
+     */
+    private double cubic(int base, double f) {
+        return ((coefficients[base + 3] * f + coefficients[base + 2]) * f + coefficients[base + 1]) * f
+                + coefficients[base];
+    }
+
+    /**
+     * Retrieves the number of axes in this table.
+     *
+     * @return The number of axes
+     */
+    public int getAxisCount() {
+        return axes;
+    }
+
+    /**
+     * Retrieves the actual time step of this table.
+     * <p>
+     * This is less than or equal to the time step passed to the constructor.
+     * </p>
+     *
+     * @return The time step
+     */
+    public double getStep() {
+        return step;
+    }
+
+    /**
+     * Retrieves the interpolation method used by this table.
+     *
+     * @return The interpolation method
+     */
+    public Interpolation getInterpolation() {
+        return interpolation;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double totalTime() {
+        return totalTime;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isReversed() {
+        return reversed;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This returns the position of the first axis. Times out of range are clamped
+     * instead of throwing.
+     * </p>
+     */
+    @Override
+    public double position(double t) {
+        return position(0, t);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This returns the velocity of the first axis. Times out of range are clamped
+     * instead of throwing.
+     * </p>
+     */
+    @Override
+    public double velocity(double t) {
+        return velocity(0, t);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This returns the acceleration of the first axis. Times out of range are
+     * clamped instead of throwing.
+     * </p>
+     */
+    @Override
+    public double acceleration(double t) {
+        return acceleration(0, t);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This returns the values of the first axis. Times out of range are clamped
+     * instead of throwing.
+     * </p>
+     */
+    @Override
+    public void evaluate(double t, double[] out) {
+        evaluate(0, t, out);
+    }
+
+    /**
+     * Retrieves the position of an axis at the specified time.
+     * <p>
+     * Times out of range are clamped to the start or end of the table.
+     * </p>
+     *
+     * @param axis The axis
+     * @param t    The time
+     * @return The position of the axis at the specified time
+     */
+    public double position(int axis, double t) {
+        int i = stepAt(t);
+        return cubic(index(i, axis), fraction(t, i));
+    }
+
+    /**
+     * Retrieves the velocity of an axis at the specified time.
+     * <p>
+     * Times out of range are clamped to the start or end of the table.
+     * </p>
+     *
+     * @param axis The axis
+     * @param t    The time
+     * @return The velocity of the axis at the specified time
+     */
+    public double velocity(int axis, double t) {
+        int i = stepAt(t);
+        return cubic(index(i, axis) + 4, fraction(t, i));
+    }
+
+    /**
+     * Retrieves the acceleration of an axis at the specified time.
+     * <p>
+     * Times out of range are clamped to the start or end of the table.
+     * </p>
+     *
+     * @param axis The axis
+     * @param t    The time
+     * @return The acceleration of the axis at the specified time
+     */
+    public double acceleration(int axis, double t) {
+        int i = stepAt(t);
+        int base = index(i, axis);
+        return coefficients[base + 8] + coefficients[base + 9] * fraction(t, i);
+    }
+
+    /**
+     * Retrieves the position, velocity and acceleration of an axis at the
+     * specified time all at once.
+     * <p>
+     * Times out of range are clamped to the start or end of the table.
+     * </p>
+     *
+     * @param axis The axis
+     * @param t    The time
+     * @param out  An array of at least 3 elements to write the position, velocity
+     *             and acceleration into
+     */
+    public void evaluate(int axis, double t, double[] out) {
+        int i = stepAt(t);
+        int base = index(i, axis);
+        double f = fraction(t, i);
+        out[0] = cubic(base, f);
+        out[1] = cubic(base + 4, f);
+        out[2] = coefficients[base + 8] + coefficients[base + 9] * f;
+    }
+
+    /**
+     * Retrieves the heading at the specified time.
+     * <p>
+     * This is only available for tables of {@link FollowableMotionProfile}s, and
+     * is {@code NaN} otherwise. The heading is not restricted to any range, so
+     * that it can be interpolated across &pi;; use
+     * {@link MathUtils#restrictAngle(double)} if needed. Times out of range are
+     * clamped to the start or end of the table.
+     * </p>
+     *
+     * @param t The time
+     * @return The heading at the specified time
+     */
+    public double heading(double t) {
+        int i = stepAt(t);
+        return headingCoefficients[i * 2] + headingCoefficients[i * 2 + 1] * fraction(t, i);
+    }
+}
@@ -0,0 +1,419 @@
+package com.arctos6135.robotpathfinder.motionprofile;
+
+import java.util.Arrays;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+
+/**
+ * This class represents a motion profile made up of multiple moves in a row.
+ * <p>
+ * A {@link TrapezoidalMotionProfile} can only do one move, ending at rest. To
+ * chain multiple moves with it, the robot has to stop in between each one. This
+ * motion profile instead takes a list of {@link Segment}s, each of which has a
+ * distance and optionally its own max velocity and the velocity to end at. The
+ * robot only stops between segments if it is told to, or if it has to change
+ * direction.
+ * </p>
+ * <p>
+ * Each segment is trapezoidal, so the acceleration is limited but jerk is not.
+ * The velocities between segments are found with a forward and a backward pass,
+ * just like trajectories, except that each pass goes through the segments
+ * instead of samples, and each segment is solved exactly. Therefore, the time
+ * it takes to generate only depends on the number of segments.
+ * </p>
+ * <p>
+ * The profile always starts and ends at rest. Unlike
+ * {@link TrapezoidalMotionProfile}, it is not dynamic.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @since 3.0.0
+ */
+public class MultiSegmentMotionProfile implements MotionProfile, Cloneable {
+
+    /**
+     * A single segment of a {@link MultiSegmentMotionProfile}.
+     *
+     * @author Tyler Tian
+     * @since 3.0.0
+     */
+    public static class Segment {
+
+        protected final double distance;
+        protected final double maxVelocity;
+        protected final double endVelocity;
+
+        /**
+         * Creates a new segment with no additional velocity limits.
+         *
+         * @param distance The distance this segment should cover; can be negative
+         *                 for backwards motion
+         */
+        public Segment(double distance) {
+            this(distance, Double.NaN, Double.NaN);
+        }
+
+        /**
+         * Creates a new segment.
+         *
+         * @param distance    The distance this segment should cover; can be
+         *                    negative for backwards motion
+         * @param maxVelocity The absolute value of the max velocity for this
+         *                    segment, or {@code NaN} to use the max velocity of the
+         *                    robot
+         * @param endVelocity The absolute value of the velocity at the end of this
+         *                    segment, or {@code NaN} to go as fast as possible; the
+         *                    last segment always ends at rest
+         */
+        public Segment(double distance, double maxVelocity, double endVelocity) {
+            this.distance = distance;
+            this.maxVelocity = maxVelocity;
+            this.endVelocity = endVelocity;
+        }
+
+        /**
+         * Retrieves the distance of this segment.
+         *
+         * @return The distance
+         */
+        public double getDistance() {
+            return distance;
+        }
+
+        /**
+         * Retrieves the max velocity of this segment.
+         *
+         * @return The max velocity, or {@code NaN} if not set
+         */
+        public double getMaxVelocity() {
+            return maxVelocity;
+        }
+
+        /**
+         * Retrieves the velocity at the end of this segment.
+         *
+         * @return The end velocity, or {@code NaN} if not set
+         */
+        public double getEndVelocity() {
+            return endVelocity;
+        }
+    }
+
+    protected double maxAcl;
+
+    // The start time and position of each segment
+    // These have an extra element at the end for the end of the profile
+    protected double[] startTimes;
+    protected double[] startPos;
+    // Whether each segment is backwards
+    protected boolean[] reversed;
+    // The velocity at the start of each segment, the cruise velocity, and the
+    // velocity at the end
+    protected double[] startVel, cruiseVel, endVel;
+    // The time and distance spent in each phase of each segment
+    protected double[] tAccel, tCruise;
+    protected double[] accelDist, cruiseDist;
+
+    /**
+     * Constructs a new object of this type without initializing any values.
+     * <p>
+     * This constructor should only ever be used internally.
+     * </p>
+     */
+    private MultiSegmentMotionProfile() {
+    }
+
+    /**
+     * Constructs a new multi-segment motion profile.
+     *
+     * @param specs    The specifications of the robot (max velocity and
+     *                 acceleration)
+     * @param segments The segments, in order
+     * @throws IllegalArgumentException If there are no segments, a max velocity
+     *                                  is not positive, or an end velocity
+     *                                  cannot be met
+     */
+    public MultiSegmentMotionProfile(RobotSpecs specs, Segment... segments) {
+        int n = segments.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("There must be at least one segment");
+        }
+        maxAcl = specs.getMaxAcceleration();
+
+        double[] dist = new double[n];
+        double[] maxVel = new double[n];
+        reversed = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            dist[i] = Math.abs(segments[i].distance);
+            reversed[i] = segments[i].distance < 0;
+            maxVel[i] = specs.getMaxVelocity();
+            if (!Double.isNaN(segments[i].maxVelocity)) {
+                if (segments[i].maxVelocity <= 0) {
+                    throw new IllegalArgumentException("Segment max velocity must be positive");
+                }
+                maxVel[i] = Math.min(maxVel[i], segments[i].maxVelocity);
+            }
+        }
+
+        // The velocities between segments
+        // The first element is the start of the profile and the last is the end
+        double[] v = new double[n + 1];
+        // The highest each velocity can be, and whether it was given by a segment
+        double[] cap = new double[n + 1];
+        boolean[] constrained = new boolean[n + 1];
+        for (int i = 1; i < n; i++) {
+            // The robot has to stop to change direction
+            if (reversed[i - 1] != reversed[i] || dist[i - 1] == 0 || dist[i] == 0) {
+                cap[i] = 0;
+            } else {
+                cap[i] = Math.min(maxVel[i - 1], maxVel[i]);
+            }
+            double end = segments[i - 1].endVelocity;
+            if (!Double.isNaN(end)) {
+                if (MathUtils.floatGt(Math.abs(end), cap[i])) {
+                    throw new IllegalArgumentException("Segment end velocity constraint cannot be met");
+                }
+                cap[i] = Math.abs(end);
+                constrained[i] = true;
+            }
+        }
+
+        // Forward pass
+        for (int i = 0; i < n; i++) {
+            double maxv = Math.sqrt(v[i] * v[i] + 2 * maxAcl * dist[i]);
+            if (maxv >= cap[i + 1]) {
+                v[i + 1] = cap[i + 1];
+            } else {
+                if (constrained[i + 1]) {
+                    throw new IllegalArgumentException("Segment end velocity constraint cannot be met");
+                }
+                v[i + 1] = maxv;
+            }
+        }
+        // Backward pass
+        for (int i = n; i-- > 0;) {
+            double maxv = Math.sqrt(v[i + 1] * v[i + 1] + 2 * maxAcl * dist[i]);
+            if (maxv < v[i]) {
+                if (constrained[i]) {
+                    throw new IllegalArgumentException("Segment end velocity constraint cannot be met");
+                }
+                v[i] = maxv;
+            }
+        }
+
+        startTimes = new double[n + 1];
+        startPos = new double[n + 1];
+        startVel = new double[n];
+        cruiseVel = new double[n];
+        endVel = new double[n];
+        tAccel = new double[n];
+        tCruise = new double[n];
+        accelDist = new double[n];
+        cruiseDist = new double[n];
+        for (int i = 0; i < n; i++) {
+            double v0 = v[i];
+            double v1 = v[i + 1];
+            // The velocity the robot would reach if it accelerated for as long as
+            // possible, from the kinematic formula and the fact that the acceleration and
+            // deceleration distances add up to the segment distance
+            double vc = Math.min(maxVel[i], Math.sqrt((2 * maxAcl * dist[i] + v0 * v0 + v1 * v1) / 2));
+            // Rounding errors might put the start or end velocity slightly above
+            vc = Math.max(vc, Math.max(v0, v1));
+
+            startVel[i] = v0;
+            cruiseVel[i] = vc;
+            endVel[i] = v1;
+            tAccel[i] = (vc - v0) / maxAcl;
+            accelDist[i] = (vc * vc - v0 * v0) / (2 * maxAcl);
+            double tDecel = (vc - v1) / maxAcl;
+            double decelDist = (vc * vc - v1 * v1) / (2 * maxAcl);
+            cruiseDist[i] = Math.max(0, dist[i] - accelDist[i] - decelDist);
+            tCruise[i] = vc > 0 ? cruiseDist[i] / vc : 0;
+
+            startTimes[i + 1] = startTimes[i] + tAccel[i] + tCruise[i] + tDecel;
+            startPos[i + 1] = startPos[i] + (reversed[i] ? -dist[i] : dist[i]);
+        }
+    }
+
+    /**
+     * Finds the segment that the specified time is in, and checks that the time
+     * is in range.
+     */
+    private int segment(double time) {
+        int n = startVel.length;
+        if (MathUtils.floatLt(time, 0) || MathUtils.floatGt(time, startTimes[n])) {
+            throw new IllegalArgumentException(
+                    String.format("Time out of range (%f not in [%f, %f])!", time, 0.0, startTimes[n]));
+        }
+        int i = Arrays.binarySearch(startTimes, 0, n, time);
+        // If not found, binarySearch returns -(insertion point) - 1
+        // The segment is the one before the insertion point
+        if (i < 0) {
+            i = -i - 2;
+        }
+        return Math.max(0, i);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double totalTime() {
+        return startTimes[startVel.length];
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This returns whether the profile ends behind where it started.
+     * </p>
+     */
+    @Override
+    public boolean isReversed() {
+        return startPos[startVel.length] < 0;
+    }
+
+    /**
+     * Retrieves the number of segments in this profile.
+     *
+     * @return The number of segments
+     */
+    public int getSegmentCount() {
+        return startVel.length;
+    }
+
+    /**
+     * Retrieves the time at which the specified segment starts.
+     *
+     * @param index The index of the segment; if equal to the number of segments,
+     *              the end time of the profile is returned
+     * @return The time the segment starts
+     */
+    public double getSegmentStartTime(int index) {
+        return startTimes[index];
+    }
+
+    /**
+     * Retrieves the velocity of the robot when it finishes the specified segment.
+     *
+     * @param index The index of the segment
+     * @return The velocity at the end of the segment
+     */
+    public double getSegmentEndVelocity(int index) {
+        return reversed[index] ? -endVel[index] : endVel[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException If the time is out of range
+     */
+    @Override
+    public double position(double time) {
+        double[] out = new double[3];
+        evaluate(time, out);
+        return out[0];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException If the time is out of range
+     */
+    @Override
+    public double velocity(double time) {
+        double[] out = new double[3];
+        evaluate(time, out);
+        return out[1];
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException If the time is out of range
+     */
+    @Override
+    public double acceleration(double time) {
+        double[] out = new double[3];
+        evaluate(time, out);
+        return out[2];
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The segment is found with a binary search, so this takes O(log n) time for
+     * n segments.
+     * </p>
+     *
+     * @throws IllegalArgumentException If the time is out of range
+     */
+    @Override
+    public void evaluate(double time, double[] out) {
+        int i = segment(time);
+        double t = Math.max(0, time - startTimes[i]);
+        double pos, vel, acl;
+        // When accelerating
+        if (t < tAccel[i]) {
+            pos = t * t * maxAcl * 0.5 + startVel[i] * t;
+            vel = t * maxAcl + startVel[i];
+            acl = maxAcl;
+        }
+        // When cruising
+        else if (t < tAccel[i] + tCruise[i]) {
+            pos = accelDist[i] + (t - tAccel[i]) * cruiseVel[i];
+            vel = cruiseVel[i];
+            acl = 0;
+        }
+        // When decelerating
+        else {
+            t = Math.min(t - tAccel[i] - tCruise[i], (cruiseVel[i] - endVel[i]) / maxAcl);
+            pos = accelDist[i] + cruiseDist[i] + t * cruiseVel[i] - t * t * maxAcl * 0.5;
+            vel = cruiseVel[i] - t * maxAcl;
+            acl = -maxAcl;
+            // There is no deceleration if the velocities are the same
+            if (cruiseVel[i] == endVel[i]) {
+                acl = 0;
+            }
+        }
+        if (reversed[i]) {
+            out[0] = startPos[i] - pos;
+            out[1] = -vel;
+            out[2] = -acl;
+        } else {
+            out[0] = startPos[i] + pos;
+            out[1] = vel;
+            out[2] = acl;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MultiSegmentMotionProfile clone() {
+        return copy();
+    }
+
+    /**
+     * Creates a copy of this motion profile.
+     *
+     * @return A copy of this motion profile
+     */
+    public MultiSegmentMotionProfile copy() {
+        MultiSegmentMotionProfile profile = new MultiSegmentMotionProfile();
+        profile.maxAcl = maxAcl;
+        profile.startTimes = startTimes.clone();
+        profile.startPos = startPos.clone();
+        profile.reversed = reversed.clone();
+        profile.startVel = startVel.clone();
+        profile.cruiseVel = cruiseVel.clone();
+        profile.endVel = endVel.clone();
+        profile.tAccel = tAccel.clone();
+        profile.tCruise = tCruise.clone();
+        profile.accelDist = accelDist.clone();
+        profile.cruiseDist = cruiseDist.clone();
+        return profile;
+    }
+}
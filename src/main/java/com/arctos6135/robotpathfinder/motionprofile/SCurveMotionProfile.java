@@ -0,0 +1,466 @@
+package com.arctos6135.robotpathfinder.motionprofile;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+
+/**
+ * This class represents an S-curve (jerk-limited) motion profile.
+ * <p>
+ * In a {@link TrapezoidalMotionProfile}, the acceleration jumps between its
+ * maximum, 0 and its negative instantaneously. Real robots cannot do this; the
+ * sudden changes in force cause wheel slip, which often means the maximum
+ * acceleration has to be set lower than what the robot can actually do. In an
+ * S-curve motion profile, the jerk (the derivative of acceleration) is limited
+ * as well, so the acceleration ramps up and down smoothly. The graph of
+ * velocity vs. time then has rounded corners, which look like an S, hence the
+ * name. Since the robot no longer slips, the maximum acceleration can usually
+ * be set much closer to the traction limit, which makes up for the time lost in
+ * the ramps.
+ * </p>
+ * <p>
+ * The profile is made up of seven segments, each with a constant jerk: the
+ * acceleration ramps up, stays at the maximum, and ramps back down to 0 while
+ * speeding up; the robot then cruises, before doing the same in reverse to slow
+ * down. Some of the segments may have a length of 0 if the distance is too
+ * short to reach the maximum acceleration or velocity. Position, velocity and
+ * acceleration are all calculated in closed form.
+ * </p>
+ * <p>
+ * This motion profile is {@link DynamicMotionProfile dynamic}. Unlike
+ * {@link TrapezoidalMotionProfile}, the current acceleration passed to
+ * {@link #update(double, double, double, double) update()} is used, since it
+ * cannot change instantly.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @since 3.0.0
+ */
+public class SCurveMotionProfile implements DynamicMotionProfile, Cloneable {
+
+    protected double initVel, initAcl;
+    protected double initDist, initTime;
+
+    protected double distance;
+    protected double maxJerk, maxAcl, maxVel;
+    protected double cruiseVel;
+
+    // The jerk and duration of each of the seven segments
+    protected double[] jerks = new double[7];
+    protected double[] durations = new double[7];
+    // The time, position, velocity and acceleration at the start of each segment,
+    // plus the end of the profile
+    protected double[] startTimes = new double[8];
+    protected double[] startPos = new double[8];
+    protected double[] startVel = new double[8];
+    protected double[] startAcl = new double[8];
+
+    protected double tTotal;
+
+    protected boolean reverse = false;
+
+    protected final RobotSpecs specs;
+
+    @Override
+    public String toString() {
+        return "\u001b[92m[\u001b[4mSCMP" + this.hashCode() + "\u001b[24m with initVel=" + initVel + ", initAcl="
+                + initAcl + ", initDist=" + initDist + ", initTime=" + initTime + ", distance=" + distance
+                + ", maxJerk=" + maxJerk + ", maxAcl=" + maxAcl + ", maxVel=" + maxVel + ", cruiseVel=" + cruiseVel
+                + ", tTotal=" + tTotal + ", reverse=" + reverse + "]\u001b[0m";
+    }
+
+    /**
+     * Constructs a new object of this type without initializing any values.
+     * <p>
+     * This constructor should only ever be used internally.
+     * </p>
+     */
+    private SCurveMotionProfile(RobotSpecs specs) {
+        this.specs = specs;
+    }
+
+    /**
+     * Constructs a new S-curve motion profile with a set distance.
+     *
+     * @param specs The specifications of the robot (max velocity, acceleration
+     *              and jerk); the max jerk must be set
+     * @param dist  The distance this motion profile should cover; can be negative
+     *              for backwards motion
+     */
+    public SCurveMotionProfile(RobotSpecs specs, double dist) {
+        this(specs, dist, 0);
+    }
+
+    /**
+     * Constructs a new S-curve motion profile with a set distance and initial
+     * velocity.
+     *
+     * @param specs   The specifications of the robot (max velocity, acceleration
+     *                and jerk); the max jerk must be set
+     * @param dist    The distance this motion profile should cover; can be negative
+     *                for backwards motion
+     * @param initVel The velocity of the robot at t=0
+     */
+    public SCurveMotionProfile(RobotSpecs specs, double dist, double initVel) {
+        if (!(specs.getMaxJerk() > 0)) {
+            throw new IllegalArgumentException("Max jerk must be set and positive");
+        }
+        this.specs = specs;
+        this.maxJerk = specs.getMaxJerk();
+        construct(dist, initVel, 0);
+    }
+
+    /**
+     * Constructs the motion profile.
+     * <p>
+     * Used by the constructor and {@link #update(double, double, double, double)}.
+     * </p>
+     *
+     * @param dist    The distance to cover
+     * @param initVel The initial velocity
+     * @param initAcl The initial acceleration
+     * @return Whether or not the motion profile overshoots
+     */
+    private boolean construct(double dist, double initVel, double initAcl) {
+        // Work with a positive distance, and flip everything at the end if reversed
+        reverse = dist < 0;
+        if (reverse) {
+            dist = -dist;
+            initVel = -initVel;
+            initAcl = -initAcl;
+        }
+        distance = dist;
+        maxAcl = specs.getMaxAcceleration();
+        maxVel = Math.max(specs.getMaxVelocity(), Math.abs(initVel));
+        this.initVel = initVel;
+        this.initAcl = initAcl;
+
+        boolean overshoot = false;
+        // The distance covered by speeding up (or slowing down) to a cruise velocity,
+        // then slowing down to a stop right away, increases with the cruise velocity
+        // If there is enough distance at the max velocity, cruise for the rest of it
+        if (stoppingPosition(maxVel) <= dist) {
+            cruiseVel = maxVel;
+        }
+        // If stopping as soon as possible still goes past the end, there is no way to
+        // stop in time, so do that and overshoot
+        else if (stoppingPosition(0) > dist) {
+            cruiseVel = 0;
+            overshoot = true;
+        }
+        // Otherwise find the cruise velocity that stops just short of the end by
+        // bisection, and make up for the difference by cruising
+        else {
+            double lo = 0;
+            double hi = maxVel;
+            // The cruise time makes up for any error left, so this does not have to be exact
+            for (int i = 0; i < 64; i++) {
+                double mid = (lo + hi) / 2;
+                if (mid <= lo || mid >= hi) {
+                    break;
+                }
+                if (stoppingPosition(mid) <= dist) {
+                    lo = mid;
+                } else {
+                    hi = mid;
+                }
+            }
+            cruiseVel = lo;
+        }
+
+        double end = stoppingPosition(cruiseVel);
+        durations[3] = !overshoot && startVel[3] > 0 ? Math.max(0, (dist - end) / startVel[3]) : 0;
+        integrate();
+        tTotal = startTimes[7];
+        return overshoot;
+    }
+
+    /**
+     * Sets up the segments to go from the initial velocity to a cruise velocity,
+     * then to a stop right away, and returns the position at the end.
+     */
+    private double stoppingPosition(double cruiseVel) {
+        transition(0, initVel, initAcl, cruiseVel);
+        jerks[3] = durations[3] = 0;
+        transition(4, cruiseVel, 0, 0);
+        integrate();
+        return startPos[7];
+    }
+
+    /**
+     * Sets up three segments starting at the specified index, which change the
+     * velocity from v0 with an acceleration of a0 to v1 with an acceleration of 0,
+     * as fast as possible.
+     */
+    private void transition(int index, double v0, double a0, double v1) {
+        // The velocity reached by ramping the acceleration down to 0 right away
+        // This determines whether we need to speed up or slow down
+        double vStop = v0 + a0 * Math.abs(a0) / (2 * maxJerk);
+        double sign = v1 >= vStop ? 1 : -1;
+        // Solve everything as if speeding up
+        double dv = sign * (v1 - v0);
+        double a = sign * a0;
+
+        // Try to reach the max acceleration and hold it
+        // The acceleration may already be greater than the max if the robot is not
+        // following the profile exactly, in which case just ramp it down
+        double peak = Math.max(maxAcl, a);
+        // The change in velocity from ramping from a to the peak, and from the peak to
+        // 0, is (2 * peak^2 - a^2) / (2 * maxJerk)
+        double hold = (dv - (2 * peak * peak - a * a) / (2 * maxJerk)) / peak;
+        if (!(hold >= 0)) {
+            // Not enough time to reach the max acceleration
+            // Find the peak acceleration that gives the exact velocity change instead
+            peak = Math.sqrt(Math.max(0, maxJerk * dv + a * a / 2));
+            hold = 0;
+        }
+
+        jerks[index] = sign * maxJerk;
+        durations[index] = Math.max(0, (peak - a) / maxJerk);
+        jerks[index + 1] = 0;
+        durations[index + 1] = hold;
+        jerks[index + 2] = -sign * maxJerk;
+        durations[index + 2] = peak / maxJerk;
+    }
+
+    /**
+     * Calculates the state at the start of each segment.
+     */
+    private void integrate() {
+        startTimes[0] = startPos[0] = 0;
+        startVel[0] = initVel;
+        startAcl[0] = initAcl;
+        for (int i = 0; i < 7; i++) {
+            double t = durations[i];
+            double j = jerks[i];
+            startTimes[i + 1] = startTimes[i] + t;
+            startPos[i + 1] = startPos[i] + startVel[i] * t + startAcl[i] * t * t / 2 + j * t * t * t / 6;
+            startVel[i + 1] = startVel[i] + startAcl[i] * t + j * t * t / 2;
+            startAcl[i + 1] = startAcl[i] + j * t;
+            // The acceleration should be exactly 0 when cruising, otherwise rounding
+            // errors add up over a long cruise
+            if (i == 2) {
+                startAcl[3] = 0;
+            }
+        }
+        // Every profile ends at rest, so remove any rounding errors
+        startAcl[7] = 0;
+        startVel[7] = 0;
+    }
+
+    /**
+     * Converts an absolute time to a time relative to the start of the profile,
+     * and checks that it is in range.
+     */
+    private double relativeTime(double time) {
+        if (MathUtils.floatLt(time, initTime)) {
+            throw new IllegalArgumentException(
+                    String.format("Time out of range (%f not before %f)!", time, initTime));
+        }
+        // Past the end, the robot stays where it stopped
+        // This lets the two sides of a DualMotionProfile end at different times
+        return Math.max(0, Math.min(tTotal, time - initTime));
+    }
+
+    /**
+     * Finds the segment that the specified relative time is in.
+     */
+    private int segment(double time) {
+        int i = 0;
+        while (i < 6 && time >= startTimes[i + 1]) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double totalTime() {
+        // Add initTime to tTotal to get the absolute time
+        return tTotal + initTime;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isReversed() {
+        return reverse;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Note: If {@link #update(double, double, double, double) update()} was
+     * previously called with a nonzero time value, this method will throw an
+     * {@link IllegalArgumentException} if the time is less than the time passed to
+     * {@link #update(double, double, double, double) update()}. Times after the
+     * end of the profile are allowed, and give the state at the end.
+     * </p>
+     *
+     * @throws IllegalArgumentException If the time is out of range
+     */
+    @Override
+    public double position(double time) {
+        time = relativeTime(time);
+        int i = segment(time);
+        double t = time - startTimes[i];
+        double result = startPos[i] + startVel[i] * t + startAcl[i] * t * t / 2 + jerks[i] * t * t * t / 6;
+        return (reverse ? -result : result) + initDist;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Note: If {@link #update(double, double, double, double) update()} was
+     * previously called with a nonzero time value, this method will throw an
+     * {@link IllegalArgumentException} if the time is less than the time passed to
+     * {@link #update(double, double, double, double) update()}. Times after the
+     * end of the profile are allowed, and give the state at the end.
+     * </p>
+     *
+     * @throws IllegalArgumentException If the time is out of range
+     */
+    @Override
+    public double velocity(double time) {
+        time = relativeTime(time);
+        int i = segment(time);
+        double t = time - startTimes[i];
+        double result = startVel[i] + startAcl[i] * t + jerks[i] * t * t / 2;
+        return reverse ? -result : result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Note: If {@link #update(double, double, double, double) update()} was
+     * previously called with a nonzero time value, this method will throw an
+     * {@link IllegalArgumentException} if the time is less than the time passed to
+     * {@link #update(double, double, double, double) update()}. Times after the
+     * end of the profile are allowed, and give the state at the end.
+     * </p>
+     *
+     * @throws IllegalArgumentException If the time is out of range
+     */
+    @Override
+    public double acceleration(double time) {
+        time = relativeTime(time);
+        int i = segment(time);
+        double result = startAcl[i] + jerks[i] * (time - startTimes[i]);
+        return reverse ? -result : result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The segment of the profile the time is in is only found once, so this is
+     * faster than calling {@link #position(double)}, {@link #velocity(double)}
+     * and {@link #acceleration(double)} separately.
+     * </p>
+     * <p>
+     * Note: If {@link #update(double, double, double, double) update()} was
+     * previously called with a nonzero time value, this method will throw an
+     * {@link IllegalArgumentException} if the time is less than the time passed to
+     * {@link #update(double, double, double, double) update()}. Times after the
+     * end of the profile are allowed, and give the state at the end.
+     * </p>
+     *
+     * @throws IllegalArgumentException If the time is out of range
+     */
+    @Override
+    public void evaluate(double time, double[] out) {
+        time = relativeTime(time);
+        int i = segment(time);
+        double t = time - startTimes[i];
+        double pos = startPos[i] + startVel[i] * t + startAcl[i] * t * t / 2 + jerks[i] * t * t * t / 6;
+        double vel = startVel[i] + startAcl[i] * t + jerks[i] * t * t / 2;
+        double acl = startAcl[i] + jerks[i] * t;
+        if (reverse) {
+            out[0] = -pos + initDist;
+            out[1] = -vel;
+            out[2] = -acl;
+        } else {
+            out[0] = pos + initDist;
+            out[1] = vel;
+            out[2] = acl;
+        }
+    }
+
+    /**
+     * Retrieves the jerk at the specified time in this motion profile.
+     * <p>
+     * Note: If {@link #update(double, double, double, double) update()} was
+     * previously called with a nonzero time value, this method will throw an
+     * {@link IllegalArgumentException} if the time is less than the time passed to
+     * {@link #update(double, double, double, double) update()}. Times after the
+     * end of the profile are allowed, and give the state at the end.
+     * </p>
+     *
+     * @param time The time
+     * @return The jerk at the specified time
+     * @throws IllegalArgumentException If the time is out of range
+     */
+    public double jerk(double time) {
+        double result = jerks[segment(relativeTime(time))];
+        return reverse ? -result : result;
+    }
+
+    /**
+     * Retrieves the max jerk of this motion profile.
+     *
+     * @return The max jerk
+     */
+    public double getMaxJerk() {
+        return maxJerk;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean update(double currentTime, double currentDist, double currentVel, double currentAccel) {
+        initTime = currentTime;
+        double prevInitDist = initDist;
+        initDist = currentDist;
+        return construct((reverse ? -distance : distance) + prevInitDist - currentDist, currentVel, currentAccel);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SCurveMotionProfile clone() {
+        return copy();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SCurveMotionProfile copy() {
+        SCurveMotionProfile profile = new SCurveMotionProfile(specs);
+        profile.initVel = initVel;
+        profile.initAcl = initAcl;
+        profile.initDist = initDist;
+        profile.initTime = initTime;
+
+        profile.distance = distance;
+        profile.maxJerk = maxJerk;
+        profile.maxAcl = maxAcl;
+        profile.maxVel = maxVel;
+        profile.cruiseVel = cruiseVel;
+
+        profile.jerks = jerks.clone();
+        profile.durations = durations.clone();
+        profile.startTimes = startTimes.clone();
+        profile.startPos = startPos.clone();
+        profile.startVel = startVel.clone();
+        profile.startAcl = startAcl.clone();
+        profile.tTotal = tTotal;
+
+        profile.reverse = reverse;
+
+        return profile;
+    }
+}
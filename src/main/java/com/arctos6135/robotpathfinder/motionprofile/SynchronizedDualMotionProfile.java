@@ -0,0 +1,176 @@
+package com.arctos6135.robotpathfinder.motionprofile;
+
+/**
+ * This class is a {@link DynamicDualMotionProfile} whose two sides always
+ * finish at the same time.
+ * <p>
+ * A regular {@link DualMotionProfile} runs the left and right profiles
+ * independently, so after an update one side may finish before the other. This
+ * class uses a {@link DynamicSynchronizedMotionProfile} with the left and right
+ * profiles as its two axes, so the faster side is slowed down to match the
+ * slower one. This is useful for rotating in place, where the robot only turns
+ * about its center if both sides move together.
+ * </p>
+ * <p>
+ * To update both sides at once, use
+ * {@link #update(double, double, double, double, double, double, double)}.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @param <T> The type of {@link MotionProfile} used; must be a subclass of
+ *            {@link DynamicMotionProfile}
+ * @see DynamicSynchronizedMotionProfile
+ * @since 3.0.0
+ */
+public class SynchronizedDualMotionProfile<T extends DynamicMotionProfile> extends DynamicDualMotionProfile<T> {
+
+    protected DynamicSynchronizedMotionProfile<T> profile;
+
+    /**
+     * Constructs a new {@link SynchronizedDualMotionProfile} from two regular
+     * motion profiles.
+     *
+     * @param left  The left wheel's motion profile
+     * @param right The right wheel's motion profile
+     */
+    public SynchronizedDualMotionProfile(T left, T right) {
+        this(new DynamicSynchronizedMotionProfile<T>(left, right));
+    }
+
+    /**
+     * Constructs a new {@link SynchronizedDualMotionProfile} from a synchronized
+     * profile with two axes.
+     */
+    private SynchronizedDualMotionProfile(DynamicSynchronizedMotionProfile<T> profile) {
+        super(profile.profiles.get(0), profile.profiles.get(1));
+        this.profile = profile;
+    }
+
+    /**
+     * Retrieves the total time it takes to complete this
+     * {@link SynchronizedDualMotionProfile}.
+     * <p>
+     * This is the time at which both sides finish together.
+     * </p>
+     *
+     * @return The total time it takes to complete this profile
+     */
+    @Override
+    public double totalTime() {
+        return profile.totalTime();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double leftPosition(double t) {
+        return profile.position(0, t);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double rightPosition(double t) {
+        return profile.position(1, t);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double leftVelocity(double t) {
+        return profile.velocity(0, t);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double rightVelocity(double t) {
+        return profile.velocity(1, t);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double leftAcceleration(double t) {
+        return profile.acceleration(0, t);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double rightAcceleration(double t) {
+        return profile.acceleration(1, t);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void evaluate(double t, double[] left, double[] right) {
+        profile.evaluate(0, t, left);
+        profile.evaluate(1, t, right);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Both sides are synchronized again afterwards.
+     * </p>
+     */
+    @Override
+    public boolean updateLeft(double currentTime, double currentPos, double currentVel, double currentAccel) {
+        return profile.update(0, currentTime, currentPos, currentVel, currentAccel);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Both sides are synchronized again afterwards.
+     * </p>
+     */
+    @Override
+    public boolean updateRight(double currentTime, double currentPos, double currentVel, double currentAccel) {
+        return profile.update(1, currentTime, currentPos, currentVel, currentAccel);
+    }
+
+    /**
+     * Calls the {@link DynamicMotionProfile#update(double, double, double, double)
+     * update()} method of both motion profiles, and synchronizes them again.
+     * <p>
+     * As always, calling this method will modify the object itself. To use the
+     * object multiple times, consider using {@link #copy()} to create an identical
+     * copy, while maintaining the original object.
+     * </p>
+     *
+     * @param currentTime       The current time
+     * @param currentLeftPos    The current position of the left side
+     * @param currentLeftVel    The current velocity of the left side
+     * @param currentLeftAccel  The current acceleration of the left side
+     * @param currentRightPos   The current position of the right side
+     * @param currentRightVel   The current velocity of the right side
+     * @param currentRightAccel The current acceleration of the right side
+     * @return Whether either of the updated motion profiles has to overshoot
+     */
+    public boolean update(double currentTime, double currentLeftPos, double currentLeftVel, double currentLeftAccel,
+            double currentRightPos, double currentRightVel, double currentRightAccel) {
+        return profile.update(currentTime, new double[] { currentLeftPos, currentRightPos },
+                new double[] { currentLeftVel, currentRightVel }, new double[] { currentLeftAccel, currentRightAccel });
+    }
+
+    /**
+     * Creates an identical deep copy of this {@link SynchronizedDualMotionProfile}
+     * object.
+     *
+     * @return An identical copy of this object
+     */
+    @Override
+    public SynchronizedDualMotionProfile<T> copy() {
+        return new SynchronizedDualMotionProfile<T>(profile.copy());
+    }
+}
@@ -0,0 +1,286 @@
+package com.arctos6135.robotpathfinder.motionprofile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.arctos6135.robotpathfinder.math.MathUtils;
+
+/**
+ * This class is a wrapper around any number of {@link MotionProfile}s that
+ * makes them all finish at the same time.
+ * <p>
+ * Each motion profile is called an axis. It could be one side of a drivetrain,
+ * or one joint of a mechanism that has to move in a coordinated way. Normally,
+ * each profile moves as fast as it can, so a shorter move finishes earlier than
+ * a longer one. This class instead slows down every axis except the slowest by
+ * scaling time, so that all of them start and finish together.
+ * </p>
+ * <p>
+ * If an axis would take time <em>T<sub>i</sub></em> and the slowest axis takes
+ * time <em>T</em>, then at time <em>t</em> that axis is at the point its own
+ * profile would be at time <em>t * T<sub>i</sub> / T</em>. Its velocity is
+ * scaled by <em>T<sub>i</sub> / T</em> and its acceleration by the square of
+ * that, so no limit of the original profiles is ever exceeded.
+ * </p>
+ * <p>
+ * The motion profiles should all start at time 0.
+ * </p>
+ *
+ * @author Tyler Tian
+ * @param <T> The type of {@link MotionProfile} used
+ * @see DynamicSynchronizedMotionProfile
+ * @since 3.0.0
+ */
+public class SynchronizedMotionProfile<T extends MotionProfile> {
+
+    /**
+     * The motion profile of each axis.
+     */
+    protected final List<T> profiles = new ArrayList<>();
+
+    /**
+     * The time at which the axes were last synchronized.
+     */
+    protected double syncTime;
+    /**
+     * The time in each axis's own profile at {@link #syncTime}.
+     */
+    protected double[] anchors;
+    /**
+     * The rate at which time passes for each axis.
+     */
+    protected double[] scales;
+
+    protected double endTime;
+
+    /**
+     * Constructs a new {@link SynchronizedMotionProfile} from any number of motion
+     * profiles.
+     *
+     * @param profiles The motion profiles of each axis
+     */
+    @SafeVarargs
+    public SynchronizedMotionProfile(T... profiles) {
+        // Only the elements are read, so the varargs array never escapes
+        for (T profile : profiles) {
+            this.profiles.add(profile);
+        }
+        initAxes();
+    }
+
+    /**
+     * Constructs a new {@link SynchronizedMotionProfile} from a list of motion
+     * profiles.
+     * <p>
+     * The list is copied, so later changes to it do not affect this object.
+     * </p>
+     *
+     * @param profiles The motion profiles of each axis
+     */
+    public SynchronizedMotionProfile(List<? extends T> profiles) {
+        this.profiles.addAll(profiles);
+        initAxes();
+    }
+
+    /**
+     * Constructs a new {@link SynchronizedMotionProfile} with no axes.
+     * <p>
+     * The subclass constructor must add the axes to {@link #profiles} and then
+     * call {@link #initAxes()}.
+     * </p>
+     */
+    protected SynchronizedMotionProfile() {
+    }
+
+    /**
+     * Synchronizes the axes in {@link #profiles} for the first time.
+     */
+    protected void initAxes() {
+        if (profiles.isEmpty()) {
+            throw new IllegalArgumentException("There must be at least one axis");
+        }
+        anchors = new double[profiles.size()];
+        scales = new double[profiles.size()];
+        synchronize(0, new double[profiles.size()]);
+    }
+
+    /**
+     * Re-calculates the time scale of every axis so they all finish at the same
+     * time.
+     *
+     * @param time    The time to synchronize at
+     * @param anchors The time in each axis's own profile that corresponds to the
+     *                time to synchronize at
+     */
+    protected void synchronize(double time, double[] anchors) {
+        syncTime = time;
+        double duration = 0;
+        for (int i = 0; i < profiles.size(); i++) {
+            this.anchors[i] = anchors[i];
+            scales[i] = Math.max(0, profiles.get(i).totalTime() - anchors[i]);
+            duration = Math.max(duration, scales[i]);
+        }
+        // Divide each axis's remaining time by the longest one
+        for (int i = 0; i < profiles.size(); i++) {
+            scales[i] = duration > 0 ? scales[i] / duration : 1;
+        }
+        endTime = time + duration;
+    }
+
+    /**
+     * Converts a time to the time in an axis's own profile.
+     *
+     * @param axis The axis
+     * @param time The time
+     * @return The time to evaluate that axis's profile at
+     */
+    protected double axisTime(int axis, double time) {
+        double t = anchors[axis] + (time - syncTime) * scales[axis];
+        // Keep the time in range when the time is only off due to rounding
+        return Math.max(anchors[axis], Math.min(profiles.get(axis).totalTime(), t));
+    }
+
+    /**
+     * Checks that a time is in range.
+     *
+     * @param time The time
+     */
+    protected void checkTime(double time) {
+        if (MathUtils.floatLt(time, syncTime) || MathUtils.floatGt(time, endTime)) {
+            throw new IllegalArgumentException(
+                    String.format("Time out of range (%f not in [%f, %f])!", time, syncTime, endTime));
+        }
+    }
+
+    /**
+     * Retrieves the number of axes in this {@link SynchronizedMotionProfile}.
+     *
+     * @return The number of axes
+     */
+    public int getAxisCount() {
+        return profiles.size();
+    }
+
+    /**
+     * Retrieves the factor that time is scaled by for the specified axis.
+     * <p>
+     * This is 1 for the slowest axis and between 0 and 1 for all others. The
+     * velocity of the axis is scaled by this factor as well.
+     * </p>
+     *
+     * @param axis The axis
+     * @return The time scale of the axis
+     */
+    public double getScale(int axis) {
+        return scales[axis];
+    }
+
+    /**
+     * Retrieves the total time it takes to complete this
+     * {@link SynchronizedMotionProfile}.
+     * <p>
+     * This is the time at which all the axes finish together.
+     * </p>
+     *
+     * @return The total time it takes to complete this profile
+     */
+    public double totalTime() {
+        return endTime;
+    }
+
+    /**
+     * Retrieves whether the specified axis is reversed (moving backwards).
+     *
+     * @param axis The axis
+     * @return Whether the axis is reversed
+     */
+    public boolean isReversed(int axis) {
+        return profiles.get(axis).isReversed();
+    }
+
+    /**
+     * Retrieves the position at the specified time of the specified axis.
+     *
+     * @param axis The axis
+     * @param t    The time
+     * @return The position of the axis at the specified time
+     * @throws IllegalArgumentException If the time is out of range
+     */
+    public double position(int axis, double t) {
+        checkTime(t);
+        return profiles.get(axis).position(axisTime(axis, t));
+    }
+
+    /**
+     * Retrieves the velocity at the specified time of the specified axis.
+     *
+     * @param axis The axis
+     * @param t    The time
+     * @return The velocity of the axis at the specified time
+     * @throws IllegalArgumentException If the time is out of range
+     */
+    public double velocity(int axis, double t) {
+        checkTime(t);
+        return profiles.get(axis).velocity(axisTime(axis, t)) * scales[axis];
+    }
+
+    /**
+     * Retrieves the acceleration at the specified time of the specified axis.
+     *
+     * @param axis The axis
+     * @param t    The time
+     * @return The acceleration of the axis at the specified time
+     * @throws IllegalArgumentException If the time is out of range
+     */
+    public double acceleration(int axis, double t) {
+        checkTime(t);
+        return profiles.get(axis).acceleration(axisTime(axis, t)) * scales[axis] * scales[axis];
+    }
+
+    /**
+     * Retrieves the position, velocity and acceleration at the specified time of
+     * the specified axis all at once.
+     *
+     * @param axis The axis
+     * @param t    The time
+     * @param out  An array of at least 3 elements to write the position, velocity
+     *             and acceleration into
+     * @throws IllegalArgumentException If the time is out of range
+     */
+    public void evaluate(int axis, double t, double[] out) {
+        checkTime(t);
+        evaluateAxis(axis, t, out);
+    }
+
+    /**
+     * Retrieves the position, velocity and acceleration at the specified time of
+     * every axis all at once.
+     * <p>
+     * The time is only checked once, and each axis is evaluated with
+     * {@link MotionProfile#evaluate(double, double[])}, so this is faster than
+     * calling the other methods for each axis separately.
+     * </p>
+     *
+     * @param t   The time
+     * @param out An array with one element for each axis, each of which is an
+     *            array of at least 3 elements to write the position, velocity
+     *            and acceleration of that axis into
+     * @throws IllegalArgumentException If the time is out of range
+     */
+    public void evaluate(double t, double[][] out) {
+        checkTime(t);
+        for (int i = 0; i < profiles.size(); i++) {
+            evaluateAxis(i, t, out[i]);
+        }
+    }
+
+    /**
+     * Evaluates a single axis without checking the time.
+     */
+    private void evaluateAxis(int axis, double t, double[] out) {
+        profiles.get(axis).evaluate(axisTime(axis, t), out);
+        double scale = scales[axis];
+        out[1] *= scale;
+        out[2] *= scale * scale;
+    }
+}
@@ -305,6 +305,60 @@ public class TrapezoidalMotionProfile implements DynamicMotionProfile, Cloneable
         return reverse ? -result : result;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The part of the profile the time is in is only found once, so this is
+     * faster than calling {@link #position(double)}, {@link #velocity(double)}
+     * and {@link #acceleration(double)} separately.
+     * </p>
+     * <p>
+     * Note: If {@link #update(double, double, double, double) update()} was
+     * previously called with a nonzero time value, this method will throw an
+     * {@link IllegalArgumentException} if the time is less than the time passed to
+     * {@link #update(double, double, double, double) update()}.
+     * </p>
+     * 
+     * @throws IllegalArgumentException If the time is out of range
+     */
+    @Override
+    public void evaluate(double time, double[] out) {
+        double t = time - initTime;
+        if (MathUtils.floatLt(time, initTime) || MathUtils.floatGt(t, tTotal)) {
+            throw new IllegalArgumentException(
+                    String.format("Time out of range (%f not in [%f, %f])!", time, initTime, initTime + tTotal));
+        }
+        double pos, vel, acl;
+        // When accelerating
+        if (t < tAccel) {
+            pos = t * t * maxAcl * 0.5 + initVel * t;
+            vel = t * maxAcl + initVel;
+            acl = maxAcl;
+        }
+        // When cruising
+        else if (t < tAccel + tCruise) {
+            pos = accelDist + (t - tAccel) * cruiseVel;
+            vel = cruiseVel;
+            acl = 0;
+        }
+        // When decelerating
+        else {
+            t = t - tAccel - tCruise;
+            pos = accelDist + cruiseDist + t * cruiseVel - t * t * maxAcl * 0.5;
+            vel = cruiseVel - t * maxAcl;
+            acl = -maxAcl;
+        }
+        if (reverse) {
+            out[0] = -pos + initDist;
+            out[1] = -vel;
+            out[2] = -acl;
+        } else {
+            out[0] = pos + initDist;
+            out[1] = vel;
+            out[2] = acl;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -36,12 +36,12 @@ public abstract class BasicFollowableMotionProfile<T extends MotionProfile>
      */
     @Override
     public BasicMoment get(double t) {
-        double d = profile.position(t);
-        double v = profile.velocity(t);
-        double a = profile.acceleration(t);
+        double[] values = new double[3];
+        profile.evaluate(t, values);
 
         boolean backwards = profile.isReversed();
 
-        return new BasicMoment(d, v, a, backwards ? -initialFacing : initialFacing, t, initialFacing, backwards);
+        return new BasicMoment(values[0], values[1], values[2], backwards ? -initialFacing : initialFacing, t,
+                initialFacing, backwards);
     }
 }
@@ -36,9 +36,11 @@ public abstract class TankDriveFollowableMotionProfile<T extends DualMotionProfi
      */
     @Override
     public TankDriveMoment get(double t) {
+        double[] l = new double[3];
+        double[] r = new double[3];
+        profile.evaluate(t, l, r);
         boolean backwards = profile.isReversed();
-        return new TankDriveMoment(profile.leftPosition(t), profile.rightPosition(t), profile.leftVelocity(t),
-                profile.rightVelocity(t), profile.leftAcceleration(t), profile.rightAcceleration(t),
-                backwards ? -initialFacing : initialFacing, t, initialFacing, backwards);
+        return new TankDriveMoment(l[0], r[0], l[1], r[1], l[2], r[2], backwards ? -initialFacing : initialFacing, t,
+                initialFacing, backwards);
     }
 }
@@ -46,8 +46,11 @@ public abstract class TankDriveFollowableRotationMotionProfile<T extends DualMot
      */
     @Override
     public TankDriveMoment get(double t) {
-        double ld = profile.leftPosition(t);
-        double rd = profile.rightPosition(t);
+        double[] l = new double[3];
+        double[] r = new double[3];
+        profile.evaluate(t, l, r);
+        double ld = l[0];
+        double rd = r[0];
 
         // The overall angle rotated is equivalent to the angle caused by the right
         // wheel moving and the angle caused by the left wheel moving combined.
@@ -56,7 +59,6 @@ public abstract class TankDriveFollowableRotationMotionProfile<T extends DualMot
         // The left distance is negative since it moving forward will actually turn the
         // robot clockwise.
         double currentAngle = MathUtils.restrictAngle(rd / baseWidth - ld / baseWidth + initialFacing);
-        return new TankDriveMoment(ld, rd, profile.leftVelocity(t), profile.rightVelocity(t),
-                profile.leftAcceleration(t), profile.rightAcceleration(t), currentAngle, t, initialFacing, false);
+        return new TankDriveMoment(ld, rd, l[1], r[1], l[2], r[2], currentAngle, t, initialFacing, false);
     }
 }
@@ -0,0 +1,102 @@
+package com.arctos6135.robotpathfinder.motionprofile.followable.profiles;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveMoment;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveTrajectory;
+import com.arctos6135.robotpathfinder.follower.DynamicFollowable;
+import com.arctos6135.robotpathfinder.follower.DynamicFollower;
+import com.arctos6135.robotpathfinder.follower.Follower;
+import com.arctos6135.robotpathfinder.motionprofile.SCurveMotionProfile;
+import com.arctos6135.robotpathfinder.motionprofile.SynchronizedDualMotionProfile;
+import com.arctos6135.robotpathfinder.motionprofile.followable.TankDriveFollowableRotationMotionProfile;
+
+/**
+ * This class uses an {@link SCurveMotionProfile} to turn in place.
+ * <p>
+ * Unlike {@link TankDriveTrajectory}, this class is only capable of turning in
+ * place, with no other motions at all. However, it is a lot faster to generate.
+ * Therefore, this class should be used in the place of a
+ * {@link TankDriveTrajectory} whenever possible.
+ * </p>
+ * <p>
+ * This class implements {@link DynamicFollowable}, so it is recommended to use
+ * a {@link DynamicFollower} for it rather than a normal {@link Follower}.
+ * </p>
+ * 
+ * @author Tyler Tian
+ * @since 3.0.0
+ */
+public class SCurveTankDriveRotationProfile
+        extends TankDriveFollowableRotationMotionProfile<SynchronizedDualMotionProfile<SCurveMotionProfile>>
+        implements DynamicFollowable<TankDriveMoment>, Cloneable {
+    
+    /**
+     * Constructs a new object of this type without initializing any values.
+     * <p>
+     * This constructor should only ever be used internally.
+     * </p>
+     */
+    private SCurveTankDriveRotationProfile() {
+    }
+
+    /**
+     * Constructs a new profile with the specifications and angle.
+     * 
+     * @param specs   The robot specifications; the max jerk must be set
+     * @param angle   The angle to rotate for (follows the unit circle)
+     */
+    public SCurveTankDriveRotationProfile(RobotSpecs specs, double angle) {
+        baseWidth = specs.getBaseWidth();
+        profile = new SynchronizedDualMotionProfile<SCurveMotionProfile>(
+                // As there are two wheels turning, each only need to go half the distance
+                // To put it another way, the radius is now half of the base width instead of
+                // the full base width
+                // Negate the final distance for left because it turns in reverse
+                new SCurveMotionProfile(specs, -angle * baseWidth / 2),
+                new SCurveMotionProfile(specs, angle * baseWidth / 2));
+    }
+
+    /**
+     * Constructs a new profile with the specifications, angle and initial facing
+     * direction.
+     * 
+     * @param specs         The robot specifications; the max jerk must be set
+     * @param angle         The angle to rotate for (follows the unit circle)
+     * @param initialFacing The direction the robot is facing at the beginning of
+     *                      the rotation
+     */
+    public SCurveTankDriveRotationProfile(RobotSpecs specs, double angle, double initialFacing) {
+        this(specs, angle);
+        this.initialFacing = initialFacing;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(TankDriveMoment m) {
+        profile.update(m.getTime(), m.getLeftPosition(), m.getLeftVelocity(), m.getLeftAcceleration(),
+                m.getRightPosition(), m.getRightVelocity(), m.getRightAcceleration());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SCurveTankDriveRotationProfile clone() {
+        return copy();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SCurveTankDriveRotationProfile copy() {
+        SCurveTankDriveRotationProfile scdrp = new SCurveTankDriveRotationProfile();
+        scdrp.profile = profile.copy();
+        scdrp.baseWidth = baseWidth;
+        scdrp.initialFacing = initialFacing;
+
+        return scdrp;
+    }
+}
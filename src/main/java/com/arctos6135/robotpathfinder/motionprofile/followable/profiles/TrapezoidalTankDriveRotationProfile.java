@@ -6,7 +6,7 @@ import com.arctos6135.robotpathfinder.core.trajectory.TankDriveTrajectory;
 import com.arctos6135.robotpathfinder.follower.DynamicFollowable;
 import com.arctos6135.robotpathfinder.follower.DynamicFollower;
 import com.arctos6135.robotpathfinder.follower.Follower;
-import com.arctos6135.robotpathfinder.motionprofile.DynamicDualMotionProfile;
+import com.arctos6135.robotpathfinder.motionprofile.SynchronizedDualMotionProfile;
 import com.arctos6135.robotpathfinder.motionprofile.TrapezoidalMotionProfile;
 import com.arctos6135.robotpathfinder.motionprofile.followable.TankDriveFollowableRotationMotionProfile;
 
@@ -27,7 +27,7 @@ import com.arctos6135.robotpathfinder.motionprofile.followable.TankDriveFollowab
  * @since 3.0.0
  */
 public class TrapezoidalTankDriveRotationProfile
-        extends TankDriveFollowableRotationMotionProfile<DynamicDualMotionProfile<TrapezoidalMotionProfile>>
+        extends TankDriveFollowableRotationMotionProfile<SynchronizedDualMotionProfile<TrapezoidalMotionProfile>>
         implements DynamicFollowable<TankDriveMoment>, Cloneable {
     
     /**
@@ -47,7 +47,7 @@ public class TrapezoidalTankDriveRotationProfile
      */
     public TrapezoidalTankDriveRotationProfile(RobotSpecs specs, double angle) {
         baseWidth = specs.getBaseWidth();
-        profile = new DynamicDualMotionProfile<TrapezoidalMotionProfile>(
+        profile = new SynchronizedDualMotionProfile<TrapezoidalMotionProfile>(
                 // As there are two wheels turning, each only need to go half the distance
                 // To put it another way, the radius is now half of the base width instead of
                 // the full base width
@@ -75,8 +75,8 @@ public class TrapezoidalTankDriveRotationProfile
      */
     @Override
     public void update(TankDriveMoment m) {
-        profile.updateLeft(m.getTime(), m.getLeftPosition(), m.getLeftVelocity(), m.getLeftAcceleration());
-        profile.updateRight(m.getTime(), m.getRightPosition(), m.getRightVelocity(), m.getRightAcceleration());
+        profile.update(m.getTime(), m.getLeftPosition(), m.getLeftVelocity(), m.getLeftAcceleration(),
+                m.getRightPosition(), m.getRightVelocity(), m.getRightAcceleration());
     }
 
     /**
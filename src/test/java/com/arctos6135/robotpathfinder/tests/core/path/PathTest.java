@@ -0,0 +1,226 @@
+package com.arctos6135.robotpathfinder.tests.core.path;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.arctos6135.robotpathfinder.core.Waypoint;
+import com.arctos6135.robotpathfinder.core.path.Path;
+import com.arctos6135.robotpathfinder.core.path.PathType;
+import com.arctos6135.robotpathfinder.math.Vec2D;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for the per-waypoint settings of {@link Path}.
+ *
+ * @author Tyler Tian
+ */
+public class PathTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    /**
+     * Computes the signed curvature of a path at a time.
+     */
+    private static double curvatureAt(Path path, double t) {
+        Vec2D d = path.derivAt(t);
+        Vec2D dd = path.secondDerivAt(t);
+        return (d.getX() * dd.getY() - d.getY() * dd.getX()) / Math.pow(d.magnitude(), 3);
+    }
+
+    /**
+     * Asserts that two paths are the same between two times.
+     */
+    private static void assertSamePath(Path expected, Path actual, double start, double end, double tolerance) {
+        for (int i = 0; i <= 50; i++) {
+            double t = start + (end - start) * i / 50;
+            Vec2D e = expected.at(t);
+            Vec2D a = actual.at(t);
+            assertThat(a.getX(), closeTo(e.getX(), tolerance));
+            assertThat(a.getY(), closeTo(e.getY(), tolerance));
+        }
+    }
+
+    /**
+     * Performs testing on per-waypoint alpha.
+     *
+     * This test asserts that giving a waypoint the same alpha as the path does not
+     * change the path, and that the magnitude of the derivative at each waypoint
+     * is the alpha of that waypoint.
+     */
+    @Test
+    public void testPathWaypointAlpha() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double size = helper.getDouble("size", 1, 100);
+        double alpha = size * helper.getDouble("alphaScale", 0.5, 2);
+        double alpha1 = size * helper.getDouble("alpha1Scale", 0.1, 4);
+        Waypoint[] waypoints = new Waypoint[] { new Waypoint(0, 0, Math.PI / 2),
+                new Waypoint(size, size, 0), new Waypoint(size * 2, 0, -Math.PI / 2), };
+
+        for (PathType type : new PathType[] { PathType.CUBIC_HERMITE, PathType.QUINTIC_HERMITE }) {
+            Waypoint[] same = new Waypoint[] { waypoints[0],
+                    new Waypoint(size, size, 0, Double.NaN, alpha, 0, null), waypoints[2], };
+            Path path = new Path(waypoints, alpha, type);
+            Path samePath = new Path(same, alpha, type);
+            assertSamePath(path, samePath, 0, 1, 1e-9 * size);
+
+            Waypoint[] changed = new Waypoint[] { waypoints[0],
+                    new Waypoint(size, size, 0, Double.NaN, alpha1, 0, null), waypoints[2], };
+            Path changedPath = new Path(changed, alpha, type);
+            assertThat(changedPath.derivAt(0).magnitude(), closeTo(alpha, 1e-9 * alpha));
+            assertThat(changedPath.derivAt(0.5).magnitude(), closeTo(alpha1, 1e-9 * alpha1));
+            assertThat(changedPath.derivAt(1).magnitude(), closeTo(alpha, 1e-9 * alpha));
+
+            path.close();
+            samePath.close();
+            changedPath.close();
+        }
+    }
+
+    /**
+     * Performs testing on per-waypoint segment types.
+     *
+     * This test creates a path whose first segment is cubic and whose second
+     * segment is quintic, and asserts that each segment is the same as the
+     * corresponding segment of a path of only that type.
+     */
+    @Test
+    public void testPathSegmentType() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double size = helper.getDouble("size", 1, 100);
+        double alpha = size * helper.getDouble("alphaScale", 0.5, 2);
+        double heading = helper.getDouble("heading", -Math.PI / 4, Math.PI / 4);
+        Waypoint[] waypoints = new Waypoint[] { new Waypoint(0, 0, Math.PI / 2),
+                new Waypoint(size, size, heading), new Waypoint(size * 2, 0, -Math.PI / 2), };
+        Waypoint[] mixed = waypoints.clone();
+        mixed[0] = new Waypoint(0, 0, Math.PI / 2, Double.NaN, Double.NaN, 0, PathType.CUBIC_HERMITE);
+
+        Path cubic = new Path(waypoints, alpha, PathType.CUBIC_HERMITE);
+        Path quintic = new Path(waypoints, alpha, PathType.QUINTIC_HERMITE);
+        Path mixedPath = new Path(mixed, alpha, PathType.QUINTIC_HERMITE);
+
+        assertSamePath(cubic, mixedPath, 0, 0.499, 1e-9 * size);
+        assertSamePath(quintic, mixedPath, 0.5, 1, 1e-9 * size);
+        assertThat(mixedPath.getWaypoints()[0].getSegmentType(), is(PathType.CUBIC_HERMITE));
+        assertThat(mixedPath.getWaypoints()[1].getSegmentType(), is((PathType) null));
+
+        cubic.close();
+        quintic.close();
+        mixedPath.close();
+    }
+
+    /**
+     * Performs testing on per-waypoint curvature.
+     *
+     * This test asserts that a quintic path has the requested curvature at each
+     * waypoint, and that mirroring and retracing the path keep the per-waypoint
+     * settings, with the curvature negated where the turns are reversed.
+     */
+    @Test
+    public void testPathWaypointCurvature() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double size = helper.getDouble("size", 1, 100);
+        double alpha = size * helper.getDouble("alphaScale", 0.5, 2);
+        double k0 = helper.getDouble("k0", -1, 1) / size;
+        double k1 = helper.getDouble("k1", -1, 1) / size;
+        double k2 = helper.getDouble("k2", -1, 1) / size;
+        double alpha1 = alpha * helper.getDouble("alpha1Scale", 0.5, 2);
+        Waypoint[] waypoints = new Waypoint[] {
+                new Waypoint(0, 0, Math.PI / 2, Double.NaN, Double.NaN, k0, null),
+                new Waypoint(size, size, 0, Double.NaN, alpha1, k1, PathType.QUINTIC_HERMITE),
+                new Waypoint(size * 2, 0, -Math.PI / 2, Double.NaN, Double.NaN, k2, null), };
+
+        Path path = new Path(waypoints, alpha, PathType.QUINTIC_HERMITE);
+        double tolerance = 1e-6 / size;
+        assertThat(curvatureAt(path, 0), closeTo(k0, tolerance));
+        assertThat(curvatureAt(path, 0.5), closeTo(k1, tolerance));
+        assertThat(curvatureAt(path, 1), closeTo(k2, tolerance));
+
+        Path mirrored = path.mirrorLeftRight();
+        Waypoint[] mirroredWaypoints = mirrored.getWaypoints();
+        for (int i = 0; i < waypoints.length; i++) {
+            assertThat(mirroredWaypoints[i].getCurvature(), closeTo(-waypoints[i].getCurvature(), 1e-12));
+            assertThat(mirroredWaypoints[i].getAlpha(), is(waypoints[i].getAlpha()));
+            assertThat(mirroredWaypoints[i].getSegmentType(), is(waypoints[i].getSegmentType()));
+        }
+        assertThat(curvatureAt(mirrored, 0.5), closeTo(-k1, tolerance));
+
+        Path retraced = path.retrace();
+        Waypoint[] retracedWaypoints = retraced.getWaypoints();
+        // The retraced path goes through the same points in reverse
+        for (int i = 0; i <= 50; i++) {
+            double t = i / 50.0;
+            Vec2D e = path.at(1 - t);
+            Vec2D a = retraced.at(t);
+            assertThat(a.getX(), closeTo(e.getX(), 1e-9 * size));
+            assertThat(a.getY(), closeTo(e.getY(), 1e-9 * size));
+        }
+        assertThat(retracedWaypoints[1].getAlpha(), is(alpha1));
+        assertThat(retracedWaypoints[0].getSegmentType(), is(PathType.QUINTIC_HERMITE));
+        assertThat(retracedWaypoints[1].getSegmentType(), is((PathType) null));
+
+        path.close();
+        mirrored.close();
+        retraced.close();
+    }
+
+    /**
+     * Performs testing on {@link PathType#QUINTIC_G2} paths.
+     *
+     * This test creates a path through points on a circle, and asserts that the
+     * curvature is continuous where the segments meet and close to that of the
+     * circle everywhere, unlike with {@link PathType#QUINTIC_HERMITE}, where it
+     * drops to zero at the waypoints. It also asserts that a run of G2 segments
+     * keeps the curvature of a quintic hermite segment it meets.
+     */
+    @Test
+    public void testPathQuinticG2() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double radius = helper.getDouble("radius", 1, 100);
+        int count = helper.getInt("count", 3, 8);
+        double step = Math.PI / 4;
+        Waypoint[] waypoints = new Waypoint[count];
+        for (int i = 0; i < count; i++) {
+            double angle = i * step;
+            waypoints[i] = new Waypoint(radius * Math.cos(angle), radius * Math.sin(angle), angle + Math.PI / 2);
+        }
+        // Use the tangent magnitude of a circular arc
+        Path g2 = new Path(waypoints, radius * step, PathType.QUINTIC_G2);
+        Path quintic = new Path(waypoints, radius * step, PathType.QUINTIC_HERMITE);
+
+        for (int i = 0; i <= 20 * (count - 1); i++) {
+            assertThat(curvatureAt(g2, i / (20.0 * (count - 1))), closeTo(1 / radius, 0.1 / radius));
+        }
+        for (int i = 1; i < count - 1; i++) {
+            double t = (double) i / (count - 1);
+            assertThat(curvatureAt(g2, t - 1e-9), closeTo(curvatureAt(g2, t), 1e-5 / radius));
+            assertThat(curvatureAt(quintic, t), closeTo(0, 1e-9 / radius));
+        }
+        assertThat(g2.computeLen(1000) < quintic.computeLen(1000), is(true));
+
+        g2.close();
+        quintic.close();
+
+        // The first segment is quintic hermite with a set curvature at its end
+        double k = helper.getDouble("k", -1, 1) / radius;
+        Waypoint[] mixed = waypoints.clone();
+        mixed[0] = new Waypoint(waypoints[0].getX(), waypoints[0].getY(), waypoints[0].getHeading(), Double.NaN,
+                Double.NaN, 0, PathType.QUINTIC_HERMITE);
+        mixed[1] = new Waypoint(waypoints[1].getX(), waypoints[1].getY(), waypoints[1].getHeading(), Double.NaN,
+                Double.NaN, k, null);
+        Path mixedPath = new Path(mixed, radius * step, PathType.QUINTIC_G2);
+        double t = 1.0 / (count - 1);
+        assertThat(curvatureAt(mixedPath, t - 1e-9), closeTo(k, 1e-5 / radius));
+        assertThat(curvatureAt(mixedPath, t), closeTo(k, 1e-9 / radius));
+        mixedPath.close();
+    }
+}
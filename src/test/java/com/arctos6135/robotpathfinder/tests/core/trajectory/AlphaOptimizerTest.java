@@ -0,0 +1,129 @@
+package com.arctos6135.robotpathfinder.tests.core.trajectory;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.TrajectoryParams;
+import com.arctos6135.robotpathfinder.core.Waypoint;
+import com.arctos6135.robotpathfinder.core.path.PathType;
+import com.arctos6135.robotpathfinder.core.trajectory.AlphaOptimizer;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveTrajectory;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link AlphaOptimizer}.
+ *
+ * @author Tyler Tian
+ */
+public class AlphaOptimizerTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    /**
+     * Performs testing on an {@link AlphaOptimizer}.
+     *
+     * This test optimizes the alpha and headings of a random path with three
+     * waypoints, and asserts that the result is no slower than the original, that
+     * the reported times match trajectories generated from the parameters, and
+     * that only the allowed parameters were changed, within their bounds.
+     */
+    @Test
+    public void testAlphaOptimizer() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = new RobotSpecs(helper.getDouble("maxV", 1, 1000), helper.getDouble("maxA", 1, 1000),
+                helper.getDouble("baseWidth", 0.1, 1));
+        double size = helper.getDouble("size", 1, 100);
+        TrajectoryParams params = new TrajectoryParams();
+        params.waypoints = new Waypoint[] { new Waypoint(0, 0, Math.PI / 2),
+                new Waypoint(helper.getDouble("x", -size, size), size, helper.getDouble("heading", 0, Math.PI)),
+                new Waypoint(0, size * 2, Math.PI / 2), };
+        params.alpha = size * helper.getDouble("alphaScale", 0.5, 2);
+        params.sampleCount = 500;
+        params.pathType = PathType.QUINTIC_HERMITE;
+
+        AlphaOptimizer optimizer = new AlphaOptimizer(specs, params);
+        optimizer.setOptimizeHeadings(true);
+        optimizer.setThreads(2);
+        AlphaOptimizer.Result result = optimizer.optimize(5, 6, helper.getInt("seed", 1000));
+
+        assertThat(result.getEvaluations(), is(1 + 6 + 5 * 6));
+        assertThat(result.getTime(), lessThanOrEqualTo(result.getInitialTime()));
+        assertThat(result.getTimeSaved(), greaterThanOrEqualTo(0.0));
+        assertThat(result.getTimeSaved(), closeTo(result.getInitialTime() - result.getTime(), 1e-9));
+
+        TankDriveTrajectory original = new TankDriveTrajectory(specs, params);
+        assertThat(result.getInitialTime(), closeTo(original.totalTime(), 1e-6 * original.totalTime()));
+        original.close();
+
+        TrajectoryParams best = result.getParams();
+        TankDriveTrajectory optimized = new TankDriveTrajectory(specs, best);
+        assertThat(result.getTime(), closeTo(optimized.totalTime(), 1e-6 * optimized.totalTime()));
+        optimized.close();
+
+        assertThat(best.alpha, closeTo(result.getAlpha(), 0.0));
+        if (best.alpha != params.alpha) {
+            assertThat(best.alpha, greaterThanOrEqualTo(optimizer.getMinAlpha() * (1 - 1e-9)));
+            assertThat(best.alpha, lessThanOrEqualTo(optimizer.getMaxAlpha() * (1 + 1e-9)));
+        }
+        // The ends should be unchanged
+        assertThat(best.waypoints[0].getHeading(), is(params.waypoints[0].getHeading()));
+        assertThat(best.waypoints[2].getHeading(), is(params.waypoints[2].getHeading()));
+        assertThat(Math.abs(MathUtils.angleDiff(params.waypoints[1].getHeading(), best.waypoints[1].getHeading())),
+                lessThanOrEqualTo(optimizer.getMaxHeadingChange() + 1e-9));
+        for (int i = 0; i < 3; i++) {
+            assertThat(best.waypoints[i].getX(), is(params.waypoints[i].getX()));
+            assertThat(best.waypoints[i].getY(), is(params.waypoints[i].getY()));
+        }
+        assertThat(best.sampleCount, is(params.sampleCount));
+    }
+
+    /**
+     * Performs testing on an {@link AlphaOptimizer} that searches the alpha of
+     * each waypoint.
+     *
+     * This test asserts that the result is no slower than the original, that every
+     * waypoint of the result has its own alpha within the bounds, and that the
+     * other settings of the waypoints are kept.
+     */
+    @Test
+    public void testAlphaOptimizerWaypointAlphas() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = new RobotSpecs(helper.getDouble("maxV", 1, 1000), helper.getDouble("maxA", 1, 1000));
+        double size = helper.getDouble("size", 1, 100);
+        TrajectoryParams params = new TrajectoryParams();
+        params.waypoints = new Waypoint[] { new Waypoint(0, 0, Math.PI / 2),
+                new Waypoint(size, size, 0, Double.NaN, Double.NaN, 0, PathType.CUBIC_HERMITE),
+                new Waypoint(size * 2, 0, -Math.PI / 2), };
+        params.alpha = size * helper.getDouble("alphaScale", 0.5, 2);
+        params.sampleCount = 500;
+        params.pathType = PathType.QUINTIC_HERMITE;
+
+        AlphaOptimizer optimizer = new AlphaOptimizer(specs, params);
+        optimizer.setOptimizeWaypointAlphas(true);
+        optimizer.setThreads(2);
+        AlphaOptimizer.Result result = optimizer.optimize(5, 6, helper.getInt("seed", 1000));
+
+        assertThat(result.getEvaluations(), is(1 + 6 + 5 * 6));
+        assertThat(result.getTime(), lessThanOrEqualTo(result.getInitialTime()));
+
+        TrajectoryParams best = result.getParams();
+        for (int i = 0; i < 3; i++) {
+            assertThat(best.waypoints[i].getAlpha(), greaterThanOrEqualTo(optimizer.getMinAlpha() * (1 - 1e-9)));
+            assertThat(best.waypoints[i].getAlpha(), lessThanOrEqualTo(optimizer.getMaxAlpha() * (1 + 1e-9)));
+            assertThat(best.waypoints[i].getHeading(), is(params.waypoints[i].getHeading()));
+            assertThat(best.waypoints[i].getSegmentType(), is(params.waypoints[i].getSegmentType()));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.arctos6135.robotpathfinder.tests.core.trajectory;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.TrajectoryParams;
+import com.arctos6135.robotpathfinder.core.Waypoint;
+import com.arctos6135.robotpathfinder.core.trajectory.AsyncTrajectoryGenerator;
+import com.arctos6135.robotpathfinder.core.trajectory.BasicTrajectory;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveTrajectory;
+import com.arctos6135.robotpathfinder.core.trajectory.TrajectoryGenerationException;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link AsyncTrajectoryGenerator}.
+ *
+ * @author Tyler Tian
+ */
+public class AsyncTrajectoryGeneratorTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    /**
+     * Creates parameters for a trajectory that takes a long time to generate.
+     */
+    private static TrajectoryParams getSlowParams(TestHelper helper) {
+        TrajectoryParams params = TrajectoryTestingUtils.getRandomTrajectoryParams(helper);
+        params.sampleCount = 5000000;
+        return params;
+    }
+
+    /**
+     * Tests that trajectories generated asynchronously are the same as ones
+     * generated normally.
+     */
+    @Test
+    public void testAsyncGenerationMatchesSync() throws InterruptedException, ExecutionException, TimeoutException {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = TrajectoryTestingUtils.getRandomRobotSpecs(helper, true);
+        TrajectoryParams params = TrajectoryTestingUtils.getRandomTrajectoryParams(helper);
+
+        try (AsyncTrajectoryGenerator generator = new AsyncTrajectoryGenerator(2, 4)) {
+            CompletableFuture<BasicTrajectory> basicFuture = generator.generateBasic(specs, params);
+            CompletableFuture<TankDriveTrajectory> tankFuture = generator.generateTankDrive(specs, params);
+
+            BasicTrajectory basic = basicFuture.get(30, TimeUnit.SECONDS);
+            TankDriveTrajectory tank = tankFuture.get(30, TimeUnit.SECONDS);
+            BasicTrajectory expectedBasic = new BasicTrajectory(specs, params);
+            TankDriveTrajectory expectedTank = new TankDriveTrajectory(specs, params);
+
+            assertThat(basic.totalTime(), closeTo(expectedBasic.totalTime(), 1e-9));
+            assertThat(tank.totalTime(), closeTo(expectedTank.totalTime(), 1e-9));
+
+            basic.close();
+            tank.close();
+            expectedBasic.close();
+            expectedTank.close();
+        }
+    }
+
+    /**
+     * Tests that generation errors are passed on through the future.
+     */
+    @Test
+    public void testAsyncGenerationException() throws InterruptedException, TimeoutException {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = TrajectoryTestingUtils.getRandomRobotSpecs(helper, false);
+        TrajectoryParams params = TrajectoryTestingUtils.getRandomTrajectoryParams(helper,
+                TrajectoryTestingUtils.getRandomWaypoints(helper, 3));
+        Waypoint mid = params.waypoints[1];
+        params.waypoints[1] = new Waypoint(mid.getX(), mid.getY(), mid.getHeading(), specs.getMaxVelocity() * 2);
+
+        try (AsyncTrajectoryGenerator generator = new AsyncTrajectoryGenerator()) {
+            generator.generateBasic(specs, params).get(30, TimeUnit.SECONDS);
+            fail("Generation should have failed");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(TrajectoryGenerationException.class));
+        }
+    }
+
+    /**
+     * Tests that a running generation can be cancelled, and that the generation
+     * thread is freed up afterwards.
+     */
+    @Test
+    public void testAsyncGenerationCancel() throws InterruptedException, ExecutionException, TimeoutException {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = TrajectoryTestingUtils.getRandomRobotSpecs(helper, false);
+
+        try (AsyncTrajectoryGenerator generator = new AsyncTrajectoryGenerator(1, 4)) {
+            CompletableFuture<BasicTrajectory> slow = generator.generateBasic(specs, getSlowParams(helper));
+            // Wait for the generation to actually start
+            Thread.sleep(50);
+            assertThat(slow.cancel(true), is(true));
+            assertTrue("The future should be cancelled", slow.isCancelled());
+
+            // The single thread should become free quickly
+            TrajectoryParams params = TrajectoryTestingUtils.getRandomTrajectoryParams(helper);
+            generator.generateBasic(specs, params).get(30, TimeUnit.SECONDS).close();
+        }
+    }
+
+    /**
+     * Tests that queued requests can be cancelled, and that requests are rejected
+     * when the queue is full.
+     */
+    @Test
+    public void testAsyncGenerationQueue() throws InterruptedException {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = TrajectoryTestingUtils.getRandomRobotSpecs(helper, false);
+        TrajectoryParams params = TrajectoryTestingUtils.getRandomTrajectoryParams(helper);
+
+        try (AsyncTrajectoryGenerator generator = new AsyncTrajectoryGenerator(1, 1)) {
+            // The first request goes straight to the thread, the second is queued
+            CompletableFuture<BasicTrajectory> running = generator.generateBasic(specs, getSlowParams(helper));
+            CompletableFuture<BasicTrajectory> queued = generator.generateBasic(specs, params);
+            assertThat(generator.getQueuedCount(), is(1));
+
+            // The queue is full, so this one should be rejected right away
+            CompletableFuture<BasicTrajectory> rejected = generator.generateBasic(specs, params);
+            assertTrue("The future should be done", rejected.isDone());
+            try {
+                rejected.join();
+                fail("The request should have been rejected");
+            } catch (Exception e) {
+                assertThat(e.getCause(), instanceOf(RejectedExecutionException.class));
+            }
+
+            // Cancelling the queued request should remove it from the queue
+            queued.cancel(false);
+            assertThat(generator.getQueuedCount(), is(0));
+
+            running.cancel(false);
+        }
+    }
+}
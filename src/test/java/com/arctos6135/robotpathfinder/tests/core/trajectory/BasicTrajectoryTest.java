@@ -1,6 +1,7 @@
 package com.arctos6135.robotpathfinder.tests.core.trajectory;
 
 import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
@@ -54,6 +55,59 @@ public class BasicTrajectoryTest {
         trajectory.close();
     }
 
+    /**
+     * Performs jerk limit testing on a {@link BasicTrajectory}.
+     * 
+     * This test generates a {@link BasicTrajectory} with a max jerk, and loops
+     * through all its Moments, ensuring that the velocity and acceleration limits
+     * are still respected, and that the acceleration never changes faster than the
+     * max jerk. It also checks that the trajectory still starts and ends at rest,
+     * and that it takes at least as long as the same trajectory with no jerk
+     * limit.
+     */
+    @Test
+    public void testJerkLimitBasic() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = TrajectoryTestingUtils.getRandomRobotSpecs(helper, false);
+        TrajectoryParams params = TrajectoryTestingUtils.getRandomTrajectoryParams(helper);
+        double maxJ = helper.getDouble("maxJ", 1, 100000);
+        RobotSpecs jerkSpecs = new RobotSpecs(specs.getMaxVelocity(), specs.getMaxAcceleration(), Double.NaN, maxJ);
+
+        BasicTrajectory trajectory = new BasicTrajectory(jerkSpecs, params);
+        BasicTrajectory unlimited = new BasicTrajectory(specs, params);
+
+        BasicMoment[] moments = trajectory.getMoments();
+        for (int i = 0; i < moments.length; i++) {
+            BasicMoment m = moments[i];
+            if (MathUtils.floatGt(Math.abs(m.getVelocity()), specs.getMaxVelocity())) {
+                fail("The BasicTrajectory exceeded the velocity limit at time " + m.getTime());
+            }
+            if (MathUtils.floatGt(Math.abs(m.getAcceleration()), specs.getMaxAcceleration())) {
+                fail("The BasicTrajectory exceeded the acceleration limit at time " + m.getTime());
+            }
+            // The acceleration of each moment lasts until the next moment, so the change
+            // happens over half of each of the two steps
+            if (i + 2 < moments.length) {
+                double dt = (moments[i + 2].getTime() - m.getTime()) / 2;
+                double jerk = (moments[i + 1].getAcceleration() - m.getAcceleration()) / dt;
+                if (Math.abs(jerk) > maxJ * (1 + 1e-6)) {
+                    fail("The BasicTrajectory exceeded the jerk limit at time " + m.getTime());
+                }
+            }
+        }
+        assertThat("Starting velocity should be 0", moments[0].getVelocity(),
+                closeTo(0, MathUtils.getFloatCompareThreshold()));
+        assertThat("Ending velocity should be 0", moments[moments.length - 1].getVelocity(),
+                closeTo(0, MathUtils.getFloatCompareThreshold()));
+        if (MathUtils.floatLt(trajectory.totalTime(), unlimited.totalTime())) {
+            fail("The jerk limited BasicTrajectory should not be faster than the unlimited one");
+        }
+
+        trajectory.close();
+        unlimited.close();
+    }
+
     /**
      * Performs tests on the velocity constraints at the beginning and end waypoints
      * of a {@link BasicTrajectory}.
@@ -327,4 +381,123 @@ public class BasicTrajectoryTest {
 
         traj.close();
     }
+
+    /**
+     * Performs tests on {@link BasicTrajectory#get(double)} for very long
+     * trajectories.
+     * 
+     * This test generates a {@link BasicTrajectory} with enough samples for the
+     * native time index to be used, and verifies that getting the trajectory at
+     * the time of a moment returns that moment, and that getting it between two
+     * moments returns a moment between them.
+     */
+    @Test
+    public void testLongBasicTrajectoryGet() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = TrajectoryTestingUtils.getRandomRobotSpecs(helper, false);
+        TrajectoryParams params = TrajectoryTestingUtils.getRandomTrajectoryParams(helper);
+        params.sampleCount = helper.getInt("sampleCount", 20000, 50000);
+        BasicTrajectory trajectory = new BasicTrajectory(specs, params);
+
+        BasicMoment[] moments = trajectory.getMoments();
+        for (int i = 0; i < moments.length - 1; i += 7) {
+            BasicMoment m = trajectory.get(moments[i].getTime());
+            assertThat("Position should be the same as the moment", m.getPosition(),
+                    closeTo(moments[i].getPosition(), MathUtils.getFloatCompareThreshold()));
+            assertThat("Velocity should be the same as the moment", m.getVelocity(),
+                    closeTo(moments[i].getVelocity(), MathUtils.getFloatCompareThreshold()));
+
+            double t = (moments[i].getTime() + moments[i + 1].getTime()) / 2;
+            m = trajectory.get(t);
+            if (MathUtils.floatLt(m.getPosition(), moments[i].getPosition())
+                    || MathUtils.floatGt(m.getPosition(), moments[i + 1].getPosition())) {
+                fail("The position at time " + t + " is not between the two moments around it");
+            }
+        }
+        trajectory.close();
+    }
+
+    /**
+     * Performs testing on the interpolation of the heading of a
+     * {@link BasicTrajectory}.
+     * 
+     * This test generates a {@link BasicTrajectory} whose heading crosses the
+     * &plusmn;&pi; wrap, and asserts that the heading halfway between every two
+     * moments is on the short arc between their headings.
+     */
+    @Test
+    public void testBasicTrajectoryHeadingInterpolation() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        double size = helper.getDouble("size", 1, 1000);
+
+        RobotSpecs robotSpecs = new RobotSpecs(maxV, maxA);
+        TrajectoryParams params = new TrajectoryParams();
+        // Heads left, turning through pi
+        params.waypoints = new Waypoint[] { new Waypoint(0, 0, Math.PI * 5 / 6),
+                new Waypoint(-size * 2, 0, -Math.PI * 5 / 6), };
+        params.alpha = size * 2;
+        params.sampleCount = 100;
+        BasicTrajectory trajectory = new BasicTrajectory(robotSpecs, params);
+
+        BasicMoment[] moments = trajectory.getMoments();
+        for (int i = 0; i < moments.length - 1; i++) {
+            double h0 = moments[i].getHeading();
+            double h1 = moments[i + 1].getHeading();
+            double h = trajectory.get((moments[i].getTime() + moments[i + 1].getTime()) / 2).getHeading();
+            assertThat(Math.abs(MathUtils.angleDiff(h0, h)) + Math.abs(MathUtils.angleDiff(h, h1)),
+                    closeTo(Math.abs(MathUtils.angleDiff(h0, h1)), 1e-9));
+        }
+
+        trajectory.free();
+    }
+
+    /**
+     * Performs tests on compact {@link BasicTrajectory}s.
+     * 
+     * This test generates the same {@link BasicTrajectory} with
+     * {@link TrajectoryParams#compact} set to {@code false} and {@code true}, and
+     * verifies that every moment of the compact trajectory is within the
+     * documented error bound of the full precision one.
+     */
+    @Test
+    public void testCompactBasicTrajectory() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = TrajectoryTestingUtils.getRandomRobotSpecs(helper, false);
+        TrajectoryParams params = TrajectoryTestingUtils.getRandomTrajectoryParams(helper);
+        TrajectoryParams compactParams = params.clone();
+        compactParams.compact = true;
+
+        BasicTrajectory full = new BasicTrajectory(specs, params);
+        BasicTrajectory compact = new BasicTrajectory(specs, compactParams);
+
+        BasicMoment[] fullMoments = full.getMoments();
+        BasicMoment[] compactMoments = compact.getMoments();
+        assertThat("Both trajectories should have the same number of moments", compactMoments.length,
+                is(fullMoments.length));
+        // The relative error bound is 2^-24
+        double bound = Math.scalb(1.0, -24);
+        for (int i = 0; i < fullMoments.length; i++) {
+            BasicMoment m0 = fullMoments[i];
+            BasicMoment m1 = compactMoments[i];
+
+            assertThat("Time should be exactly the same in both trajectories", m1.getTime(),
+                    closeTo(m0.getTime(), 0));
+            assertThat("Position should be within the error bound", m1.getPosition(),
+                    closeTo(m0.getPosition(), Math.abs(m0.getPosition()) * bound));
+            assertThat("Velocity should be within the error bound", m1.getVelocity(),
+                    closeTo(m0.getVelocity(), Math.abs(m0.getVelocity()) * bound));
+            assertThat("Acceleration should be within the error bound", m1.getAcceleration(),
+                    closeTo(m0.getAcceleration(), Math.abs(m0.getAcceleration()) * bound));
+            assertThat("Heading should be within the error bound", m1.getHeading(),
+                    closeTo(m0.getHeading(), Math.abs(m0.getHeading()) * bound));
+        }
+
+        full.close();
+        compact.close();
+    }
 }
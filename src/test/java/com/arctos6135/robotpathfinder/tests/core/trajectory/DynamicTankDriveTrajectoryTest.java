@@ -0,0 +1,187 @@
+package com.arctos6135.robotpathfinder.tests.core.trajectory;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.TrajectoryParams;
+import com.arctos6135.robotpathfinder.core.Waypoint;
+import com.arctos6135.robotpathfinder.core.path.Path;
+import com.arctos6135.robotpathfinder.core.path.PathType;
+import com.arctos6135.robotpathfinder.core.trajectory.AsyncTrajectoryGenerator;
+import com.arctos6135.robotpathfinder.core.trajectory.DynamicTankDriveTrajectory;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveMoment;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveTrajectory;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+import com.arctos6135.robotpathfinder.math.Vec2D;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link DynamicTankDriveTrajectory}.
+ *
+ * @author Tyler Tian
+ */
+public class DynamicTankDriveTrajectoryTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    /**
+     * Creates parameters for an S-shaped path with a random size.
+     */
+    private static TrajectoryParams getParams(TestHelper helper) {
+        double size = helper.getDouble("size", 1, 1000);
+        TrajectoryParams params = new TrajectoryParams();
+        params.waypoints = new Waypoint[] { new Waypoint(0, 0, Math.PI / 2),
+                new Waypoint(size, size * 2, Math.PI / 2), new Waypoint(0, size * 4, Math.PI / 2), };
+        params.alpha = size * 2;
+        params.sampleCount = 1000;
+        params.pathType = PathType.QUINTIC_HERMITE;
+        return params;
+    }
+
+    /**
+     * Tests that a {@link DynamicTankDriveTrajectory} that has not been updated is
+     * the same as the trajectory it was created with.
+     */
+    @Test
+    public void testDynamicTankDriveTrajectoryNoUpdate() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = new RobotSpecs(helper.getDouble("maxV", 1, 1000), helper.getDouble("maxA", 1, 1000),
+                helper.getDouble("baseWidth", 0.1, 1));
+        TrajectoryParams params = getParams(helper);
+
+        try (AsyncTrajectoryGenerator generator = new AsyncTrajectoryGenerator(1, 1)) {
+            TankDriveTrajectory trajectory = new TankDriveTrajectory(specs, params);
+            DynamicTankDriveTrajectory dynamic = new DynamicTankDriveTrajectory(trajectory, generator);
+
+            assertThat(dynamic.totalTime(), closeTo(trajectory.totalTime(), MathUtils.getFloatCompareThreshold()));
+            for (int i = 0; i <= 100; i++) {
+                double t = trajectory.totalTime() * i / 100;
+                TankDriveMoment expected = trajectory.get(t);
+                TankDriveMoment actual = dynamic.get(t);
+                assertThat(actual.getLeftPosition(),
+                        closeTo(expected.getLeftPosition(), MathUtils.getFloatCompareThreshold()));
+                assertThat(actual.getRightPosition(),
+                        closeTo(expected.getRightPosition(), MathUtils.getFloatCompareThreshold()));
+                assertThat(actual.getHeading(), closeTo(expected.getHeading(), MathUtils.getFloatCompareThreshold()));
+            }
+            assertThat(dynamic.getReplanCount(), is(0));
+        }
+    }
+
+    /**
+     * Performs testing on updating a {@link DynamicTankDriveTrajectory}.
+     *
+     * This test updates a {@link DynamicTankDriveTrajectory} halfway through with
+     * the robot behind where it should be, and waits for the new trajectory. It
+     * then asserts that the new trajectory continues from the given state in the
+     * same time and position frame, and that it still ends at the last waypoint.
+     * It also checks that copies are not affected by later updates.
+     */
+    @Test
+    public void testDynamicTankDriveTrajectoryUpdate() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = new RobotSpecs(helper.getDouble("maxV", 1, 1000), helper.getDouble("maxA", 1, 1000),
+                helper.getDouble("baseWidth", 0.1, 1));
+        TrajectoryParams params = getParams(helper);
+
+        try (AsyncTrajectoryGenerator generator = new AsyncTrajectoryGenerator(1, 1)) {
+            DynamicTankDriveTrajectory dynamic = new DynamicTankDriveTrajectory(specs, params, generator);
+            // Wait as long as it takes so the test does not depend on timing
+            dynamic.setTimeBudget(30);
+            double t = dynamic.totalTime() / 2;
+            TankDriveMoment expected = dynamic.get(t);
+            DynamicTankDriveTrajectory copy = dynamic.copy();
+
+            // Pretend the robot is behind
+            TankDriveMoment m = new TankDriveMoment(expected.getLeftPosition() * 0.9,
+                    expected.getRightPosition() * 0.9, expected.getLeftVelocity() * 0.9,
+                    expected.getRightVelocity() * 0.9, 0, 0, expected.getHeading(), t, expected.getInitialFacing());
+            dynamic.update(m);
+            assertThat(dynamic.getReplanCount(), is(1));
+            assertThat(dynamic.getFailedReplanCount(), is(0));
+            assertThat(dynamic.isReplanning(), is(false));
+
+            TankDriveMoment start = dynamic.get(t);
+            double tolerance = 1e-6 * expected.getLeftPosition();
+            assertThat(start.getLeftPosition(), closeTo(m.getLeftPosition(), tolerance));
+            assertThat(start.getRightPosition(), closeTo(m.getRightPosition(), tolerance));
+            assertThat(start.getTime(), closeTo(t, MathUtils.getFloatCompareThreshold()));
+            assertThat(start.getInitialFacing(), closeTo(expected.getInitialFacing(), 1e-9));
+            assertThat(dynamic.totalTime(), greaterThan(t));
+
+            // The new trajectory should still reach the last waypoint
+            Waypoint last = params.waypoints[params.waypoints.length - 1];
+            Waypoint end = dynamic.getPosition(dynamic.totalTime());
+            double size = last.getY();
+            assertThat(end.getX(), closeTo(last.getX(), 1e-3 * size));
+            assertThat(end.getY(), closeTo(last.getY(), 1e-3 * size));
+
+            // The copy should be unaffected
+            assertThat(copy.getReplanCount(), is(0));
+            assertThat(copy.get(t).getLeftPosition(),
+                    closeTo(expected.getLeftPosition(), MathUtils.getFloatCompareThreshold()));
+        }
+    }
+
+    /**
+     * Tests that updating a {@link DynamicTankDriveTrajectory} only changes the
+     * segment the robot is on.
+     *
+     * This test updates a {@link DynamicTankDriveTrajectory} on the first segment
+     * of a path with three segments, and asserts that the segments after it have
+     * the same shape before and after the update.
+     */
+    @Test
+    public void testDynamicTankDriveTrajectoryDownstream() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = new RobotSpecs(helper.getDouble("maxV", 1, 1000), helper.getDouble("maxA", 1, 1000),
+                helper.getDouble("baseWidth", 0.1, 1));
+        double size = helper.getDouble("size", 1, 1000);
+        TrajectoryParams params = new TrajectoryParams();
+        params.waypoints = new Waypoint[] { new Waypoint(0, 0, Math.PI / 2),
+                new Waypoint(size, size * 2, Math.PI / 2), new Waypoint(0, size * 4, Math.PI / 2),
+                new Waypoint(size, size * 6, Math.PI / 2), };
+        params.alpha = size * 2;
+        params.sampleCount = 1000;
+        params.pathType = PathType.QUINTIC_HERMITE;
+
+        try (AsyncTrajectoryGenerator generator = new AsyncTrajectoryGenerator(1, 1)) {
+            DynamicTankDriveTrajectory dynamic = new DynamicTankDriveTrajectory(specs, params, generator);
+            dynamic.setTimeBudget(30);
+            // Stay well inside the first segment
+            double t = dynamic.totalTime() / 12;
+            TankDriveMoment expected = dynamic.get(t);
+            TankDriveMoment m = new TankDriveMoment(expected.getLeftPosition() * 0.9,
+                    expected.getRightPosition() * 0.9, expected.getLeftVelocity() * 0.9,
+                    expected.getRightVelocity() * 0.9, 0, 0, expected.getHeading(), t, expected.getInitialFacing());
+            dynamic.update(m);
+            assertThat(dynamic.getReplanCount(), is(1));
+            assertThat(dynamic.getFailedReplanCount(), is(0));
+
+            Path original = new Path(params.waypoints, params.alpha, params.pathType);
+            Path replanned = dynamic.getCurrentTrajectory().getPath();
+            assertThat(replanned.getWaypoints().length, is(4));
+            // The last two segments take up the last two thirds of both paths
+            for (int i = 0; i <= 100; i++) {
+                double s = 1.0 / 3 + 2.0 / 3 * i / 100;
+                Vec2D before = original.at(s);
+                Vec2D after = replanned.at(s);
+                assertThat(after.getX(), closeTo(before.getX(), 1e-9 * size));
+                assertThat(after.getY(), closeTo(before.getY(), 1e-9 * size));
+            }
+            original.close();
+            replanned.close();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.arctos6135.robotpathfinder.tests.core.trajectory;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.TrajectoryParams;
+import com.arctos6135.robotpathfinder.core.Waypoint;
+import com.arctos6135.robotpathfinder.core.trajectory.BasicMoment;
+import com.arctos6135.robotpathfinder.core.trajectory.BasicTrajectory;
+import com.arctos6135.robotpathfinder.core.trajectory.StreamingBasicTrajectory;
+import com.arctos6135.robotpathfinder.core.trajectory.StreamingTankDriveTrajectory;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveMoment;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveTrajectory;
+import com.arctos6135.robotpathfinder.core.trajectory.TrajectoryGenerationException;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link StreamingBasicTrajectory} and
+ * {@link StreamingTankDriveTrajectory}.
+ *
+ * @author Tyler Tian
+ */
+public class StreamingTrajectoryTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    private static final double TOLERANCE = 1e-6;
+
+    /**
+     * Returns a tolerance relative to the magnitude of the expected value, since
+     * the random trajectories can be very large.
+     */
+    private static double tolerance(double expected) {
+        return TOLERANCE * Math.max(1, Math.abs(expected));
+    }
+
+    /**
+     * Tests that a {@link StreamingBasicTrajectory} generates the same moments as
+     * a {@link BasicTrajectory}.
+     *
+     * This test generates both trajectories with the same parameters, and then
+     * steps through the moments of the {@link BasicTrajectory} in order, checking
+     * that the streaming trajectory returns the same moment for each time.
+     */
+    @Test
+    public void testStreamingBasicTrajectoryMatchesBasicTrajectory() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = TrajectoryTestingUtils.getRandomRobotSpecs(helper, false);
+        TrajectoryParams params = TrajectoryTestingUtils.getRandomTrajectoryParams(helper);
+        BasicTrajectory trajectory = new BasicTrajectory(specs, params);
+        StreamingBasicTrajectory stream = new StreamingBasicTrajectory(specs, params);
+
+        for (BasicMoment expected : trajectory.getMoments()) {
+            BasicMoment m = stream.get(expected.getTime());
+            assertThat(m.getPosition(), closeTo(expected.getPosition(), tolerance(expected.getPosition())));
+            assertThat(m.getVelocity(), closeTo(expected.getVelocity(), tolerance(expected.getVelocity())));
+            assertThat(m.getAcceleration(), closeTo(expected.getAcceleration(), tolerance(expected.getAcceleration())));
+            assertThat(m.getHeading(), closeTo(expected.getHeading(), tolerance(expected.getHeading())));
+        }
+        assertTrue("The stream should be complete after the last moment", stream.isComplete());
+        assertThat(stream.totalTime(), closeTo(trajectory.totalTime(), tolerance(trajectory.totalTime())));
+
+        trajectory.close();
+        stream.close();
+    }
+
+    /**
+     * Tests that a {@link StreamingTankDriveTrajectory} generates the same moments
+     * as a {@link TankDriveTrajectory}.
+     */
+    @Test
+    public void testStreamingTankDriveTrajectoryMatchesTankDriveTrajectory() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = TrajectoryTestingUtils.getRandomRobotSpecs(helper, true);
+        TrajectoryParams params = TrajectoryTestingUtils.getRandomTrajectoryParams(helper);
+        TankDriveTrajectory trajectory = new TankDriveTrajectory(specs, params);
+        StreamingTankDriveTrajectory stream = new StreamingTankDriveTrajectory(specs, params);
+
+        for (TankDriveMoment expected : trajectory.getMoments()) {
+            TankDriveMoment m = stream.get(expected.getTime());
+            assertThat(m.getLeftPosition(), closeTo(expected.getLeftPosition(), tolerance(expected.getLeftPosition())));
+            assertThat(m.getRightPosition(),
+                    closeTo(expected.getRightPosition(), tolerance(expected.getRightPosition())));
+            assertThat(m.getLeftVelocity(), closeTo(expected.getLeftVelocity(), tolerance(expected.getLeftVelocity())));
+            assertThat(m.getRightVelocity(),
+                    closeTo(expected.getRightVelocity(), tolerance(expected.getRightVelocity())));
+            assertThat(m.getHeading(), closeTo(expected.getHeading(), tolerance(expected.getHeading())));
+
+            Waypoint expectedPos = trajectory.getPosition(expected.getTime());
+            Waypoint pos = stream.getPosition(expected.getTime());
+            assertThat(pos.getX(), closeTo(expectedPos.getX(), tolerance(expectedPos.getX())));
+            assertThat(pos.getY(), closeTo(expectedPos.getY(), tolerance(expectedPos.getY())));
+        }
+        assertThat(stream.totalTime(), closeTo(trajectory.totalTime(), tolerance(trajectory.totalTime())));
+
+        trajectory.close();
+        stream.close();
+    }
+
+    /**
+     * Tests that a {@link StreamingBasicTrajectory} only keeps a bounded number of
+     * moments.
+     *
+     * This test generates a long, straight trajectory with a short braking
+     * distance and follows it to the end, making sure the number of buffered
+     * moments stays small the entire time, and that the total time is infinite
+     * until the end is generated.
+     */
+    @Test
+    public void testStreamingTrajectoryBufferBounded() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = new RobotSpecs(1, 10);
+        TrajectoryParams params = new TrajectoryParams();
+        int waypointCount = helper.getInt("waypointCount", 10, 50);
+        params.waypoints = new Waypoint[waypointCount];
+        for (int i = 0; i < waypointCount; i++) {
+            params.waypoints[i] = new Waypoint(i * 20, 0, 0);
+        }
+        params.alpha = 10;
+        params.sampleCount = helper.getInt("sampleCount", 50000, 100000);
+        StreamingBasicTrajectory stream = new StreamingBasicTrajectory(specs, params);
+
+        assertTrue("Total time should be infinite before the end is generated",
+                Double.isInfinite(stream.totalTime()));
+        for (double t = 0; !stream.isComplete(); t += 0.05) {
+            stream.get(t);
+            assertThat(stream.getBufferedCount(), lessThan(params.sampleCount / 10));
+        }
+        assertTrue("Total time should be finite once complete", Double.isFinite(stream.totalTime()));
+
+        stream.close();
+    }
+
+    /**
+     * Tests that generating ahead of time with
+     * {@link StreamingBasicTrajectory#generate(int)} does not change the result.
+     */
+    @Test
+    public void testStreamingTrajectoryGenerateAhead() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = TrajectoryTestingUtils.getRandomRobotSpecs(helper, false);
+        TrajectoryParams params = TrajectoryTestingUtils.getRandomTrajectoryParams(helper);
+        BasicTrajectory trajectory = new BasicTrajectory(specs, params);
+        StreamingBasicTrajectory stream = new StreamingBasicTrajectory(specs, params);
+
+        int generated = stream.generate(params.sampleCount / 2);
+        if (generated < params.sampleCount / 2 && !stream.isComplete()) {
+            fail("Only " + generated + " moments were generated before the end");
+        }
+        for (BasicMoment expected : trajectory.getMoments()) {
+            BasicMoment m = stream.get(expected.getTime());
+            assertThat(m.getPosition(), closeTo(expected.getPosition(), tolerance(expected.getPosition())));
+            assertThat(m.getVelocity(), closeTo(expected.getVelocity(), tolerance(expected.getVelocity())));
+        }
+
+        trajectory.close();
+        stream.close();
+    }
+
+    /**
+     * Tests that a {@link StreamingBasicTrajectory} throws a
+     * {@link TrajectoryGenerationException} when a waypoint velocity constraint
+     * is greater than the max velocity.
+     */
+    @Test(expected = TrajectoryGenerationException.class)
+    public void testStreamingTrajectoryGenerationException() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = TrajectoryTestingUtils.getRandomRobotSpecs(helper, false);
+        TrajectoryParams params = TrajectoryTestingUtils.getRandomTrajectoryParams(helper,
+                TrajectoryTestingUtils.getRandomWaypoints(helper, 3));
+
+        double midVel = helper.getDouble("midVel", specs.getMaxVelocity() * 1.1, specs.getMaxVelocity() * 5);
+        Waypoint mid = params.waypoints[1];
+        params.waypoints[1] = new Waypoint(mid.getX(), mid.getY(), mid.getHeading(), midVel);
+
+        StreamingBasicTrajectory stream = new StreamingBasicTrajectory(specs, params);
+        stream.close();
+    }
+
+    /**
+     * Tests that streaming trajectories reject robot specifications with a jerk
+     * limit, since they cannot take it into account.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testStreamingTrajectoryRejectsJerkLimit() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = TrajectoryTestingUtils.getRandomRobotSpecs(helper, true);
+        specs.setMaxJerk(helper.getDouble("maxJ", 1, 1000));
+        TrajectoryParams params = TrajectoryTestingUtils.getRandomTrajectoryParams(helper,
+                TrajectoryTestingUtils.getRandomWaypoints(helper, 3));
+
+        StreamingTankDriveTrajectory stream = new StreamingTankDriveTrajectory(specs, params);
+        stream.close();
+    }
+}
@@ -317,4 +317,54 @@ public class TankDriveTrajectoryTest {
 
         traj.close();
     }
+
+    /**
+     * Performs tests on compact {@link TankDriveTrajectory}s.
+     * 
+     * This test generates the same {@link TankDriveTrajectory} with
+     * {@link TrajectoryParams#compact} set to {@code false} and {@code true}, and
+     * verifies that every moment of the compact trajectory is within the
+     * documented error bound of the full precision one.
+     */
+    @Test
+    public void testCompactTankDriveTrajectory() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = TrajectoryTestingUtils.getRandomRobotSpecs(helper, true);
+        TrajectoryParams params = TrajectoryTestingUtils.getRandomTrajectoryParams(helper);
+        TrajectoryParams compactParams = params.clone();
+        compactParams.compact = true;
+
+        TankDriveTrajectory full = new TankDriveTrajectory(specs, params);
+        TankDriveTrajectory compact = new TankDriveTrajectory(specs, compactParams);
+
+        TankDriveMoment[] fullMoments = full.getMoments();
+        TankDriveMoment[] compactMoments = compact.getMoments();
+        // The relative error bound is 2^-24
+        double bound = Math.scalb(1.0, -24);
+        for (int i = 0; i < fullMoments.length; i++) {
+            TankDriveMoment m0 = fullMoments[i];
+            TankDriveMoment m1 = compactMoments[i];
+
+            assertThat("Time should be exactly the same in both trajectories", m1.getTime(),
+                    closeTo(m0.getTime(), 0));
+            assertThat("Left position should be within the error bound", m1.getLeftPosition(),
+                    closeTo(m0.getLeftPosition(), Math.abs(m0.getLeftPosition()) * bound));
+            assertThat("Right position should be within the error bound", m1.getRightPosition(),
+                    closeTo(m0.getRightPosition(), Math.abs(m0.getRightPosition()) * bound));
+            assertThat("Left velocity should be within the error bound", m1.getLeftVelocity(),
+                    closeTo(m0.getLeftVelocity(), Math.abs(m0.getLeftVelocity()) * bound));
+            assertThat("Right velocity should be within the error bound", m1.getRightVelocity(),
+                    closeTo(m0.getRightVelocity(), Math.abs(m0.getRightVelocity()) * bound));
+            assertThat("Left acceleration should be within the error bound", m1.getLeftAcceleration(),
+                    closeTo(m0.getLeftAcceleration(), Math.abs(m0.getLeftAcceleration()) * bound));
+            assertThat("Right acceleration should be within the error bound", m1.getRightAcceleration(),
+                    closeTo(m0.getRightAcceleration(), Math.abs(m0.getRightAcceleration()) * bound));
+            assertThat("Heading should be within the error bound", m1.getHeading(),
+                    closeTo(m0.getHeading(), Math.abs(m0.getHeading()) * bound));
+        }
+
+        full.close();
+        compact.close();
+    }
 }
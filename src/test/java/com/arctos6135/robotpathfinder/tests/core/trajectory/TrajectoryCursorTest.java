@@ -0,0 +1,86 @@
+package com.arctos6135.robotpathfinder.tests.core.trajectory;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.junit.Assert.assertThat;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.TrajectoryParams;
+import com.arctos6135.robotpathfinder.core.Waypoint;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveMoment;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveTrajectory;
+import com.arctos6135.robotpathfinder.core.trajectory.TrajectoryCursor;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link TrajectoryCursor}.
+ *
+ * @author Tyler Tian
+ */
+public class TrajectoryCursorTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    private static void assertMatches(TrajectoryCursor<TankDriveMoment> cursor, TankDriveTrajectory trajectory,
+            double t) {
+        cursor.seek(t);
+        TankDriveMoment expected = trajectory.get(t);
+        double f = cursor.getFraction();
+        assertThat(MathUtils.lerp(cursor.getLower().getLeftVelocity(), cursor.getUpper().getLeftVelocity(), f),
+                closeTo(expected.getLeftVelocity(), 1e-9));
+        assertThat(MathUtils.lerp(cursor.getLower().getRightPosition(), cursor.getUpper().getRightPosition(), f),
+                closeTo(expected.getRightPosition(), 1e-9));
+
+        // Positions are linearly interpolated between moments. The path barely
+        // curves between two moments, so they should be off by much less than the
+        // distance between the moments.
+        Waypoint position = trajectory.getPosition(t);
+        Waypoint lower = trajectory.getPosition(cursor.getLower().getTime());
+        Waypoint upper = trajectory.getPosition(cursor.getUpper().getTime());
+        double tolerance = Math.hypot(upper.getX() - lower.getX(), upper.getY() - lower.getY()) / 20 + 1e-9;
+        assertThat(cursor.getX(), closeTo(position.getX(), tolerance));
+        assertThat(cursor.getY(), closeTo(position.getY(), tolerance));
+        double turn = Math.abs(MathUtils.angleDiff(lower.getHeading(), upper.getHeading())) + 1e-9;
+        assertThat(MathUtils.angleDiff(position.getHeading(), cursor.getPathHeading()), closeTo(0, turn));
+    }
+
+    /**
+     * Tests that sampling with a {@link TrajectoryCursor} gives the same results
+     * as sampling the trajectory directly, going forwards and backwards.
+     */
+    @Test
+    public void testTrajectoryCursor() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        RobotSpecs specs = TrajectoryTestingUtils.getRandomRobotSpecs(helper, true);
+        // Use a smooth path, so that it does not loop between two moments
+        double size = helper.getDouble("size", 1, 100);
+        Waypoint[] waypoints = new Waypoint[] { new Waypoint(0, 0, Math.PI / 2),
+                new Waypoint(size, size, helper.getDouble("heading", -Math.PI / 4, Math.PI / 4)),
+                new Waypoint(size * 2, 0, -Math.PI / 2), };
+        TrajectoryParams params = TrajectoryTestingUtils.getRandomTrajectoryParams(helper, waypoints);
+        params.alpha = size * helper.getDouble("alphaScale", 0.5, 2);
+        params.sampleCount = 2000;
+        TankDriveTrajectory trajectory = new TankDriveTrajectory(specs, params);
+        TrajectoryCursor<TankDriveMoment> cursor = new TrajectoryCursor<>(trajectory);
+
+        double total = trajectory.totalTime();
+        double t = 0;
+        while (t < total) {
+            assertMatches(cursor, trajectory, t);
+            t += helper.getDouble("step", 0, total / 50);
+        }
+        assertMatches(cursor, trajectory, total);
+
+        // Going backwards
+        assertMatches(cursor, trajectory, helper.getDouble("backwards", 0, total));
+        assertMatches(cursor, trajectory, 0);
+
+        trajectory.close();
+    }
+}
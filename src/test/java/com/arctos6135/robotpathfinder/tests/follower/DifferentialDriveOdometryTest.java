@@ -0,0 +1,112 @@
+package com.arctos6135.robotpathfinder.tests.follower;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.arctos6135.robotpathfinder.follower.DifferentialDriveOdometry;
+import com.arctos6135.robotpathfinder.follower.simulation.DifferentialDrivePlant;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link DifferentialDriveOdometry}.
+ *
+ * @author Tyler Tian
+ */
+public class DifferentialDriveOdometryTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    /**
+     * Tests that {@link DifferentialDriveOdometry} tracks the pose of a simulated
+     * robot, both with and without a gyro.
+     *
+     * This test drives a simulated robot with random motor outputs, and checks
+     * that the estimated pose matches the simulated one.
+     */
+    @Test
+    public void testDifferentialDriveOdometry() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        DifferentialDrivePlant plant = new DifferentialDrivePlant(5, 10, 0.8);
+        double startX = helper.getDouble("startX", -10, 10);
+        double startY = helper.getDouble("startY", -10, 10);
+        double startHeading = helper.getDouble("startHeading", -Math.PI, Math.PI);
+        plant.reset(startX, startY, startHeading);
+
+        DifferentialDriveOdometry withGyro = new DifferentialDriveOdometry(plant.getLeftEncoder(),
+                plant.getRightEncoder(), plant.getGyro());
+        DifferentialDriveOdometry withoutGyro = new DifferentialDriveOdometry(plant.getLeftEncoder(),
+                plant.getRightEncoder(), 0.8);
+        withGyro.reset(startX, startY, startHeading);
+        withoutGyro.reset(startX, startY, startHeading);
+
+        for (int i = 0; i < 20; i++) {
+            plant.getLeftMotor().set(helper.getDouble("leftOutput" + i, -1, 1));
+            plant.getRightMotor().set(helper.getDouble("rightOutput" + i, -1, 1));
+            for (int j = 0; j < 50; j++) {
+                plant.step(0.01);
+                withGyro.update();
+                withoutGyro.update();
+            }
+        }
+
+        double[] pose = new double[3];
+        for (DifferentialDriveOdometry odometry : new DifferentialDriveOdometry[] { withGyro, withoutGyro }) {
+            odometry.getPose(pose);
+            assertThat(pose[0], closeTo(plant.getX(), 1e-3));
+            assertThat(pose[1], closeTo(plant.getY(), 1e-3));
+            assertThat(MathUtils.angleDiff(pose[2], MathUtils.restrictAngle(plant.getHeading())), closeTo(0, 1e-6));
+        }
+    }
+
+    /**
+     * Tests that the pose read from another thread is always consistent.
+     *
+     * This test updates the odometry of a robot driving in a straight line at 45
+     * degrees, so x and y should always be equal, while reading the pose as fast
+     * as possible from another thread.
+     */
+    @Test
+    public void testDifferentialDriveOdometryConcurrent() throws InterruptedException {
+        double[] distance = new double[1];
+        DifferentialDriveOdometry odometry = new DifferentialDriveOdometry(() -> distance[0], () -> distance[0],
+                () -> Math.PI / 4);
+        odometry.reset(0, 0, Math.PI / 4);
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            double[] pose = new double[3];
+            long reads = 0;
+            while (!done.get() || reads == 0) {
+                odometry.getPose(pose);
+                reads++;
+                if (Math.abs(pose[0] - pose[1]) > 1e-9 * (1 + Math.abs(pose[0]))) {
+                    failure.set("Inconsistent pose: x=" + pose[0] + ", y=" + pose[1]);
+                    return;
+                }
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < 1000000; i++) {
+            distance[0] += 0.001;
+            odometry.update();
+        }
+        done.set(true);
+        reader.join();
+
+        assertTrue(String.valueOf(failure.get()), failure.get() == null);
+        assertThat(odometry.getX(), closeTo(1000 / Math.sqrt(2), 1e-6));
+    }
+}
@@ -90,6 +90,8 @@ public class DynamicFollowerTest {
         double updateDelay = helper.getDouble("updateDelay", 1000);
 
         FakeDynamicFollowable followable = new FakeDynamicFollowable();
+        // Make sure the follower does not finish before the last update
+        followable.time = updateDelay * 10;
 
         FakeTimer timer = new FakeTimer();
         FakeMotor motor = new FakeMotor();
@@ -123,6 +125,126 @@ public class DynamicFollowerTest {
         assertThat("update() should be called again after twice the delay", followable.updateCalled, is(true));
     }
 
+    /**
+     * Performs testing on updates triggered by the error thresholds.
+     * 
+     * This method creates a {@link DynamicTankDriveFollower} with periodic updates
+     * disabled, a position error threshold and a random minimum update delay, and
+     * asserts the following in order:
+     * <ol>
+     * <li>With no error, {@code update()} is not called.</li>
+     * <li>With an error above the threshold, {@code update()} is called, and the
+     * update counters are incremented.</li>
+     * <li>With the error still above the threshold but before the minimum update
+     * delay has elapsed, {@code update()} is not called.</li>
+     * <li>After the minimum update delay has elapsed, {@code update()} is called
+     * again.</li>
+     * <li>With the error below the threshold, {@code update()} is not called.</li>
+     * </ol>
+     */
+    @Test
+    public void testDynamicTankDriveFollowerThresholdUpdate() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double minUpdateDelay = helper.getDouble("minUpdateDelay", 1000);
+        double threshold = helper.getDouble("threshold", MathUtils.getFloatCompareThreshold(), 1000);
+
+        FakeDynamicFollowable followable = new FakeDynamicFollowable();
+        followable.time = minUpdateDelay * 10;
+
+        FakeTimer timer = new FakeTimer();
+        FakeMotor motor = new FakeMotor();
+        FakeEncoder encoder = new FakeEncoder();
+        FakeGyro gyro = new FakeGyro();
+        TankDriveRobot robot = new TankDriveRobot(motor, motor, encoder, encoder, timer, gyro);
+        DynamicTankDriveFollower follower = new DynamicTankDriveFollower(followable, robot, new TankDriveGains(),
+                Double.NaN);
+        follower.setUpdateThresholds(threshold, Double.NaN);
+        follower.setMinUpdateDelay(minUpdateDelay);
+
+        follower.initialize();
+        timer.value = minUpdateDelay * 2;
+        follower.run();
+        assertThat("update() should not be called without any error", followable.updateCalled, is(false));
+
+        encoder.value = threshold * 2;
+        timer.value = minUpdateDelay * 2.5;
+        follower.run();
+        assertThat("update() should be called when the error exceeds the threshold", followable.updateCalled,
+                is(true));
+        assertThat(follower.getUpdateCount(), is(1L));
+        assertThat(follower.getThresholdUpdateCount(), is(1L));
+        followable.updateCalled = false;
+
+        timer.value = minUpdateDelay * 3;
+        follower.run();
+        assertThat("update() should not be called before the minimum update delay", followable.updateCalled,
+                is(false));
+
+        timer.value = minUpdateDelay * 3.6;
+        follower.run();
+        assertThat("update() should be called again after the minimum update delay", followable.updateCalled,
+                is(true));
+        assertThat(follower.getThresholdUpdateCount(), is(2L));
+        followable.updateCalled = false;
+
+        encoder.value = threshold * 0.5;
+        timer.value = minUpdateDelay * 5;
+        follower.run();
+        assertThat("update() should not be called when the error is below the threshold", followable.updateCalled,
+                is(false));
+
+        follower.update();
+        assertThat(follower.getUpdateCount(), is(3L));
+        assertThat(follower.getThresholdUpdateCount(), is(2L));
+        follower.resetUpdateStats();
+        assertThat(follower.getUpdateCount(), is(0L));
+        assertThat(follower.getUpdateNanos(), is(0L));
+    }
+
+    /**
+     * Performs testing on updates after the end of the target.
+     * 
+     * This method creates a {@link DynamicTankDriveFollower} with both periodic
+     * and threshold updates, runs it with an error above the threshold, and
+     * asserts that {@code update()} is not called on the run that reaches the end
+     * of the target, even though both an update is due and the error is still
+     * above the threshold.
+     */
+    @Test
+    public void testDynamicTankDriveFollowerNoUpdateAfterEnd() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double updateDelay = helper.getDouble("updateDelay", 1000);
+        double threshold = helper.getDouble("threshold", MathUtils.getFloatCompareThreshold(), 1000);
+
+        FakeDynamicFollowable followable = new FakeDynamicFollowable();
+        followable.time = updateDelay * 0.5;
+
+        FakeTimer timer = new FakeTimer();
+        FakeMotor motor = new FakeMotor();
+        FakeEncoder encoder = new FakeEncoder();
+        FakeGyro gyro = new FakeGyro();
+        TankDriveRobot robot = new TankDriveRobot(motor, motor, encoder, encoder, timer, gyro);
+        DynamicTankDriveFollower follower = new DynamicTankDriveFollower(followable, robot, new TankDriveGains(),
+                updateDelay);
+        follower.setUpdateThresholds(threshold, Double.NaN);
+        follower.setMinUpdateDelay(0);
+
+        follower.initialize();
+        encoder.value = threshold * 2;
+        follower.run();
+        assertThat(followable.updateCalled, is(true));
+        followable.updateCalled = false;
+
+        timer.value = updateDelay * 2;
+        follower.run();
+        assertThat("The follower should have finished", follower.isFinished(), is(true));
+        assertThat("update() should not be called once the follower has finished", followable.updateCalled,
+                is(false));
+        assertThat(follower.getUpdateCount(), is(1L));
+    }
+
     /**
      * Performs basic tests on the motor outputs of
      * {@link DynamicTankDriveFollower}.
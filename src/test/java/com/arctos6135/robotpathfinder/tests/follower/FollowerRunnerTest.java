@@ -1,17 +1,25 @@
 package com.arctos6135.robotpathfinder.tests.follower;
 
 import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.arctos6135.robotpathfinder.core.trajectory.Moment;
 import com.arctos6135.robotpathfinder.follower.Follower;
 import com.arctos6135.robotpathfinder.follower.FollowerRunner;
+import com.arctos6135.robotpathfinder.follower.PrecisionFollowerRunner;
+import com.arctos6135.robotpathfinder.follower.SharedFollowerRunner;
+import com.arctos6135.robotpathfinder.follower.SharedFollowerScheduler;
 import com.arctos6135.robotpathfinder.follower.SimpleFollowerRunner;
 import com.arctos6135.robotpathfinder.follower.TimedFollowerRunner;
+import com.arctos6135.robotpathfinder.follower.TimingHistogram;
 
 import org.junit.Test;
 
@@ -124,4 +132,122 @@ public class FollowerRunnerTest {
     public void testTimedFollowerRunner() {
         testFollowerRunner(new TimedFollowerRunner());
     }
+
+    /**
+     * Tests {@link PrecisionFollowerRunner}.
+     * 
+     * This tests all the methods of {@link PrecisionFollowerRunner}.
+     */
+    @Test
+    public void testPrecisionFollowerRunner() {
+        testFollowerRunner(new PrecisionFollowerRunner());
+    }
+
+    /**
+     * Tests the timing of {@link PrecisionFollowerRunner} at a high frequency.
+     * 
+     * This runs a follower at 1 kHz for half a second, and makes sure that the
+     * number of runs matches the elapsed time (i.e. the loop does not drift), and
+     * that every run is accounted for in the statistics.
+     */
+    @Test
+    public void testPrecisionFollowerRunnerTiming() throws InterruptedException {
+        Follower<?> f = new Follower<Moment>() {
+
+            @Override
+            protected void _initialize() {
+            }
+
+            @Override
+            protected boolean _run() {
+                return false;
+            }
+
+            @Override
+            protected void _stop() {
+            }
+        };
+
+        PrecisionFollowerRunner runner = new PrecisionFollowerRunner();
+        long start = System.nanoTime();
+        runner.start(f, 1000);
+        Thread.sleep(500);
+        runner.stop();
+        long elapsed = (System.nanoTime() - start) / 1000000;
+
+        TimingHistogram jitter = runner.getJitterHistogram();
+        assertThat("Every run should be recorded", jitter.getTotalCount(), is(runner.getTickCount()));
+        assertThat("Runs and skipped runs should add up to the elapsed time",
+                runner.getTickCount() + runner.getMissedCount(),
+                both(greaterThanOrEqualTo(elapsed - 10)).and(lessThanOrEqualTo(elapsed + 1)));
+        assertThat("Most runs should be within the jitter bound", runner.getTickCount(),
+                greaterThan(runner.getJitterBoundViolationCount() * 2));
+        assertThat("The follower should be stopped", runner.isFinished(), is(true));
+    }
+
+    /**
+     * Tests {@link SharedFollowerRunner}.
+     * 
+     * This tests all the methods of {@link SharedFollowerRunner}.
+     */
+    @Test
+    public void testSharedFollowerRunner() {
+        try (SharedFollowerScheduler scheduler = new SharedFollowerScheduler(1)) {
+            testFollowerRunner(new SharedFollowerRunner(scheduler));
+        }
+    }
+
+    /**
+     * Tests running many followers at different frequencies on a
+     * {@link SharedFollowerScheduler}.
+     * 
+     * This runs 200 followers at either 50 Hz or 100 Hz on 2 threads for half a
+     * second, and makes sure that every follower was run roughly the right number
+     * of times, and that they are all stopped afterwards.
+     */
+    @Test
+    public void testSharedFollowerSchedulerManyFollowers() throws InterruptedException {
+        final int count = 200;
+        AtomicInteger[] runCounts = new AtomicInteger[count];
+        Follower<?>[] followers = new Follower<?>[count];
+        SharedFollowerRunner[] runners = new SharedFollowerRunner[count];
+
+        try (SharedFollowerScheduler scheduler = new SharedFollowerScheduler(2)) {
+            for (int i = 0; i < count; i++) {
+                AtomicInteger runCount = runCounts[i] = new AtomicInteger();
+                followers[i] = new Follower<Moment>() {
+
+                    @Override
+                    protected void _initialize() {
+                    }
+
+                    @Override
+                    protected boolean _run() {
+                        runCount.incrementAndGet();
+                        return false;
+                    }
+
+                    @Override
+                    protected void _stop() {
+                    }
+                };
+                runners[i] = new SharedFollowerRunner(scheduler);
+                runners[i].start(followers[i], i % 2 == 0 ? 50 : 100);
+            }
+            assertThat(scheduler.getFollowerCount(), is(count));
+
+            Thread.sleep(500);
+            for (SharedFollowerRunner runner : runners) {
+                runner.stop();
+            }
+            assertThat(scheduler.getFollowerCount(), is(0));
+        }
+
+        for (int i = 0; i < count; i++) {
+            int expected = i % 2 == 0 ? 25 : 50;
+            assertThat("Follower " + i + " should be run at the right frequency", runCounts[i].get(),
+                    both(greaterThanOrEqualTo(expected * 3 / 4)).and(lessThanOrEqualTo(expected + 2)));
+            assertTrue("Follower " + i + " should be stopped", followers[i].isFinished());
+        }
+    }
 }
@@ -246,4 +246,98 @@ public class FollowerTest {
         assertThat("The follower's motor output should be as expected", motor.value,
                 closeTo(profile.get(checkTime).getLeftAcceleration(), MathUtils.getFloatCompareThreshold()));
     }
+
+    /**
+     * Performs testing on the derivative term of {@link TankDriveFollower} when no
+     * time has passed.
+     * 
+     * This test runs a {@link TankDriveFollower} at the same timestamp it was
+     * initialized at, with a nonzero error, and asserts that the derivative is 0
+     * and the motor outputs are not {@code NaN}.
+     */
+    @Test
+    public void testTankDriveFollowerZeroTimeStep() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double distance = helper.getDouble("distance", 1, 1000);
+        double error = helper.getDouble("error", 1, 1000);
+        double kD = helper.getDouble("kD", MathUtils.getFloatCompareThreshold(), 1000);
+
+        RobotSpecs robotSpecs = new RobotSpecs(1, 1);
+        TrapezoidalTankDriveProfile profile = new TrapezoidalTankDriveProfile(robotSpecs, distance);
+
+        FakeTimer timer = new FakeTimer();
+        timer.value = helper.getDouble("startTime", 1000);
+        FakeMotor lMotor = new FakeMotor();
+        FakeMotor rMotor = new FakeMotor();
+        FakeEncoder lEncoder = new FakeEncoder();
+        FakeEncoder rEncoder = new FakeEncoder();
+        TankDriveGains gains = new TankDriveGains(0, 0, 1, 0, kD, 0);
+        TankDriveRobot robot = new TankDriveRobot(lMotor, rMotor, lEncoder, rEncoder, timer, null);
+        TankDriveFollower follower = new TankDriveFollower(profile, robot, gains);
+
+        follower.initialize();
+        lEncoder.value = -error;
+        rEncoder.value = error;
+        follower.run();
+        assertThat(follower.lastLeftDerivative(), is(0.0));
+        assertThat(follower.lastRightDerivative(), is(0.0));
+        assertThat("The motor output should not be NaN", Double.isNaN(lMotor.value), is(false));
+        assertThat("The motor output should not be NaN", Double.isNaN(rMotor.value), is(false));
+    }
+
+    /**
+     * Performs testing on the integral term of {@link TankDriveFollower}.
+     * 
+     * This test initializes a {@link TankDriveFollower} at a nonzero timestamp,
+     * runs it twice with opposite errors on each side, and asserts the following:
+     * <ul>
+     * <li>The integral of each side is the sum of each error times the time since
+     * the last run, i.e. the time of the last run is kept track of correctly.</li>
+     * <li>Each side's output uses the integral of that side.</li>
+     * </ul>
+     */
+    @Test
+    public void testTankDriveFollowerIntegral() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double distance = helper.getDouble("distance", 1, 1000);
+        double startTime = helper.getDouble("startTime", 1, 1000);
+        double kI = helper.getDouble("kI", MathUtils.getFloatCompareThreshold(), 1000);
+
+        RobotSpecs robotSpecs = new RobotSpecs(1, 1);
+        TrapezoidalTankDriveProfile profile = new TrapezoidalTankDriveProfile(robotSpecs, distance);
+        double t1 = helper.getDouble("t1", profile.totalTime() / 2);
+        double t2 = helper.getDouble("t2", t1, profile.totalTime());
+
+        FakeTimer timer = new FakeTimer();
+        FakeMotor lMotor = new FakeMotor();
+        FakeMotor rMotor = new FakeMotor();
+        FakeEncoder lEncoder = new FakeEncoder();
+        FakeEncoder rEncoder = new FakeEncoder();
+        TankDriveGains gains = new TankDriveGains(0, 0, 0, kI, 0, 0);
+        TankDriveRobot robot = new TankDriveRobot(lMotor, rMotor, lEncoder, rEncoder, timer, null);
+        TankDriveFollower follower = new TankDriveFollower(profile, robot, gains);
+
+        timer.value = startTime;
+        follower.initialize();
+        // The left side is behind and the right side is ahead, so the errors have
+        // opposite signs
+        lEncoder.value = -1;
+        rEncoder.value = distance * 2 + 1;
+        timer.value = startTime + t1;
+        follower.run();
+        timer.value = startTime + t2;
+        follower.run();
+
+        double leftIntegral = (profile.get(t1).getLeftPosition() + 1) * t1
+                + (profile.get(t2).getLeftPosition() + 1) * (t2 - t1);
+        double rightIntegral = (profile.get(t1).getRightPosition() - rEncoder.value) * t1
+                + (profile.get(t2).getRightPosition() - rEncoder.value) * (t2 - t1);
+        double threshold = MathUtils.getFloatCompareThreshold() * distance * profile.totalTime();
+        assertThat(follower.lastLeftIntegral(), closeTo(leftIntegral, threshold));
+        assertThat(follower.lastRightIntegral(), closeTo(rightIntegral, threshold));
+        assertThat(lMotor.value, closeTo(Math.min(1, kI * leftIntegral), MathUtils.getFloatCompareThreshold()));
+        assertThat(rMotor.value, closeTo(Math.max(-1, kI * rightIntegral), MathUtils.getFloatCompareThreshold()));
+    }
 }
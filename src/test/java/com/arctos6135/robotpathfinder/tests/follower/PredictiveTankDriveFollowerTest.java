@@ -0,0 +1,206 @@
+package com.arctos6135.robotpathfinder.tests.follower;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayDeque;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveMoment;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveTrajectory;
+import com.arctos6135.robotpathfinder.follower.Follower.Motor;
+import com.arctos6135.robotpathfinder.follower.PredictiveTankDriveFollower;
+import com.arctos6135.robotpathfinder.follower.TankDriveFollower;
+import com.arctos6135.robotpathfinder.follower.TankDriveFollower.TankDriveGains;
+import com.arctos6135.robotpathfinder.follower.TankDriveFollower.TankDriveRobot;
+import com.arctos6135.robotpathfinder.follower.simulation.DifferentialDrivePlant;
+import com.arctos6135.robotpathfinder.follower.simulation.Plant;
+import com.arctos6135.robotpathfinder.follower.simulation.SimulationRunner;
+import com.arctos6135.robotpathfinder.follower.simulation.VirtualClock;
+import com.arctos6135.robotpathfinder.follower.telemetry.TelemetryBuffer;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+import com.arctos6135.robotpathfinder.tests.follower.simulation.SimulationTestingUtils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link PredictiveTankDriveFollower}.
+ *
+ * @author Tyler Tian
+ */
+public class PredictiveTankDriveFollowerTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    private static final double TIME_STEP = SimulationTestingUtils.TIME_STEP;
+
+    private static TankDriveGains getGains(RobotSpecs plantSpecs) {
+        return SimulationTestingUtils.getFeedforwardGains(plantSpecs, 0.5, 0.5);
+    }
+
+    /**
+     * A simulated robot whose motor outputs and sensor readings are delayed by a
+     * number of steps.
+     */
+    private static class DelayedPlant implements Plant {
+
+        final DifferentialDrivePlant plant;
+        final int actuationSteps;
+        final int sensingSteps;
+
+        final ArrayDeque<double[]> outputs = new ArrayDeque<>();
+        final ArrayDeque<double[]> readings = new ArrayDeque<>();
+        double leftOutput, rightOutput;
+
+        DelayedPlant(RobotSpecs plantSpecs, int actuationSteps, int sensingSteps) {
+            this.plant = SimulationTestingUtils.createPlant(plantSpecs);
+            this.actuationSteps = actuationSteps;
+            this.sensingSteps = sensingSteps;
+            readings.add(new double[] { 0, 0, Math.PI / 2 });
+        }
+
+        @Override
+        public void step(double dt) {
+            outputs.add(new double[] { leftOutput, rightOutput });
+            if (outputs.size() > actuationSteps) {
+                double[] output = outputs.poll();
+                plant.getLeftMotor().set(output[0]);
+                plant.getRightMotor().set(output[1]);
+            }
+            plant.step(dt);
+            readings.add(new double[] { plant.getLeftPosition(), plant.getRightPosition(), plant.getHeading() });
+            while (readings.size() > sensingSteps + 1) {
+                readings.poll();
+            }
+        }
+
+        TankDriveRobot createRobot(VirtualClock clock) {
+            Motor left = output -> leftOutput = output;
+            Motor right = output -> rightOutput = output;
+            return new TankDriveRobot(left, right, () -> readings.peek()[0], () -> readings.peek()[1], clock,
+                    () -> readings.peek()[2]);
+        }
+    }
+
+    /**
+     * Follows a trajectory and returns the root mean square difference between
+     * the wheel positions and where they should be.
+     */
+    private static double trackingError(RobotSpecs plantSpecs, TankDriveTrajectory trajectory, boolean predictive) {
+        final int actuationSteps = 12, sensingSteps = 8;
+        DelayedPlant plant = new DelayedPlant(plantSpecs, actuationSteps, sensingSteps);
+        VirtualClock clock = new VirtualClock();
+        SimulationRunner runner = new SimulationRunner(clock, TIME_STEP, plant);
+        TankDriveFollower follower = predictive
+                ? new PredictiveTankDriveFollower(trajectory, plant.createRobot(clock), getGains(plantSpecs),
+                        actuationSteps * TIME_STEP, sensingSteps * TIME_STEP)
+                : new TankDriveFollower(trajectory, plant.createRobot(clock), getGains(plantSpecs));
+
+        double sqErrorSum = 0;
+        int count = 0;
+        follower.initialize();
+        while (!follower.isFinished() && clock.getTimestamp() <= trajectory.totalTime()) {
+            runner.step(follower);
+            TankDriveMoment expected = trajectory.get(clock.getTimestamp());
+            double dl = plant.plant.getLeftPosition() - expected.getLeftPosition();
+            double dr = plant.plant.getRightPosition() - expected.getRightPosition();
+            sqErrorSum += (dl * dl + dr * dr) / 2;
+            count++;
+        }
+        follower.stop();
+        return Math.sqrt(sqErrorSum / count);
+    }
+
+    /**
+     * Tests that {@link PredictiveTankDriveFollower} tracks a trajectory more
+     * closely than {@link TankDriveFollower} when the robot has latency.
+     */
+    @Test
+    public void testPredictiveTankDriveFollowerLatency() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+        RobotSpecs plantSpecs = SimulationTestingUtils.getRandomPlantSpecs(helper);
+        TankDriveTrajectory trajectory = SimulationTestingUtils.getRandomTrajectory(helper, plantSpecs);
+
+        double plain = trackingError(plantSpecs, trajectory, false);
+        double predictive = trackingError(plantSpecs, trajectory, true);
+        assertThat("Compensating for latency should reduce the tracking error", predictive, lessThan(plain * 0.75));
+
+        trajectory.close();
+    }
+
+    /**
+     * Tests that {@link PredictiveTankDriveFollower} gives the same outputs as
+     * {@link TankDriveFollower} when there is no latency.
+     */
+    @Test
+    public void testPredictiveTankDriveFollowerNoDelay() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+        RobotSpecs plantSpecs = SimulationTestingUtils.getRandomPlantSpecs(helper);
+        TankDriveTrajectory trajectory = SimulationTestingUtils.getRandomTrajectory(helper, plantSpecs);
+
+        DifferentialDrivePlant plant = SimulationTestingUtils.createPlant(plantSpecs);
+        VirtualClock clock = new VirtualClock();
+        SimulationRunner runner = new SimulationRunner(clock, TIME_STEP, plant);
+        TankDriveRobot robot = plant.createRobot(clock);
+        TankDriveGains gains = getGains(plantSpecs);
+        TankDriveFollower reference = new TankDriveFollower(trajectory, robot, gains);
+        PredictiveTankDriveFollower follower = new PredictiveTankDriveFollower(trajectory, robot, gains, 0, 0);
+
+        reference.initialize();
+        follower.initialize();
+        while (!follower.isFinished()) {
+            // Run the reference first; the follower then overwrites the outputs with the
+            // same values
+            reference.run();
+            runner.step(follower);
+            assertThat(follower.lastLeftOutput(), is(reference.lastLeftOutput()));
+            assertThat(follower.lastRightOutput(), is(reference.lastRightOutput()));
+            assertThat(follower.lastDirectionalError(), is(reference.lastDirectionalError()));
+        }
+
+        trajectory.close();
+    }
+
+    /**
+     * Tests that the telemetry of {@link PredictiveTankDriveFollower} records the
+     * delayed setpoints its errors are calculated against.
+     *
+     * This test follows a trajectory with a robot that never moves, so every
+     * recorded error should be the same as the setpoint recorded with it.
+     */
+    @Test
+    public void testPredictiveTankDriveFollowerTelemetry() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+        RobotSpecs plantSpecs = SimulationTestingUtils.getRandomPlantSpecs(helper);
+        TankDriveTrajectory trajectory = SimulationTestingUtils.getRandomTrajectory(helper, plantSpecs);
+
+        VirtualClock clock = new VirtualClock();
+        Motor motor = output -> {
+        };
+        TankDriveRobot robot = new TankDriveRobot(motor, motor, () -> 0, () -> 0, clock, () -> 0);
+        PredictiveTankDriveFollower follower = new PredictiveTankDriveFollower(trajectory, robot, getGains(plantSpecs),
+                12 * TIME_STEP, 8 * TIME_STEP);
+        TelemetryBuffer telemetry = new TelemetryBuffer((int) (trajectory.totalTime() / TIME_STEP) + 16);
+        follower.setTelemetryBuffer(telemetry);
+        new SimulationRunner(clock, TIME_STEP).run(follower, trajectory.totalTime() + 1);
+
+        int count = telemetry.drain((data, offset) -> {
+            assertThat(data[offset + TelemetryBuffer.LEFT_ERROR],
+                    is(data[offset + TelemetryBuffer.LEFT_POSITION_SETPOINT]));
+            assertThat(data[offset + TelemetryBuffer.RIGHT_ERROR],
+                    is(data[offset + TelemetryBuffer.RIGHT_POSITION_SETPOINT]));
+            assertThat(data[offset + TelemetryBuffer.DIRECTIONAL_ERROR],
+                    closeTo(data[offset + TelemetryBuffer.HEADING_SETPOINT], 1e-12));
+        });
+        assertThat(count, greaterThan(0));
+        assertThat(telemetry.getDroppedCount(), is(0L));
+
+        trajectory.close();
+    }
+}
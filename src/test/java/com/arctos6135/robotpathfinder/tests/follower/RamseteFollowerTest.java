@@ -0,0 +1,88 @@
+package com.arctos6135.robotpathfinder.tests.follower;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.Waypoint;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveTrajectory;
+import com.arctos6135.robotpathfinder.follower.Follower;
+import com.arctos6135.robotpathfinder.follower.RamseteFollower;
+import com.arctos6135.robotpathfinder.follower.RamseteFollower.RamseteGains;
+import com.arctos6135.robotpathfinder.follower.TankDriveFollower;
+import com.arctos6135.robotpathfinder.follower.TankDriveFollower.TankDriveGains;
+import com.arctos6135.robotpathfinder.follower.simulation.DifferentialDrivePlant;
+import com.arctos6135.robotpathfinder.follower.simulation.SimulationRunner;
+import com.arctos6135.robotpathfinder.follower.simulation.VirtualClock;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+import com.arctos6135.robotpathfinder.tests.follower.simulation.SimulationTestingUtils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link RamseteFollower}.
+ *
+ * @author Tyler Tian
+ */
+public class RamseteFollowerTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    /**
+     * Follows a trajectory in simulation from a starting pose, and returns the
+     * distance between where the robot ends up and where the trajectory ends.
+     */
+    private static double finalError(RobotSpecs plantSpecs, TankDriveTrajectory trajectory, boolean ramsete,
+            double x, double y, double heading) {
+        DifferentialDrivePlant plant = new DifferentialDrivePlant(plantSpecs);
+        plant.reset(x, y, heading);
+        VirtualClock clock = new VirtualClock();
+        SimulationRunner runner = new SimulationRunner(clock, SimulationTestingUtils.TIME_STEP, plant);
+
+        TankDriveGains gains = SimulationTestingUtils.getFeedforwardGains(plantSpecs, 0.5, 0.5);
+        Follower<?> follower = ramsete
+                ? new RamseteFollower(trajectory, plant.createRobot(clock), plant.getPoseSource(),
+                        new RamseteGains(gains.kV, gains.kA, gains.kP, 2, 0.7))
+                : new TankDriveFollower(trajectory, plant.createRobot(clock), gains);
+        runner.run(follower, trajectory.totalTime() * 2);
+
+        Waypoint end = trajectory.getPosition(trajectory.totalTime());
+        return Math.hypot(plant.getX() - end.getX(), plant.getY() - end.getY());
+    }
+
+    /**
+     * Tests that {@link RamseteFollower} follows a trajectory accurately when the
+     * robot starts in the right place.
+     */
+    @Test
+    public void testRamseteFollower() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+        RobotSpecs plantSpecs = SimulationTestingUtils.getRandomPlantSpecs(helper);
+        TankDriveTrajectory trajectory = SimulationTestingUtils.getRandomTrajectory(helper, plantSpecs);
+
+        assertThat(finalError(plantSpecs, trajectory, true, 0, 0, Math.PI / 2), lessThan(0.1));
+
+        trajectory.close();
+    }
+
+    /**
+     * Tests that {@link RamseteFollower} corrects a robot that starts to the side
+     * of the trajectory, which {@link TankDriveFollower} cannot do.
+     */
+    @Test
+    public void testRamseteFollowerCorrection() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+        RobotSpecs plantSpecs = SimulationTestingUtils.getRandomPlantSpecs(helper);
+        TankDriveTrajectory trajectory = SimulationTestingUtils.getRandomTrajectory(helper, plantSpecs);
+
+        double ramsete = finalError(plantSpecs, trajectory, true, 0.5, -0.3, Math.PI / 2 + 0.2);
+        double tank = finalError(plantSpecs, trajectory, false, 0.5, -0.3, Math.PI / 2 + 0.2);
+        assertThat(ramsete, lessThan(0.1));
+        assertThat(ramsete, lessThan(tank / 4));
+
+        trajectory.close();
+    }
+}
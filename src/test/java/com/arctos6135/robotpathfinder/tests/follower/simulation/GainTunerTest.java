@@ -0,0 +1,134 @@
+package com.arctos6135.robotpathfinder.tests.follower.simulation;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveTrajectory;
+import com.arctos6135.robotpathfinder.follower.TankDriveFollower.TankDriveGains;
+import com.arctos6135.robotpathfinder.follower.simulation.GainTuner;
+import com.arctos6135.robotpathfinder.follower.simulation.GainTuner.Result;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link GainTuner}.
+ *
+ * @author Tyler Tian
+ */
+public class GainTunerTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    /**
+     * Asserts that no result in a Pareto front dominates another, and that the
+     * front is sorted by tracking error.
+     */
+    private static void assertParetoFront(List<Result> front) {
+        assertFalse("The Pareto front should not be empty", front.isEmpty());
+        for (int i = 0; i < front.size(); i++) {
+            for (int j = 0; j < front.size(); j++) {
+                assertFalse("No result in the Pareto front should dominate another",
+                        front.get(i).dominates(front.get(j)));
+            }
+            if (i > 0) {
+                assertThat(front.get(i - 1).getTrackingError(),
+                        lessThanOrEqualTo(front.get(i).getTrackingError()));
+            }
+        }
+    }
+
+    /**
+     * Tests {@link GainTuner#gridSearch(TankDriveGains, TankDriveGains, int)}.
+     *
+     * This test searches a grid that contains the feedforward gains that exactly
+     * match the simulated robot, and checks that the best result is at least as
+     * good as those gains.
+     */
+    @Test
+    public void testGridSearch() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+        RobotSpecs plantSpecs = SimulationTestingUtils.getRandomPlantSpecs(helper);
+        TankDriveTrajectory trajectory = SimulationTestingUtils.getRandomTrajectory(helper, plantSpecs);
+        GainTuner tuner = new GainTuner(plantSpecs, trajectory);
+
+        TankDriveGains exact = SimulationTestingUtils.getFeedforwardGains(plantSpecs, 0.5, 0);
+        Result expected = tuner.evaluate(exact);
+
+        TankDriveGains min = new TankDriveGains(0, exact.kA, 0, 0, 0, 0);
+        TankDriveGains max = new TankDriveGains(2 * exact.kV, exact.kA, 1, 0, 0, 0);
+        List<Result> front = tuner.gridSearch(min, max, 3);
+
+        assertParetoFront(front);
+        assertThat(front.get(0).getTrackingError(), lessThanOrEqualTo(expected.getTrackingError()));
+        assertThat("Good feedforward gains should track closely", expected.getTrackingError(), lessThan(0.1));
+
+        trajectory.close();
+    }
+
+    /**
+     * Tests that
+     * {@link GainTuner#randomSearch(TankDriveGains, TankDriveGains, int, long)}
+     * gives the same results for the same seed, even with multiple threads.
+     */
+    @Test
+    public void testRandomSearchDeterministic() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+        RobotSpecs plantSpecs = SimulationTestingUtils.getRandomPlantSpecs(helper);
+        TankDriveTrajectory trajectory = SimulationTestingUtils.getRandomTrajectory(helper, plantSpecs);
+        GainTuner tuner = new GainTuner(plantSpecs, trajectory);
+        tuner.setThreads(4);
+
+        TankDriveGains min = new TankDriveGains(0, 0, 0, 0, 0, 0);
+        TankDriveGains max = new TankDriveGains(0.2, 0.1, 1, 0.1, 0.1, 1);
+        List<Result> first = tuner.randomSearch(min, max, 16, 1234);
+        List<Result> second = tuner.randomSearch(min, max, 16, 1234);
+
+        assertParetoFront(first);
+        assertThat(second.size(), is(first.size()));
+        for (int i = 0; i < first.size(); i++) {
+            assertThat(second.get(i).getTrackingError(), is(first.get(i).getTrackingError()));
+            assertThat(second.get(i).getSaturation(), is(first.get(i).getSaturation()));
+            assertThat(second.get(i).getGains().kP, closeTo(first.get(i).getGains().kP, 0));
+        }
+
+        trajectory.close();
+    }
+
+    /**
+     * Tests
+     * {@link GainTuner#evolutionSearch(TankDriveGains, TankDriveGains, int, int, long)}.
+     *
+     * This test checks that the search finds gains that are much better than not
+     * driving at all.
+     */
+    @Test
+    public void testEvolutionSearch() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+        RobotSpecs plantSpecs = SimulationTestingUtils.getRandomPlantSpecs(helper);
+        TankDriveTrajectory trajectory = SimulationTestingUtils.getRandomTrajectory(helper, plantSpecs);
+        GainTuner tuner = new GainTuner(plantSpecs, trajectory);
+
+        Result idle = tuner.evaluate(new TankDriveGains());
+        TankDriveGains min = new TankDriveGains(0, 0, 0, 0, 0, 0);
+        TankDriveGains max = new TankDriveGains(0.3, 0.1, 2, 0, 0.1, 1);
+        List<Result> front = tuner.evolutionSearch(min, max, 5, 8, 42);
+
+        assertParetoFront(front);
+        assertTrue("The search should find gains better than not driving",
+                front.get(0).getTrackingError() < idle.getTrackingError() / 4);
+
+        trajectory.close();
+    }
+}
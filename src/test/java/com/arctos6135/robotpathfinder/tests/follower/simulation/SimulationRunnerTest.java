@@ -0,0 +1,119 @@
+package com.arctos6135.robotpathfinder.tests.follower.simulation;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.TrajectoryParams;
+import com.arctos6135.robotpathfinder.core.Waypoint;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveTrajectory;
+import com.arctos6135.robotpathfinder.follower.TankDriveFollower;
+import com.arctos6135.robotpathfinder.follower.TankDriveFollower.TankDriveGains;
+import com.arctos6135.robotpathfinder.follower.simulation.DifferentialDrivePlant;
+import com.arctos6135.robotpathfinder.follower.simulation.SimulationRunner;
+import com.arctos6135.robotpathfinder.follower.simulation.VirtualClock;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link SimulationRunner} and
+ * {@link DifferentialDrivePlant}.
+ *
+ * @author Tyler Tian
+ */
+public class SimulationRunnerTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    /**
+     * Tests that {@link DifferentialDrivePlant} reaches the right velocity, and
+     * that the result does not depend on the step size.
+     */
+    @Test
+    public void testDifferentialDrivePlantStepSize() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 10);
+        double maxA = helper.getDouble("maxA", 1, 10);
+        double leftOutput = helper.getDouble("leftOutput", -1, 1);
+        double rightOutput = helper.getDouble("rightOutput", -1, 1);
+
+        DifferentialDrivePlant coarse = new DifferentialDrivePlant(maxV, maxA, 1);
+        DifferentialDrivePlant fine = new DifferentialDrivePlant(maxV, maxA, 1);
+        coarse.getLeftMotor().set(leftOutput);
+        coarse.getRightMotor().set(rightOutput);
+        fine.getLeftMotor().set(leftOutput);
+        fine.getRightMotor().set(rightOutput);
+
+        coarse.step(100);
+        for (int i = 0; i < 10000; i++) {
+            fine.step(0.01);
+        }
+
+        assertThat(fine.getLeftPosition(),
+                closeTo(coarse.getLeftPosition(), 1e-6 * Math.abs(coarse.getLeftPosition()) + 1e-9));
+        assertThat(fine.getRightPosition(),
+                closeTo(coarse.getRightPosition(), 1e-6 * Math.abs(coarse.getRightPosition()) + 1e-9));
+        assertThat(fine.getHeading(), closeTo(coarse.getHeading(), 1e-6));
+        // 100 seconds is many time constants, so the velocity should have settled
+        assertThat(coarse.getLeftVelocity(), closeTo(leftOutput * maxV, 1e-3));
+        assertThat(coarse.getRightVelocity(), closeTo(rightOutput * maxV, 1e-3));
+    }
+
+    /**
+     * Tests following a {@link TankDriveTrajectory} in simulation.
+     *
+     * This test follows a trajectory with a {@link TankDriveFollower} using
+     * feedforward gains that exactly match the simulated robot, and checks that
+     * the robot ends up where the trajectory ends. It then runs the same
+     * simulation again and checks that the results are identical.
+     */
+    @Test
+    public void testSimulatedTankDriveFollower() {
+        RobotSpecs specs = new RobotSpecs(5, 5, 1);
+        TrajectoryParams params = new TrajectoryParams();
+        params.waypoints = new Waypoint[] { new Waypoint(0, 0, Math.PI / 2), new Waypoint(10, 10, Math.PI / 2) };
+        params.alpha = 15;
+        params.sampleCount = 1000;
+        TankDriveTrajectory trajectory = new TankDriveTrajectory(specs, params);
+
+        double[] first = simulate(trajectory);
+        double[] second = simulate(trajectory);
+
+        Waypoint end = trajectory.getPosition(trajectory.totalTime());
+        assertThat(first[0], closeTo(end.getX(), 0.2));
+        assertThat(first[1], closeTo(end.getY(), 0.2));
+        for (int i = 0; i < first.length; i++) {
+            assertThat("Simulations should be deterministic", second[i], is(first[i]));
+        }
+
+        trajectory.close();
+    }
+
+    /**
+     * Follows a trajectory in simulation, and returns the final x, y, heading and
+     * number of steps.
+     */
+    private static double[] simulate(TankDriveTrajectory trajectory) {
+        final double plantMaxV = 10, plantMaxA = 20;
+        DifferentialDrivePlant plant = new DifferentialDrivePlant(plantMaxV, plantMaxA, 1);
+        plant.reset(0, 0, Math.PI / 2);
+        VirtualClock clock = new VirtualClock();
+        SimulationRunner runner = new SimulationRunner(clock, 0.005, plant);
+
+        TankDriveFollower follower = new TankDriveFollower(trajectory, plant.createRobot(clock),
+                new TankDriveGains(1 / plantMaxV, 1 / plantMaxA, 0.5, 0, 0, 0.5));
+        int steps = runner.run(follower, trajectory.totalTime() * 2);
+
+        assertTrue("The follower should finish before the time limit",
+                clock.getTimestamp() < trajectory.totalTime() * 2);
+        assertThat(clock.getTimestamp(), closeTo(steps * 0.005, 1e-9));
+        return new double[] { plant.getX(), plant.getY(), plant.getHeading(), steps };
+    }
+}
@@ -0,0 +1,92 @@
+package com.arctos6135.robotpathfinder.tests.follower.simulation;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.TrajectoryParams;
+import com.arctos6135.robotpathfinder.core.Waypoint;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveTrajectory;
+import com.arctos6135.robotpathfinder.follower.TankDriveFollower.TankDriveGains;
+import com.arctos6135.robotpathfinder.follower.simulation.DifferentialDrivePlant;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+/**
+ * This class contains a collection of handy methods for generating the
+ * simulated robots and trajectories used in unit testing for followers.
+ *
+ * @author Tyler Tian
+ */
+public final class SimulationTestingUtils {
+
+    private SimulationTestingUtils() {
+    }
+
+    /**
+     * The time step of the simulations, in seconds.
+     */
+    public static final double TIME_STEP = 0.005;
+
+    /**
+     * Generates the random characteristics of a simulated robot.
+     *
+     * @param helper A {@link TestHelper} instance to get random numbers from
+     * @return The max velocity, max acceleration and base width of the robot
+     */
+    public static RobotSpecs getRandomPlantSpecs(TestHelper helper) {
+        double maxV = helper.getDouble("plantMaxV", 5, 15);
+        double maxA = helper.getDouble("plantMaxA", 10, 30);
+        double baseWidth = helper.getDouble("plantBaseWidth", 0.5, 1.5);
+        return new RobotSpecs(maxV, maxA, baseWidth);
+    }
+
+    /**
+     * Creates a simulated robot at the start of the trajectories generated by
+     * {@link #getRandomTrajectory(TestHelper, RobotSpecs)}.
+     *
+     * @param plantSpecs The characteristics of the robot
+     * @return The simulated robot
+     */
+    public static DifferentialDrivePlant createPlant(RobotSpecs plantSpecs) {
+        DifferentialDrivePlant plant = new DifferentialDrivePlant(plantSpecs);
+        plant.reset(0, 0, Math.PI / 2);
+        return plant;
+    }
+
+    /**
+     * Creates gains whose feedforward terms exactly match a simulated robot.
+     *
+     * @param plantSpecs The characteristics of the robot
+     * @param kP         The proportional gain
+     * @param kDP        The directional proportional gain
+     * @return The gains
+     */
+    public static TankDriveGains getFeedforwardGains(RobotSpecs plantSpecs, double kP, double kDP) {
+        return new TankDriveGains(1 / plantSpecs.getMaxVelocity(), 1 / plantSpecs.getMaxAcceleration(), kP, 0, 0,
+                kDP);
+    }
+
+    /**
+     * Generates a random trajectory that a simulated robot can follow.
+     * <p>
+     * The trajectory starts at the origin facing the positive y-axis, and curves
+     * to a random point ahead and to the right, ending in the same direction. Its
+     * limits are well within those of the robot, so that there is room for the
+     * follower to correct errors.
+     * </p>
+     *
+     * @param helper     A {@link TestHelper} instance to get random numbers from
+     * @param plantSpecs The characteristics of the robot
+     * @return A randomly generated trajectory
+     */
+    public static TankDriveTrajectory getRandomTrajectory(TestHelper helper, RobotSpecs plantSpecs) {
+        RobotSpecs specs = new RobotSpecs(
+                plantSpecs.getMaxVelocity() * helper.getDouble("trajectoryMaxVScale", 0.4, 0.6),
+                plantSpecs.getMaxAcceleration() * helper.getDouble("trajectoryMaxAScale", 0.2, 0.3),
+                plantSpecs.getBaseWidth());
+        double distance = helper.getDouble("trajectoryDistance", 5, 10);
+        TrajectoryParams params = new TrajectoryParams();
+        params.waypoints = new Waypoint[] { new Waypoint(0, 0, Math.PI / 2),
+                new Waypoint(distance, distance, Math.PI / 2) };
+        params.alpha = distance * helper.getDouble("trajectoryAlphaScale", 1.5, 2);
+        params.sampleCount = 1000;
+        return new TankDriveTrajectory(specs, params);
+    }
+}
@@ -0,0 +1,180 @@
+package com.arctos6135.robotpathfinder.tests.follower.telemetry;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.TrajectoryParams;
+import com.arctos6135.robotpathfinder.core.Waypoint;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveMoment;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveTrajectory;
+import com.arctos6135.robotpathfinder.follower.TankDriveFollower;
+import com.arctos6135.robotpathfinder.follower.TankDriveFollower.TankDriveGains;
+import com.arctos6135.robotpathfinder.follower.simulation.DifferentialDrivePlant;
+import com.arctos6135.robotpathfinder.follower.simulation.SimulationRunner;
+import com.arctos6135.robotpathfinder.follower.simulation.VirtualClock;
+import com.arctos6135.robotpathfinder.follower.telemetry.TelemetryBuffer;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link TelemetryBuffer}.
+ *
+ * @author Tyler Tian
+ */
+public class TelemetryBufferTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    private static final TankDriveMoment MOMENT = new TankDriveMoment(1, 2, 3, 4, 5, 6, 7, 8, 0);
+
+    private static void write(TelemetryBuffer buffer, double value) {
+        buffer.write(value, MOMENT, value, -value, 0, 0, 0, 0, 0, value / 2, -value / 2);
+    }
+
+    /**
+     * Tests that records come out in the same order they go in, and that records
+     * are dropped when the buffer is full.
+     */
+    @Test
+    public void testTelemetryBufferOrderAndOverflow() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        int requested = helper.getInt("capacity", 1, 1000);
+        TelemetryBuffer buffer = new TelemetryBuffer(requested);
+        int capacity = buffer.getCapacity();
+        assertTrue("Capacity should be at least the requested capacity", capacity >= requested);
+        assertThat("Capacity should be a power of 2", Integer.bitCount(capacity), is(1));
+
+        for (int i = 0; i < capacity + 10; i++) {
+            write(buffer, i);
+        }
+        assertThat(buffer.size(), is(capacity));
+        assertThat(buffer.getDroppedCount(), is(10L));
+
+        int[] count = new int[1];
+        int drained = buffer.drain((data, offset) -> {
+            assertThat(data[offset + TelemetryBuffer.TIME], is((double) count[0]));
+            assertThat(data[offset + TelemetryBuffer.RIGHT_ERROR], closeTo(-count[0], 0));
+            assertThat(data[offset + TelemetryBuffer.LEFT_VELOCITY_SETPOINT], is(3.0));
+            count[0]++;
+        });
+        assertThat(drained, is(capacity));
+        assertThat(buffer.size(), is(0));
+
+        // The space should be reusable after draining
+        write(buffer, 42);
+        double[] dest = new double[TelemetryBuffer.FIELD_COUNT * 2];
+        assertThat(buffer.drain(dest), is(1));
+        assertThat(dest[TelemetryBuffer.TIME], is(42.0));
+        assertThat(dest[TelemetryBuffer.LEFT_OUTPUT], is(21.0));
+    }
+
+    /**
+     * Tests that the heading setpoint recorded is the one the directional error
+     * is calculated against.
+     *
+     * This test writes a moment with a random initial facing, and asserts that
+     * the heading setpoint is the facing relative to it rather than the absolute
+     * path heading.
+     */
+    @Test
+    public void testTelemetryBufferHeadingSetpoint() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double heading = helper.getDouble("heading", -Math.PI, Math.PI);
+        double initialFacing = helper.getDouble("initialFacing", -Math.PI, Math.PI);
+        TankDriveMoment m = new TankDriveMoment(1, 2, 3, 4, 5, 6, heading, 8, initialFacing);
+        TelemetryBuffer buffer = new TelemetryBuffer(1);
+        buffer.write(0, m, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+        double[] dest = new double[TelemetryBuffer.FIELD_COUNT];
+        assertThat(buffer.drain(dest), is(1));
+        assertThat(dest[TelemetryBuffer.HEADING_SETPOINT], is(m.getFacingRelative()));
+    }
+
+    /**
+     * Tests writing and reading from different threads at the same time.
+     *
+     * This test writes a sequence of numbers from one thread while another thread
+     * drains the buffer, and checks that every record was either received in
+     * order or counted as dropped.
+     */
+    @Test
+    public void testTelemetryBufferConcurrent() throws InterruptedException {
+        final int total = 1000000;
+        TelemetryBuffer buffer = new TelemetryBuffer(1024);
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                write(buffer, i);
+            }
+        });
+        producer.start();
+
+        double[] last = { -1 };
+        boolean[] ordered = { true };
+        long received = 0;
+        while (producer.isAlive() || buffer.size() > 0) {
+            received += buffer.drain((data, offset) -> {
+                double value = data[offset + TelemetryBuffer.TIME];
+                // Every field of the record should be consistent
+                if (value <= last[0] || data[offset + TelemetryBuffer.RIGHT_ERROR] != -value) {
+                    ordered[0] = false;
+                }
+                last[0] = value;
+            });
+        }
+        producer.join();
+        received += buffer.drain((data, offset) -> {
+        });
+
+        assertTrue("Records should be received in order and intact", ordered[0]);
+        assertThat(received + buffer.getDroppedCount(), is((long) total));
+        assertThat(buffer.getWrittenCount(), is(received));
+    }
+
+    /**
+     * Tests that a {@link TankDriveFollower} records every run in its
+     * {@link TelemetryBuffer}.
+     */
+    @Test
+    public void testTankDriveFollowerTelemetry() {
+        RobotSpecs specs = new RobotSpecs(5, 5, 1);
+        TrajectoryParams params = new TrajectoryParams();
+        params.waypoints = new Waypoint[] { new Waypoint(0, 0, Math.PI / 2), new Waypoint(5, 5, Math.PI / 2) };
+        params.alpha = 10;
+        TankDriveTrajectory trajectory = new TankDriveTrajectory(specs, params);
+
+        DifferentialDrivePlant plant = new DifferentialDrivePlant(10, 20, 1);
+        plant.reset(0, 0, Math.PI / 2);
+        VirtualClock clock = new VirtualClock();
+        SimulationRunner runner = new SimulationRunner(clock, 0.01, plant);
+        TankDriveFollower follower = new TankDriveFollower(trajectory, plant.createRobot(clock),
+                new TankDriveGains(0.1, 0.05, 0.5, 0, 0, 0.5));
+        TelemetryBuffer buffer = new TelemetryBuffer(4096);
+        follower.setTelemetryBuffer(buffer);
+
+        int steps = runner.run(follower, trajectory.totalTime() * 2);
+        double[] lastOutput = { Double.NaN };
+        double[] lastTime = { -1 };
+        int records = buffer.drain((data, offset) -> {
+            assertTrue("Times should be increasing", data[offset + TelemetryBuffer.TIME] > lastTime[0]);
+            lastTime[0] = data[offset + TelemetryBuffer.TIME];
+            lastOutput[0] = data[offset + TelemetryBuffer.LEFT_OUTPUT];
+        });
+
+        // The last step only finds that the trajectory is over, and does not run the control loop
+        assertThat(records, is(steps - 1));
+        assertThat(buffer.getDroppedCount(), is(0L));
+        assertThat(lastOutput[0], is(follower.lastLeftOutput()));
+
+        trajectory.close();
+    }
+}
@@ -0,0 +1,187 @@
+package com.arctos6135.robotpathfinder.tests.follower.telemetry;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveMoment;
+import com.arctos6135.robotpathfinder.follower.telemetry.TelemetryBuffer;
+import com.arctos6135.robotpathfinder.follower.telemetry.TelemetryLogReader;
+import com.arctos6135.robotpathfinder.follower.telemetry.TelemetryLogWriter;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link TelemetryLogWriter} and
+ * {@link TelemetryLogReader}.
+ *
+ * @author Tyler Tian
+ */
+public class TelemetryLogTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Tests writing records from a {@link TelemetryBuffer} to a log over multiple
+     * segments, and reading them back.
+     */
+    @Test
+    public void testTelemetryLogRoundTrip() throws IOException {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        int segmentRecords = helper.getInt("segmentRecords", 1, 100);
+        int recordCount = helper.getInt("recordCount", 1, 1000);
+
+        Path directory = Files.createTempDirectory("telemetry");
+        TelemetryBuffer buffer = new TelemetryBuffer(64);
+        try (TelemetryLogWriter writer = new TelemetryLogWriter(directory, "test", segmentRecords)) {
+            for (int i = 0; i < recordCount; i++) {
+                TankDriveMoment m = new TankDriveMoment(i, -i, i * 2, i * 3, i * 4, i * 5, i * 6, i * 7, 0);
+                buffer.write(i, m, i + 0.5, i + 1.5, i + 2.5, i + 3.5, i + 4.5, i + 5.5, i + 6.5, i + 7.5, i + 8.5);
+                if (buffer.size() == buffer.getCapacity()) {
+                    writer.write(buffer);
+                }
+            }
+            writer.write(buffer);
+
+            assertThat(writer.getRecordCount(), is((long) recordCount));
+            assertThat(writer.getSegmentCount(), is((recordCount + segmentRecords - 1) / segmentRecords));
+        }
+
+        TelemetryLogReader reader = new TelemetryLogReader(directory, "test");
+        assertThat(reader.getRecordCount(), is(recordCount));
+        assertThat(reader.getSegmentCount(), is((recordCount + segmentRecords - 1) / segmentRecords));
+        for (int i = 0; i < recordCount; i++) {
+            assertThat(reader.getColumn(TelemetryBuffer.TIME)[i], closeTo(i, 0));
+            assertThat(reader.getColumn(TelemetryBuffer.LEFT_POSITION_SETPOINT)[i], closeTo(i, 0));
+            assertThat(reader.getColumn(TelemetryBuffer.RIGHT_POSITION_SETPOINT)[i], closeTo(-i, 0));
+            // The heading setpoint is the facing relative to the initial facing
+            assertThat(reader.getColumn(TelemetryBuffer.HEADING_SETPOINT)[i],
+                    closeTo(MathUtils.restrictAngle(i * 6), 0));
+            assertThat(reader.getColumn(TelemetryBuffer.LEFT_ERROR)[i], closeTo(i + 0.5, 0));
+            assertThat(reader.getColumn(TelemetryBuffer.DIRECTIONAL_ERROR)[i], closeTo(i + 6.5, 0));
+            assertThat(reader.getColumn(TelemetryBuffer.RIGHT_OUTPUT)[i], closeTo(i + 8.5, 0));
+        }
+
+        deleteDirectory(directory);
+    }
+
+    /**
+     * Tests that a log can be read before the writer is closed, and that the last
+     * segment only contains the records written.
+     */
+    @Test
+    public void testTelemetryLogUnclosed() throws IOException {
+        Path directory = Files.createTempDirectory("telemetry");
+        double[] record = new double[TelemetryBuffer.FIELD_COUNT];
+        TelemetryLogWriter writer = new TelemetryLogWriter(directory, "test", 100);
+        for (int i = 0; i < 150; i++) {
+            record[TelemetryBuffer.TIME] = i;
+            writer.handle(record, 0);
+        }
+
+        TelemetryLogReader reader = new TelemetryLogReader(directory, "test");
+        assertThat(reader.getRecordCount(), is(150));
+        assertThat(reader.getColumn(TelemetryBuffer.TIME)[149], closeTo(149, 0));
+
+        writer.close();
+        assertThat("The last segment should be cut to size after closing",
+                Files.size(directory.resolve("test-00001.rpflog")),
+                is(32L + 50 * TelemetryBuffer.FIELD_COUNT * Double.BYTES));
+
+        deleteDirectory(directory);
+    }
+
+    /**
+     * Tests that opening a writer deletes all the segments of an earlier, longer
+     * log with the same name, so they are not read as part of the new log.
+     */
+    @Test
+    public void testTelemetryLogOverwrite() throws IOException {
+        Path directory = Files.createTempDirectory("telemetry");
+        double[] record = new double[TelemetryBuffer.FIELD_COUNT];
+        try (TelemetryLogWriter writer = new TelemetryLogWriter(directory, "test", 10)) {
+            for (int i = 0; i < 55; i++) {
+                record[TelemetryBuffer.TIME] = i;
+                writer.handle(record, 0);
+            }
+        }
+        // A log with a similar name should not be affected
+        try (TelemetryLogWriter writer = new TelemetryLogWriter(directory, "test-2", 10)) {
+            writer.handle(record, 0);
+        }
+        try (TelemetryLogWriter writer = new TelemetryLogWriter(directory, "test", 10)) {
+            for (int i = 0; i < 15; i++) {
+                record[TelemetryBuffer.TIME] = -i;
+                writer.handle(record, 0);
+            }
+        }
+
+        TelemetryLogReader reader = new TelemetryLogReader(directory, "test");
+        assertThat(reader.getRecordCount(), is(15));
+        assertThat(reader.getSegmentCount(), is(2));
+        for (int i = 0; i < 15; i++) {
+            assertThat(reader.getColumn(TelemetryBuffer.TIME)[i], closeTo(-i, 0));
+        }
+        assertThat(Files.exists(directory.resolve("test-00002.rpflog")), is(false));
+        assertThat(new TelemetryLogReader(directory, "test-2").getRecordCount(), is(1));
+
+        deleteDirectory(directory);
+    }
+
+    /**
+     * Tests that a writer with a max segment count only keeps the most recent
+     * segments, and that they can still be read.
+     */
+    @Test
+    public void testTelemetryLogMaxSegments() throws IOException {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        int segmentRecords = helper.getInt("segmentRecords", 1, 20);
+        int maxSegments = helper.getInt("maxSegments", 1, 5);
+        int recordCount = helper.getInt("recordCount", 1, 200);
+
+        Path directory = Files.createTempDirectory("telemetry");
+        double[] record = new double[TelemetryBuffer.FIELD_COUNT];
+        int segmentCount;
+        try (TelemetryLogWriter writer = new TelemetryLogWriter(directory, "test", segmentRecords, maxSegments)) {
+            for (int i = 0; i < recordCount; i++) {
+                record[TelemetryBuffer.TIME] = i;
+                writer.handle(record, 0);
+            }
+            segmentCount = writer.getSegmentCount();
+            assertThat(writer.getMaxSegments(), is(maxSegments));
+        }
+
+        int kept = Math.min(segmentCount, maxSegments);
+        int first = (segmentCount - kept) * segmentRecords;
+        TelemetryLogReader reader = new TelemetryLogReader(directory, "test");
+        assertThat(reader.getSegmentCount(), is(kept));
+        assertThat(reader.getRecordCount(), is(recordCount - first));
+        for (int i = 0; i < reader.getRecordCount(); i++) {
+            assertThat(reader.getColumn(TelemetryBuffer.TIME)[i], closeTo(first + i, 0));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count(), is((long) kept));
+        }
+
+        deleteDirectory(directory);
+    }
+}
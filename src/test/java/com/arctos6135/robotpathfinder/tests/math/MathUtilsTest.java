@@ -0,0 +1,54 @@
+package com.arctos6135.robotpathfinder.tests.math;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.junit.Assert.assertThat;
+
+import com.arctos6135.robotpathfinder.math.MathUtils;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link MathUtils}.
+ * 
+ * @author Tyler Tian
+ */
+public class MathUtilsTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    /**
+     * Performs testing on {@link MathUtils#lerpAngle(double, double, double)}.
+     * 
+     * This test interpolates between two angles on either side of the &plusmn;&pi;
+     * wrap, in both directions, and between two angles that do not wrap, and
+     * asserts that the result is always on the short arc between them, the
+     * requested fraction of the way from the first angle.
+     */
+    @Test
+    public void testLerpAngle() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double d0 = helper.getDouble("d0", 0.01, 1);
+        double d1 = helper.getDouble("d1", 0.01, 1);
+        double f = helper.getDouble("f", 1);
+
+        // Counterclockwise across the wrap, from just below pi to just above -pi
+        double a = Math.PI - d0;
+        double b = -Math.PI + d1;
+        assertThat(MathUtils.angleDiff(a + f * (d0 + d1), MathUtils.lerpAngle(a, b, f)), closeTo(0, 1e-9));
+        // Clockwise across the wrap
+        assertThat(MathUtils.angleDiff(b - f * (d0 + d1), MathUtils.lerpAngle(b, a, f)), closeTo(0, 1e-9));
+        // No wrap
+        a = -d0;
+        b = d1;
+        assertThat(MathUtils.lerpAngle(a, b, f), closeTo(a + f * (d0 + d1), 1e-9));
+        assertThat(MathUtils.lerpAngle(b, a, f), closeTo(b - f * (d0 + d1), 1e-9));
+        // The ends
+        assertThat(MathUtils.lerpAngle(a, b, 0), closeTo(a, 1e-9));
+        assertThat(MathUtils.lerpAngle(a, b, 1), closeTo(b, 1e-9));
+    }
+}
@@ -0,0 +1,129 @@
+package com.arctos6135.robotpathfinder.tests.motionprofile;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveMoment;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+import com.arctos6135.robotpathfinder.motionprofile.MotionProfileTable;
+import com.arctos6135.robotpathfinder.motionprofile.MotionProfileTable.Interpolation;
+import com.arctos6135.robotpathfinder.motionprofile.TrapezoidalMotionProfile;
+import com.arctos6135.robotpathfinder.motionprofile.followable.profiles.TrapezoidalTankDriveRotationProfile;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link MotionProfileTable}.
+ *
+ * @author Tyler Tian
+ */
+public class MotionProfileTableTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    /**
+     * Compares a table of a {@link TrapezoidalMotionProfile} to the profile.
+     */
+    private void testTable(TestHelper helper, Interpolation interpolation) {
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        double distance = helper.getDouble("distance", -1000, 1000);
+        TrapezoidalMotionProfile profile = new TrapezoidalMotionProfile(new RobotSpecs(maxV, maxA), distance);
+        double end = profile.totalTime();
+        double dt = end / helper.getInt("steps", 10, 1000);
+
+        MotionProfileTable table = new MotionProfileTable(profile, dt, interpolation);
+        assertThat(table.getStep(), lessThanOrEqualTo(dt));
+        assertThat(table.totalTime(), closeTo(end, MathUtils.getFloatCompareThreshold()));
+        // The error is bounded by how much the acceleration can change the profile in one step
+        double step = table.getStep();
+        double[] values = new double[3];
+        for (int i = 0; i <= 1000; i++) {
+            double t = end * i / 1000;
+            table.evaluate(t, values);
+            assertThat(values[0], closeTo(profile.position(t), maxA * step * step + 1e-9 * Math.abs(distance)));
+            assertThat(values[1], closeTo(profile.velocity(t), maxA * step + 1e-9 * maxV));
+            assertThat(table.position(t), closeTo(values[0], MathUtils.getFloatCompareThreshold()));
+            assertThat(table.velocity(t), closeTo(values[1], MathUtils.getFloatCompareThreshold()));
+            assertThat(table.acceleration(t), closeTo(values[2], MathUtils.getFloatCompareThreshold()));
+        }
+
+        // Times out of range should be clamped instead of throwing
+        assertThat(table.position(-1), closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        assertThat(table.position(end + 1), closeTo(distance, 1e-9 * Math.abs(distance)));
+        assertThat(table.velocity(end + 1), closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+    }
+
+    /**
+     * Performs testing on a {@link MotionProfileTable} with linear interpolation.
+     *
+     * This test creates a {@link MotionProfileTable} of a
+     * {@link TrapezoidalMotionProfile} with a random number of steps, and asserts
+     * that it is close to the original profile at 1000 points in time. It also
+     * asserts that times out of range are clamped.
+     */
+    @Test
+    public void testMotionProfileTableLinear() {
+        testTable(new TestHelper(getClass(), testName), Interpolation.LINEAR);
+    }
+
+    /**
+     * Performs testing on a {@link MotionProfileTable} with cubic Hermite
+     * interpolation.
+     *
+     * This test creates a {@link MotionProfileTable} of a
+     * {@link TrapezoidalMotionProfile} with a random number of steps, and asserts
+     * that it is close to the original profile at 1000 points in time. It also
+     * asserts that times out of range are clamped.
+     */
+    @Test
+    public void testMotionProfileTableHermite() {
+        testTable(new TestHelper(getClass(), testName), Interpolation.CUBIC_HERMITE);
+    }
+
+    /**
+     * Performs testing on a {@link MotionProfileTable} of a followable profile.
+     *
+     * This test creates a {@link MotionProfileTable} of a
+     * {@link TrapezoidalTankDriveRotationProfile}, and asserts that both sides
+     * and the heading match the moments of the profile.
+     */
+    @Test
+    public void testMotionProfileTableFollowable() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        double baseWidth = helper.getDouble("baseWidth", 1, 1000);
+        double angle = helper.getDouble("angle", -Math.PI, Math.PI);
+        TrapezoidalTankDriveRotationProfile profile = new TrapezoidalTankDriveRotationProfile(
+                new RobotSpecs(maxV, maxA, baseWidth), angle);
+        double end = profile.totalTime();
+
+        MotionProfileTable table = new MotionProfileTable(profile, end / 500, Interpolation.CUBIC_HERMITE);
+        assertThat(table.getAxisCount(), is(2));
+        double step = table.getStep();
+        double[] left = new double[3];
+        double[] right = new double[3];
+        for (int i = 0; i <= 1000; i++) {
+            double t = end * i / 1000;
+            TankDriveMoment m = profile.get(t);
+            table.evaluate(0, t, left);
+            table.evaluate(1, t, right);
+            double tolerance = maxA * step * step + 1e-9 * baseWidth;
+            assertThat(left[0], closeTo(m.getLeftPosition(), tolerance));
+            assertThat(right[0], closeTo(m.getRightPosition(), tolerance));
+            assertThat(left[1], closeTo(m.getLeftVelocity(), maxA * step + 1e-9 * maxV));
+            assertThat(right[1], closeTo(m.getRightVelocity(), maxA * step + 1e-9 * maxV));
+            assertThat(MathUtils.angleDiff(MathUtils.restrictAngle(table.heading(t)), m.getHeading()),
+                    closeTo(0.0, 2 * tolerance / baseWidth + 1e-9));
+        }
+    }
+}
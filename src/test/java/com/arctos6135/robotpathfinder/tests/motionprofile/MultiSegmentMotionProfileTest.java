@@ -0,0 +1,197 @@
+package com.arctos6135.robotpathfinder.tests.motionprofile;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.either;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+import com.arctos6135.robotpathfinder.motionprofile.MultiSegmentMotionProfile;
+import com.arctos6135.robotpathfinder.motionprofile.MultiSegmentMotionProfile.Segment;
+import com.arctos6135.robotpathfinder.motionprofile.TrapezoidalMotionProfile;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link MultiSegmentMotionProfile}.
+ *
+ * @author Tyler Tian
+ */
+public class MultiSegmentMotionProfileTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    /**
+     * Performs testing on many points of a {@link MultiSegmentMotionProfile}.
+     *
+     * This test creates a {@link MultiSegmentMotionProfile} with a random number
+     * of segments in the same direction, some of which have their own max velocity
+     * and end velocity. It asserts that the profile starts and ends at rest, that
+     * each segment ends at the right position and velocity, and loops through 1000
+     * points in time to check that the limits are respected and that the velocity
+     * matches the change in position. It also checks that the profile is no slower
+     * than a {@link TrapezoidalMotionProfile} for each segment one after another.
+     */
+    @Test
+    public void testMultiSegmentMotionProfile() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        RobotSpecs specs = new RobotSpecs(maxV, maxA);
+
+        int count = helper.getInt("count", 1, 11);
+        Segment[] segments = new Segment[count];
+        double[] segmentMaxV = new double[count];
+        double chainedTime = 0;
+        for (int i = 0; i < count; i++) {
+            double distance = helper.getDouble("distance" + i, 1, 1000);
+            segmentMaxV[i] = maxV;
+            if (helper.getInt("limited" + i, 2) == 1) {
+                segmentMaxV[i] = helper.getDouble("maxV" + i, 1, maxV);
+            }
+            segments[i] = new Segment(distance, segmentMaxV[i], Double.NaN);
+            chainedTime += new TrapezoidalMotionProfile(new RobotSpecs(segmentMaxV[i], maxA), distance).totalTime();
+        }
+        // Stop at the end of the first segment
+        if (count > 1) {
+            segments[0] = new Segment(segments[0].getDistance(), segmentMaxV[0], 0);
+        }
+
+        MultiSegmentMotionProfile profile = new MultiSegmentMotionProfile(specs, segments);
+        double end = profile.totalTime();
+        assertThat("Velocity at the start time should be 0", profile.velocity(0),
+                closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        assertThat("Velocity at the end time should be 0", profile.velocity(end),
+                closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        assertThat("Should not be slower than stopping after every segment", end,
+                either(lessThan(chainedTime)).or(closeTo(chainedTime, MathUtils.getFloatCompareThreshold())));
+
+        double position = 0;
+        for (int i = 0; i < count; i++) {
+            position += segments[i].getDistance();
+            double t = profile.getSegmentStartTime(i + 1);
+            assertThat("Position should match at the end of each segment", profile.position(t),
+                    closeTo(position, 1e-6 * position));
+        }
+        if (count > 1) {
+            assertThat("The first segment should end at rest", profile.getSegmentEndVelocity(0),
+                    closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+            assertThat(profile.velocity(profile.getSegmentStartTime(1)),
+                    closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        }
+
+        double dt = end / 1000;
+        double lastPos = 0, lastVel = 0;
+        int segment = 0;
+        for (int i = 1; i <= 1000; i++) {
+            double t = dt * i;
+            double pos = profile.position(t);
+            double vel = profile.velocity(t);
+            double acl = profile.acceleration(t);
+            while (segment + 1 < count && t >= profile.getSegmentStartTime(segment + 1)) {
+                segment++;
+            }
+
+            assertThat("velocity should be within the segment's limit", vel,
+                    either(lessThan(segmentMaxV[segment])).or(closeTo(segmentMaxV[segment], 1e-6 * maxV)));
+            assertThat("acceleration should be within the limit", Math.abs(acl),
+                    either(lessThan(maxA)).or(closeTo(maxA, MathUtils.getFloatCompareThreshold())));
+            // The velocity can only change by the max acceleration times the time step
+            assertThat("velocity should be continuous", Math.abs(vel - lastVel), lessThan(maxA * dt * (1 + 1e-9)));
+            // The change in position is between what it would be at the two velocities
+            assertThat("position should match the velocity", pos - lastPos,
+                    closeTo((vel + lastVel) / 2 * dt, maxA * dt * dt / 2 + 1e-6 * dt * maxV));
+
+            lastPos = pos;
+            lastVel = vel;
+        }
+    }
+
+    /**
+     * Tests that a {@link MultiSegmentMotionProfile} stops to change direction.
+     *
+     * This test creates a {@link MultiSegmentMotionProfile} with a forwards
+     * segment and a backwards segment, and asserts that the velocity is 0 between
+     * them, that it ends at the right position, and that {@code evaluate()} gives
+     * the same results as the individual methods.
+     */
+    @Test
+    public void testMultiSegmentMotionProfileDirectionChange() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        double forwards = helper.getDouble("forwards", 1, 1000);
+        double backwards = helper.getDouble("backwards", -1000, -1);
+
+        MultiSegmentMotionProfile profile = new MultiSegmentMotionProfile(new RobotSpecs(maxV, maxA),
+                new Segment(forwards), new Segment(backwards));
+
+        double mid = profile.getSegmentStartTime(1);
+        assertThat(profile.velocity(mid), closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        assertThat(profile.position(mid), closeTo(forwards, 1e-6 * forwards));
+        assertThat(profile.position(profile.totalTime()), closeTo(forwards + backwards, 1e-6 * forwards));
+        assertThat(profile.totalTime(), closeTo(new TrapezoidalMotionProfile(new RobotSpecs(maxV, maxA), forwards)
+                .totalTime() + new TrapezoidalMotionProfile(new RobotSpecs(maxV, maxA), backwards).totalTime(),
+                1e-6 * profile.totalTime()));
+
+        double[] values = new double[3];
+        for (int i = 0; i <= 100; i++) {
+            double t = profile.totalTime() * i / 100;
+            profile.evaluate(t, values);
+            assertThat(values[0], closeTo(profile.position(t), MathUtils.getFloatCompareThreshold()));
+            assertThat(values[1], closeTo(profile.velocity(t), MathUtils.getFloatCompareThreshold()));
+            assertThat(values[2], closeTo(profile.acceleration(t), MathUtils.getFloatCompareThreshold()));
+        }
+    }
+
+    /**
+     * Tests that a {@link MultiSegmentMotionProfile} with only one segment is the
+     * same as a {@link TrapezoidalMotionProfile}.
+     */
+    @Test
+    public void testMultiSegmentMotionProfileSingleSegment() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        double distance = helper.getDouble("distance", -1000, 1000);
+        RobotSpecs specs = new RobotSpecs(maxV, maxA);
+
+        MultiSegmentMotionProfile profile = new MultiSegmentMotionProfile(specs, new Segment(distance));
+        TrapezoidalMotionProfile trapezoidal = new TrapezoidalMotionProfile(specs, distance);
+
+        assertThat(profile.totalTime(), closeTo(trapezoidal.totalTime(), MathUtils.getFloatCompareThreshold()));
+        for (int i = 0; i <= 100; i++) {
+            double t = trapezoidal.totalTime() * i / 100;
+            assertThat(profile.position(t), closeTo(trapezoidal.position(t), 1e-6 * Math.abs(distance)));
+            assertThat(profile.velocity(t), closeTo(trapezoidal.velocity(t), 1e-6 * maxV));
+        }
+    }
+
+    /**
+     * Tests that {@link MultiSegmentMotionProfile} throws an exception when an end
+     * velocity cannot be reached.
+     *
+     * This test creates a profile where the first segment is too short to
+     * accelerate to its end velocity.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMultiSegmentMotionProfileImpossibleConstraint() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        // Accelerating over this distance can only reach half the max velocity
+        double distance = maxV * maxV / (8 * maxA);
+
+        new MultiSegmentMotionProfile(new RobotSpecs(maxV, maxA), new Segment(distance, Double.NaN, maxV),
+                new Segment(distance));
+    }
+}
@@ -0,0 +1,323 @@
+package com.arctos6135.robotpathfinder.tests.motionprofile;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.either;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+import com.arctos6135.robotpathfinder.motionprofile.DynamicMotionProfile;
+import com.arctos6135.robotpathfinder.motionprofile.SCurveMotionProfile;
+import com.arctos6135.robotpathfinder.motionprofile.TrapezoidalMotionProfile;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link SCurveMotionProfile}.
+ *
+ * @author Tyler Tian
+ */
+public class SCurveMotionProfileTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    /**
+     * Performs basic testing on {@link SCurveMotionProfile}.
+     *
+     * This test constructs a {@link SCurveMotionProfile} with a random distance
+     * that can be negative, and asserts that the starting position, velocity and
+     * acceleration and end velocity and acceleration are all 0, the end position
+     * is as expected, and the starting jerk is the max jerk in the direction of
+     * motion.
+     */
+    @Test
+    public void testSCurveMotionProfile() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        double maxJ = helper.getDouble("maxJ", 1, 1000);
+        double distance = helper.getDouble("distance", -1000, 1000);
+
+        RobotSpecs specs = new RobotSpecs(maxV, maxA, Double.NaN, maxJ);
+
+        SCurveMotionProfile profile = new SCurveMotionProfile(specs, distance);
+        double end = profile.totalTime();
+        assertThat("Position at end time should be close to the specified position", profile.position(end),
+                closeTo(distance, MathUtils.getFloatCompareThreshold()));
+        assertThat("Position at the start time should be 0", profile.position(0),
+                closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        assertThat("Velocity at the start time should be 0", profile.velocity(0),
+                closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        assertThat("Velocity at the end time should be 0", profile.velocity(end),
+                closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        assertThat("Acceleration at the start time should be 0", profile.acceleration(0),
+                closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        assertThat("Acceleration at the end time should be 0", profile.acceleration(end),
+                closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        assertThat("Jerk at the start time should be max jerk", profile.jerk(0),
+                closeTo(Math.signum(distance) * maxJ, MathUtils.getFloatCompareThreshold()));
+        assertThat(profile.isReversed(), is(distance < 0));
+    }
+
+    /**
+     * Performs testing on the max jerk of the robot specifications.
+     *
+     * This test asserts that a {@link SCurveMotionProfile} uses the max jerk of
+     * the robot specifications, and that one cannot be created if it is not set.
+     */
+    @Test
+    public void testSCurveMotionProfileSpecsJerk() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        double maxJ = helper.getDouble("maxJ", 1, 1000);
+        double distance = helper.getDouble("distance", -1000, 1000);
+
+        SCurveMotionProfile profile = new SCurveMotionProfile(new RobotSpecs(maxV, maxA, Double.NaN, maxJ), distance);
+        assertThat(profile.getMaxJerk(), is(maxJ));
+
+        try {
+            new SCurveMotionProfile(new RobotSpecs(maxV, maxA), distance);
+            fail("Expected an IllegalArgumentException when the max jerk is not set");
+        } catch (IllegalArgumentException e) {
+            // The specifications do not set a max jerk
+        }
+    }
+
+    /**
+     * Performs testing on many points of a {@link SCurveMotionProfile}.
+     *
+     * This test creates a {@link SCurveMotionProfile} and loops through 1000 points
+     * in time, asserting that the position, velocity and acceleration are within
+     * the limits, and that the velocity and acceleration are continuous and match
+     * the change in position and velocity.
+     */
+    @Test
+    public void testSCurveMotionProfileAdvanced() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        double maxJ = helper.getDouble("maxJ", 1, 1000);
+        double distance = helper.getDouble("distance", 1, 1000);
+
+        RobotSpecs specs = new RobotSpecs(maxV, maxA, Double.NaN, maxJ);
+
+        SCurveMotionProfile profile = new SCurveMotionProfile(specs, distance);
+
+        double dt = profile.totalTime() / 1000;
+        double lastPos = 0, lastVel = 0, lastAcl = 0;
+        for (int i = 1; i <= 1000; i++) {
+            double t = dt * i;
+            double pos = profile.position(t);
+            double vel = profile.velocity(t);
+            double acl = profile.acceleration(t);
+
+            assertThat("position should be within the expected range", pos,
+                    either(lessThan(distance)).or(closeTo(distance, MathUtils.getFloatCompareThreshold())));
+            assertThat("velocity should be within the expected range", vel,
+                    either(lessThan(maxV)).or(closeTo(maxV, MathUtils.getFloatCompareThreshold())));
+            assertThat("velocity should be within the expected range", vel,
+                    either(greaterThan(0.0)).or(closeTo(0.0, MathUtils.getFloatCompareThreshold())));
+            assertThat("acceleration should be within the expected range", Math.abs(acl),
+                    either(lessThan(maxA)).or(closeTo(maxA, MathUtils.getFloatCompareThreshold())));
+
+            // The acceleration can only change by the max jerk times the time step
+            assertThat("acceleration should be continuous", Math.abs(acl - lastAcl),
+                    lessThan(maxJ * dt * (1 + 1e-9)));
+            // Trapezoidal rule
+            assertThat("velocity should match the acceleration", vel - lastVel,
+                    closeTo((acl + lastAcl) / 2 * dt, maxJ * dt * dt + 1e-9));
+            assertThat("position should match the velocity", pos - lastPos,
+                    closeTo((vel + lastVel) / 2 * dt, maxJ * dt * dt * dt + 1e-9));
+
+            lastPos = pos;
+            lastVel = vel;
+            lastAcl = acl;
+        }
+    }
+
+    /**
+     * Tests that a {@link SCurveMotionProfile} takes longer than a
+     * {@link TrapezoidalMotionProfile} with the same limits, but approaches it as
+     * the max jerk increases.
+     */
+    @Test
+    public void testSCurveMotionProfileTrapezoidalLimit() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        double maxJ = helper.getDouble("maxJ", 1, 1000);
+        double distance = helper.getDouble("distance", 1, 1000);
+
+        RobotSpecs specs = new RobotSpecs(maxV, maxA, Double.NaN, maxJ);
+        double trapezoidalTime = new TrapezoidalMotionProfile(specs, distance).totalTime();
+
+        double sCurveTime = new SCurveMotionProfile(specs, distance).totalTime();
+        assertThat(sCurveTime, either(greaterThan(trapezoidalTime))
+                .or(closeTo(trapezoidalTime, MathUtils.getFloatCompareThreshold())));
+        RobotSpecs fastJerkSpecs = new RobotSpecs(maxV, maxA, Double.NaN, maxA * 1e6);
+        assertThat(new SCurveMotionProfile(fastJerkSpecs, distance).totalTime(),
+                closeTo(trapezoidalTime, trapezoidalTime * 1e-3));
+    }
+
+    /**
+     * Performs basic testing on
+     * {@link SCurveMotionProfile#update(double, double, double, double)}.
+     *
+     * This test constructs a {@link SCurveMotionProfile} and calls its
+     * {@link SCurveMotionProfile#update(double, double, double, double) update()}
+     * method with a set of randomly generated values. It asserts that after
+     * updating, the profile starts from the values given and ends with a velocity
+     * and acceleration of 0; if it did not overshoot, it also asserts that it ends
+     * at the original specified position.
+     */
+    @Test
+    public void testSCurveMotionProfileUpdate() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        double maxJ = helper.getDouble("maxJ", 1, 1000);
+        double distance = helper.getDouble("distance", -1000, 1000);
+        RobotSpecs specs = new RobotSpecs(maxV, maxA, Double.NaN, maxJ);
+
+        DynamicMotionProfile profile = new SCurveMotionProfile(specs, distance);
+
+        // Generate fake update parameters
+        double updateTime = helper.getDouble("updateTime", profile.totalTime());
+        double updatePos = helper.getDouble("updatePos", -1000, 1000);
+        double updateVel = helper.getDouble("updateVel", -maxV, maxV);
+        double updateAccel = helper.getDouble("updateAccel", -maxA, maxA);
+
+        boolean overshoot = profile.update(updateTime, updatePos, updateVel, updateAccel);
+
+        assertThat("Position should start from the updated position", profile.position(updateTime),
+                closeTo(updatePos, MathUtils.getFloatCompareThreshold()));
+        assertThat("Velocity should start from the updated velocity", profile.velocity(updateTime),
+                closeTo(updateVel, MathUtils.getFloatCompareThreshold()));
+        assertThat("Acceleration should start from the updated acceleration", profile.acceleration(updateTime),
+                closeTo(updateAccel, MathUtils.getFloatCompareThreshold()));
+
+        double totalTime = profile.totalTime();
+        assertThat("Final velocity should be 0", profile.velocity(totalTime),
+                closeTo(0, MathUtils.getFloatCompareThreshold()));
+        assertThat("Final acceleration should be 0", profile.acceleration(totalTime),
+                closeTo(0, MathUtils.getFloatCompareThreshold()));
+        if (!overshoot) {
+            assertThat("Final position should be as specified", profile.position(totalTime),
+                    closeTo(distance, MathUtils.getFloatCompareThreshold()));
+        }
+    }
+
+    /**
+     * Performs basic testing on the overshoot handling of
+     * {@link SCurveMotionProfile#update(double, double, double, double)}.
+     *
+     * This test constructs a {@link SCurveMotionProfile}, and calls
+     * {@link SCurveMotionProfile#update(double, double, double, double) update()}
+     * with the current position being the end position specified by the
+     * constructor and a velocity towards the end. It then asserts that the update
+     * causes the profile to overshoot, and that the profile stops past the end.
+     */
+    @Test
+    public void testSCurveMotionProfileUpdateOvershoot() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        double maxJ = helper.getDouble("maxJ", 1, 1000);
+        double distance = helper.getDouble("distance", 1, 1000);
+
+        RobotSpecs specs = new RobotSpecs(maxV, maxA, Double.NaN, maxJ);
+
+        DynamicMotionProfile profile = new SCurveMotionProfile(specs, distance);
+
+        // Generate fake update parameters
+        double updateTime = helper.getDouble("updateTime", profile.totalTime());
+        double updateVel = helper.getDouble("updateVel", 1, maxV);
+
+        boolean overshoot = profile.update(updateTime, distance, updateVel, 0);
+
+        assertThat("overshoot should be true", overshoot, is(true));
+        assertThat("Final position should be past the end", profile.position(profile.totalTime()),
+                greaterThan(distance));
+        assertThat("Final velocity should be 0", profile.velocity(profile.totalTime()),
+                closeTo(0, MathUtils.getFloatCompareThreshold()));
+    }
+
+    /**
+     * Performs full testing on {@link SCurveMotionProfile#copy()}.
+     *
+     * This test constructs a {@link SCurveMotionProfile}, and calls
+     * {@link SCurveMotionProfile#copy()} on it to create a copy. It then uses
+     * {@link TestHelper#assertAllFieldsEqual(Object, Object)} to compare the two
+     * objects for equality, and checks that updating the copy does not affect the
+     * original.
+     */
+    @Test
+    public void testSCurveMotionProfileCopy() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        double maxJ = helper.getDouble("maxJ", 1, 1000);
+        double distance = helper.getDouble("distance", 1, 1000);
+
+        RobotSpecs specs = new RobotSpecs(maxV, maxA, Double.NaN, maxJ);
+
+        DynamicMotionProfile profile = new SCurveMotionProfile(specs, distance);
+        DynamicMotionProfile copiedProfile = profile.copy();
+
+        TestHelper.assertAllFieldsEqual(profile, copiedProfile);
+
+        double totalTime = profile.totalTime();
+        copiedProfile.update(0, distance / 2, maxV / 2, 0);
+        assertThat(profile.totalTime(), is(totalTime));
+        assertThat(profile.position(totalTime), closeTo(distance, MathUtils.getFloatCompareThreshold()));
+    }
+
+    /**
+     * Performs testing on {@link SCurveMotionProfile#evaluate(double, double[])}.
+     *
+     * This test constructs a {@link SCurveMotionProfile} with a random distance
+     * that can be negative, loops through 100 points in time, and asserts that the
+     * values from {@code evaluate()} are the same as the ones from
+     * {@code position()}, {@code velocity()} and {@code acceleration()}.
+     */
+    @Test
+    public void testSCurveMotionProfileEvaluate() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        double maxJ = helper.getDouble("maxJ", 1, 1000);
+        double distance = helper.getDouble("distance", -1000, 1000);
+
+        SCurveMotionProfile profile = new SCurveMotionProfile(new RobotSpecs(maxV, maxA, Double.NaN, maxJ), distance);
+
+        double[] values = new double[3];
+        double dt = profile.totalTime() / 100;
+        for (int i = 0; i <= 100; i++) {
+            double t = dt * i;
+            profile.evaluate(t, values);
+            assertThat("Position should match", values[0],
+                    closeTo(profile.position(t), MathUtils.getFloatCompareThreshold()));
+            assertThat("Velocity should match", values[1],
+                    closeTo(profile.velocity(t), MathUtils.getFloatCompareThreshold()));
+            assertThat("Acceleration should match", values[2],
+                    closeTo(profile.acceleration(t), MathUtils.getFloatCompareThreshold()));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.arctos6135.robotpathfinder.tests.motionprofile;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.either;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+import com.arctos6135.robotpathfinder.motionprofile.DynamicSynchronizedMotionProfile;
+import com.arctos6135.robotpathfinder.motionprofile.SynchronizedMotionProfile;
+import com.arctos6135.robotpathfinder.motionprofile.TrapezoidalMotionProfile;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link SynchronizedMotionProfile} and
+ * {@link DynamicSynchronizedMotionProfile}.
+ *
+ * @author Tyler Tian
+ */
+public class SynchronizedMotionProfileTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    /**
+     * Performs testing on many points of a {@link SynchronizedMotionProfile}.
+     *
+     * This test creates a {@link SynchronizedMotionProfile} with a random number
+     * of {@link TrapezoidalMotionProfile}s, and asserts that its total time is the
+     * longest of theirs, that every axis starts at 0 and ends at its distance at
+     * the same time, and that no limits are exceeded. It also checks that the
+     * fused {@code evaluate()} gives the same results as the individual methods.
+     */
+    @Test
+    public void testSynchronizedMotionProfile() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        RobotSpecs specs = new RobotSpecs(maxV, maxA);
+
+        int count = helper.getInt("count", 1, 6);
+        TrapezoidalMotionProfile[] profiles = new TrapezoidalMotionProfile[count];
+        double[] distances = new double[count];
+        double longest = 0;
+        for (int i = 0; i < count; i++) {
+            distances[i] = helper.getDouble("distance" + i, -1000, 1000);
+            profiles[i] = new TrapezoidalMotionProfile(specs, distances[i]);
+            longest = Math.max(longest, profiles[i].totalTime());
+        }
+
+        SynchronizedMotionProfile<TrapezoidalMotionProfile> profile = new SynchronizedMotionProfile<>(profiles);
+        double end = profile.totalTime();
+        assertThat(end, closeTo(longest, MathUtils.getFloatCompareThreshold()));
+
+        for (int i = 0; i < count; i++) {
+            assertThat(profile.position(i, 0), closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+            assertThat(profile.position(i, end), closeTo(distances[i], 1e-6 * Math.abs(distances[i])));
+            assertThat(profile.velocity(i, end), closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        }
+
+        double[][] values = new double[count][3];
+        for (int j = 0; j <= 1000; j++) {
+            double t = end * j / 1000;
+            profile.evaluate(t, values);
+            for (int i = 0; i < count; i++) {
+                double pos = profile.position(i, t);
+                double vel = profile.velocity(i, t);
+                double acl = profile.acceleration(i, t);
+
+                assertThat(values[i][0], closeTo(pos, MathUtils.getFloatCompareThreshold()));
+                assertThat(values[i][1], closeTo(vel, MathUtils.getFloatCompareThreshold()));
+                assertThat(values[i][2], closeTo(acl, MathUtils.getFloatCompareThreshold()));
+
+                assertThat("velocity should be within the limit", Math.abs(vel),
+                        either(lessThan(maxV)).or(closeTo(maxV, MathUtils.getFloatCompareThreshold())));
+                assertThat("acceleration should be within the limit", Math.abs(acl),
+                        either(lessThan(maxA)).or(closeTo(maxA, MathUtils.getFloatCompareThreshold())));
+            }
+        }
+    }
+
+    /**
+     * Performs testing on updating a {@link DynamicSynchronizedMotionProfile}.
+     *
+     * This test creates a {@link DynamicSynchronizedMotionProfile} with two axes,
+     * and updates it halfway through with one of the axes behind where it should
+     * be. It then asserts that the updated profile starts from the given state,
+     * and that both axes still end at their distances at the same time.
+     */
+    @Test
+    public void testDynamicSynchronizedMotionProfileUpdate() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        double distance0 = helper.getDouble("distance0", 1, 1000);
+        double distance1 = helper.getDouble("distance1", 1, 1000);
+        RobotSpecs specs = new RobotSpecs(maxV, maxA);
+
+        DynamicSynchronizedMotionProfile<TrapezoidalMotionProfile> profile = new DynamicSynchronizedMotionProfile<>(
+                new TrapezoidalMotionProfile(specs, distance0), new TrapezoidalMotionProfile(specs, distance1));
+        double t = profile.totalTime() / 2;
+        // Pretend the first axis is behind
+        double[] pos = { profile.position(0, t) * 0.9, profile.position(1, t) };
+        double[] vel = { profile.velocity(0, t) * 0.9, profile.velocity(1, t) };
+        double[] acl = { profile.acceleration(0, t), profile.acceleration(1, t) };
+        profile.update(t, pos, vel, acl);
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(profile.position(i, t), closeTo(pos[i], MathUtils.getFloatCompareThreshold()));
+            assertThat("velocity should be within the limit", Math.abs(profile.velocity(i, t)),
+                    either(lessThan(maxV)).or(closeTo(maxV, MathUtils.getFloatCompareThreshold())));
+        }
+        double end = profile.totalTime();
+        assertThat(profile.position(0, end), closeTo(distance0, 1e-6 * distance0));
+        assertThat(profile.position(1, end), closeTo(distance1, 1e-6 * distance1));
+        assertThat(profile.velocity(0, end), closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        assertThat(profile.velocity(1, end), closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        // At least one axis must not be slowed down
+        assertThat(Math.max(profile.getScale(0), profile.getScale(1)),
+                closeTo(1.0, MathUtils.getFloatCompareThreshold()));
+    }
+}
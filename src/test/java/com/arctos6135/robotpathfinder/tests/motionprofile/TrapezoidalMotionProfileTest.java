@@ -327,4 +327,43 @@ public class TrapezoidalMotionProfileTest {
 
         TestHelper.assertAllFieldsEqual(profile, copiedProfile);
     }
+
+    /**
+     * Performs testing on
+     * {@link TrapezoidalMotionProfile#evaluate(double, double[])}.
+     * 
+     * This test constructs a {@link TrapezoidalMotionProfile} with a random
+     * distance that can be negative, and updates it with a set of randomly
+     * generated values. It then loops through 100 points in time and asserts that
+     * the values from {@code evaluate()} are the same as the ones from
+     * {@code position()}, {@code velocity()} and {@code acceleration()}.
+     */
+    @Test
+    public void testTrapezoidalMotionProfileEvaluate() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1000);
+        double maxA = helper.getDouble("maxA", 1000);
+        double distance = helper.getDouble("distance", -1000, 1000);
+        RobotSpecs specs = new RobotSpecs(maxV, maxA);
+
+        DynamicMotionProfile profile = new TrapezoidalMotionProfile(specs, distance);
+        double updateTime = helper.getDouble("updateTime", profile.totalTime());
+        double updatePos = helper.getDouble("updatePos", -1000, 1000);
+        double updateVel = helper.getDouble("updateVel", -maxV, maxV);
+        profile.update(updateTime, updatePos, updateVel, 0);
+
+        double[] values = new double[3];
+        double dt = (profile.totalTime() - updateTime) / 100;
+        for (int i = 0; i <= 100; i++) {
+            double t = updateTime + dt * i;
+            profile.evaluate(t, values);
+            assertThat("Position should match", values[0],
+                    closeTo(profile.position(t), MathUtils.getFloatCompareThreshold()));
+            assertThat("Velocity should match", values[1],
+                    closeTo(profile.velocity(t), MathUtils.getFloatCompareThreshold()));
+            assertThat("Acceleration should match", values[2],
+                    closeTo(profile.acceleration(t), MathUtils.getFloatCompareThreshold()));
+        }
+    }
 }
@@ -0,0 +1,95 @@
+package com.arctos6135.robotpathfinder.tests.motionprofile.followable.profiles;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.junit.Assert.assertThat;
+
+import com.arctos6135.robotpathfinder.core.RobotSpecs;
+import com.arctos6135.robotpathfinder.core.trajectory.TankDriveMoment;
+import com.arctos6135.robotpathfinder.follower.DynamicFollowable;
+import com.arctos6135.robotpathfinder.math.MathUtils;
+import com.arctos6135.robotpathfinder.motionprofile.followable.profiles.SCurveTankDriveProfile;
+import com.arctos6135.robotpathfinder.tests.TestHelper;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+/**
+ * This class contains tests for {@link SCurveTankDriveProfile}.
+ *
+ * @author Tyler Tian
+ */
+public class SCurveTankDriveProfileTest {
+
+    @Rule
+    public TestName testName = new TestName();
+
+    /**
+     * Performs basic testing on {@link SCurveTankDriveProfile}.
+     *
+     * This test creates a {@link SCurveTankDriveProfile} and asserts that both
+     * sides start and end at rest with no acceleration, and end at the specified
+     * position.
+     */
+    @Test
+    public void testSCurveTankDriveProfile() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        double maxJ = helper.getDouble("maxJ", 1, 1000);
+        double distance = helper.getDouble("distance", -1000, 1000);
+
+        RobotSpecs specs = new RobotSpecs(maxV, maxA, Double.NaN, maxJ);
+
+        SCurveTankDriveProfile f = new SCurveTankDriveProfile(specs, distance);
+        TankDriveMoment begin = f.get(0);
+        TankDriveMoment end = f.get(f.totalTime());
+        assertThat(begin.getLeftPosition(), closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        assertThat(begin.getRightPosition(), closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        assertThat(end.getLeftPosition(), closeTo(distance, MathUtils.getFloatCompareThreshold()));
+        assertThat(end.getRightPosition(), closeTo(distance, MathUtils.getFloatCompareThreshold()));
+        assertThat(begin.getLeftAcceleration(), closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        assertThat(end.getRightAcceleration(), closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+        assertThat(end.getLeftVelocity(), closeTo(0.0, MathUtils.getFloatCompareThreshold()));
+    }
+
+    /**
+     * Performs testing on updating a {@link SCurveTankDriveProfile}.
+     *
+     * This test creates a {@link SCurveTankDriveProfile}, updates it through
+     * {@link DynamicFollowable#update(com.arctos6135.robotpathfinder.core.trajectory.Moment)}
+     * with a moment halfway through, and asserts that the updated profile starts
+     * from that moment and still ends at the specified position.
+     */
+    @Test
+    public void testSCurveTankDriveProfileUpdate() {
+        TestHelper helper = new TestHelper(getClass(), testName);
+
+        double maxV = helper.getDouble("maxV", 1, 1000);
+        double maxA = helper.getDouble("maxA", 1, 1000);
+        double maxJ = helper.getDouble("maxJ", 1, 1000);
+        double distance = helper.getDouble("distance", 1, 1000);
+
+        RobotSpecs specs = new RobotSpecs(maxV, maxA, Double.NaN, maxJ);
+
+        SCurveTankDriveProfile f = new SCurveTankDriveProfile(specs, distance);
+        double t = f.totalTime() / 2;
+        TankDriveMoment m = f.get(t);
+        // Pretend the left side is behind
+        TankDriveMoment actual = new TankDriveMoment(m.getLeftPosition() * 0.9, m.getRightPosition(),
+                m.getLeftVelocity() * 0.9, m.getRightVelocity(), m.getLeftAcceleration(), m.getRightAcceleration(),
+                m.getHeading(), t, m.getInitialFacing());
+        f.update(actual);
+
+        TankDriveMoment start = f.get(t);
+        assertThat(start.getLeftPosition(), closeTo(actual.getLeftPosition(), MathUtils.getFloatCompareThreshold()));
+        assertThat(start.getLeftVelocity(), closeTo(actual.getLeftVelocity(), MathUtils.getFloatCompareThreshold()));
+        assertThat(start.getLeftAcceleration(),
+                closeTo(actual.getLeftAcceleration(), MathUtils.getFloatCompareThreshold()));
+
+        TankDriveMoment end = f.get(f.totalTime());
+        assertThat(end.getLeftPosition(), closeTo(distance, MathUtils.getFloatCompareThreshold()));
+        assertThat(end.getRightPosition(), closeTo(distance, MathUtils.getFloatCompareThreshold()));
+    }
+}